@@ -0,0 +1,95 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackResponse;
+
+/**
+ * Script to fill in the sections attribute of feedback responses, which holds
+ * the giver and receiver sections so that responses in a section can be queried at once.
+ *
+ * Responses are processed course by course, and only responses without sections are modified.
+ * This script must be run before the version that queries by sections is deployed,
+ * otherwise responses created before that version will not show up in section views.
+ */
+public class DataMigrationForFeedbackResponseSections extends RemoteApiClient {
+
+    private CoursesDb coursesDb = new CoursesDb();
+
+    // modify this value to choose to update responses for all courses or a specific course
+    private final boolean isForAllCourses = true;
+
+    // modify for preview
+    private final boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        final long startTime = System.currentTimeMillis();
+
+        DataMigrationForFeedbackResponseSections migrator = new DataMigrationForFeedbackResponseSections();
+        migrator.doOperationRemotely();
+
+        final long endTime = System.currentTimeMillis();
+        System.out.println("Total execution time: " + (endTime - startTime) + "ms");
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        if (isForAllCourses) {
+            migrateAllCourses();
+        } else {
+            migrateCourse("Course ID"); // course info
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void migrateAllCourses() {
+        List<CourseAttributes> courses = coursesDb.getAllCourses();
+        for (CourseAttributes course : courses) {
+            migrateCourse(course.id);
+        }
+    }
+
+    /* Operation for a specific course */
+    private void migrateCourse(String courseId) {
+        PersistenceManager pm = Datastore.getPersistenceManager();
+
+        Query q = pm.newQuery(FeedbackResponse.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> responses = (List<FeedbackResponse>) q.execute(courseId);
+
+        int numberOfResponsesToMigrate = 0;
+        for (FeedbackResponse response : responses) {
+            if (response.getSections() != null && !response.getSections().isEmpty()) {
+                continue;
+            }
+            numberOfResponsesToMigrate++;
+            if (!isPreview) {
+                response.updateSections();
+            }
+        }
+
+        if (isPreview) {
+            System.out.println("Modifying : [" + courseId + "] " + numberOfResponsesToMigrate + " responses");
+            return;
+        }
+
+        // Flush the modified responses
+        pm.close();
+        System.out.println("Successfully updated sections of " + numberOfResponsesToMigrate
+                           + " responses in course " + courseId);
+    }
+
+}
@@ -9,6 +9,7 @@ import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.logic.api.Logic;
+import teammates.storage.api.FeedbackSessionRespondentsDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.datastore.Datastore;
 
@@ -16,6 +17,7 @@ public class DataMigrationForResponseRate extends RemoteApiClient {
     
     private Logic logic = new Logic();
     private FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private FeedbackSessionRespondentsDb respondentsDb = new FeedbackSessionRespondentsDb();
     
     
     // modify this value to choose to update respondants for all sessions or a specific session
@@ -67,8 +69,12 @@ public class DataMigrationForResponseRate extends RemoteApiClient {
         
         List<FeedbackSessionAttributes> feedbackSessionsWithNoRespondants = new ArrayList<FeedbackSessionAttributes>();
         
-        for(FeedbackSessionAttributes feedbackSession : feedbackSessions) {
-            if (feedbackSession.respondingStudentList.size() != 0 || feedbackSession.respondingInstructorList.size() != 0) {
+        // respondents are kept in the session lists and in the respondent entities
+        List<Integer> numOfRespondents = respondentsDb.getNumOfRespondents(feedbackSessions);
+        for (int i = 0; i < feedbackSessions.size(); i++) {
+            FeedbackSessionAttributes feedbackSession = feedbackSessions.get(i);
+            if (feedbackSession.respondingStudentList.size() != 0 || feedbackSession.respondingInstructorList.size() != 0
+                    || numOfRespondents.get(i) != 0) {
                 continue;
             }
             
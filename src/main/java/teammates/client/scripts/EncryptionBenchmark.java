@@ -0,0 +1,139 @@
+package teammates.client.scripts;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import teammates.common.util.Config;
+import teammates.common.util.StringHelper;
+
+/**
+ * Script to measure the time saved per encryption and decryption of a registration key
+ * by reusing the ciphers of each thread in {@link StringHelper#encrypt(String)} and
+ * {@link StringHelper#decrypt(String)}, instead of looking up a cipher and parsing
+ * the key from {@link Config#ENCRYPTION_KEY} for every value.
+ * <br> Each mode is warmed up with {@link #NUM_OF_WARMUP_OPERATIONS} values before
+ * {@link #NUM_OF_OPERATIONS} values are timed, in each of {@link #NUM_OF_ROUNDS} rounds.
+ * The average time of an operation in each round is printed.
+ */
+public class EncryptionBenchmark {
+
+    private static final int NUM_OF_ROUNDS = 5;
+    private static final int NUM_OF_WARMUP_OPERATIONS = 10000;
+    private static final int NUM_OF_OPERATIONS = 100000;
+
+    // a registration key is the encrypted id of a student or instructor entity
+    private static final String VALUE = "5629499534213120";
+
+    public static void main(String[] args) throws Exception {
+        String encryptedValue = StringHelper.encrypt(VALUE);
+        for (int round = 1; round <= NUM_OF_ROUNDS; round++) {
+            System.out.println("Round " + round + ":");
+            System.out.println("  per-call ciphers, encrypt: " + timeEncryptPerCall() + " ns");
+            System.out.println("  reused ciphers, encrypt:   " + timeEncrypt() + " ns");
+            System.out.println("  per-call ciphers, decrypt: " + timeDecryptPerCall(encryptedValue) + " ns");
+            System.out.println("  reused ciphers, decrypt:   " + timeDecrypt(encryptedValue) + " ns");
+        }
+    }
+
+    private static long timeEncrypt() {
+        int checksum = 0;
+        for (int i = 0; i < NUM_OF_WARMUP_OPERATIONS; i++) {
+            checksum += StringHelper.encrypt(VALUE).length();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            checksum += StringHelper.encrypt(VALUE).length();
+        }
+        return getAverageDuration(startTime, checksum);
+    }
+
+    private static long timeDecrypt(String encryptedValue) {
+        int checksum = 0;
+        for (int i = 0; i < NUM_OF_WARMUP_OPERATIONS; i++) {
+            checksum += StringHelper.decrypt(encryptedValue).length();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            checksum += StringHelper.decrypt(encryptedValue).length();
+        }
+        return getAverageDuration(startTime, checksum);
+    }
+
+    private static long timeEncryptPerCall() throws Exception {
+        int checksum = 0;
+        for (int i = 0; i < NUM_OF_WARMUP_OPERATIONS; i++) {
+            checksum += encryptPerCall(VALUE).length();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            checksum += encryptPerCall(VALUE).length();
+        }
+        return getAverageDuration(startTime, checksum);
+    }
+
+    private static long timeDecryptPerCall(String encryptedValue) throws Exception {
+        int checksum = 0;
+        for (int i = 0; i < NUM_OF_WARMUP_OPERATIONS; i++) {
+            checksum += decryptPerCall(encryptedValue).length();
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < NUM_OF_OPERATIONS; i++) {
+            checksum += decryptPerCall(encryptedValue).length();
+        }
+        return getAverageDuration(startTime, checksum);
+    }
+
+    private static long getAverageDuration(long startTime, int checksum) {
+        long duration = System.nanoTime() - startTime;
+        // uses the results, so that the timed operations are not optimised away
+        if (checksum == 0) {
+            System.out.println("  (no output)");
+        }
+        return duration / NUM_OF_OPERATIONS;
+    }
+
+    /**
+     * Encrypts the value as {@link StringHelper#encrypt(String)} did before its ciphers were reused.
+     */
+    private static String encryptPerCall(String value) throws Exception {
+        SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, sks, cipher.getParameters());
+        byte[] encrypted = cipher.doFinal(value.getBytes());
+        return byteArrayToHexString(encrypted);
+    }
+
+    /**
+     * Decrypts the value as {@link StringHelper#decrypt(String)} did before its ciphers were reused.
+     */
+    private static String decryptPerCall(String message) throws Exception {
+        SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, sks);
+        byte[] decrypted = cipher.doFinal(hexStringToByteArray(message));
+        return new String(decrypted);
+    }
+
+    private static String byteArrayToHexString(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (int i = 0; i < b.length; i++) {
+            int v = b[i] & 0xff;
+            if (v < 16) {
+                sb.append('0');
+            }
+            sb.append(Integer.toHexString(v));
+        }
+        return sb.toString().toUpperCase();
+    }
+
+    private static byte[] hexStringToByteArray(String s) {
+        byte[] b = new byte[s.length() / 2];
+        for (int i = 0; i < b.length; i++) {
+            int index = i * 2;
+            int v = Integer.parseInt(s.substring(index, index + 2), 16);
+            b[i] = (byte) v;
+        }
+        return b;
+    }
+
+}
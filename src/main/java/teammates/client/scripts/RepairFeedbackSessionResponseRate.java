@@ -21,6 +21,7 @@ import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.logic.api.Logic;
+import teammates.storage.api.FeedbackSessionRespondentsDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.datastore.Datastore;
 import teammates.storage.entity.FeedbackSession;
@@ -32,7 +33,8 @@ import teammates.storage.entity.FeedbackSession;
  * <li> feedback sessions with start date within a specified range, </li> 
  * <li> or a specified feedback session, </li>
  * </ul>
- * and verifies that the non-respondents do not have a response in the feedback session. <br/>
+ * and verifies that the non-respondents do not have a response in the feedback session.
+ * The respondents are those in the lists of the session and those in {@link FeedbackSessionRespondentsDb}. <br/>
  * 
  * If isPreview is false, whenever an inconsistency is found, {@code logic.updateRespondants} will
  * be used to recompute the respondents' set.
@@ -42,6 +44,7 @@ public class RepairFeedbackSessionResponseRate extends RemoteApiClient {
 
     private Logic logic = new Logic();
     private FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private FeedbackSessionRespondentsDb respondentsDb = new FeedbackSessionRespondentsDb();
     
     // if isPreview is true, then no writes will be done 
     private boolean isPreview = true;
@@ -120,12 +123,16 @@ public class RepairFeedbackSessionResponseRate extends RemoteApiClient {
     private Set<String> getNonRespondentsForFeedbackSession(
                                     FeedbackSessionAttributes feedbackSession) throws EntityDoesNotExistException {
         
-        // obtain the respondents first
+        // obtain the respondents first, from the session and from the respondent entities
         Set<String> respondingStudentsEmail = feedbackSession.respondingStudentList;                
         Set<String> respondingInstructorsEmail = feedbackSession.respondingInstructorList;
         
         Set<String> respondents = new HashSet<>(respondingInstructorsEmail);
         respondents.addAll(respondingStudentsEmail);
+        respondents.addAll(respondentsDb.getRespondents(feedbackSession.feedbackSessionName,
+                                                        feedbackSession.courseId, false));
+        respondents.addAll(respondentsDb.getRespondents(feedbackSession.feedbackSessionName,
+                                                        feedbackSession.courseId, true));
         
         
         Set<String> nonRespondentsEmails;
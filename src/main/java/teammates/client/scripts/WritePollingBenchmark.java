@@ -0,0 +1,72 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.exception.EntityAlreadyExistsException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Config;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.datastore.Datastore;
+
+/**
+ * Script to measure the time saved per write by not polling until the write is
+ * visible to queries (see "app.persistence.pollafterwrites" in build.properties).
+ * <br> Creates and deletes {@link #NUM_OF_WRITES} courses, with and without polling,
+ * and prints the average time of a create and of a delete in each mode.
+ * <br> The courses are created with the id prefix {@link #COURSE_ID_PREFIX}, which
+ * should not be used by any existing course.
+ */
+public class WritePollingBenchmark extends RemoteApiClient {
+
+    private static final int NUM_OF_WRITES = 20;
+    private static final String COURSE_ID_PREFIX = "WritePollingBenchmark.course";
+
+    private CoursesDb coursesDb = new CoursesDb();
+
+    public static void main(String[] args) throws IOException {
+        WritePollingBenchmark benchmark = new WritePollingBenchmark();
+        benchmark.doOperationRemotely();
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        boolean wasPollingAfterWrites = Config.IS_POLLING_AFTER_WRITES;
+        try {
+            runBenchmark(true);
+            runBenchmark(false);
+        } catch (EntityAlreadyExistsException | InvalidParametersException e) {
+            e.printStackTrace();
+        } finally {
+            Config.IS_POLLING_AFTER_WRITES = wasPollingAfterWrites;
+        }
+    }
+
+    private void runBenchmark(boolean isPollingAfterWrites)
+            throws EntityAlreadyExistsException, InvalidParametersException {
+        Config.IS_POLLING_AFTER_WRITES = isPollingAfterWrites;
+
+        long createDuration = 0;
+        long deleteDuration = 0;
+        for (int i = 0; i < NUM_OF_WRITES; i++) {
+            CourseAttributes course = new CourseAttributes(COURSE_ID_PREFIX + i, "Write Polling Benchmark");
+
+            long startTime = System.currentTimeMillis();
+            coursesDb.createEntity(course);
+            createDuration += System.currentTimeMillis() - startTime;
+
+            startTime = System.currentTimeMillis();
+            coursesDb.deleteEntity(course);
+            deleteDuration += System.currentTimeMillis() - startTime;
+        }
+
+        System.out.println((isPollingAfterWrites ? "With" : "Without") + " polling after writes"
+                           + " (up to " + Config.PERSISTENCE_CHECK_DURATION + " ms):");
+        System.out.println("  average create: " + (createDuration / NUM_OF_WRITES) + " ms");
+        System.out.println("  average delete: " + (deleteDuration / NUM_OF_WRITES) + " ms");
+    }
+
+}
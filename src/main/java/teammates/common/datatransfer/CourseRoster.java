@@ -4,6 +4,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+
+import teammates.common.util.Const;
 
 /**
  * Contains a list of students and instructors in a course. Useful for caching
@@ -14,6 +17,8 @@ public class CourseRoster {
     
     Map<String, StudentAttributes> studentListByEmail = new HashMap<String, StudentAttributes>();
     Map<String, InstructorAttributes> instructorListByEmail = new HashMap<String, InstructorAttributes>();
+    Map<String, List<StudentAttributes>> studentListByTeam = new TreeMap<String, List<StudentAttributes>>();
+    Map<String, String> sectionByTeam = new HashMap<String, String>();
     
     public CourseRoster(List<StudentAttributes> students, List<InstructorAttributes> instructors){
         populateStuentListByEmail(students);
@@ -52,6 +57,29 @@ public class CourseRoster {
         return instructorListByEmail.get(email);
     }
     
+    /**
+     * @return the names of the teams in the course, sorted by name.
+     */
+    public List<String> getTeamNames() {
+        return new ArrayList<String>(studentListByTeam.keySet());
+    }
+    
+    /**
+     * @return the students in the team, or an empty list if there is no such team.
+     */
+    public List<StudentAttributes> getStudentsForTeam(String teamName) {
+        List<StudentAttributes> students = studentListByTeam.get(teamName);
+        return students == null ? new ArrayList<StudentAttributes>() : new ArrayList<StudentAttributes>(students);
+    }
+    
+    /**
+     * @return the section of the team, or {@link Const#DEFAULT_SECTION} if there is no such team.
+     */
+    public String getSectionForTeam(String teamName) {
+        String section = sectionByTeam.get(teamName);
+        return section == null ? Const.DEFAULT_SECTION : section;
+    }
+    
     private void populateStuentListByEmail(List<StudentAttributes> students) {
         
         if (students == null){
@@ -61,6 +89,19 @@ public class CourseRoster {
         for (StudentAttributes s: students) {
             studentListByEmail.put(s.email, s);
         }
+        
+        for (StudentAttributes s: studentListByEmail.values()) {
+            if (s.team == null) {
+                continue;
+            }
+            List<StudentAttributes> studentsInTeam = studentListByTeam.get(s.team);
+            if (studentsInTeam == null) {
+                studentsInTeam = new ArrayList<StudentAttributes>();
+                studentListByTeam.put(s.team, studentsInTeam);
+                sectionByTeam.put(s.team, s.section);
+            }
+            studentsInTeam.add(s);
+        }
     }
     
     private void populateInstructorListByEmail(List<InstructorAttributes> instructors) {
@@ -0,0 +1,186 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.FieldValidator.FieldType;
+import teammates.common.util.Utils;
+import teammates.storage.entity.CourseStatistics;
+
+import com.google.appengine.api.datastore.Text;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * The data transfer object for {@link CourseStatistics} entities.
+ * <br> The statistics keep the number of students in every team of every section,
+ * so that a team or a section stops being counted when its last student leaves.
+ * Statistics without counts represent ones that have been invalidated
+ * and are waiting to be rebuilt from the students of the course.
+ */
+public class CourseStatisticsAttributes extends EntityAttributes {
+
+    public String courseId;
+    public Counts counts;
+    public Date updatedAt;
+
+    public CourseStatisticsAttributes(String courseId, Collection<StudentAttributes> students) {
+        this.courseId = courseId;
+        this.counts = new Counts();
+        this.updatedAt = new Date();
+        for (StudentAttributes student : students) {
+            addStudent(student);
+        }
+    }
+
+    public CourseStatisticsAttributes(CourseStatistics statistics) {
+        this.courseId = statistics.getCourseId();
+        this.counts = parse(statistics.getCounts());
+        this.updatedAt = statistics.getUpdatedAt();
+    }
+
+    /**
+     * @return true if the statistics count the current students of the course.
+     */
+    public boolean isUpToDate() {
+        return counts != null;
+    }
+
+    public void addStudent(StudentAttributes student) {
+        Map<String, Integer> teamSizes = counts.teamSizesBySection.get(student.section);
+        if (teamSizes == null) {
+            teamSizes = new HashMap<String, Integer>();
+            counts.teamSizesBySection.put(student.section, teamSizes);
+        }
+        Integer teamSize = teamSizes.get(student.team);
+        teamSizes.put(student.team, teamSize == null ? 1 : teamSize + 1);
+
+        if (!student.isRegistered()) {
+            counts.unregisteredTotal++;
+        }
+    }
+
+    /**
+     * Removes a student counted by {@link #addStudent}. The team and the section
+     * of the student are no longer counted if the student is their last member.
+     */
+    public void removeStudent(StudentAttributes student) {
+        Map<String, Integer> teamSizes = counts.teamSizesBySection.get(student.section);
+        Integer teamSize = teamSizes == null ? null : teamSizes.get(student.team);
+        if (teamSize == null) {
+            // the student was not counted, so the counts are left as they are
+            return;
+        }
+
+        if (teamSize > 1) {
+            teamSizes.put(student.team, teamSize - 1);
+        } else {
+            teamSizes.remove(student.team);
+            if (teamSizes.isEmpty()) {
+                counts.teamSizesBySection.remove(student.section);
+            }
+        }
+
+        if (!student.isRegistered()) {
+            counts.unregisteredTotal--;
+        }
+    }
+
+    public CourseStats getCourseStats() {
+        CourseStats stats = new CourseStats();
+        for (Map.Entry<String, Map<String, Integer>> section : counts.teamSizesBySection.entrySet()) {
+            if (!section.getKey().equals(Const.DEFAULT_SECTION)) {
+                stats.sectionsTotal++;
+            }
+            stats.teamsTotal += section.getValue().size();
+            for (int teamSize : section.getValue().values()) {
+                stats.studentsTotal += teamSize;
+            }
+        }
+        stats.unregisteredTotal = counts.unregisteredTotal;
+        return stats;
+    }
+
+    /**
+     * @return the counts as JSON, or null if the statistics are not up to date.
+     */
+    public Text getCountsAsText() {
+        return isUpToDate() ? new Text(new Gson().toJson(counts)) : null;
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+
+        String error = validator.getInvalidityInfo(FieldType.COURSE_ID, courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public Object toEntity() {
+        return new CourseStatistics(courseId, getCountsAsText(), updatedAt);
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return courseId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Course Statistics";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, CourseStatisticsAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // The course id is copied from already sanitized students.
+    }
+
+    @Override
+    public String toString() {
+        return "CourseStatisticsAttributes [courseId=" + courseId + ", updatedAt=" + updatedAt
+               + ", counts=" + (isUpToDate() ? getCountsAsText().getValue() : "invalidated") + "]";
+    }
+
+    private static Counts parse(Text counts) {
+        if (counts == null) {
+            return null;
+        }
+        try {
+            return new Gson().fromJson(counts.getValue(), Counts.class);
+        } catch (JsonParseException e) {
+            // Corrupted counts are treated as invalidated ones
+            return null;
+        }
+    }
+
+    /**
+     * The counts stored in a {@link CourseStatistics} entity.
+     */
+    public static class Counts {
+        /** Number of students in each team, by section and then by team. */
+        public Map<String, Map<String, Integer>> teamSizesBySection = new HashMap<String, Map<String, Integer>>();
+        public int unregisteredTotal = 0;
+    }
+}
@@ -0,0 +1,91 @@
+package teammates.common.datatransfer;
+
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import teammates.common.util.StringHelper;
+
+/**
+ * Represents the occurrences of the error logs that share a fingerprint,
+ * i.e. the type of the error and the location in the code that it is thrown from.
+ * <br> Contains:
+ * <br> * The number of occurrences, and when the first and the last of them were logged.
+ * <br> * The message of one of the occurrences, as a sample.
+ */
+public class ErrorLogSummary {
+
+    /** The maximum length of a fingerprint, which is kept within the length of a datastore key */
+    public static final int MAX_FINGERPRINT_LENGTH = 400;
+    public static final int MAX_SAMPLE_MESSAGE_LENGTH = 2000;
+
+    private static final String UNKNOWN_LOCATION = "unknown location";
+
+    private static final Pattern ERROR_TYPE_PATTERN =
+            Pattern.compile("(?:[a-zA-Z_$][\\w$]*\\.)+[A-Z][\\w$]*(?:Exception|Error)");
+    private static final Pattern STACK_FRAME_PATTERN = Pattern.compile("at\\s+([\\w$.<>]+\\([^)]*\\))");
+
+    public String fingerprint;
+    public String errorType;
+    public String location;
+    public String sampleMessage;
+    public long count;
+    public Date firstSeenAt;
+    public Date lastSeenAt;
+
+    public ErrorLogSummary(String errorType, String location, String sampleMessage, long count,
+                           Date firstSeenAt, Date lastSeenAt) {
+        this.fingerprint = StringHelper.truncate(errorType + " at " + location, MAX_FINGERPRINT_LENGTH);
+        this.errorType = errorType;
+        this.location = location;
+        this.sampleMessage = StringHelper.truncate(sampleMessage, MAX_SAMPLE_MESSAGE_LENGTH);
+        this.count = count;
+        this.firstSeenAt = firstSeenAt;
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    /**
+     * Creates the summary of a single error log.
+     * <br> The type of the error is the first exception or error class named in the message,
+     * and the location is the first stack frame in the TEAMMATES code, or else the first stack frame.
+     * Messages without an exception are fingerprinted by their first line, with numbers masked,
+     * so that messages that only differ in ids or times share a fingerprint.
+     */
+    public static ErrorLogSummary fromLogMessage(String logLevel, String message, Date loggedAt) {
+        Matcher errorTypeMatcher = ERROR_TYPE_PATTERN.matcher(message);
+        String errorType = errorTypeMatcher.find()
+                         ? errorTypeMatcher.group()
+                         : logLevel + ": " + message.split("\\r?\\n|<br\\s*/?>", 2)[0].replaceAll("\\d+", "#");
+
+        String location = null;
+        Matcher stackFrameMatcher = STACK_FRAME_PATTERN.matcher(message);
+        while (stackFrameMatcher.find()) {
+            String stackFrame = stackFrameMatcher.group(1);
+            if (location == null) {
+                location = stackFrame;
+            }
+            if (stackFrame.startsWith("teammates.")) {
+                location = stackFrame;
+                break;
+            }
+        }
+
+        return new ErrorLogSummary(errorType, location == null ? UNKNOWN_LOCATION : location,
+                                   message, 1, loggedAt, loggedAt);
+    }
+
+    /**
+     * Adds the occurrences of {@code other}, which has the same fingerprint, to this summary.
+     * The sample message of the later occurrence is kept.
+     */
+    public void add(ErrorLogSummary other) {
+        count += other.count;
+        if (other.firstSeenAt.before(firstSeenAt)) {
+            firstSeenAt = other.firstSeenAt;
+        }
+        if (other.lastSeenAt.after(lastSeenAt)) {
+            lastSeenAt = other.lastSeenAt;
+            sampleMessage = other.sampleMessage;
+        }
+    }
+}
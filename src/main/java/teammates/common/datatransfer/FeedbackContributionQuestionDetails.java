@@ -3,6 +3,7 @@ package teammates.common.datatransfer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -574,13 +575,11 @@ public class FeedbackContributionQuestionDetails extends FeedbackQuestionDetails
     private List<String> getTeamsWithAtLeastOneResponse(
             List<FeedbackResponseAttributes> responses,
             FeedbackSessionResultsBundle bundle) {
-        List<String> teamNames = new ArrayList<String>();
+        Set<String> teamNames = new LinkedHashSet<String>();
         for(FeedbackResponseAttributes response : responses){
-            if(!teamNames.contains(bundle.getTeamNameForEmail(response.giverEmail))){
-                teamNames.add(bundle.getTeamNameForEmail(response.giverEmail));
-            }
+            teamNames.add(bundle.getTeamNameForEmail(response.giverEmail));
         }
-        return teamNames;
+        return new ArrayList<String>(teamNames);
     }
 
     private List<FeedbackResponseAttributes> getActualResponses(
@@ -65,6 +65,17 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     */
     public Map<String, Set<String>> sectionTeamNameTable = null;
 
+    /*
+     * The views of the responses are built once and shared by later calls, as the results page
+     * and the per-student tables ask for the same views repeatedly. They are rebuilt when
+     * the responses are replaced, e.g. when they are filtered to those with comments.
+     */
+    private transient List<FeedbackResponseAttributes> indexedResponses = null;
+    private transient int indexedResponsesSize = 0;
+    private transient Map<String, Object> responseViews = new HashMap<String, Object>();
+    // Key is the email of a participant, value is the team name, or the name if there is no team
+    private transient Map<String, String> teamSortKeys = new HashMap<String, String>();
+
     public FeedbackSessionResultsBundle(FeedbackSessionAttributes feedbackSession,
                                         List<FeedbackResponseAttributes> responses,
                                         Map<String, FeedbackQuestionAttributes> questions,
@@ -935,6 +946,21 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         }
     }
 
+    /**
+     * Gets the team name of the participant, or the name if the participant has no team,
+     * which is what the responses are grouped and sorted by when they are grouped by team.
+     * <br> The key is worked out once per participant, rather than in every comparison of a sort.
+     */
+    private String getTeamSortKey(String email) {
+        String teamSortKey = teamSortKeys.get(email);
+        if (teamSortKey == null) {
+            String teamName = getTeamNameForEmail(email);
+            teamSortKey = teamName.equals("") ? getNameForEmail(email) : teamName;
+            teamSortKeys.put(email, teamSortKey);
+        }
+        return teamSortKey;
+    }
+
     /**
      * Returns displayable email if the email of a giver/recipient in the course
      * and it is allowed to be displayed. 
@@ -1038,6 +1064,67 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                                                   .questionText);
     }
 
+    /**
+     * @return the view of the responses built by an earlier call with {@code viewName},
+     *         or null if there is none or the responses have been replaced since.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getCachedResponseView(String viewName) {
+        if (responses != indexedResponses || responses.size() != indexedResponsesSize) {
+            responseViews.clear();
+            teamSortKeys.clear();
+            indexedResponses = responses;
+            indexedResponsesSize = responses.size();
+        }
+        return (T) responseViews.get(viewName);
+    }
+
+    /**
+     * Keeps an unmodifiable copy of {@code view} for later calls with {@code viewName}.
+     * The copy is shared by these calls, so neither the map nor its lists can be changed.
+     */
+    private <K> Map<K, List<FeedbackResponseAttributes>> cacheResponseView(
+            String viewName, Map<K, List<FeedbackResponseAttributes>> view) {
+        Map<K, List<FeedbackResponseAttributes>> unmodifiableView = toUnmodifiableView(view);
+        responseViews.put(viewName, unmodifiableView);
+        return unmodifiableView;
+    }
+
+    /**
+     * Keeps an unmodifiable copy of {@code view} for later calls with {@code viewName}.
+     * The copy is shared by these calls, so neither the maps nor their lists can be changed.
+     */
+    private <K, L> Map<K, Map<L, List<FeedbackResponseAttributes>>> cacheNestedResponseView(
+            String viewName, Map<K, Map<L, List<FeedbackResponseAttributes>>> view) {
+        Map<K, Map<L, List<FeedbackResponseAttributes>>> unmodifiableView =
+                new LinkedHashMap<K, Map<L, List<FeedbackResponseAttributes>>>();
+        for (Map.Entry<K, Map<L, List<FeedbackResponseAttributes>>> entry : view.entrySet()) {
+            unmodifiableView.put(entry.getKey(), toUnmodifiableView(entry.getValue()));
+        }
+        unmodifiableView = Collections.unmodifiableMap(unmodifiableView);
+        responseViews.put(viewName, unmodifiableView);
+        return unmodifiableView;
+    }
+
+    private <K> Map<K, List<FeedbackResponseAttributes>> toUnmodifiableView(
+            Map<K, List<FeedbackResponseAttributes>> view) {
+        Map<K, List<FeedbackResponseAttributes>> unmodifiableView =
+                new LinkedHashMap<K, List<FeedbackResponseAttributes>>();
+        for (Map.Entry<K, List<FeedbackResponseAttributes>> entry : view.entrySet()) {
+            unmodifiableView.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(unmodifiableView);
+    }
+
+    /**
+     * @return a sorted copy of the responses, leaving the order of {@link #responses} as it is.
+     */
+    private List<FeedbackResponseAttributes> getSortedResponses(Comparator<FeedbackResponseAttributes> comparator) {
+        List<FeedbackResponseAttributes> sortedResponses = new ArrayList<FeedbackResponseAttributes>(responses);
+        Collections.sort(sortedResponses, comparator);
+        return sortedResponses;
+    }
+
     // TODO: make responses to the student calling this method always on top.
     /**
      * Gets the questions and responses in this bundle as a map. 
@@ -1052,6 +1139,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             return null;
         }
 
+        String viewName = "questionResponseMap";
+        Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> sortedMap =
                 new LinkedHashMap<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>();
         List<FeedbackQuestionAttributes> sortedQuestions = new ArrayList<>(questions.values());
@@ -1071,7 +1165,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             Collections.sort(responsesForQuestion, compareByGiverRecipient);
         }
 
-        return sortedMap;
+        return cacheResponseView(viewName, sortedMap);
     }
     
     public Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> getQuestionResponseMapSortedByRecipient() {
@@ -1079,6 +1173,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             return null;
         }
 
+        String viewName = "questionResponseMapSortedByRecipient";
+        Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> sortedMap =
                 new LinkedHashMap<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>();
 
@@ -1099,26 +1200,30 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             Collections.sort(responsesForQuestion, compareByRecipientNameEmailGiverNameEmail);
         }
 
-        return sortedMap;
+        return cacheResponseView(viewName, sortedMap);
     }
 
-    public LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>
+    public Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>
             getQuestionResponseMapByRecipientTeam() {
+        String viewName = "questionResponseMapByRecipientTeam";
+        Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
         Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> responsesForOneRecipient = null;
         List<FeedbackResponseAttributes> responsesForOneRecipientOneQuestion = null;
 
-        Collections.sort(responses, compareByTeamQuestionRecipientTeamGiver);
+        List<FeedbackResponseAttributes> sortedResponses = getSortedResponses(compareByTeamQuestionRecipientTeamGiver);
 
         String recipientTeam = null;
         String questionId = null;
 
-        for (FeedbackResponseAttributes response : responses) {
-            if (recipientTeam == null ||
-                    !(getTeamNameForEmail(response.recipientEmail).equals("")
-                            ? getNameForEmail(response.recipientEmail).equals(recipientTeam)
-                            : getTeamNameForEmail(response.recipientEmail).equals(recipientTeam))) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
+            if (recipientTeam == null || !getTeamSortKey(response.recipientEmail).equals(recipientTeam)) {
                 if (questionId != null && responsesForOneRecipientOneQuestion != null
                  && responsesForOneRecipient != null) {
                     responsesForOneRecipient.put(questions.get(questionId),
@@ -1128,10 +1233,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                     sortedMap.put(recipientTeam, responsesForOneRecipient);
                 }
                 responsesForOneRecipient = new LinkedHashMap<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>();
-                recipientTeam = getTeamNameForEmail(response.recipientEmail);
-                if (recipientTeam == "") {
-                    recipientTeam = getNameForEmail(response.recipientEmail);
-                }
+                recipientTeam = getTeamSortKey(response.recipientEmail);
                 questionId = null;
             }
             if (questionId == null || !response.feedbackQuestionId.equals(questionId)) {
@@ -1153,26 +1255,30 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             sortedMap.put(recipientTeam, responsesForOneRecipient);
         }
 
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
 
-    public LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>
+    public Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>
             getQuestionResponseMapByGiverTeam() {
+        String viewName = "questionResponseMapByGiverTeam";
+        Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
         LinkedHashMap<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> responsesFromOneGiver = null;
         List<FeedbackResponseAttributes> responsesFromOneGiverOneQuestion = null;
 
-        Collections.sort(responses, compareByTeamQuestionGiverTeamRecipient);
+        List<FeedbackResponseAttributes> sortedResponses = getSortedResponses(compareByTeamQuestionGiverTeamRecipient);
 
         String giverTeam = null;
         String questionId = null;
 
-        for (FeedbackResponseAttributes response : responses) {
-            if (giverTeam == null
-                    || !(getTeamNameForEmail(response.giverEmail).equals("")
-                            ? getNameForEmail(response.giverEmail).equals(giverTeam)
-                            : getTeamNameForEmail(response.giverEmail).equals(giverTeam))) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
+            if (giverTeam == null || !getTeamSortKey(response.giverEmail).equals(giverTeam)) {
                 if (questionId != null && responsesFromOneGiverOneQuestion != null
                  && responsesFromOneGiver != null) {
                     responsesFromOneGiver.put(questions.get(questionId),
@@ -1182,10 +1288,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                     sortedMap.put(giverTeam, responsesFromOneGiver);
                 }
                 responsesFromOneGiver = new LinkedHashMap<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>();
-                giverTeam = getTeamNameForEmail(response.giverEmail);
-                if (giverTeam == "") {
-                    giverTeam = getNameForEmail(response.giverEmail);
-                }
+                giverTeam = getTeamSortKey(response.giverEmail);
                 questionId = null;
             }
             if (questionId == null || !response.feedbackQuestionId.equals(questionId)) {
@@ -1207,7 +1310,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             sortedMap.put(giverTeam, responsesFromOneGiver);
         }
 
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
     
     /**
@@ -1218,22 +1321,26 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      */
     public Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>
             getResponsesSortedByRecipientQuestionGiver(boolean sortByTeam) {
+        String viewName = "responsesSortedByRecipientQuestionGiver" + sortByTeam;
+        Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
         Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> responsesForOneRecipient = null;
         List<FeedbackResponseAttributes> responsesForOneRecipientOneQuestion = null;
 
-        if (sortByTeam) {
-            Collections
-                    .sort(responses, compareByTeamRecipientQuestionTeamGiver);
-        } else {
-            Collections.sort(responses, compareByRecipientQuestionTeamGiver);
-        }
+        List<FeedbackResponseAttributes> sortedResponses =
+                getSortedResponses(sortByTeam ? compareByTeamRecipientQuestionTeamGiver
+                                              : compareByRecipientQuestionTeamGiver);
 
         String recipient = null;
         String questionId = null;
 
-        for (FeedbackResponseAttributes response : responses) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
             if (recipient == null || !response.recipientEmail.equals(recipient)) {
                 if (questionId != null && responsesForOneRecipientOneQuestion != null
                  && responsesForOneRecipient != null) {
@@ -1267,7 +1374,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             sortedMap.put(recipient, responsesForOneRecipient);
         }
 
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
 
     /**
@@ -1286,14 +1393,18 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
 
     public Map<String, Map<String, List<FeedbackResponseAttributes>>>
             getResponsesSortedByRecipient(boolean sortByTeam) {
+        String viewName = "responsesSortedByRecipient" + sortByTeam;
+        Map<String, Map<String, List<FeedbackResponseAttributes>>> cachedView = getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
         
-        if (sortByTeam) {
-            Collections.sort(responses, compareByTeamRecipientGiverQuestion);
-        } else {
-            Collections.sort(responses, compareByRecipientGiverQuestion);
-        }
+        List<FeedbackResponseAttributes> sortedResponses =
+                getSortedResponses(sortByTeam ? compareByTeamRecipientGiverQuestion
+                                              : compareByRecipientGiverQuestion);
         
         String prevGiver = null;
         String prevRecipient = null;
@@ -1307,7 +1418,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         Map<String, List<FeedbackResponseAttributes>> responsesToOneRecipient =
                 new LinkedHashMap<String, List<FeedbackResponseAttributes>>();
         
-        for (FeedbackResponseAttributes response : responses) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
             // New recipient, add response package to map.
             if (!(response.recipientEmail.equals(prevRecipient)) && prevRecipient != null) {
                 // Put previous giver responses into inner map.
@@ -1337,13 +1448,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             giverName = this.appendTeamNameToName(giverName, giverTeamName);
         }
         
-        if (!(responses.isEmpty())) {
+        if (!(sortedResponses.isEmpty())) {
             // Put responses for final giver
             responsesToOneRecipient.put(giverName, responsesFromOneGiverToOneRecipient);
             sortedMap.put(recipientName, responsesToOneRecipient);
         }
         
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
     
     /**
@@ -1357,13 +1468,20 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return The responses in this bundle sorted by recipient identifier > giver identifier > question number.
      * @see {@link getResponsesSortedByRecipient}. 
      */
-    public LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>
+    public Map<String, Map<String, List<FeedbackResponseAttributes>>>
             getResponsesSortedByRecipientGiverQuestion() {
+        String viewName = "responsesSortedByRecipientGiverQuestion";
+        Map<String, Map<String, List<FeedbackResponseAttributes>>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         
         LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
 
-        Collections.sort(responses, compareByTeamRecipientGiverQuestion);
+        List<FeedbackResponseAttributes> sortedResponses = getSortedResponses(compareByTeamRecipientGiverQuestion);
    
         
         String prevGiver = null;
@@ -1376,7 +1494,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         LinkedHashMap<String, List<FeedbackResponseAttributes>> responsesToOneRecipient =
                 new LinkedHashMap<String, List<FeedbackResponseAttributes>>();
         
-        for (FeedbackResponseAttributes response : responses) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
             // New recipient, add response package to map.
             if (!(response.recipientEmail.equals(prevRecipient)) && prevRecipient != null) {
                 // Put previous giver responses into inner map.
@@ -1402,13 +1520,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             giver = response.giverEmail;
         }
         
-        if (!(responses.isEmpty())) {
+        if (!(sortedResponses.isEmpty())) {
             // Put responses for final giver
             responsesToOneRecipient.put(giver, responsesFromOneGiverToOneRecipient);
             sortedMap.put(recipient, responsesToOneRecipient);
         }
         
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
 
     /**
@@ -1419,21 +1537,26 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      */
     public Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>
                 getResponsesSortedByGiverQuestionRecipient(boolean sortByTeam) {
+        String viewName = "responsesSortedByGiverQuestionRecipient" + sortByTeam;
+        Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> cachedView =
+                getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>>();
         Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> responsesFromOneGiver = null;
         List<FeedbackResponseAttributes> responsesFromOneGiverOneQuestion = null;
 
-        if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverQuestionTeamRecipient);
-        } else {
-            Collections.sort(responses, compareByGiverQuestionTeamRecipient);
-        }
+        List<FeedbackResponseAttributes> sortedResponses =
+                getSortedResponses(sortByTeam ? compareByTeamGiverQuestionTeamRecipient
+                                              : compareByGiverQuestionTeamRecipient);
 
         String giver = null;
         String questionId = null;
 
-        for (FeedbackResponseAttributes response : responses) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
             if (giver == null || !response.giverEmail.equals(giver)) {
                 if (questionId != null && responsesFromOneGiverOneQuestion != null
                  && responsesFromOneGiver != null) {
@@ -1467,7 +1590,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             sortedMap.put(giver, responsesFromOneGiver);
         }
 
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
     
     /**
@@ -1486,14 +1609,18 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
 
     public Map<String, Map<String, List<FeedbackResponseAttributes>>>
             getResponsesSortedByGiver(boolean sortByTeam) {
+        String viewName = "responsesSortedByGiver" + sortByTeam;
+        Map<String, Map<String, List<FeedbackResponseAttributes>>> cachedView = getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
         
-        if (sortByTeam) {
-            Collections.sort(responses, compareByTeamGiverRecipientQuestion);
-        } else {
-            Collections.sort(responses, compareByGiverRecipientQuestion);
-        }
+        List<FeedbackResponseAttributes> sortedResponses =
+                getSortedResponses(sortByTeam ? compareByTeamGiverRecipientQuestion
+                                              : compareByGiverRecipientQuestion);
         
         String prevRecipient = null;
         String prevGiver = null;
@@ -1507,7 +1634,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         Map<String, List<FeedbackResponseAttributes>> responsesFromOneGiver =
                 new LinkedHashMap<String, List<FeedbackResponseAttributes>>();
         
-        for (FeedbackResponseAttributes response : responses) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
             // New recipient, add response package to map.
             if (!(response.giverEmail.equals(prevGiver)) && prevGiver != null) {
                 // Put previous recipient responses into inner map.
@@ -1536,13 +1663,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             giverName = this.appendTeamNameToName(giverName, giverTeamName);
         }
         
-        if (!(responses.isEmpty())) {
+        if (!(sortedResponses.isEmpty())) {
             // Put responses for final recipient
             responsesFromOneGiver.put(recipientName, responsesFromOneGiverToOneRecipient);
             sortedMap.put(giverName, responsesFromOneGiver);
         }
         
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
     
     /**
@@ -1558,9 +1685,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      */
     public Map<String, Map<String, List<FeedbackResponseAttributes>>>
                 getResponsesSortedByGiverRecipientQuestion() {
+        String viewName = "responsesSortedByGiverRecipientQuestion";
+        Map<String, Map<String, List<FeedbackResponseAttributes>>> cachedView = getCachedResponseView(viewName);
+        if (cachedView != null) {
+            return cachedView;
+        }
+
         Map<String, Map<String, List<FeedbackResponseAttributes>>> sortedMap =
                 new LinkedHashMap<String, Map<String, List<FeedbackResponseAttributes>>>();
-        Collections.sort(responses, compareByTeamGiverRecipientQuestion);
+        List<FeedbackResponseAttributes> sortedResponses = getSortedResponses(compareByTeamGiverRecipientQuestion);
         
         
         String prevRecipient = null;
@@ -1572,7 +1705,7 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         Map<String, List<FeedbackResponseAttributes>> responsesFromOneGiver =
                 new LinkedHashMap<String, List<FeedbackResponseAttributes>>();
         
-        for (FeedbackResponseAttributes response : responses) {
+        for (FeedbackResponseAttributes response : sortedResponses) {
             // New recipient, add response package to map.
             if (!(response.giverEmail.equals(prevGiver)) && prevGiver != null) {
                 // Put previous recipient responses into inner map.
@@ -1595,13 +1728,13 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             prevGiver = response.giverEmail;
         }
         
-        if (!(responses.isEmpty())) {
+        if (!(sortedResponses.isEmpty())) {
             // Put responses for final recipient
             responsesFromOneGiver.put(prevRecipient, responsesFromOneGiverToOneRecipient);
             sortedMap.put(prevGiver, responsesFromOneGiver);
         }
         
-        return sortedMap;
+        return cacheNestedResponseView(viewName, sortedMap);
     }
 
     public boolean isStudentHasSomethingNewToSee(StudentAttributes student) {
@@ -1749,10 +1882,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String t1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                      : getTeamNameForEmail(o1.giverEmail);
-            String t2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                      : getTeamNameForEmail(o2.giverEmail);
+            String t1 = getTeamSortKey(o1.giverEmail);
+            String t2 = getTeamSortKey(o2.giverEmail);
             order = t1.compareTo(t2);
             if (order != 0) {
                 return order;
@@ -1822,10 +1953,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String t1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                          : getTeamNameForEmail(o1.recipientEmail);
-            String t2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                          : getTeamNameForEmail(o2.recipientEmail);
+            String t1 = getTeamSortKey(o1.recipientEmail);
+            String t2 = getTeamSortKey(o2.recipientEmail);
             order = t1.compareTo(t2);
             if (order != 0) {
                 return order;
@@ -1875,10 +2004,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String t1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                          : getTeamNameForEmail(o1.recipientEmail);
-            String t2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                          : getTeamNameForEmail(o2.recipientEmail);
+            String t1 = getTeamSortKey(o1.recipientEmail);
+            String t2 = getTeamSortKey(o2.recipientEmail);
             order = t1.compareTo(t2);
             if (order != 0) {
                 return order;
@@ -1904,10 +2031,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                              : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                              : getTeamNameForEmail(o2.giverEmail);
+            String giverTeam1 = getTeamSortKey(o1.giverEmail);
+            String giverTeam2 = getTeamSortKey(o2.giverEmail);
             order = giverTeam1.compareTo(giverTeam2);
             if (order != 0) {
                 return order;
@@ -1925,10 +2050,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String receiverTeam1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                                     : getTeamNameForEmail(o1.recipientEmail);
-            String receiverTeam2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                                     : getTeamNameForEmail(o2.recipientEmail);
+            String receiverTeam1 = getTeamSortKey(o1.recipientEmail);
+            String receiverTeam2 = getTeamSortKey(o2.recipientEmail);
             order = receiverTeam1.compareTo(receiverTeam2);
             if (order != 0) {
                 return order;
@@ -1966,10 +2089,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String t1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                      : getTeamNameForEmail(o1.giverEmail);
-            String t2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                      : getTeamNameForEmail(o2.giverEmail);
+            String t1 = getTeamSortKey(o1.giverEmail);
+            String t2 = getTeamSortKey(o2.giverEmail);
             order = t1.compareTo(t2);
             if (order != 0) {
                 return order;
@@ -1995,10 +2116,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String recipientTeam1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                                      : getTeamNameForEmail(o1.recipientEmail);
-            String recipientTeam2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                                      : getTeamNameForEmail(o2.recipientEmail);
+            String recipientTeam1 = getTeamSortKey(o1.recipientEmail);
+            String recipientTeam2 = getTeamSortKey(o2.recipientEmail);
             order = recipientTeam1.compareTo(recipientTeam2);
             if (order != 0) {
                 return order;
@@ -2016,10 +2135,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                              : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                              : getTeamNameForEmail(o2.giverEmail);
+            String giverTeam1 = getTeamSortKey(o1.giverEmail);
+            String giverTeam2 = getTeamSortKey(o2.giverEmail);
             order = giverTeam1.compareTo(giverTeam2);
             if (order != 0) {
                 return order;
@@ -2038,10 +2155,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         @Override
         public int compare(FeedbackResponseAttributes o1,
                            FeedbackResponseAttributes o2) {
-            String recipientTeam1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                                      : getTeamNameForEmail(o1.recipientEmail);
-            String recipientTeam2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                                      : getTeamNameForEmail(o2.recipientEmail);
+            String recipientTeam1 = getTeamSortKey(o1.recipientEmail);
+            String recipientTeam2 = getTeamSortKey(o2.recipientEmail);
             int order = recipientTeam1.compareTo(recipientTeam2);
             if (order != 0) {
                 return order;
@@ -2059,10 +2174,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                              : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                              : getTeamNameForEmail(o2.giverEmail);
+            String giverTeam1 = getTeamSortKey(o1.giverEmail);
+            String giverTeam2 = getTeamSortKey(o2.giverEmail);
             order = giverTeam1.compareTo(giverTeam2);
             if (order != 0) {
                 return order;
@@ -2081,10 +2194,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         @Override
         public int compare(FeedbackResponseAttributes o1,
                            FeedbackResponseAttributes o2) {
-            String giverTeam1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                              : getTeamNameForEmail(o1.giverEmail);
-            String giverTeam2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                              : getTeamNameForEmail(o2.giverEmail);
+            String giverTeam1 = getTeamSortKey(o1.giverEmail);
+            String giverTeam2 = getTeamSortKey(o2.giverEmail);
             int order = giverTeam1.compareTo(giverTeam2);
             if (order != 0) {
                 return order;
@@ -2102,10 +2213,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
                 return order;
             }
 
-            String receiverTeam1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                                     : getTeamNameForEmail(o1.recipientEmail);
-            String receiverTeam2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                                     : getTeamNameForEmail(o2.recipientEmail);
+            String receiverTeam1 = getTeamSortKey(o1.recipientEmail);
+            String receiverTeam2 = getTeamSortKey(o2.recipientEmail);
             order = receiverTeam1.compareTo(receiverTeam2);
             if (order != 0) {
                 return order;
@@ -2181,10 +2290,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         @Override
         public int compare(FeedbackResponseAttributes o1,
                            FeedbackResponseAttributes o2) {
-            String t1 = getTeamNameForEmail(o1.recipientEmail).equals("") ? getNameForEmail(o1.recipientEmail)
-                                                                          : getTeamNameForEmail(o1.recipientEmail);
-            String t2 = getTeamNameForEmail(o2.recipientEmail).equals("") ? getNameForEmail(o2.recipientEmail)
-                                                                          : getTeamNameForEmail(o2.recipientEmail);
+            String t1 = getTeamSortKey(o1.recipientEmail);
+            String t2 = getTeamSortKey(o2.recipientEmail);
             return t1.compareTo(t2);
         }
     };
@@ -2195,10 +2302,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         @Override
         public int compare(FeedbackResponseAttributes o1,
                            FeedbackResponseAttributes o2) {
-            String t1 = getTeamNameForEmail(o1.giverEmail).equals("") ? getNameForEmail(o1.giverEmail)
-                                                                      : getTeamNameForEmail(o1.giverEmail);
-            String t2 = getTeamNameForEmail(o2.giverEmail).equals("") ? getNameForEmail(o2.giverEmail)
-                                                                      : getTeamNameForEmail(o2.giverEmail);
+            String t1 = getTeamSortKey(o1.giverEmail);
+            String t2 = getTeamSortKey(o2.giverEmail);
             return t1.compareTo(t2);
         }
     };
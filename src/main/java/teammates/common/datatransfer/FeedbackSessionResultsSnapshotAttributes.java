@@ -0,0 +1,194 @@
+package teammates.common.datatransfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.FieldValidator.FieldType;
+import teammates.common.util.Utils;
+import teammates.storage.entity.FeedbackSessionResultsSnapshot;
+
+import com.google.appengine.api.datastore.Blob;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * The data transfer object for {@link FeedbackSessionResultsSnapshot} entities.
+ * <br> A snapshot holds every response of a session, sorted by response id.
+ * A snapshot without responses represents one that has been invalidated
+ * by a write and is waiting to be rebuilt.
+ */
+public class FeedbackSessionResultsSnapshotAttributes extends EntityAttributes {
+
+    private static final Type RESPONSE_LIST_TYPE = new TypeToken<List<FeedbackResponseAttributes>>(){}.getType();
+
+    public String feedbackSessionName;
+    public String courseId;
+    public List<FeedbackResponseAttributes> responses;
+    public Date updatedAt;
+
+    public FeedbackSessionResultsSnapshotAttributes(String feedbackSessionName, String courseId,
+                                                    List<FeedbackResponseAttributes> responses) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.responses = responses;
+        this.updatedAt = new Date();
+    }
+
+    public FeedbackSessionResultsSnapshotAttributes(FeedbackSessionResultsSnapshot snapshot) {
+        this.feedbackSessionName = snapshot.getFeedbackSessionName();
+        this.courseId = snapshot.getCourseId();
+        this.responses = decompress(snapshot.getResponses());
+        this.updatedAt = snapshot.getUpdatedAt();
+    }
+
+    /**
+     * @return true if the snapshot holds the current responses of the session.
+     */
+    public boolean isUpToDate() {
+        return responses != null;
+    }
+
+    /**
+     * Replaces the responses in the snapshot that have the same ids as {@code responsesToPut}
+     * (adding those that are new) and removes the responses with ids in {@code responseIdsToRemove}.
+     * The order of responses by id is maintained.
+     */
+    public void patch(Collection<FeedbackResponseAttributes> responsesToPut,
+                      Collection<String> responseIdsToRemove) {
+        Assumption.assertTrue(isUpToDate());
+
+        Set<String> responseIdsToReplace = new HashSet<String>(responseIdsToRemove);
+        for (FeedbackResponseAttributes response : responsesToPut) {
+            responseIdsToReplace.add(response.getId());
+        }
+        Iterator<FeedbackResponseAttributes> iter = responses.iterator();
+        while (iter.hasNext()) {
+            if (responseIdsToReplace.contains(iter.next().getId())) {
+                iter.remove();
+            }
+        }
+
+        for (FeedbackResponseAttributes response : responsesToPut) {
+            responses.add(new FeedbackResponseAttributes(response));
+        }
+        FeedbackResponseAttributes.sortFeedbackResponses(responses);
+    }
+
+    /**
+     * @return the compressed responses, or null if the snapshot is not up to date
+     *         or the compressed responses do not fit in a single entity.
+     */
+    public Blob getCompressedResponses() {
+        if (!isUpToDate()) {
+            return null;
+        }
+        byte[] bytes = compress(responses);
+        if (bytes.length > Const.SystemParams.MAX_RESULTS_SNAPSHOT_SIZE_IN_BYTES) {
+            return null;
+        }
+        return new Blob(bytes);
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+        String error;
+
+        error = validator.getInvalidityInfo(FieldType.FEEDBACK_SESSION_NAME, feedbackSessionName);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getInvalidityInfo(FieldType.COURSE_ID, courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public Object toEntity() {
+        return new FeedbackSessionResultsSnapshot(feedbackSessionName, courseId,
+                                                  getCompressedResponses(), updatedAt);
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return feedbackSessionName + "/" + courseId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Feedback Session Results Snapshot";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return Utils.getTeammatesGson().toJson(this, FeedbackSessionResultsSnapshotAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // The session name and course id are copied from already sanitized entities.
+    }
+
+    @Override
+    public String toString() {
+        return "FeedbackSessionResultsSnapshotAttributes [feedbackSessionName=" + feedbackSessionName
+               + ", courseId=" + courseId + ", updatedAt=" + updatedAt
+               + ", numberOfResponses=" + (isUpToDate() ? responses.size() : "invalidated") + "]";
+    }
+
+    private static byte[] compress(List<FeedbackResponseAttributes> responses) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), Const.SystemParams.ENCODING);
+            Utils.getTeammatesGson().toJson(responses, RESPONSE_LIST_TYPE, writer);
+            writer.close();
+        } catch (IOException e) {
+            Assumption.fail("Failed to compress results snapshot: " + e.getMessage());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<FeedbackResponseAttributes> decompress(Blob compressedResponses) {
+        if (compressedResponses == null) {
+            return null;
+        }
+        try {
+            Reader reader = new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(compressedResponses.getBytes())),
+                    Const.SystemParams.ENCODING);
+            List<FeedbackResponseAttributes> responses = Utils.getTeammatesGson().fromJson(reader, RESPONSE_LIST_TYPE);
+            reader.close();
+            return responses;
+        } catch (IOException e) {
+            // A corrupted snapshot is treated as an invalidated one
+            return null;
+        }
+    }
+}
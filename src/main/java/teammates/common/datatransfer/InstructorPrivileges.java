@@ -14,6 +14,13 @@ public final class InstructorPrivileges {
     private HashMap<String, HashMap<String, Boolean>> sectionLevel;
     private HashMap<String, HashMap<String, HashMap<String, Boolean>>> sessionLevel;
     
+    /**
+     * The privileges compiled into bit masks, so that the checks repeated for every section,
+     * session and response of the results pages are answered without walking the nested maps.
+     * Built on the first check, and dropped whenever the privileges are updated.
+     */
+    private transient CompiledPrivileges compiledPrivileges;
+    
     private static final String[] courseLevelOnlyList = new String[] {
         Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE,
         Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR,
@@ -38,6 +45,21 @@ public final class InstructorPrivileges {
     private static final HashSet<String> SECTION_LEVEL_ONLY_PRIVILEGES = new HashSet<String>(Arrays.asList(sectionLevelOnlyList));
     private static final HashSet<String> SESSION_LEVEL_ONLY_PRIVILEGES = new HashSet<String>(Arrays.asList(sessionLevelOnlyList));
     
+    /** The bit of each privilege in the masks of {@link CompiledPrivileges} */
+    private static final HashMap<String, Integer> PRIVILEGE_BITS = new HashMap<String, Integer>();
+    
+    static {
+        for (String privilegeName : courseLevelOnlyList) {
+            PRIVILEGE_BITS.put(privilegeName, 1 << PRIVILEGE_BITS.size());
+        }
+        for (String privilegeName : sectionLevelOnlyList) {
+            PRIVILEGE_BITS.put(privilegeName, 1 << PRIVILEGE_BITS.size());
+        }
+        for (String privilegeName : sessionLevelOnlyList) {
+            PRIVILEGE_BITS.put(privilegeName, 1 << PRIVILEGE_BITS.size());
+        }
+    }
+    
     public static boolean isPrivilegeNameValid(String privilegeName) {
         return COURSE_LEVEL_ONLY_PRIVILEGES.contains(privilegeName)
                 || SECTION_LEVEL_ONLY_PRIVILEGES.contains(privilegeName)
@@ -84,6 +106,7 @@ public final class InstructorPrivileges {
     }
     
     public void setDefaultPrivilegesForCoowner() {
+        this.compiledPrivileges = null;
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE, true);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR, true);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION, true);
@@ -98,6 +121,7 @@ public final class InstructorPrivileges {
     }
     
     public void setDefaultPrivilegesForManager() {
+        this.compiledPrivileges = null;
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR, true);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION, true);
@@ -112,6 +136,7 @@ public final class InstructorPrivileges {
     }
     
     public void setDefaultPrivilegesForObserver() {
+        this.compiledPrivileges = null;
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION, false);
@@ -126,6 +151,7 @@ public final class InstructorPrivileges {
     }
     
     public void setDefaultPrivilegesForTutor() {
+        this.compiledPrivileges = null;
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION, false);
@@ -140,6 +166,7 @@ public final class InstructorPrivileges {
     }
     
     public void setDefaultPrivilegesForCustom() {
+        this.compiledPrivileges = null;
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR, false);
         this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION, false);
@@ -222,6 +249,7 @@ public final class InstructorPrivileges {
     }
     
     private void updatePrivilegeInCourseLevel(String privilegeName, boolean isAllowed) {
+        this.compiledPrivileges = null;
         if (!isPrivilegeNameValid(privilegeName)) {
             return ;
         }
@@ -229,6 +257,7 @@ public final class InstructorPrivileges {
     }
     
     private void updatePrivilegeInSectionLevel(String sectionName, String privilegeName, boolean isAllowed) {
+        this.compiledPrivileges = null;
         if (!isPrivilegeNameValidForSectionLevel(privilegeName)) {
             return ;
         }
@@ -239,6 +268,7 @@ public final class InstructorPrivileges {
     }
     
     private void updatePrivilegeInSessionLevel(String sectionName, String sessionName, String privilegeName, boolean isAllowed) {
+        this.compiledPrivileges = null;
         if (!isPrivilegeNameValidForSessionLevel(privilegeName)) {
             return ;
         }
@@ -272,6 +302,7 @@ public final class InstructorPrivileges {
     
     @SuppressWarnings("unchecked")
     private void updatePrivilegesInSectionLevel(String sectionName, HashMap<String, Boolean> privileges) {
+        this.compiledPrivileges = null;
         for (String privilegeName : privileges.keySet()) {
             if (!isPrivilegeNameValidForSectionLevel(privilegeName)) {
                 return ;
@@ -282,6 +313,7 @@ public final class InstructorPrivileges {
     
     @SuppressWarnings("unchecked")
     private void updatePrivilegesInSessionLevel(String sectionName, String sessionName, HashMap<String, Boolean> privileges) {
+        this.compiledPrivileges = null;
         for (String privilegeName : privileges.keySet()) {
             if (!isPrivilegeNameValidForSessionLevel(privilegeName)) {
                 return ;
@@ -299,6 +331,7 @@ public final class InstructorPrivileges {
     }
     
     public void addSectionWithDefaultPrivileges(String sectionName) {
+        this.compiledPrivileges = null;
         if (this.sectionLevel.containsKey(sectionName)) {
             return ;
         } else {
@@ -307,6 +340,7 @@ public final class InstructorPrivileges {
     }
     
     public void addSessionWithDefaultPrivileges(String sectionName, String sessionName) {
+        this.compiledPrivileges = null;
         verifyExistenceOfsectionName(sectionName);
         if (this.sessionLevel.get(sectionName).containsKey(sessionName)) {
             return ;
@@ -320,7 +354,11 @@ public final class InstructorPrivileges {
      * @return whether it is allowed for the privilege specified by privilegeName
      */
     public boolean isAllowedForPrivilege(String privilegeName) {
-        return isAllowedInCourseLevel(privilegeName);
+        Integer privilegeBit = PRIVILEGE_BITS.get(privilegeName);
+        if (privilegeBit == null) {
+            return isAllowedInCourseLevel(privilegeName);
+        }
+        return (getCompiledPrivileges().courseMask & privilegeBit) != 0;
     }
     
     /**
@@ -330,7 +368,11 @@ public final class InstructorPrivileges {
      * @return whether it is allowed for the privilege specified by privilegeName in sectionName
      */
     public boolean isAllowedForPrivilege(String sectionName, String privilegeName) {
-        return isAllowedInSectionLevel(sectionName, privilegeName);
+        Integer privilegeBit = PRIVILEGE_BITS.get(privilegeName);
+        if (privilegeBit == null) {
+            return isAllowedInSectionLevel(sectionName, privilegeName);
+        }
+        return (getCompiledPrivileges().getSectionMask(sectionName) & privilegeBit) != 0;
     }
     
     /**
@@ -341,14 +383,22 @@ public final class InstructorPrivileges {
      * @return whether it is allowed for the privilege specified by privilegeName for sessionName in sectionName
      */
     public boolean isAllowedForPrivilege(String sectionName, String sessionName, String privilegeName) {
-        return isAllowedInSessionLevel(sectionName, sessionName, privilegeName);
+        Integer privilegeBit = PRIVILEGE_BITS.get(privilegeName);
+        if (privilegeBit == null) {
+            return isAllowedInSessionLevel(sectionName, sessionName, privilegeName);
+        }
+        return (getCompiledPrivileges().getSessionMask(sectionName, sessionName) & privilegeBit) != 0;
     }
     
     /**
      * Returns true if privilege for session is present for any section.
      */
     public boolean isAllowedForPrivilegeAnySection(String sessionName, String privilegeName) {
-        return isAllowedInSessionLevelAnySection(sessionName, privilegeName);
+        Integer privilegeBit = PRIVILEGE_BITS.get(privilegeName);
+        if (privilegeBit == null) {
+            return isAllowedInSessionLevelAnySection(sessionName, privilegeName);
+        }
+        return (getCompiledPrivileges().getAnySectionMask(sessionName) & privilegeBit) != 0;
     }
     
     public boolean isSectionSpecial(String sectionName) {
@@ -383,6 +433,7 @@ public final class InstructorPrivileges {
      * @param sectionName
      */
     public void removeSectionLevelPrivileges(String sectionName) {
+        this.compiledPrivileges = null;
         if (this.sectionLevel.containsKey(sectionName)) {
             this.sectionLevel.remove(sectionName);
         }
@@ -394,6 +445,7 @@ public final class InstructorPrivileges {
      * @param sectionName
      */
     public void removeSessionsPrivilegesForSection(String sectionName) {
+        this.compiledPrivileges = null;
         if (this.sessionLevel.containsKey(sectionName)) {
             this.sessionLevel.remove(sectionName);
         }
@@ -405,6 +457,7 @@ public final class InstructorPrivileges {
      * @param sessionName
      */
     public void removeSessionPrivileges(String sectionName, String sessionName) {
+        this.compiledPrivileges = null;
         if (this.sessionLevel.containsKey(sectionName) && this.sessionLevel.get(sectionName).containsKey(sessionName)) {
             this.sessionLevel.get(sectionName).remove(sessionName);
         }
@@ -452,11 +505,19 @@ public final class InstructorPrivileges {
         return false;
     }
     
+    private CompiledPrivileges getCompiledPrivileges() {
+        if (this.compiledPrivileges == null) {
+            this.compiledPrivileges = new CompiledPrivileges(this);
+        }
+        return this.compiledPrivileges;
+    }
+    
     /**
      * validate the privileges in course level, section level and session level
      * make sure there is nothing wrong with privileges hierarchy
      */
     public void validatePrivileges() {
+        this.compiledPrivileges = null;
         if (this.courseLevel.containsKey(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COMMENT_IN_SECTIONS)
                 && this.courseLevel.get(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COMMENT_IN_SECTIONS).booleanValue()) {
             this.courseLevel.put(Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_COMMENT_IN_SECTIONS, true);
@@ -522,4 +583,82 @@ public final class InstructorPrivileges {
                 this.getSessionLevelPrivileges().equals(rhs.getSessionLevelPrivileges());
     }
     
+    /**
+     * The privileges in course level, section level and session level as bit masks,
+     * with a bit for each privilege (see {@link InstructorPrivileges#PRIVILEGE_BITS}),
+     * where the mask of a section or session already falls back to the level above it.
+     * The masks are not changed once compiled.
+     */
+    private static final class CompiledPrivileges {
+        final int courseMask;
+        final HashMap<String, Integer> sectionMasks = new HashMap<String, Integer>();
+        final HashMap<String, HashMap<String, Integer>> sessionMasks = new HashMap<String, HashMap<String, Integer>>();
+        
+        /** the masks of sessions in any section, for sessions without special settings in {@link #defaultAnySectionMask} */
+        final HashMap<String, Integer> anySectionMasks = new HashMap<String, Integer>();
+        final int defaultAnySectionMask;
+        
+        CompiledPrivileges(InstructorPrivileges privileges) {
+            this.courseMask = toMask(privileges.courseLevel);
+            for (String sectionName : privileges.sectionLevel.keySet()) {
+                sectionMasks.put(sectionName, toMask(privileges.sectionLevel.get(sectionName)));
+            }
+            for (String sectionName : privileges.sessionLevel.keySet()) {
+                HashMap<String, Integer> masksInSection = new HashMap<String, Integer>();
+                HashMap<String, HashMap<String, Boolean>> sessionsInSection = privileges.sessionLevel.get(sectionName);
+                for (String sessionName : sessionsInSection.keySet()) {
+                    masksInSection.put(sessionName, toMask(sessionsInSection.get(sessionName)));
+                }
+                sessionMasks.put(sectionName, masksInSection);
+            }
+            
+            HashSet<String> sections = new HashSet<String>(sessionMasks.keySet());
+            sections.addAll(sectionMasks.keySet());
+            HashSet<String> specialSessions = new HashSet<String>();
+            for (HashMap<String, Integer> masksInSection : sessionMasks.values()) {
+                specialSessions.addAll(masksInSection.keySet());
+            }
+            
+            int sectionsMask = 0;
+            for (String sectionName : sections) {
+                sectionsMask |= getSectionMask(sectionName);
+            }
+            this.defaultAnySectionMask = sectionsMask;
+            for (String sessionName : specialSessions) {
+                int sessionMask = 0;
+                for (String sectionName : sections) {
+                    sessionMask |= getSessionMask(sectionName, sessionName);
+                }
+                anySectionMasks.put(sessionName, sessionMask);
+            }
+        }
+        
+        int getSectionMask(String sectionName) {
+            Integer sectionMask = sectionMasks.get(sectionName);
+            return sectionMask == null ? courseMask : sectionMask;
+        }
+        
+        int getSessionMask(String sectionName, String sessionName) {
+            HashMap<String, Integer> masksInSection = sessionMasks.get(sectionName);
+            Integer sessionMask = masksInSection == null ? null : masksInSection.get(sessionName);
+            return sessionMask == null ? getSectionMask(sectionName) : sessionMask;
+        }
+        
+        int getAnySectionMask(String sessionName) {
+            Integer sessionMask = anySectionMasks.get(sessionName);
+            return sessionMask == null ? defaultAnySectionMask : sessionMask;
+        }
+        
+        private static int toMask(HashMap<String, Boolean> privileges) {
+            int mask = 0;
+            for (String privilegeName : privileges.keySet()) {
+                Integer privilegeBit = PRIVILEGE_BITS.get(privilegeName);
+                if (privilegeBit != null && Boolean.TRUE.equals(privileges.get(privilegeName))) {
+                    mask |= privilegeBit;
+                }
+            }
+            return mask;
+        }
+    }
+    
 }
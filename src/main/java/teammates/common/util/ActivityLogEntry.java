@@ -98,13 +98,21 @@ public class ActivityLogEntry {
      * Used in AdminActivityLogServlet.
      */
     public ActivityLogEntry(AppLogLine appLog){
-        time = appLog.getTimeUsec() / 1000;
+        this(appLog.getLogMessage(), appLog.getTimeUsec() / 1000);
+    }
+    
+    /**
+     * Constructor that creates an ActivityLog object from a log message logged at {@code logTime}.
+     * Used for the activity logs kept in the datastore.
+     */
+    public ActivityLogEntry(String logMessage, long logTime){
+        time = logTime;
         
         try {
-            String[] tokens = appLog.getLogMessage().split("\\|\\|\\|", -1);
+            String[] tokens = logMessage.split("\\|\\|\\|", -1);
             initUsingAppLogMessage(tokens);
         } catch (ArrayIndexOutOfBoundsException e) {
-            initAsFailure(appLog, e);
+            initAsFailure(logMessage, e);
         }
         
         keyStringsToHighlight = null;
@@ -142,7 +150,7 @@ public class ActivityLogEntry {
     }
 
 
-    private void initAsFailure(AppLogLine appLog, Exception e) {
+    private void initAsFailure(String logMessage, Exception e) {
         servletName = "Unknown";
         action = "Unknown";
         role = "Unknown";
@@ -151,7 +159,7 @@ public class ActivityLogEntry {
         email = "Unknown";
         toShow = true;
         message = "<span class=\"text-danger\">Error. Problem parsing log message from the server.</span><br>"
-                + "System Error: " + e.getMessage() + "<br>" + appLog.getLogMessage();
+                + "System Error: " + e.getMessage() + "<br>" + logMessage;
         url = "Unknown";
         id = "Unknown" + "%" + formatTimeForId(new Date(time));
         timeTaken = null;
@@ -34,6 +34,9 @@ public class Config {
     /** The value of the "app.persistence.checkduration" in build.properties file */
     public static int    PERSISTENCE_CHECK_DURATION;
     
+    /** The value of the "app.persistence.pollafterwrites" in build.properties file */
+    public static boolean IS_POLLING_AFTER_WRITES;
+    
     /** The value of the "app.crashreport.email" in build.properties file */
     public static String SUPPORT_EMAIL;
     
@@ -84,6 +87,7 @@ public class Config {
         BACKDOOR_KEY = instance.getBackdoorKey();
         ENCRYPTION_KEY = instance.getEncyptionKey();
         PERSISTENCE_CHECK_DURATION = instance.getPersistenceCheckduration();
+        IS_POLLING_AFTER_WRITES = instance.isPollingAfterWrites();
         SUPPORT_EMAIL = instance.getSupportEmail();
         STUDENT_MOTD_URL = instance.getStudentMotdUrl();
         SENDGRID_USERNAME = instance.getSendgridUsername();
@@ -119,6 +123,10 @@ public class Config {
         return Integer.valueOf(props.getProperty("app.persistence.checkduration")).intValue();
     }
 
+    private boolean isPollingAfterWrites() {
+        return Boolean.parseBoolean(props.getProperty("app.persistence.pollafterwrites"));
+    }
+
     private String getSupportEmail() {
         return props.getProperty("app.crashreport.email");
     }
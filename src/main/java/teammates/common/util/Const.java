@@ -36,6 +36,36 @@ public class Const {
         public static final int USER_ID_MAX_DISPLAY_LENGTH = 23;
         /** Maximum number to do Batching puts/delete documents from a index in the appengine  */
         public static final int MAX_NUM_OF_INPUT_FOR_APP_ENGINE_BATCH = 200;
+        /** Maximum number of values of an IN filter ({@code :p.contains(property)}) in one datastore query */
+        public static final int MAX_NUM_OF_VALUES_FOR_IN_QUERY = 30;
+        
+        /** Results snapshots larger than this are not stored, as they would not fit in a single entity */
+        public static final int MAX_RESULTS_SNAPSHOT_SIZE_IN_BYTES = 900000;
+        /** Minimum age of an invalidated aggregate, e.g. the statistics of a course, before a rebuild of it
+         *  is saved, so that the rebuild does not miss writes that are not yet visible to queries */
+        public static final long AGGREGATE_REBUILD_DELAY_IN_MILLIS = 10000;
+        /** Maximum number of students whose comments are indexed again when they are enrolled or moved,
+         *  instead of invalidating the comment visibility index of the course */
+        public static final int MAX_NUM_OF_STUDENTS_FOR_COMMENT_VISIBILITY_UPDATE = 20;
+        /** Time before the end of the previous compilation of error logs that the next compilation
+         *  goes through again, as the logs of requests become queryable some time after they end */
+        public static final long ERROR_LOG_COMPILATION_OVERLAP_IN_MILLIS = 5 * 60 * 1000;
+        /** Number of days that the activity log entries kept in the datastore are searchable for */
+        public static final int ACTIVITY_LOG_RETENTION_IN_DAYS = 90;
+        /** Maximum number of activity log entries read from the datastore for one search of the activity logs */
+        public static final int MAX_NUM_OF_ACTIVITY_LOGS_PER_SEARCH = 1000;
+        /** Time that one run of the cleanup of activity log entries spends deleting them,
+         *  leaving the rest to the next run, so that the run ends within the deadline of its request */
+        public static final long ACTIVITY_LOG_CLEANUP_TIME_BUDGET_IN_MILLIS = 5 * 60 * 1000;
+        /** Number of responses fetched per datastore call when streaming results as CSV */
+        public static final int RESULTS_CSV_EXPORT_PAGE_SIZE = 500;
+        /** Number of enrolled students whose responses are adjusted by one submission adjustment task */
+        public static final int SUBMISSION_ADJUSTMENT_STUDENTS_PER_TASK = 20;
+        /** Time after which entries in the shared cache expire, even if they are not invalidated */
+        public static final int SHARED_CACHE_EXPIRATION_IN_SECONDS = 3600;
+        /** Minimum age of a shared cache version before entries are stored under it,
+         *  so that entries are not built from queries that miss the latest writes */
+        public static final long SHARED_CACHE_CONSISTENCY_DELAY_IN_MILLIS = 10000;
         /* Field sizes and error messages for invalid fields can be found 
          * in the FieldValidator class.
          */
@@ -45,6 +75,8 @@ public class Const {
         public static final String EMAIL_TASK_QUEUE = "configure-and-prepare-email-queue";
         public static final String ADMIN_EMAIL_TASK_QUEUE = "admin-send-email-queue";
         public static final String ADMIN_PREPARE_EMAIL_TASK_QUEUE = "admin-prepare-email-task-queue";
+        /** The maximum number of receivers of a group admin email that one task adds send tasks for */
+        public static final int ADMIN_EMAIL_RECEIVERS_PER_PREPARE_TASK = 1000;
         public static final String SUBMISSION_TASK_QUEUE = "submission-queue";
         
         public static final String FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE = 
@@ -54,6 +86,16 @@ public class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_TASK_QUEUE = "feedback-remind-email-particular-users-queue";
         public static final String SEND_EMAIL_TASK_QUEUE = "send-email-queue";
         
+        /** The maximum number of emails that are sent together in one Sendgrid call */
+        public static final int SENDGRID_MAX_EMAILS_PER_BATCH = 100;
+        /** The maximum size of the form-encoded payload of the task that carries the emails sent
+         *  together in one Sendgrid call. Tasks are limited to 100KB, which leaves some room for the rest of the task */
+        public static final int SENDGRID_MAX_TASK_PAYLOAD_SIZE_PER_BATCH = 90 * 1024;
+        public static final String SEARCH_DOCUMENT_TASK_QUEUE = "search-document";
+        
+        /** The maximum number of documents that can be put into a search index in one call */
+        public static final int SEARCH_DOCUMENT_BATCH_SIZE = 200;
+        
         public static final String QUEUE_XML_PATH = "src/main/webapp/WEB-INF/queue.xml";
         public static final String DEFAULT_PROFILE_PICTURE_PATH = "/images/profile_picture_default.png";
         
@@ -324,6 +366,8 @@ public class Const {
         
         public static final String IS_USING_AJAX = "isusingAjax";
         
+        public static final String SEARCH_INDEX_NAME = "searchindexname";
+        
         public static final String BLOB_KEY = "blob-key";
         
         public static final String COPIED_FEEDBACK_SESSION_NAME = "copiedfsname";
@@ -390,8 +434,7 @@ public class Const {
         public static final String ADMIN_EMAIL_EMPTY_TRASH_BIN = "emptytrashbin";
         public static final String ADMIN_EMAIL_TRASH_ACTION_REDIRECT = "redirect";
         
-        public static final String ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX = "emaillistindex";
-        public static final String ADMIN_GROUP_RECEIVER_EMAIL_INDEX = "emailindex";
+        public static final String ADMIN_GROUP_RECEIVER_LIST_OFFSET = "receiverlistoffset";
     
         public static final String FEEDBACK_SESSION_NAME = "fsname";
         public static final String FEEDBACK_SESSION_INDEX = "fsindex";
@@ -544,6 +587,8 @@ public class Const {
         public static final String EMAIL_SENDER = "sender";
         public static final String EMAIL_SUBJECT = "subject";
         public static final String EMAIL_REPLY_TO_ADDRESS = "reply";
+        public static final String EMAIL_RECEIVERS = "receivers";
+        public static final String EMAIL_CONTENTS = "contents";
         
         public static final String COMMENT_EDITTYPE = "commentedittype";
         public static final String COMMENT_ID = "commentid";
@@ -740,6 +785,7 @@ public class Const {
         public static final String AUTOMATED_FEEDBACK_CLOSING_REMINDERS = "/feedbackSessionClosingReminders";
         public static final String AUTOMATED_FEEDBACK_PUBLISHED_REMINDERS = "/feedbackSessionPublishedReminders";
         public static final String AUTOMATED_COMPILE_LOGS = "/compileLogs";
+        public static final String AUTOMATED_ACTIVITY_LOGS_CLEANUP = "/activityLogsCleanup";
         
         public static final String BACKDOOR = "/backdoor";
         
@@ -754,11 +800,14 @@ public class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_WORKER = 
                                     "/feedbackRemindEmailParticularUsersWorker";
         public static final String SEND_EMAIL_WORKER = "/sendEmailWorker";
+        public static final String SEND_EMAIL_BATCH_WORKER = "/sendEmailBatchWorker";
+        public static final String SEARCH_DOCUMENT_WORKER = "/searchDocumentWorker";
     }
     
     public class AutomatedActionNames{
         //real servlet names to be logged for automated actions, not for url pattern recognition
         public static final String AUTOMATED_LOG_COMILATION = "logCompilation";
+        public static final String AUTOMATED_ACTIVITY_LOGS_CLEANUP = "activityLogsCleanup";
         public static final String AUTOMATED_FEEDBACKSESSION_CLOSING_MAIL_ACTION = "feedbackSessionClosingMailAction";
         public static final String AUTOMATED_FEEDBACKSESSION_OPENING_MAIL_ACTION = "feedbackSessionOpeningMailAction";
         public static final String AUTOMATED_FEEDBACKSESSION_PUBLISHED_MAIL_ACTION = "feedbackSessionPublishedMailAction";
@@ -0,0 +1,71 @@
+package teammates.common.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the email addresses of a receiver list file, in which addresses
+ * are separated by commas, one address at a time.
+ * <br> The reader keeps the byte offset of the first address that has not been read,
+ * so that reading can be resumed later from that offset with a new stream.
+ */
+public class ReceiverListReader implements Closeable {
+
+    private static final int SEPARATOR = ',';
+
+    private InputStream stream;
+    private long offset;
+    private boolean isEndOfStream = false;
+
+    /**
+     * @param stream the content of the file, starting at {@code startOffset}
+     * @param startOffset the byte offset in the file that the stream starts at
+     */
+    public ReceiverListReader(InputStream stream, long startOffset) {
+        this.stream = new BufferedInputStream(stream);
+        this.offset = startOffset;
+    }
+
+    /**
+     * @return the next address, with surrounding whitespace removed,
+     *         or null if there are no more addresses.
+     */
+    public String readNextAddress() throws IOException {
+        ByteArrayOutputStream addressBytes = new ByteArrayOutputStream();
+        while (!isEndOfStream) {
+            int b = stream.read();
+            if (b == -1) {
+                isEndOfStream = true;
+            } else {
+                offset++;
+            }
+
+            if (b == -1 || b == SEPARATOR) {
+                // the separator is ASCII, so it never splits a multi-byte character
+                String address = addressBytes.toString("UTF-8").trim();
+                if (!address.isEmpty()) {
+                    return address;
+                }
+                addressBytes.reset();
+            } else {
+                addressBytes.write(b);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the byte offset in the file of the first address that has not been read.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
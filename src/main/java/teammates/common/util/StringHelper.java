@@ -1,5 +1,6 @@
 package teammates.common.util;
 
+import java.security.GeneralSecurityException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -104,29 +105,62 @@ public class StringHelper {
         return frontPart + ".." + endPart;
     }
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The ciphers of each thread, as a {@link Cipher} is not thread-safe but is costly
+     * to look up and initialise with the key for every value that is encrypted or decrypted.
+     */
+    private static final ThreadLocal<KeyCiphers> keyCiphers = new ThreadLocal<KeyCiphers>();
+
     public static String encrypt(String value) {
         try {
-            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.ENCRYPT_MODE, sks, cipher.getParameters());
-            byte[] encrypted = cipher.doFinal(value.getBytes());
+            byte[] encrypted = getKeyCiphers().encryptCipher.doFinal(value.getBytes());
             return byteArrayToHexString(encrypted);
         } catch (Exception e) {
+            // a cipher that failed midway is not reused
+            keyCiphers.remove();
             throw new RuntimeException(e);
         }
     }
 
     public static String decrypt(String message) {
         try {
-            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.DECRYPT_MODE, sks);
-            byte[] decrypted = cipher.doFinal(hexStringToByteArray(message));
+            byte[] decrypted = getKeyCiphers().decryptCipher.doFinal(hexStringToByteArray(message));
             return new String(decrypted);
         } catch (Exception e) {
+            keyCiphers.remove();
             throw new RuntimeException(e);
         }
     }
+
+    private static KeyCiphers getKeyCiphers() throws GeneralSecurityException {
+        KeyCiphers ciphers = keyCiphers.get();
+        if (ciphers == null || !ciphers.key.equals(Config.ENCRYPTION_KEY)) {
+            ciphers = new KeyCiphers(Config.ENCRYPTION_KEY);
+            keyCiphers.set(ciphers);
+        }
+        return ciphers;
+    }
+
+    /**
+     * The ciphers initialised with an encryption key, which are reset to their
+     * initial state after each value, so they can be reused for the next value.
+     */
+    private static class KeyCiphers {
+        final String key;
+        final Cipher encryptCipher;
+        final Cipher decryptCipher;
+
+        KeyCiphers(String key) throws GeneralSecurityException {
+            this.key = key;
+            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(key), "AES");
+            encryptCipher = Cipher.getInstance("AES");
+            encryptCipher.init(Cipher.ENCRYPT_MODE, sks, encryptCipher.getParameters());
+            decryptCipher = Cipher.getInstance("AES");
+            decryptCipher.init(Cipher.DECRYPT_MODE, sks);
+        }
+    }
     
     /**
      * Concatenates a list of strings to a single string, separated by line breaks.
@@ -279,26 +313,31 @@ public class StringHelper {
     
     
     private static String byteArrayToHexString(byte[] b) {
-        StringBuilder sb = new StringBuilder(b.length * 2);
+        char[] hex = new char[b.length * 2];
         for (int i = 0; i < b.length; i++) {
             int v = b[i] & 0xff;
-            if (v < 16) {
-                sb.append('0');
-            }
-            sb.append(Integer.toHexString(v));
+            hex[i * 2] = HEX_DIGITS[v >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[v & 0x0f];
         }
-        return sb.toString().toUpperCase();
+        return new String(hex);
     }
 
     private static byte[] hexStringToByteArray(String s) {
         byte[] b = new byte[s.length() / 2];
         for (int i = 0; i < b.length; i++) {
             int index = i * 2;
-            int v = Integer.parseInt(s.substring(index, index + 2), 16);
-            b[i] = (byte) v;
+            b[i] = (byte) (hexDigitToInt(s.charAt(index)) << 4 | hexDigitToInt(s.charAt(index + 1)));
         }
         return b;
     }
+
+    private static int hexDigitToInt(char c) {
+        int digit = Character.digit(c, 16);
+        if (digit < 0) {
+            throw new NumberFormatException("Invalid hex digit: " + c);
+        }
+        return digit;
+    }
     
     
     
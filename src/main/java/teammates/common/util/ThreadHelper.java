@@ -2,9 +2,16 @@ package teammates.common.util;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.logging.Logger;
 
 import teammates.common.exception.TeammatesException;
+import teammates.storage.datastore.Datastore;
+
+import com.google.appengine.api.ThreadManager;
 
 public class ThreadHelper {
     public static final int WAIT_DURATION = 20;
@@ -29,6 +36,52 @@ public class ThreadHelper {
         }
     }
     
+    /**
+     * Starts {@code task} in a new thread of the current request, so that it runs
+     * concurrently with the caller, e.g. to issue independent datastore queries at the same time.
+     * The task is run in the calling thread if a request thread cannot be created,
+     * e.g. outside of a request.
+     * <br> In a new thread, the task gets its own persistence manager and request cache,
+     * which are released when the task is done, see {@link Datastore#runAsPartOfRequest(Runnable)}.
+     * @return the result of the task, to be retrieved with {@link #getResult(Future)}.
+     */
+    public static <T> Future<T> startInRequestThread(Callable<T> task) {
+        final FutureTask<T> futureTask = new FutureTask<T>(task);
+        Runnable taskAsPartOfRequest = new Runnable() {
+            @Override
+            public void run() {
+                Datastore.runAsPartOfRequest(futureTask);
+            }
+        };
+        try {
+            ThreadManager.createThreadForCurrentRequest(taskAsPartOfRequest).start();
+        } catch (RuntimeException e) {
+            log.info("Running task in the calling thread: " + e.getMessage());
+            futureTask.run();
+        }
+        return futureTask;
+    }
+
+    /**
+     * Waits for the result of a task started with {@link #startInRequestThread(Callable)}.
+     * Unchecked exceptions thrown by the task are rethrown as they are.
+     */
+    public static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+    
     public static String getCurrentThreadStack() {
         StringWriter sw = new StringWriter();
         new Throwable("").printStackTrace(new PrintWriter(sw));
@@ -320,6 +320,45 @@ public class Sendgrid {
         return this;
     }
 
+    /**
+     * Sets the values that replace a substitution tag in the email, one value for
+     * each recipient in the order the recipients were added
+     *
+     * @param  tag      the substitution tag as it appears in the email
+     * @param  values   the value of the tag for each recipient
+     * @return          the SendGrid object.
+     * @throws JSONException
+     */
+    public Sendgrid addSubstitution(String tag, List<String> values) throws JSONException {
+        if (!this.headerList.has("sub")) {
+            this.headerList.put("sub", new JSONObject());
+        }
+
+        ((JSONObject) this.headerList.get("sub")).put(tag, new JSONArray(values));
+
+        return this;
+    }
+
+    /**
+     * @return  the substitution values of each substitution tag, or null if there are none
+     * @throws JSONException
+     */
+    public JSONObject getSubstitutions() throws JSONException {
+        return this.headerList.has("sub") ? (JSONObject) this.headerList.get("sub") : null;
+    }
+
+    /**
+     * Set the server the email is posted to, e.g. a local server when testing
+     *
+     * @param  domain   the url of the server, ending with '/'
+     * @return          the SendGrid object.
+     */
+    public Sendgrid setDomain(String domain) {
+        this.domain = domain;
+
+        return this;
+    }
+
     /**
      * @return  Server response message
      */
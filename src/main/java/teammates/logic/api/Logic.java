@@ -1,5 +1,8 @@
 package teammates.logic.api;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -46,10 +49,12 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.JoinCourseException;
 import teammates.common.exception.NotImplementedException;
 import teammates.common.exception.UnauthorizedAccessException;
+import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.Utils;
 import teammates.logic.core.AccountsLogic;
+import teammates.logic.core.ActivityLogsLogic;
 import teammates.logic.core.AdminEmailsLogic;
 import teammates.logic.core.CommentsLogic;
 import teammates.logic.core.CoursesLogic;
@@ -93,6 +98,7 @@ public class Logic {
     protected static FeedbackResponsesLogic feedbackResponsesLogic = FeedbackResponsesLogic.inst();
     protected static FeedbackResponseCommentsLogic feedbackResponseCommentsLogic = FeedbackResponseCommentsLogic.inst();
     protected static AdminEmailsLogic adminEmailsLogic = AdminEmailsLogic.inst();
+    protected static ActivityLogsLogic activityLogsLogic = ActivityLogsLogic.inst();
     
     @SuppressWarnings("unused")
     private void ____USER_level_methods__________________________________() {
@@ -1596,6 +1602,28 @@ public class Logic {
         return feedbackSessionsLogic.getFeedbackSessionResultsSummaryAsCsv(feedbackSessionName, courseId, instructorEmail);
     }
 
+    /**
+     * Writes summary results (without comments) in CSV format to {@code writer}, 
+     * without holding the whole file in memory. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code section} are non-null. <br>
+     * @param section the section to export, or null to export all sections
+     */
+    public void writeFeedbackSessionResultSummaryInSectionAsCsv(String courseId, 
+                                                                String feedbackSessionName, 
+                                                                String instructorEmail, 
+                                                                String section,
+                                                                Writer writer) 
+            throws EntityDoesNotExistException, IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+        
+        feedbackSessionsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(feedbackSessionName, courseId, 
+                                                                               instructorEmail, section, writer);
+    }
+
     /**
      * Generates summary results (without comments) within a section in CSV format. <br>
      * Preconditions: <br>
@@ -2211,6 +2239,21 @@ public class Logic {
         feedbackResponsesLogic.updateFeedbackResponse(feedbackResponse);
     }
     
+    /**
+     * Saves and deletes the responses of a submission in a batch. See
+     * {@link FeedbackResponsesLogic#saveFeedbackResponses(Collection, Collection)}.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void saveFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToSave,
+                                      Collection<FeedbackResponseAttributes> responsesToDelete)
+            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToSave);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToDelete);
+        feedbackResponsesLogic.saveFeedbackResponses(responsesToSave, responsesToDelete);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -2681,6 +2724,50 @@ public class Logic {
         adminEmailsLogic.deleteAdminEmailUploadedFile(key);
     }
     
+    @SuppressWarnings("unused")
+    private void ____ACTIVITY_LOG_level_methods____________________________() {
+    }
+    
+    /**
+     * Keeps the activity log entry of {@code logMessage} in the datastore, so that it can be
+     * searched without going through the application logs. Failures are logged and ignored.
+     */
+    public void recordActivityLog(String logMessage) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, logMessage);
+        activityLogsLogic.recordActivityLog(logMessage);
+    }
+    
+    /**
+     * @param person the exact name, google ID or email of the entries, case-insensitive
+     * @return the activity log entries of the person logged from {@code fromTime} (inclusive)
+     *         to {@code toTime} (exclusive), latest first.
+     */
+    public List<ActivityLogEntry> getActivityLogsForPerson(String person, long fromTime, long toTime) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, person);
+        return activityLogsLogic.getActivityLogsForPerson(person, fromTime, toTime);
+    }
+    
+    /**
+     * @param servletNames the servlet names of the entries, in lower case
+     * @return the activity log entries of any of the servlets logged from {@code fromTime} (inclusive)
+     *         to {@code toTime} (exclusive), latest first.
+     */
+    public List<ActivityLogEntry> getActivityLogsForServletNames(Collection<String> servletNames,
+                                                                 long fromTime, long toTime) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, servletNames);
+        return activityLogsLogic.getActivityLogsForServletNames(servletNames, fromTime, toTime);
+    }
+    
+    /**
+     * @param roles the roles of the entries, in lower case
+     * @return the activity log entries of any of the roles logged from {@code fromTime} (inclusive)
+     *         to {@code toTime} (exclusive), latest first.
+     */
+    public List<ActivityLogEntry> getActivityLogsForRoles(Collection<String> roles, long fromTime, long toTime) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, roles);
+        return activityLogsLogic.getActivityLogsForRoles(roles, fromTime, toTime);
+    }
+    
     
     @SuppressWarnings("unused")
     private void ____MISC_methods__________________________________________() {
@@ -0,0 +1,24 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Const;
+import teammates.logic.core.ActivityLogsLogic;
+
+/**
+ * Deletes the activity log entries kept in the datastore once they are older
+ * than {@link Const.SystemParams#ACTIVITY_LOG_RETENTION_IN_DAYS}.
+ */
+@SuppressWarnings("serial")
+public class ActivityLogsCleanupServlet extends AutomatedRemindersServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        servletName = Const.AutomatedActionNames.AUTOMATED_ACTIVITY_LOGS_CLEANUP;
+        action = "delete expired activity log entries";
+
+        int numOfDeletedEntries = ActivityLogsLogic.inst().deleteExpiredActivityLogs();
+        logMessage(req, "Deleted " + numOfDeletedEntries + " expired activity log entries");
+    }
+}
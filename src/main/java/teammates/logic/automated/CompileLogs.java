@@ -1,8 +1,15 @@
 package teammates.logic.automated;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
@@ -14,21 +21,43 @@ import com.google.appengine.api.log.LogService.LogLevel;
 import com.google.appengine.api.log.LogServiceFactory;
 import com.google.appengine.api.log.RequestLogs;
 
+import teammates.common.datatransfer.ErrorLogSummary;
+import teammates.common.util.Const;
 import teammates.common.util.Utils;
 import teammates.logic.core.Emails;
+import teammates.storage.api.ErrorLogsDb;
 
 import java.util.logging.*;
 
 public class CompileLogs {
     private static Logger log = Utils.getLogger();
     
-    public String doLogExam() {
+    // Logs older than this are not compiled, e.g. when the compilation has not run for a while
+    private static final long MAX_QUERY_RANGE = 1000 * 60 * 60;
+    // Used when the logs have never been compiled; slightly overlaps the 5 minute email timer
+    private static final long DEFAULT_QUERY_RANGE = 1000 * 60 * 6;
+    
+    private static final ErrorLogsDb errorLogsDb = new ErrorLogsDb();
+    
+    /**
+     * Compiles the error logs since the previous compilation, grouped by their fingerprints,
+     * and sends the digest of them with their running counts.
+     * <br> The compilation goes through the requests that ended shortly before the previous
+     * compilation again, as their logs may not have been queryable then, and skips
+     * the requests that it has already compiled.
+     * <br> The compiled error logs are only added to the running counts, and the compilation only
+     * advances, once the digest is sent. Otherwise, the next compilation goes through them again.
+     */
+    public void compileAndSendLogs() {
         LogService logService = LogServiceFactory.getLogService();
 
         long endTime = (new java.util.Date()).getTime();
-        // Sets the range to 6 minutes to slightly overlap the 5 minute email timer
-        long queryRange = 1000 * 60 * 6;
-        long startTime = endTime - queryRange;
+        Date compiledUntil = errorLogsDb.getCompiledUntil();
+        long startTime = compiledUntil == null
+                       ? endTime - DEFAULT_QUERY_RANGE
+                       : Math.max(compiledUntil.getTime() - Const.SystemParams.ERROR_LOG_COMPILATION_OVERLAP_IN_MILLIS,
+                                  endTime - MAX_QUERY_RANGE);
+        Set<String> compiledRequestIds = errorLogsDb.getCompiledRequestIds();
 
         LogQuery q = LogQuery.Builder.withDefaults()
                                      .includeAppLogs(true)
@@ -37,12 +66,15 @@ public class CompileLogs {
                                      .minLogLevel(LogLevel.ERROR);
         
         Iterator<RequestLogs> logIterator = logService.fetch(q).iterator();
-        String message = "";
-
-        int numberOfErrors = 0;
+        Map<String, ErrorLogSummary> errorLogs = new HashMap<String, ErrorLogSummary>();
+        Map<String, Long> requestEndTimes = new HashMap<String, Long>();
 
         while (logIterator.hasNext()) {
             RequestLogs requestLogs = logIterator.next();
+            if (compiledRequestIds.contains(requestLogs.getRequestId())) {
+                continue;
+            }
+            requestEndTimes.put(requestLogs.getRequestId(), requestLogs.getEndTimeUsec() / 1000);
             List<AppLogLine> logList = requestLogs.getAppLogLines();
 
             for (int i = 0; i < logList.size(); i++) {
@@ -50,29 +82,76 @@ public class CompileLogs {
                 LogLevel logLevel = currentLog.getLogLevel();
                 
                 if (LogService.LogLevel.FATAL.equals(logLevel) || LogService.LogLevel.ERROR.equals(logLevel)) {
-                    numberOfErrors++;
-                    message += numberOfErrors + ". " +
-                                "Error Type: " + currentLog.getLogLevel().toString() + "<br/>" +
-                                "Error Message: " + currentLog.getLogMessage() + "<br/><br/>";
+                    ErrorLogSummary errorLog = ErrorLogSummary.fromLogMessage(
+                            logLevel.toString(), currentLog.getLogMessage(),
+                            new Date(currentLog.getTimeUsec() / 1000));
+                    ErrorLogSummary existingErrorLog = errorLogs.get(errorLog.fingerprint);
+                    if (existingErrorLog == null) {
+                        errorLogs.put(errorLog.fingerprint, errorLog);
+                    } else {
+                        existingErrorLog.add(errorLog);
+                    }
                 }
             }
         }
 
-        return message;
+        String digest = generateDigest(errorLogs, errorLogsDb.getRunningCounts(errorLogs.values()));
+        if (!sendEmail(digest)) {
+            return;
+        }
+        errorLogsDb.addErrorLogs(errorLogs.values(), new Date(endTime), requestEndTimes);
     }
 
-    public void sendEmail(String logs) {
-        if (!logs.isEmpty()) {
-            Emails emails = new Emails();
-            MimeMessage message;
-            try {
-                message = emails.generateCompiledLogsEmail(logs);
-                emails.sendLogReport(message);
-            } catch (UnsupportedEncodingException | MessagingException e) {
-                log.severe(e.getMessage());
+    private String generateDigest(final Map<String, ErrorLogSummary> errorLogs,
+                                  List<ErrorLogSummary> runningCounts) {
+        if (runningCounts.isEmpty()) {
+            return "";
+        }
+        
+        List<ErrorLogSummary> sortedRunningCounts = new ArrayList<ErrorLogSummary>(runningCounts);
+        Collections.sort(sortedRunningCounts, new Comparator<ErrorLogSummary>() {
+            @Override
+            public int compare(ErrorLogSummary runningCount1, ErrorLogSummary runningCount2) {
+                return Long.compare(errorLogs.get(runningCount2.fingerprint).count,
+                                    errorLogs.get(runningCount1.fingerprint).count);
             }
-        } else {
+        });
+        
+        StringBuilder digest = new StringBuilder();
+        int numberOfErrorTypes = 0;
+        for (ErrorLogSummary runningCount : sortedRunningCounts) {
+            numberOfErrorTypes++;
+            digest.append(numberOfErrorTypes).append(". ")
+                  .append("Error Type: ").append(runningCount.errorType).append("<br/>")
+                  .append("Location: ").append(runningCount.location).append("<br/>")
+                  .append("Occurrences: ").append(errorLogs.get(runningCount.fingerprint).count)
+                  .append(" since the last report, ").append(runningCount.count)
+                  .append(" since ").append(runningCount.firstSeenAt).append("<br/>")
+                  .append("Last Seen: ").append(runningCount.lastSeenAt).append("<br/>")
+                  .append("Sample Error Message: ").append(runningCount.sampleMessage).append("<br/><br/>");
+        }
+
+        return digest.toString();
+    }
+
+    /**
+     * Sends the digest of the error logs, if there are any.
+     * @return false if the digest could not be sent.
+     */
+    public boolean sendEmail(String logs) {
+        if (logs.isEmpty()) {
             // Do not send any emails if there are no severe logs; prevents spamming
+            return true;
+        }
+        
+        Emails emails = new Emails();
+        try {
+            MimeMessage message = emails.generateCompiledLogsEmail(logs);
+            emails.forceSendEmailThroughGaeWithoutLogging(message);
+            return true;
+        } catch (UnsupportedEncodingException | MessagingException e) {
+            log.severe("Error in sending log report: " + e.getMessage());
+            return false;
         }
     }
 }
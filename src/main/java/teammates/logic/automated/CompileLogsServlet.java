@@ -17,7 +17,6 @@ public class CompileLogsServlet extends AutomatedRemindersServlet {
         String message = "Compiling logs for email notification";
         logMessage(req, message);
         
-        CompileLogs compileLog = new CompileLogs();
-        compileLog.sendEmail(compileLog.doLogExam());
+        new CompileLogs().compileAndSendLogs();
     }
 }
@@ -21,6 +21,7 @@ import teammates.common.exception.TeammatesException;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
+import teammates.logic.core.ActivityLogsLogic;
 import teammates.logic.core.Emails;
 
 public abstract class EmailAction {
@@ -116,7 +117,9 @@ public abstract class EmailAction {
         }
         
         ActivityLogEntry activityLogEntry = new ActivityLogEntry(actionName, actionDescription, null, message, url);
-        log.log(Level.INFO, activityLogEntry.generateLogMessage());
+        String logMessage = activityLogEntry.generateLogMessage();
+        log.log(Level.INFO, logMessage);
+        ActivityLogsLogic.inst().recordActivityLog(logMessage);
     }
 
     protected void logActivityFailure(HttpServletRequest req, Throwable e) {
@@ -126,7 +129,9 @@ public abstract class EmailAction {
         String message = "<span class=\"color_red\">Servlet Action failure in "    + actionName + "<br>";
         message += e.getMessage() + "</span>";
         ActivityLogEntry activityLogEntry = new ActivityLogEntry(actionName, actionDescription, null, message, url);
-        log.log(Level.INFO, activityLogEntry.generateLogMessage());
+        String logMessage = activityLogEntry.generateLogMessage();
+        log.log(Level.INFO, logMessage);
+        ActivityLogsLogic.inst().recordActivityLog(logMessage);
         log.severe(e.getMessage());
     }
 
@@ -6,15 +6,13 @@ import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
-import teammates.common.datatransfer.FeedbackResponseAttributes;
-import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.Assumption;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
 import teammates.common.util.Const.ParamsNames;
-import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.common.util.Const.SystemParams;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.StudentsLogic;
 
@@ -34,9 +32,9 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
                 .getValueFromRequestParameterMap(request, ParamsNames.COURSE_ID);
         Assumption.assertNotNull(courseId);
         
+        // the session name is not given when the responses in all sessions of the course are adjusted
         this.sessionName = HttpRequestHelper
                 .getValueFromRequestParameterMap(request, ParamsNames.FEEDBACK_SESSION_NAME);
-        Assumption.assertNotNull(sessionName);
         
         this.enrollmentDetails = HttpRequestHelper
                 .getValueFromRequestParameterMap(request, ParamsNames.ENROLLMENT_DETAILS);
@@ -50,7 +48,6 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
         Assumption.assertNotNull(courseId);
         
         this.sessionName = paramMap.get(ParamsNames.FEEDBACK_SESSION_NAME);
-        Assumption.assertNotNull(sessionName);
         
         this.enrollmentDetails = paramMap.get(ParamsNames.ENROLLMENT_DETAILS);
         Assumption.assertNotNull(enrollmentDetails);
@@ -64,34 +61,39 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
                 .fromJson(enrollmentDetails, new TypeToken<ArrayList<StudentEnrollDetails>>(){}
                 .getType());
         
-        log.info("Adjusting submissions for feedback session :" + sessionName +
-                 "in course : " + courseId);
+        String sessionDescription = sessionName == null ? "all feedback sessions" 
+                                                        : "feedback session :" + sessionName;
+        log.info("Adjusting submissions for " + sessionDescription + " in course : " + courseId);
         
-        FeedbackSessionAttributes feedbackSession = FeedbackSessionsLogic.inst()
-                .getFeedbackSession(sessionName, courseId);
-        StudentsLogic stLogic = StudentsLogic.inst();
         String errorString = "Error encountered while adjusting feedback session responses " +
                 "of %s in course : %s : %s\n%s";
         
-        if(feedbackSession != null) {
-            List<FeedbackResponseAttributes> allResponses = FeedbackResponsesLogic.inst()
-                    .getFeedbackResponsesForSession(feedbackSession.feedbackSessionName,
-                            feedbackSession.courseId);
-            
-            for (FeedbackResponseAttributes response : allResponses) {
-                try {
-                    stLogic.adjustFeedbackResponseForEnrollments(enrollmentList, response);
-                } catch (Exception e) {
-                    log.severe(String.format(errorString, sessionName, courseId, e.getMessage(),
-                            ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
-                    return false;
-                }
-            } 
-            return true;
-        } else {
+        if (sessionName != null && FeedbackSessionsLogic.inst().getFeedbackSession(sessionName, courseId) == null) {
             log.severe(String.format(errorString, sessionName, courseId, "feedback session is null", ""));
             return false;
-        }    
+        }
+        
+        // Only the first students are adjusted by this task, and the rest by a new task that is
+        // added once they are done. A retry of this task thus only repeats the current students.
+        int numOfEnrollmentsInTask = Math.min(enrollmentList.size(),
+                                              SystemParams.SUBMISSION_ADJUSTMENT_STUDENTS_PER_TASK);
+        List<StudentEnrollDetails> enrollmentsInTask = enrollmentList.subList(0, numOfEnrollmentsInTask);
+        ArrayList<StudentEnrollDetails> remainingEnrollments = new ArrayList<StudentEnrollDetails>(
+                enrollmentList.subList(numOfEnrollmentsInTask, enrollmentList.size()));
+        
+        StudentsLogic stLogic = StudentsLogic.inst();
+        try {
+            stLogic.adjustFeedbackResponsesForEnrollments(courseId, sessionName, enrollmentsInTask);
+        } catch (Exception e) {
+            log.severe(String.format(errorString, sessionDescription, courseId, e.getMessage(),
+                    ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
+            return false;
+        }
+        
+        if (!remainingEnrollments.isEmpty()) {
+            stLogic.scheduleSubmissionAdjustmentForFeedbackInCourse(remainingEnrollments, courseId, sessionName);
+        }
+        return true;
     }
 
 }
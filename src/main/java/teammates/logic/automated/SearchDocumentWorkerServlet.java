@@ -0,0 +1,114 @@
+package teammates.logic.automated;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.HttpRequestHelper;
+import teammates.storage.api.CommentsDb;
+import teammates.storage.api.FeedbackResponseCommentsDb;
+import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.search.SearchDocument;
+import teammates.storage.search.SearchManager;
+
+import com.google.appengine.api.search.Document;
+
+/**
+ * Rebuilds a batch of documents, changed during a request and buffered by {@link SearchManager},
+ * from the current state of their entities, and puts them into their search index.
+ * Documents whose entities no longer exist are deleted from the index.
+ */
+@SuppressWarnings("serial")
+public class SearchDocumentWorkerServlet extends WorkerServlet {
+
+    /** Set by App Engine for requests from task queues, and removed from external requests */
+    private static final String QUEUE_NAME_HEADER = "X-AppEngine-QueueName";
+
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        //Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
+        int responseCodeForRetry = 100;
+
+        if (req.getHeader(QUEUE_NAME_HEADER) == null) {
+            log.severe("Search documents can only be put from the task queue");
+            resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        String indexName = HttpRequestHelper
+                .getValueFromRequestParameterMap(req, Const.ParamsNames.SEARCH_INDEX_NAME);
+        Assumption.assertNotNull(indexName);
+
+        Map<String, String> entityIds;
+        try {
+            entityIds = SearchManager.deserializeDocumentChanges(req.getInputStream());
+        } catch (IOException e) {
+            log.severe("Error while reading search document ids for index " + indexName + ": " + e.getMessage());
+            // the task is retried rather than dropped, up to the retry limit of its queue
+            resp.setStatus(responseCodeForRetry);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Map<String, Document> documentsToPut = new LinkedHashMap<String, Document>();
+        List<String> documentIdsToDelete = new ArrayList<String>();
+        for (Map.Entry<String, String> entry : entityIds.entrySet()) {
+            String documentId = entry.getKey();
+            SearchDocument searchDocument = getSearchDocument(indexName, documentId, entry.getValue());
+            if (searchDocument == null) {
+                documentIdsToDelete.add(documentId);
+                continue;
+            }
+
+            Document document;
+            try {
+                document = searchDocument.build();
+            } catch (RuntimeException e) {
+                // retrying the task would fail the same way
+                log.severe("Failed to build search document " + documentId + " in index " + indexName
+                           + ": " + e.getMessage());
+                continue;
+            }
+            if (!document.getId().equals(documentId)) {
+                // the entity has been replaced by another one with a document of its own
+                documentIdsToDelete.add(documentId);
+            }
+            documentsToPut.put(document.getId(), document);
+        }
+
+        boolean isSuccessful = SearchManager.applyDocumentChanges(
+                indexName, new ArrayList<Document>(documentsToPut.values()), documentIdsToDelete);
+        log.info("Put " + documentsToPut.size() + " and deleted " + documentIdsToDelete.size()
+                 + " documents in index " + indexName + " in " + (System.currentTimeMillis() - startTime) + " ms"
+                 + " (average " + SearchManager.getAverageBatchPutDurationInMillis() + " ms per batch)");
+
+        if (!isSuccessful) {
+            resp.setStatus(responseCodeForRetry);
+        }
+    }
+
+    /**
+     * @return the document built from the current state of its entity,
+     *         or null if the entity no longer exists.
+     */
+    private SearchDocument getSearchDocument(String indexName, String documentId, String entityId) {
+        if (indexName.equals(Const.SearchIndex.STUDENT)) {
+            return new StudentsDb().getSearchDocument(entityId);
+        } else if (indexName.equals(Const.SearchIndex.INSTRUCTOR)) {
+            return new InstructorsDb().getSearchDocument(documentId, entityId);
+        } else if (indexName.equals(Const.SearchIndex.COMMENT)) {
+            return new CommentsDb().getSearchDocument(entityId);
+        } else if (indexName.equals(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT)) {
+            return new FeedbackResponseCommentsDb().getSearchDocument(entityId);
+        }
+        Assumption.fail("Unknown search index: " + indexName);
+        return null;
+    }
+}
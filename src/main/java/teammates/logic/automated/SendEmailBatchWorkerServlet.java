@@ -0,0 +1,84 @@
+package teammates.logic.automated;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.google.appengine.labs.repackaged.org.json.JSONException;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.Utils;
+import teammates.common.util.Const.ParamsNames;
+import teammates.logic.core.Emails;
+
+/**
+ * Sends a batch of emails that share the subject, sender and reply-to address.
+ * The whole batch is retried if it cannot be sent.
+ */
+@SuppressWarnings("serial")
+public class SendEmailBatchWorkerServlet extends WorkerServlet {
+
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        //Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
+        int responseCodeForRetry = 100;
+        try {
+            String emailSubject = HttpRequestHelper
+                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SUBJECT);
+            Assumption.assertNotNull(emailSubject);
+
+            String emailSender = HttpRequestHelper
+                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SENDER);
+            Assumption.assertNotNull(emailSender);
+
+            String emailReply = HttpRequestHelper
+                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_REPLY_TO_ADDRESS);
+            Assumption.assertNotNull(emailReply);
+
+            String emailReceivers = HttpRequestHelper
+                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVERS);
+            Assumption.assertNotNull(emailReceivers);
+
+            String emailContents = HttpRequestHelper
+                    .getValueFromRequestParameterMap(req, ParamsNames.EMAIL_CONTENTS);
+            Assumption.assertNotNull(emailContents);
+
+            Gson gson = Utils.getTeammatesGson();
+            List<String> receivers = gson.fromJson(emailReceivers, new TypeToken<List<String>>(){}.getType());
+            List<String> contents = gson.fromJson(emailContents, new TypeToken<List<String>>(){}.getType());
+            Assumption.assertEquals(receivers.size(), contents.size());
+
+            Session session = Session.getDefaultInstance(new Properties(), null);
+            List<MimeMessage> batch = new ArrayList<MimeMessage>();
+            for (int i = 0; i < receivers.size(); i++) {
+                MimeMessage message = new MimeMessage(session);
+
+                message.addRecipient(Message.RecipientType.TO, new InternetAddress(
+                        receivers.get(i)));
+                message.setFrom(new InternetAddress(emailSender));
+                message.setContent(contents.get(i), "text/html");
+                message.setSubject(emailSubject);
+                message.setReplyTo(new Address[] { new InternetAddress(emailReply) });
+                batch.add(message);
+            }
+
+            Emails emailManager = new Emails();
+            emailManager.sendEmailBatchWithLogging(batch);
+        } catch (MessagingException | JSONException | IOException e) {
+            log.severe("Error while sending email batch via servlet: " + e.getMessage());
+            resp.setStatus(responseCodeForRetry);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import javax.servlet.http.HttpServletResponse;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
+import teammates.logic.core.ActivityLogsLogic;
 
 
 /**
@@ -39,6 +40,8 @@ public abstract class WorkerServlet extends HttpServlet{
     protected void logMessage(HttpServletRequest request, String message) {
         String url = HttpRequestHelper.getRequestedURL(request);
         ActivityLogEntry activityLogEntry = new ActivityLogEntry(servletName, action, null, message, url);
-        log.log(Level.INFO, activityLogEntry.generateLogMessage());
+        String logMessage = activityLogEntry.generateLogMessage();
+        log.log(Level.INFO, logMessage);
+        ActivityLogsLogic.inst().recordActivityLog(logMessage);
     }
 }
@@ -5,7 +5,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.AccountAttributes;
@@ -30,12 +32,19 @@ import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 import teammates.logic.api.Logic;
+import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.StudentsLogic;
 import teammates.storage.api.AccountsDb;
+import teammates.storage.api.CommentVisibilityDb;
 import teammates.storage.api.CommentsDb;
+import teammates.storage.api.CourseStatisticsDb;
 import teammates.storage.api.CoursesDb;
 import teammates.storage.api.FeedbackQuestionsDb;
 import teammates.storage.api.FeedbackResponseCommentsDb;
 import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.api.FeedbackSessionRespondentsDb;
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
@@ -48,13 +57,17 @@ public class BackDoorLogic extends Logic {
     private static Logger log = Utils.getLogger();
     private static final AccountsDb accountsDb = new AccountsDb();
     private static final CoursesDb coursesDb = new CoursesDb();
+    private static final CourseStatisticsDb courseStatisticsDb = new CourseStatisticsDb();
     private static final CommentsDb commentsDb = new CommentsDb();
+    private static final CommentVisibilityDb commentVisibilityDb = new CommentVisibilityDb();
     private static final StudentsDb studentsDb = new StudentsDb();
     private static final InstructorsDb instructorsDb = new InstructorsDb();
     private static final FeedbackSessionsDb fbDb = new FeedbackSessionsDb();
     private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
     private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
     private static final FeedbackResponseCommentsDb fcDb = new FeedbackResponseCommentsDb();
+    private static final FeedbackSessionResultsSnapshotsDb snapshotsDb = new FeedbackSessionResultsSnapshotsDb();
+    private static final FeedbackSessionRespondentsDb respondentsDb = new FeedbackSessionRespondentsDb();
     
     private static final int WAIT_DURATION_FOR_DELETE_CHECKING = 5;
     private static final int MAX_RETRY_COUNT_FOR_DELETE_CHECKING = 20;
@@ -131,6 +144,14 @@ public class BackDoorLogic extends Logic {
         }
         accountsDb.createAccounts(studentAccounts, false);
         studentsDb.createStudentsWithoutSearchability(students.values());
+        Set<String> coursesWithStudents = new HashSet<String>();
+        for (StudentAttributes student : students.values()) {
+            coursesWithStudents.add(student.course);
+        }
+        for (String courseId : coursesWithStudents) {
+            courseStatisticsDb.invalidateCourseStatistics(courseId);
+            commentVisibilityDb.invalidateIndex(courseId);
+        }
         
 
         HashMap<String, FeedbackSessionAttributes> sessions = dataBundle.feedbackSessions;
@@ -146,6 +167,7 @@ public class BackDoorLogic extends Logic {
             question.removeIrrelevantVisibilityOptions();
         }
         fqDb.createFeedbackQuestions(questionList);
+        invalidateSharedCache(dataBundle);
         
         HashMap<String, FeedbackResponseAttributes> responses = dataBundle.feedbackResponses;
         for (FeedbackResponseAttributes response : responses.values()) {
@@ -155,6 +177,7 @@ public class BackDoorLogic extends Logic {
         
         for(FeedbackSessionAttributes session : sessions.values()){
             updateRespondants(session.feedbackSessionName, session.courseId);
+            snapshotsDb.invalidateSnapshot(session.feedbackSessionName, session.courseId);
         }
         
         HashMap<String, FeedbackResponseCommentAttributes> responseComments = dataBundle.feedbackResponseComments;
@@ -165,6 +188,9 @@ public class BackDoorLogic extends Logic {
         
         HashMap<String, CommentAttributes> comments = dataBundle.comments;
         commentsDb.createComments(comments.values());
+        for (CommentAttributes comment : comments.values()) {
+            commentVisibilityDb.invalidateIndex(comment.courseId);
+        }
         
         // any Db can be used to commit the changes. 
         // accountsDb is used as it is already used in the file
@@ -429,12 +455,41 @@ public class BackDoorLogic extends Logic {
             coursesDb.deleteEntities(courses);
             instructorsDb.deleteInstructorsForCourses(courseIds);
             studentsDb.deleteStudentsForCourses(courseIds);
+            courseStatisticsDb.deleteCourseStatisticsForCourses(courseIds);
             commentsDb.deleteCommentsForCourses(courseIds);
+            commentVisibilityDb.deleteIndexesForCourses(courseIds);
             fbDb.deleteFeedbackSessionsForCourses(courseIds);
+            respondentsDb.deleteRespondentsForCourses(courseIds);
             fqDb.deleteFeedbackQuestionsForCourses(courseIds);
             frDb.deleteFeedbackResponsesForCourses(courseIds);
+            snapshotsDb.deleteSnapshotsForCourses(courseIds);
             fcDb.deleteFeedbackResponseCommentsForCourses(courseIds);
+            for (String courseId : courseIds) {
+                invalidateSharedCacheForCourse(courseId);
+            }
+        }
+    }
+
+    private void invalidateSharedCache(DataBundle dataBundle) {
+        Set<String> courseIds = new HashSet<String>();
+        for (InstructorAttributes instructor : dataBundle.instructors.values()) {
+            courseIds.add(instructor.courseId);
+        }
+        for (StudentAttributes student : dataBundle.students.values()) {
+            courseIds.add(student.course);
+        }
+        for (FeedbackQuestionAttributes question : dataBundle.feedbackQuestions.values()) {
+            courseIds.add(question.courseId);
         }
+        for (String courseId : courseIds) {
+            invalidateSharedCacheForCourse(courseId);
+        }
+    }
+
+    private void invalidateSharedCacheForCourse(String courseId) {
+        StudentsLogic.inst().invalidateCachedStudentsForCourse(courseId);
+        InstructorsLogic.inst().invalidateCachedInstructorsForCourse(courseId);
+        FeedbackQuestionsLogic.inst().invalidateCachedQuestionsForCourse(courseId);
     }
 
     //TODO: remove this when we confirm it is not needed
@@ -0,0 +1,72 @@
+package teammates.logic.core;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.Const;
+import teammates.common.util.Utils;
+import teammates.storage.api.ActivityLogsDb;
+
+/**
+ * Handles the logic related to the activity log entries kept in the datastore,
+ * alongside the activity log messages in the application logs.
+ */
+public class ActivityLogsLogic {
+
+    private static ActivityLogsLogic instance;
+
+    private static final Logger log = Utils.getLogger();
+
+    private static final ActivityLogsDb activityLogsDb = new ActivityLogsDb();
+
+    public static ActivityLogsLogic inst() {
+        if (instance == null) {
+            instance = new ActivityLogsLogic();
+        }
+        return instance;
+    }
+
+    /**
+     * Keeps the activity log entry of {@code logMessage}, logged now.
+     * The entry is written asynchronously and is only used to search the activity logs,
+     * so failing to keep it does not fail the request that is logged, nor its error handling.
+     */
+    public void recordActivityLog(String logMessage) {
+        try {
+            activityLogsDb.createActivityLog(logMessage, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warning("Unable to keep activity log entry: " + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+    /**
+     * Deletes the entries that are older than {@link Const.SystemParams#ACTIVITY_LOG_RETENTION_IN_DAYS},
+     * for up to {@link Const.SystemParams#ACTIVITY_LOG_CLEANUP_TIME_BUDGET_IN_MILLIS}. Entries that are
+     * left are deleted by the next cleanup.
+     * @return the number of entries deleted.
+     */
+    public int deleteExpiredActivityLogs() {
+        long retentionInMillis = Const.SystemParams.ACTIVITY_LOG_RETENTION_IN_DAYS * 24L * 60 * 60 * 1000;
+        return activityLogsDb.deleteActivityLogsBefore(System.currentTimeMillis() - retentionInMillis,
+                                                       Const.SystemParams.ACTIVITY_LOG_CLEANUP_TIME_BUDGET_IN_MILLIS);
+    }
+
+    public List<ActivityLogEntry> getActivityLogsForPerson(String person, long fromTime, long toTime) {
+        return activityLogsDb.getActivityLogsForPerson(person.toLowerCase(), fromTime, toTime,
+                                                       Const.SystemParams.MAX_NUM_OF_ACTIVITY_LOGS_PER_SEARCH);
+    }
+
+    public List<ActivityLogEntry> getActivityLogsForServletNames(Collection<String> servletNames,
+                                                                 long fromTime, long toTime) {
+        return activityLogsDb.getActivityLogsForServletNames(servletNames, fromTime, toTime,
+                                                             Const.SystemParams.MAX_NUM_OF_ACTIVITY_LOGS_PER_SEARCH);
+    }
+
+    public List<ActivityLogEntry> getActivityLogsForRoles(Collection<String> roles, long fromTime, long toTime) {
+        return activityLogsDb.getActivityLogsForRoles(roles, fromTime, toTime,
+                                                      Const.SystemParams.MAX_NUM_OF_ACTIVITY_LOGS_PER_SEARCH);
+    }
+}
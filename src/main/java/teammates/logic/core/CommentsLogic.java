@@ -1,6 +1,9 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -24,10 +27,11 @@ import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
 import teammates.common.util.Utils;
+import teammates.storage.api.CommentVisibilityDb;
 import teammates.storage.api.CommentsDb;
-import teammates.storage.api.InstructorsDb;
-import teammates.storage.api.StudentsDb;
+import teammates.storage.api.InvalidatableAggregatesDb;
 
 /**
  * Handles the logic related to {@link CommentAttributes}.
@@ -40,6 +44,7 @@ public class CommentsLogic {
     private static final Logger log = Utils.getLogger();
 
     private static final CommentsDb commentsDb = new CommentsDb();
+    private static final CommentVisibilityDb commentVisibilityDb = new CommentVisibilityDb();
 
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
     private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
@@ -62,7 +67,13 @@ public class CommentsLogic {
         verifyIsCoursePresent(comment.courseId, "create");
         verifyIsInstructorOfCourse(comment.courseId, comment.giverEmail);
 
-        return commentsDb.createEntity(comment);
+        CommentAttributes createdComment = commentsDb.createEntity(comment);
+        if (createdComment == null) {
+            commentVisibilityDb.invalidateIndex(comment.courseId);
+        } else {
+            indexComment(createdComment);
+        }
+        return createdComment;
     }
     
     public CommentAttributes getComment(Long commentId) {
@@ -116,7 +127,9 @@ public class CommentsLogic {
            throws InvalidParametersException, EntityDoesNotExistException {
         verifyIsCoursePresent(comment.courseId, "update");
         
-        return commentsDb.updateComment(comment);
+        CommentAttributes updatedComment = commentsDb.updateComment(comment);
+        indexComment(updatedComment);
+        return updatedComment;
     }
     
     /**
@@ -137,6 +150,60 @@ public class CommentsLogic {
      */
     public void updateStudentEmail(String courseId, String oldStudentEmail, String updatedStudentEmail) {
         commentsDb.updateStudentEmail(courseId, oldStudentEmail, updatedStudentEmail);
+        commentVisibilityDb.invalidateIndex(courseId);
+    }
+    
+    /**
+     * Marks the index of the students that the comments of the course relate to as out of date.
+     * To be called when students leave the course or change their emails.
+     */
+    public void invalidateCommentVisibilityIndex(String courseId) {
+        commentVisibilityDb.invalidateIndex(courseId);
+    }
+    
+    /**
+     * Indexes the comments given to the students, or to their teams, again after the students
+     * are created or moved between teams and sections. Only these comments can relate
+     * to other groups afterwards. If many students are changed at once, or the index is
+     * out of date, the index of the course is invalidated instead.
+     * @param originalStudents the students before they were changed, if they existed
+     * @param updatedStudents the students as they are saved
+     */
+    public void updateCommentVisibilityIndexForStudents(String courseId, List<StudentAttributes> originalStudents,
+                                                        List<StudentAttributes> updatedStudents) {
+        if (updatedStudents.size() > Const.SystemParams.MAX_NUM_OF_STUDENTS_FOR_COMMENT_VISIBILITY_UPDATE
+                || commentVisibilityDb.getInvalidatedAt(courseId) != null) {
+            commentVisibilityDb.invalidateIndex(courseId);
+            return;
+        }
+        
+        Set<String> emails = new HashSet<String>();
+        Set<String> teams = new HashSet<String>();
+        for (StudentAttributes student : originalStudents) {
+            emails.add(student.email);
+            teams.add(student.team);
+        }
+        for (StudentAttributes student : updatedStudents) {
+            emails.add(student.email);
+            teams.add(student.team);
+        }
+        
+        Map<Long, CommentAttributes> commentsToIndex = new HashMap<Long, CommentAttributes>();
+        for (String email : emails) {
+            for (CommentAttributes c : commentsDb.getCommentsForReceiver(courseId, CommentParticipantType.PERSON,
+                                                                         email)) {
+                commentsToIndex.put(c.getCommentId(), c);
+            }
+        }
+        for (String team : teams) {
+            for (CommentAttributes c : commentsDb.getCommentsForReceiver(courseId, CommentParticipantType.TEAM,
+                                                                         team)) {
+                commentsToIndex.put(c.getCommentId(), c);
+            }
+        }
+        for (CommentAttributes c : commentsToIndex.values()) {
+            indexComment(c, updatedStudents);
+        }
     }
     
     public void deleteCommentsForInstructor(String courseId, String instructorEmail) {
@@ -145,18 +212,22 @@ public class CommentsLogic {
     
     public void deleteCommentsForStudent(String courseId, String studentEmail) {
         commentsDb.deleteCommentsByStudentEmail(courseId, studentEmail);
+        commentVisibilityDb.invalidateIndex(courseId);
     }
     
     public void deleteCommentsForTeam(String courseId, String teamName) {
         commentsDb.deleteCommentsForTeam(courseId, teamName);
+        commentVisibilityDb.invalidateIndex(courseId);
     }
     
     public void deleteCommentsForSection(String courseId, String sectionName) {
         commentsDb.deleteCommentsForSection(courseId, sectionName);
+        commentVisibilityDb.invalidateIndex(courseId);
     }
     
     public void deleteCommentsForCourse(String courseId) {
         commentsDb.deleteCommentsForCourse(courseId);
+        commentVisibilityDb.deleteIndexesForCourses(Arrays.asList(courseId));
     }
     
     public void deleteCommentAndDocument(CommentAttributes comment) {
@@ -166,6 +237,11 @@ public class CommentsLogic {
     
     public void deleteComment(CommentAttributes comment) {
         commentsDb.deleteEntity(comment);
+        if (comment.getCommentId() == null) {
+            commentVisibilityDb.invalidateIndex(comment.courseId);
+        } else {
+            commentVisibilityDb.deleteViewerKeysForComment(comment.getCommentId());
+        }
     }
     
     public void deleteDocument(CommentAttributes comment) {
@@ -264,7 +340,10 @@ public class CommentsLogic {
     /************ Get Comments For a Student ************/
     
     /**
-     * Get comments visible to the given student
+     * Get comments visible to the given student.
+     * <br> The comments are found through the index of the students that each comment relates to.
+     * If the index of the course is out of date, it is rebuilt from all the comments and students
+     * of the course first.
      * @param student
      * @return list of {@link CommentAttributes}
      * @throws EntityDoesNotExistException when the course doesn't exist
@@ -272,161 +351,251 @@ public class CommentsLogic {
     public List<CommentAttributes> getCommentsForStudent(StudentAttributes student)
            throws EntityDoesNotExistException {
         verifyIsCoursePresent(student.course, "get");
-        List<StudentAttributes> teammates = studentsLogic.getStudentsForTeam(student.team, student.course);
-        List<StudentAttributes> studentsInTheSameSection = studentsLogic.getStudentsForSection(student.section,
-                                                                                               student.course);
-        List<String> teammatesEmails = getTeammatesEmails(teammates);
-        List<String> sectionStudentsEmails = getSectionStudentsEmails(studentsInTheSameSection);
-        List<String> teamsInThisSection = getTeamsForSection(studentsInTheSameSection);
-
-        List<CommentAttributes> comments = new ArrayList<CommentAttributes>();
-        HashSet<String> commentsVisitedSet = new HashSet<String>();
         
-        //Get comments sent to the given student
-        List<CommentAttributes> commentsForStudent = getCommentsForReceiver(student.course,
-                                                                            CommentParticipantType.PERSON,
-                                                                            student.email);
-        removeNonVisibleCommentsForStudent(commentsForStudent, commentsVisitedSet, comments);
-        
-        //Get comments visible to the given student's teammates
-        List<CommentAttributes> commentsForTeam = getCommentsForCommentViewer(student.course,
-                                                                              CommentParticipantType.TEAM);
-        removeNonVisibleCommentsForTeam(commentsForTeam, student, teammatesEmails, commentsVisitedSet, comments);
-        
-        //Get comments visible to the given student's section
-        List<CommentAttributes> commentsForSection = getCommentsForCommentViewer(student.course,
-                                                                                 CommentParticipantType.SECTION);
-        removeNonVisibleCommentsForSection(commentsForSection, student, teammatesEmails,
-                                           sectionStudentsEmails, teamsInThisSection,
-                                           commentsVisitedSet, comments);
-        
-        //Get comments visible to the whole course
-        List<CommentAttributes> commentsForCourse = getCommentsForCommentViewer(student.course,
-                                                                                CommentParticipantType.COURSE);
-        removeNonVisibleCommentsForCourse(commentsForCourse, student, teammatesEmails,
-                                          sectionStudentsEmails, teamsInThisSection,
-                                          commentsVisitedSet, comments);
+        Map<String, CommentParticipantType> viewerTypes = getViewerTypesForStudent(student);
         
-        java.util.Collections.sort(comments);
+        Date invalidatedAt = commentVisibilityDb.getInvalidatedAt(student.course);
+        List<CommentAttributes> comments;
+        Map<Long, Set<String>> viewerKeysByCommentId;
+        if (invalidatedAt == null) {
+            viewerKeysByCommentId = commentVisibilityDb.getViewerKeysForViewer(student.course,
+                                                                               viewerTypes.keySet());
+            comments = commentsDb.getCommentsForIds(viewerKeysByCommentId.keySet());
+        } else {
+            comments = commentsDb.getCommentsForCourse(student.course);
+            Map<Long, Set<String>> allViewerKeysByCommentId = rebuildIndex(student.course, comments, invalidatedAt);
+            viewerKeysByCommentId = new HashMap<Long, Set<String>>();
+            for (Map.Entry<Long, Set<String>> entry : allViewerKeysByCommentId.entrySet()) {
+                Set<String> viewerKeys = new HashSet<String>(entry.getValue());
+                viewerKeys.retainAll(viewerTypes.keySet());
+                viewerKeysByCommentId.put(entry.getKey(), viewerKeys);
+            }
+        }
         
-        return comments;
+        List<CommentAttributes> visibleComments = new ArrayList<CommentAttributes>();
+        for (CommentAttributes c : comments) {
+            CommentParticipantType relation = getClosestRelation(viewerKeysByCommentId.get(c.getCommentId()),
+                                                                 viewerTypes);
+            //the comment is only visible if it is shown to the closest group of the student that it relates to
+            if (relation != null && c.showCommentTo.contains(relation)) {
+                removeNamesForStudent(c, relation);
+                visibleComments.add(c);
+            }
+        }
+        
+        java.util.Collections.sort(visibleComments);
+        
+        return visibleComments;
     }
     
-    private List<String> getTeamsForSection(List<StudentAttributes> studentsInTheSameSection) {
-        List<String> teams = new ArrayList<String>();
-        for (StudentAttributes stu : studentsInTheSameSection) {
-            teams.add(stu.team);
-        }
-        return teams;
+    /**
+     * @return the groups that the student belongs to, by the keys of the groups in the index
+     */
+    private Map<String, CommentParticipantType> getViewerTypesForStudent(StudentAttributes student) {
+        Map<String, CommentParticipantType> viewerTypes = new HashMap<String, CommentParticipantType>();
+        viewerTypes.put(CommentVisibilityDb.getViewerKey(CommentParticipantType.PERSON, student.email),
+                        CommentParticipantType.PERSON);
+        viewerTypes.put(CommentVisibilityDb.getViewerKey(CommentParticipantType.TEAM, student.team),
+                        CommentParticipantType.TEAM);
+        viewerTypes.put(CommentVisibilityDb.getViewerKey(CommentParticipantType.SECTION, student.section),
+                        CommentParticipantType.SECTION);
+        viewerTypes.put(CommentVisibilityDb.getViewerKey(CommentParticipantType.COURSE, student.course),
+                        CommentParticipantType.COURSE);
+        return viewerTypes;
     }
-
-    private List<String> getSectionStudentsEmails(List<StudentAttributes> studentsInTheSameSection) {
-        List<String> sectionStudentsEmails = new ArrayList<String>();
-        for (StudentAttributes stu : studentsInTheSameSection) {
-            sectionStudentsEmails.add(stu.email);
+    
+    /**
+     * @return the smallest of the groups of the student that the comment relates to,
+     *         or null if the comment does not relate to the student
+     */
+    private CommentParticipantType getClosestRelation(Set<String> viewerKeys,
+                                                      Map<String, CommentParticipantType> viewerTypes) {
+        if (viewerKeys == null) {
+            return null;
+        }
+        CommentParticipantType closestRelation = null;
+        for (String viewerKey : viewerKeys) {
+            CommentParticipantType relation = viewerTypes.get(viewerKey);
+            // PERSON, TEAM, SECTION and COURSE are declared from the smallest group to the largest
+            if (relation != null && (closestRelation == null || relation.ordinal() < closestRelation.ordinal())) {
+                closestRelation = relation;
+            }
         }
-        return sectionStudentsEmails;
+        return closestRelation;
     }
     
-    private List<String> getTeammatesEmails(List<StudentAttributes> teammates) {
-        List<String> teammatesEmails = new ArrayList<String>();
-        for (StudentAttributes teammate : teammates) {
-            teammatesEmails.add(teammate.email);
+    private void removeNamesForStudent(CommentAttributes c, CommentParticipantType relation) {
+        switch (relation) {
+        case PERSON:
+            removeGiverNameByVisibilityOptions(c, relation);
+            break;
+        case TEAM:
+        case SECTION:
+            if (c.recipientType == CommentParticipantType.PERSON) {
+                removeGiverAndRecipientNameByVisibilityOptions(c, relation);
+            } else {
+                removeGiverNameByVisibilityOptions(c, relation);
+            }
+            break;
+        default:
+            if (c.recipientType == CommentParticipantType.COURSE) {
+                removeGiverNameByVisibilityOptions(c, relation);
+            } else {
+                removeGiverAndRecipientNameByVisibilityOptions(c, relation);
+            }
+            break;
         }
-        return teammatesEmails;
     }
-
-    private void removeNonVisibleCommentsForCourse(List<CommentAttributes> commentsForCourse,                                                   StudentAttributes student,
-                                                   List<String> teammates, List<String> sectionStudentsEmails,
-                                                   List<String> teamsInThisSection, HashSet<String> commentsVisitedSet,
-                                                   List<CommentAttributes> comments) {
-        removeNonVisibleCommentsForSection(commentsForCourse, student, teammates,
-                                           sectionStudentsEmails, teamsInThisSection,
-                                           commentsVisitedSet, comments);
+    
+    /**
+     * Rebuilds the index of the course from the given comments, which are all the comments of the course.
+     * The rebuilt index is only saved if it was invalidated long enough ago for the queries
+     * of the comments and students to see the writes before the invalidation.
+     * @return the groups of students that each comment relates to, by comment id
+     */
+    private Map<Long, Set<String>> rebuildIndex(String courseId, List<CommentAttributes> commentsForCourse,
+                                                Date invalidatedAt) {
+        CourseRoster roster = new CourseRoster(studentsLogic.getStudentsForCourse(courseId),
+                                               new ArrayList<InstructorAttributes>());
+        Map<String, Set<String>> teamSectionTable = getTeamSectionTable(roster);
         
+        Map<Long, Set<String>> viewerKeysByCommentId = new HashMap<Long, Set<String>>();
         for (CommentAttributes c : commentsForCourse) {
-            if (c.courseId.equals(student.course)) {
-                if (c.recipientType == CommentParticipantType.COURSE) {
-                    removeGiverNameByVisibilityOptions(c, CommentParticipantType.COURSE);
-                } else {
-                    removeGiverAndRecipientNameByVisibilityOptions(c, CommentParticipantType.COURSE);
-                }
-                appendComments(c, comments, commentsVisitedSet);
-            }
+            viewerKeysByCommentId.put(c.getCommentId(), getViewerKeys(c, roster, teamSectionTable));
+        }
+        
+        if (InvalidatableAggregatesDb.isSafeToSaveRebuild(invalidatedAt)) {
+            commentVisibilityDb.saveRebuiltIndex(courseId, viewerKeysByCommentId, invalidatedAt);
         }
+        return viewerKeysByCommentId;
+    }
+    
+    private void indexComment(CommentAttributes comment) {
+        indexComment(comment, Collections.<StudentAttributes>emptyList());
     }
     
-    private void removeNonVisibleCommentsForSection(List<CommentAttributes> commentsForSection,
-            StudentAttributes student, List<String> teammatesEmails, List<String> sectionStudentsEmails,
-            List<String> teamsInThisSection, HashSet<String> commentsVisitedSet, List<CommentAttributes> comments) {
-        removeNonVisibleCommentsForTeam(commentsForSection, student, teammatesEmails, commentsVisitedSet, comments);
+    /**
+     * Indexes the comment from the students it relates to, rather than from all the students of the course.
+     * @param updatedStudents students that have just been saved, which replace the ones read
+     *         from the datastore as the queries may not see them yet
+     */
+    private void indexComment(CommentAttributes comment, List<StudentAttributes> updatedStudents) {
+        Set<String> viewerKeys = new HashSet<String>();
+        if (isShownToStudents(comment)) {
+            List<StudentAttributes> relatedStudents = getStudentsRelatedToComment(comment, updatedStudents);
+            CourseRoster roster = new CourseRoster(relatedStudents, new ArrayList<InstructorAttributes>());
+            viewerKeys = getViewerKeys(comment, roster, getTeamSectionTable(roster));
+        }
+        commentVisibilityDb.setViewerKeys(comment.courseId, comment.getCommentId(), viewerKeys);
+    }
+    
+    /**
+     * @return the students that the comment is given to, or all the students of the teams it is given to.
+     *         These are all the students that {@link #getViewerKeys} reads for the comment.
+     */
+    private List<StudentAttributes> getStudentsRelatedToComment(CommentAttributes c,
+                                                                List<StudentAttributes> updatedStudents) {
+        Map<String, StudentAttributes> updatedStudentsByEmail = new HashMap<String, StudentAttributes>();
+        for (StudentAttributes student : updatedStudents) {
+            updatedStudentsByEmail.put(student.email, student);
+        }
         
-        for (CommentAttributes c : commentsForSection) {
-            //for teammates
-            if (c.recipientType == CommentParticipantType.PERSON
-                && isCommentRecipientsWithinGroup(sectionStudentsEmails, c)) {
-                if (c.showCommentTo.contains(CommentParticipantType.SECTION)) {
-                    removeGiverAndRecipientNameByVisibilityOptions(c, CommentParticipantType.SECTION);
-                    appendComments(c, comments, commentsVisitedSet);
-                } else {
-                    preventAppendingThisCommentAgain(commentsVisitedSet, c);
+        List<StudentAttributes> relatedStudents = new ArrayList<StudentAttributes>();
+        if (c.recipientType == CommentParticipantType.PERSON) {
+            for (String recipient : c.recipients) {
+                StudentAttributes student = updatedStudentsByEmail.get(recipient);
+                if (student == null) {
+                    student = studentsLogic.getStudentForEmail(c.courseId, recipient);
                 }
-            //for team
-            } else if (c.recipientType == CommentParticipantType.TEAM 
-                       && isCommentRecipientsWithinGroup(teamsInThisSection, c)) {
-                if (c.showCommentTo.contains(CommentParticipantType.SECTION)) {
-                    removeGiverNameByVisibilityOptions(c, CommentParticipantType.SECTION);
-                    appendComments(c, comments, commentsVisitedSet);
-                } else {
-                    preventAppendingThisCommentAgain(commentsVisitedSet, c);
+                if (student != null) {
+                    relatedStudents.add(student);
                 }
-            //for section
-            } else if (c.recipientType == CommentParticipantType.SECTION && c.recipients.contains(student.section)) {
-                if (c.showCommentTo.contains(CommentParticipantType.SECTION)) {
-                    removeGiverNameByVisibilityOptions(c, CommentParticipantType.SECTION);
-                    appendComments(c, comments, commentsVisitedSet);
-                } else {
-                    preventAppendingThisCommentAgain(commentsVisitedSet, c);
+            }
+        } else if (c.recipientType == CommentParticipantType.TEAM) {
+            for (String recipient : c.recipients) {
+                for (StudentAttributes student : studentsLogic.getStudentsForTeam(recipient, c.courseId)) {
+                    if (!updatedStudentsByEmail.containsKey(student.email)) {
+                        relatedStudents.add(student);
+                    }
+                }
+                for (StudentAttributes student : updatedStudents) {
+                    if (student.team.equals(recipient)) {
+                        relatedStudents.add(student);
+                    }
                 }
             }
         }
+        return relatedStudents;
     }
     
-    private void removeNonVisibleCommentsForTeam(List<CommentAttributes> commentsForTeam, StudentAttributes student,
-                                                 List<String> teammates, HashSet<String> commentsVisitedSet,
-                                                 List<CommentAttributes> comments) {
-        for (CommentAttributes c : commentsForTeam) {
-            //for teammates
-            if (c.recipientType == CommentParticipantType.PERSON && isCommentRecipientsWithinGroup(teammates, c)) {
-                if (c.showCommentTo.contains(CommentParticipantType.TEAM)) {
-                    removeGiverAndRecipientNameByVisibilityOptions(c, CommentParticipantType.TEAM);
-                    appendComments(c, comments, commentsVisitedSet);
-                } else {
-                    preventAppendingThisCommentAgain(commentsVisitedSet, c);
-                }
-            //for team
-            } else if (c.recipientType == CommentParticipantType.TEAM && c.recipients.contains(student.team)) {
-                if (c.showCommentTo.contains(CommentParticipantType.TEAM)) {
-                    removeGiverNameByVisibilityOptions(c, CommentParticipantType.TEAM);
-                    appendComments(c, comments, commentsVisitedSet);
-                } else {
-                    preventAppendingThisCommentAgain(commentsVisitedSet, c);
-                }
+    /**
+     * @return the sections of the students of each team, by team name
+     */
+    private Map<String, Set<String>> getTeamSectionTable(CourseRoster roster) {
+        Map<String, Set<String>> teamSectionTable = new HashMap<String, Set<String>>();
+        for (StudentAttributes student : roster.getStudents()) {
+            Set<String> sections = teamSectionTable.get(student.team);
+            if (sections == null) {
+                sections = new HashSet<String>();
+                teamSectionTable.put(student.team, sections);
             }
+            sections.add(student.section);
         }
+        return teamSectionTable;
     }
-
-    private void removeNonVisibleCommentsForStudent(List<CommentAttributes> commentsForStudent,
-                                                    HashSet<String> commentsVisitedSet,
-                                                    List<CommentAttributes> comments) {
-        for (CommentAttributes c : commentsForStudent) {
-            if (c.showCommentTo.contains(CommentParticipantType.PERSON)) {
-                removeGiverNameByVisibilityOptions(c, CommentParticipantType.PERSON);
-                appendComments(c, comments, commentsVisitedSet);
-            } else {
-                preventAppendingThisCommentAgain(commentsVisitedSet, c);
+    
+    /**
+     * @return the keys of the groups of students that the comment relates to, i.e. the students
+     *         it is given to and their teams and sections, and the course if it is shown to the course.
+     *         Comments that are not shown to any student relate to no group.
+     */
+    private Set<String> getViewerKeys(CommentAttributes c, CourseRoster roster,
+                                      Map<String, Set<String>> teamSectionTable) {
+        Set<String> viewerKeys = new HashSet<String>();
+        if (!isShownToStudents(c)) {
+            return viewerKeys;
+        }
+        
+        // groups that the comment is not shown to are kept as well, as they hide the comment
+        // from students for whom they are the closest group that the comment relates to
+        if (c.recipientType == CommentParticipantType.PERSON) {
+            for (String recipient : c.recipients) {
+                viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.PERSON, recipient));
+                StudentAttributes recipientStudent = roster.getStudentForEmail(recipient);
+                if (recipientStudent != null) {
+                    viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.TEAM,
+                                                                    recipientStudent.team));
+                    viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.SECTION,
+                                                                    recipientStudent.section));
+                }
+            }
+        } else if (c.recipientType == CommentParticipantType.TEAM) {
+            for (String recipient : c.recipients) {
+                viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.TEAM, recipient));
+                Set<String> sections = teamSectionTable.get(recipient);
+                if (sections != null) {
+                    for (String section : sections) {
+                        viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.SECTION, section));
+                    }
+                }
+            }
+        } else if (c.recipientType == CommentParticipantType.SECTION) {
+            for (String recipient : c.recipients) {
+                viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.SECTION, recipient));
             }
         }
+        
+        if (c.showCommentTo.contains(CommentParticipantType.COURSE)) {
+            viewerKeys.add(CommentVisibilityDb.getViewerKey(CommentParticipantType.COURSE, c.courseId));
+        }
+        return viewerKeys;
+    }
+    
+    private boolean isShownToStudents(CommentAttributes c) {
+        return c.showCommentTo.contains(CommentParticipantType.PERSON)
+               || c.showCommentTo.contains(CommentParticipantType.TEAM)
+               || c.showCommentTo.contains(CommentParticipantType.SECTION)
+               || c.showCommentTo.contains(CommentParticipantType.COURSE);
     }
     
     private void removeGiverNameByVisibilityOptions(CommentAttributes c, CommentParticipantType viewerType) {
@@ -457,15 +626,6 @@ public class CommentsLogic {
         commentsVisitedSet.add(c.getCommentId().toString());
     }
 
-    private boolean isCommentRecipientsWithinGroup(List<String> group, CommentAttributes c) {
-        for (String recipient : c.recipients) {
-            if (group.contains(recipient)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
     /************ Send Email For Pending Comments ************/
     
     /**
@@ -476,9 +636,9 @@ public class CommentsLogic {
      * @throws EntityDoesNotExistException when the course doesn't exist
      */
     public Set<String> getRecipientEmailsForSendingComments(String courseId) throws EntityDoesNotExistException {
-        List<StudentAttributes> allStudents = new StudentsDb().getStudentsForCourse(courseId);
+        List<StudentAttributes> allStudents = studentsLogic.getStudentsForCourse(courseId);
 
-        CourseRoster roster = new CourseRoster(allStudents, new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = new CourseRoster(allStudents, instructorsLogic.getInstructorsForCourse(courseId));
         
         Map<String, List<StudentAttributes>> teamStudentTable = new HashMap<String, List<StudentAttributes>>();
         Map<String, List<StudentAttributes>> sectionStudentTable = new HashMap<String, List<StudentAttributes>>();
@@ -4,16 +4,21 @@ import static teammates.common.util.Const.EOL;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseStatisticsAttributes;
+import teammates.common.datatransfer.CourseStats;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
@@ -31,8 +36,11 @@ import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
+import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
+import teammates.storage.api.CourseStatisticsDb;
 import teammates.storage.api.CoursesDb;
+import teammates.storage.api.InvalidatableAggregatesDb;
 
 /**
  * Handles operations related to courses.
@@ -58,6 +66,7 @@ public class CoursesLogic {
      */
 
     private static final CoursesDb coursesDb = new CoursesDb();
+    private static final CourseStatisticsDb courseStatisticsDb = new CourseStatisticsDb();
     
     private static final StudentsLogic studentsLogic = StudentsLogic.inst();
     private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
@@ -423,33 +432,70 @@ public class CoursesLogic {
     }
 
     public int getNumberOfSections(String courseID) throws EntityDoesNotExistException {
-        List<String> sectionNameList = getSectionsNameForCourse(courseID);
-        return sectionNameList.size();
+        verifyCourseIsPresent(courseID);
+        return getCourseStats(courseID).sectionsTotal;
     }
 
     public int getNumberOfTeams(String courseID) throws EntityDoesNotExistException {
         verifyCourseIsPresent(courseID);
-        List<StudentAttributes> studentDataList = studentsLogic.getStudentsForCourse(courseID);
-
-        List<String> teamNameList = new ArrayList<String>();
-
-        for (StudentAttributes sd : studentDataList) {
-            if (!teamNameList.contains(sd.team)) {
-                teamNameList.add(sd.team);
-            }
-        }
-
-        return teamNameList.size();
+        return getCourseStats(courseID).teamsTotal;
     }
 
     public int getTotalEnrolledInCourse(String courseId) throws EntityDoesNotExistException {
         verifyCourseIsPresent(courseId);
-        return studentsLogic.getStudentsForCourse(courseId).size();
+        return getCourseStats(courseId).studentsTotal;
     }
 
     public int getTotalUnregisteredInCourse(String courseId) throws EntityDoesNotExistException {
         verifyCourseIsPresent(courseId);
-        return studentsLogic.getUnregisteredStudentsForCourse(courseId).size();
+        return getCourseStats(courseId).unregisteredTotal;
+    }
+
+    /**
+     * Gets the statistics of the course from the counts maintained as its students are written.
+     * The counts are rebuilt from the students of the course if they are missing or invalidated.
+     * Rebuilt counts are only saved if the statistics were invalidated long enough ago for the query
+     * of the students to see the writes before the invalidation.
+     */
+    public CourseStats getCourseStats(String courseId) {
+        CourseStatisticsAttributes statistics = courseStatisticsDb.getCourseStatistics(courseId);
+        if (statistics != null && statistics.isUpToDate()) {
+            return statistics.getCourseStats();
+        }
+
+        if (statistics == null) {
+            courseStatisticsDb.invalidateCourseStatistics(courseId);
+            statistics = courseStatisticsDb.getCourseStatistics(courseId);
+        }
+        Date invalidatedAt = statistics.updatedAt;
+
+        CourseStatisticsAttributes rebuiltStatistics =
+                new CourseStatisticsAttributes(courseId, studentsLogic.getStudentsForCourse(courseId));
+        if (InvalidatableAggregatesDb.isSafeToSaveRebuild(invalidatedAt)) {
+            courseStatisticsDb.saveRebuiltCourseStatistics(rebuiltStatistics, invalidatedAt);
+        }
+        return rebuiltStatistics.getCourseStats();
+    }
+
+    /**
+     * Gets the statistics of all the courses, reading the maintained counts with one batch get.
+     * Only the courses whose counts are missing or invalidated are rebuilt one by one.
+     * @return a map from course ID to the statistics of the course.
+     */
+    public Map<String, CourseStats> getCourseStatsForCourses(List<String> courseIds) {
+        Map<String, CourseStats> courseStatsList = new HashMap<String, CourseStats>();
+        for (CourseStatisticsAttributes statistics : courseStatisticsDb.getCourseStatisticsForCourses(courseIds)) {
+            if (statistics.isUpToDate()) {
+                courseStatsList.put(statistics.courseId, statistics.getCourseStats());
+            }
+        }
+        
+        for (String courseId : courseIds) {
+            if (!courseStatsList.containsKey(courseId)) {
+                courseStatsList.put(courseId, getCourseStats(courseId));
+            }
+        }
+        return courseStatsList;
     }
 
     public CourseDetailsBundle getCourseSummary(CourseAttributes cd) throws EntityDoesNotExistException {
@@ -592,8 +638,16 @@ public class CoursesLogic {
             log.severe("Course(s) was deleted but the instructor still exists: " + Const.EOL + courseIdList.toString());
         }
         
+        List<String> existingCourseIdList = new ArrayList<String>();
+        for (CourseAttributes ca : courseList) {
+            existingCourseIdList.add(ca.id);
+        }
+        Map<String, CourseStats> courseStatsList = getCourseStatsForCourses(existingCourseIdList);
+        
         for (CourseAttributes ca : courseList) {
-            courseSummaryList.put(ca.id, getCourseSummary(ca));
+            CourseDetailsBundle courseSummary = new CourseDetailsBundle(ca);
+            courseSummary.stats = courseStatsList.get(ca.id);
+            courseSummaryList.put(ca.id, courseSummary);
         }
         
         return courseSummaryList;
@@ -610,14 +664,40 @@ public class CoursesLogic {
                                                                                    boolean omitArchived) 
            throws EntityDoesNotExistException {
         
-        HashMap<String, CourseDetailsBundle> courseList = 
-                getCourseSummariesForInstructor(instructorId, omitArchived);
+        instructorsLogic.verifyInstructorExists(instructorId);
+        
+        List<InstructorAttributes> instructorList =
+                instructorsLogic.getInstructorsForGoogleId(instructorId, omitArchived);
+        
+        // the sessions are read in this thread, so that they are cached for the rest of the request
+        final List<FeedbackSessionAttributes> sessions =
+                feedbackSessionsLogic.getFeedbackSessionsListForInstructor(instructorList);
+        
+        // the response statistics of the sessions are computed while the course summaries are assembled,
+        // as they are independent
+        Future<List<FeedbackSessionDetailsBundle>> feedbackSessionListFuture = ThreadHelper.startInRequestThread(
+                new Callable<List<FeedbackSessionDetailsBundle>>() {
+                    @Override
+                    public List<FeedbackSessionDetailsBundle> call() {
+                        try {
+                            return feedbackSessionsLogic.getFeedbackSessionDetails(sessions);
+                        } catch (EntityDoesNotExistException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+        
+        HashMap<String, CourseDetailsBundle> courseList = getCourseSummariesForInstructor(instructorList);
         
-        // TODO: remove need for lower level functions to make repeated db calls
-        // getFeedbackSessionDetailsForInstructor
-        // The above functions make repeated calls to get InstructorAttributes
-        List<FeedbackSessionDetailsBundle> feedbackSessionList = 
-                feedbackSessionsLogic.getFeedbackSessionDetailsForInstructor(instructorId, omitArchived);
+        List<FeedbackSessionDetailsBundle> feedbackSessionList;
+        try {
+            feedbackSessionList = ThreadHelper.getResult(feedbackSessionListFuture);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof EntityDoesNotExistException) {
+                throw (EntityDoesNotExistException) e.getCause();
+            }
+            throw e;
+        }
         
         for (FeedbackSessionDetailsBundle fsb : feedbackSessionList) {
             CourseDetailsBundle courseSummary = courseList.get(fsb.feedbackSession.courseId);
@@ -715,8 +795,8 @@ public class CoursesLogic {
     
     public String getCourseStudentListAsCsv(String courseId, String googleId) throws EntityDoesNotExistException {
 
-        HashMap<String, CourseDetailsBundle> courses = getCourseSummariesForInstructor(googleId, false);
-        CourseDetailsBundle course = courses.get(courseId);
+        instructorsLogic.verifyInstructorExists(googleId);
+        CourseDetailsBundle course = getCourseSummary(courseId);
         boolean hasSection = hasIndicatedSections(courseId);
         
         String export = "";
@@ -2,8 +2,11 @@ package teammates.logic.core;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -24,6 +27,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.jsoup.Jsoup;
 
 import com.google.appengine.labs.repackaged.org.json.JSONException;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
@@ -32,6 +37,7 @@ import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.UserType;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
@@ -70,6 +76,10 @@ public class Emails {
         PENDING_COMMENT_CLEARED
     };
     
+    /** Substitution tags for the parts of the bodies that differ between the emails of a batch */
+    public static final String BATCH_HTML_SUBSTITUTION_TAG = "-teammatesBatchHtml-";
+    public static final String BATCH_TEXT_SUBSTITUTION_TAG = "-teammatesBatchText-";
+    
     private String senderEmail;
     private String senderName;
     private String replyTo;
@@ -649,13 +659,13 @@ public class Emails {
             return;
         }
         
-        // Equally spread out the emails to be sent over 1 hour
+        if (Config.isUsingSendgrid()) {
+            sendEmailsInBatches(messages);
+            return;
+        }
+        
         int numberOfEmailsSent = 0;
-        int emailIntervalMillis = (1000 * 60 * 60) / messages.size();
-
-        // Sets interval to a maximum of 5 seconds if the interval is too large
-        int maxIntervalMillis = 5000;
-        emailIntervalMillis = emailIntervalMillis > maxIntervalMillis ? maxIntervalMillis : emailIntervalMillis;
+        int emailIntervalMillis = getEmailTaskIntervalMillis(messages.size());
 
         for (MimeMessage m : messages) {
             try {
@@ -669,6 +679,157 @@ public class Emails {
         }
 
     }
+    
+    /**
+     * Sends the emails with one task, and one Sendgrid call, for every batch
+     * of emails given by {@link #groupEmailsIntoBatches(List)}.
+     */
+    private void sendEmailsInBatches(List<MimeMessage> messages) {
+        List<List<MimeMessage>> batches;
+        try {
+            batches = groupEmailsIntoBatches(messages);
+        } catch (MessagingException | IOException e) {
+            log.severe("Error in grouping emails into batches, sending them individually. Cause : "
+                       + e.getMessage());
+            batches = new ArrayList<List<MimeMessage>>();
+            for (MimeMessage m : messages) {
+                batches.add(Arrays.asList(m));
+            }
+        }
+        
+        int numberOfBatchesSent = 0;
+        int batchIntervalMillis = getEmailTaskIntervalMillis(batches.size());
+        
+        for (List<MimeMessage> batch : batches) {
+            try {
+                if (getBatchTaskPayloadSize(batch) > SystemParams.SENDGRID_MAX_TASK_PAYLOAD_SIZE_PER_BATCH) {
+                    // an email too large for any task is sent within this request
+                    sendEmailBatchWithLogging(batch);
+                    continue;
+                }
+                long batchDelayTimer = numberOfBatchesSent * batchIntervalMillis;
+                addEmailBatchToTaskQueue(batch, batchDelayTimer);
+                numberOfBatchesSent++;
+            } catch (MessagingException | IOException | JSONException e) {
+                log.severe("Error in sending batch of " + batch.size() + " emails starting with : "
+                        + batch.get(0).toString() + " Cause : " + e.getMessage());
+            }
+        }
+    }
+    
+    private int getEmailTaskIntervalMillis(int numberOfTasks) {
+        // Equally spread out the tasks over 1 hour
+        int intervalMillis = (1000 * 60 * 60) / numberOfTasks;
+
+        // Sets interval to a maximum of 5 seconds if the interval is too large
+        int maxIntervalMillis = 5000;
+        return intervalMillis > maxIntervalMillis ? maxIntervalMillis : intervalMillis;
+    }
+    
+    /**
+     * Groups emails that have the same subject, sender and reply-to address into batches
+     * that are sent with one Sendgrid call. A batch has at most
+     * {@link SystemParams#SENDGRID_MAX_EMAILS_PER_BATCH} emails and, unless it has only
+     * one email, fits in a task payload of {@link SystemParams#SENDGRID_MAX_TASK_PAYLOAD_SIZE_PER_BATCH}
+     * bytes as encoded by {@link #addEmailBatchToTaskQueue(List, long)}. Emails with more than
+     * one receiver or with BCC receivers are put in batches of their own.
+     */
+    public List<List<MimeMessage>> groupEmailsIntoBatches(List<MimeMessage> messages)
+            throws MessagingException, IOException {
+        List<List<MimeMessage>> batches = new ArrayList<List<MimeMessage>>();
+        Map<String, List<MimeMessage>> emailsByHeader = new LinkedHashMap<String, List<MimeMessage>>();
+        
+        for (MimeMessage m : messages) {
+            Address[] bccReceivers = m.getRecipients(Message.RecipientType.BCC);
+            if (m.getRecipients(Message.RecipientType.TO).length != 1
+                    || bccReceivers != null && bccReceivers.length > 0) {
+                batches.add(Arrays.asList(m));
+                continue;
+            }
+            
+            String header = m.getSubject() + "\n" + m.getFrom()[0].toString()
+                            + "\n" + m.getReplyTo()[0].toString();
+            List<MimeMessage> emails = emailsByHeader.get(header);
+            if (emails == null) {
+                emails = new ArrayList<MimeMessage>();
+                emailsByHeader.put(header, emails);
+            }
+            emails.add(m);
+        }
+        
+        for (List<MimeMessage> emails : emailsByHeader.values()) {
+            int headerSize = getBatchTaskHeaderSize(emails.get(0));
+            List<MimeMessage> batch = new ArrayList<MimeMessage>();
+            int batchPayloadSize = headerSize;
+            for (MimeMessage m : emails) {
+                int emailSize = getBatchTaskEmailSize(m);
+                if (!batch.isEmpty()
+                        && (batch.size() == SystemParams.SENDGRID_MAX_EMAILS_PER_BATCH
+                            || batchPayloadSize + emailSize > SystemParams.SENDGRID_MAX_TASK_PAYLOAD_SIZE_PER_BATCH)) {
+                    batches.add(batch);
+                    batch = new ArrayList<MimeMessage>();
+                    batchPayloadSize = headerSize;
+                }
+                batch.add(m);
+                batchPayloadSize += emailSize;
+            }
+            batches.add(batch);
+        }
+        
+        return batches;
+    }
+
+    /**
+     * @return the size of the payload of the task added for the batch by
+     *         {@link #addEmailBatchToTaskQueue(List, long)}, or an upper bound of it.
+     */
+    private int getBatchTaskPayloadSize(List<MimeMessage> batch) throws MessagingException, IOException {
+        int payloadSize = getBatchTaskHeaderSize(batch.get(0));
+        for (MimeMessage m : batch) {
+            payloadSize += getBatchTaskEmailSize(m);
+        }
+        return payloadSize;
+    }
+
+    /**
+     * @return an upper bound of the size taken in the payload of a batch task by the parameters
+     *         other than the receivers and contents of its emails.
+     */
+    private int getBatchTaskHeaderSize(MimeMessage firstMessage) throws MessagingException {
+        int headerSize = getEncodedLength(firstMessage.getSubject())
+                         + getEncodedLength(firstMessage.getFrom()[0].toString())
+                         + getEncodedLength(firstMessage.getReplyTo()[0].toString());
+        // the names of the parameters, their separators and the brackets of the two lists
+        return headerSize + 200;
+    }
+
+    /**
+     * @return the size taken by the receiver and the content of the email
+     *         in the payload of a batch task, including the separators in the lists.
+     */
+    private int getBatchTaskEmailSize(MimeMessage m) throws MessagingException, IOException {
+        Gson gson = getEmailBatchGson();
+        return getEncodedLength(gson.toJson(m.getRecipients(Message.RecipientType.TO)[0].toString()))
+               + getEncodedLength(gson.toJson(m.getContent().toString()))
+               + 2 * getEncodedLength(",");
+    }
+
+    private int getEncodedLength(String value) {
+        try {
+            return URLEncoder.encode(value, SystemParams.ENCODING).length();
+        } catch (UnsupportedEncodingException e) {
+            Assumption.fail("Unsupported encoding: " + SystemParams.ENCODING);
+            return 0;
+        }
+    }
+
+    /**
+     * The lists of a batch are serialized without pretty printing or escaping of HTML characters,
+     * as both only make the payload of its task larger.
+     */
+    private static Gson getEmailBatchGson() {
+        return new GsonBuilder().disableHtmlEscaping().create();
+    }
 
     public void addEmailToTaskQueue(MimeMessage message, long emailDelayTimer) throws MessagingException {
         String emailSubject = message.getSubject();
@@ -696,6 +857,81 @@ public class Emails {
         
     }
     
+    /**
+     * Adds a batch given by {@link #groupEmailsIntoBatches(List)} to the task queue,
+     * to be sent by one task that is retried as a whole if the batch cannot be sent.
+     * The batch is sent within the request if the task cannot be added.
+     */
+    public void addEmailBatchToTaskQueue(List<MimeMessage> batch, long emailDelayTimer)
+            throws MessagingException, IOException {
+        MimeMessage firstMessage = batch.get(0);
+        String emailSubject = firstMessage.getSubject();
+        String emailSender = firstMessage.getFrom()[0].toString();
+        String emailReplyToAddress = firstMessage.getReplyTo()[0].toString();
+        
+        List<String> emailReceivers = new ArrayList<String>();
+        List<String> emailContents = new ArrayList<String>();
+        for (MimeMessage m : batch) {
+            emailReceivers.add(m.getRecipients(Message.RecipientType.TO)[0].toString());
+            emailContents.add(m.getContent().toString());
+        }
+        
+        try {
+            Gson gson = getEmailBatchGson();
+            HashMap<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.EMAIL_SUBJECT, emailSubject);
+            paramMap.put(ParamsNames.EMAIL_SENDER, emailSender);
+            paramMap.put(ParamsNames.EMAIL_REPLY_TO_ADDRESS, emailReplyToAddress);
+            paramMap.put(ParamsNames.EMAIL_RECEIVERS, gson.toJson(emailReceivers));
+            paramMap.put(ParamsNames.EMAIL_CONTENTS, gson.toJson(emailContents));
+            
+            TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+            taskQueueLogic.createAndAddDeferredTask(SystemParams.SEND_EMAIL_TASK_QUEUE,
+                    Const.ActionURIs.SEND_EMAIL_BATCH_WORKER, paramMap, emailDelayTimer);
+        } catch (Exception e) {
+            log.severe("Error when adding email batch to task queue, sending it now instead: "
+                       + e.getMessage() + "\n"
+                       + "Email sender: " + emailSender + "\n"
+                       + "Email receivers: " + emailReceivers + "\n"
+                       + "Email subject: " + emailSubject + "\n"
+                       + "Email reply to address: " + emailReplyToAddress);
+            try {
+                sendEmailBatchWithLogging(batch);
+            } catch (JSONException jsonException) {
+                throw new MessagingException("Failed to send batch: " + jsonException.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Sends a batch given by {@link #groupEmailsIntoBatches(List)} with one Sendgrid call,
+     * or sends its emails individually through GAE if Sendgrid is not used.
+     * @throws MessagingException if Sendgrid fails to send the batch, so that it can be retried
+     */
+    public void sendEmailBatchWithLogging(List<MimeMessage> batch)
+            throws MessagingException, JSONException, IOException {
+        if (!Config.isUsingSendgrid()) {
+            for (MimeMessage m : batch) {
+                sendUsingGae(m);
+                generateLogReport(m);
+            }
+            return;
+        }
+        
+        Sendgrid email = parseMimeMessagesToSendgrid(batch);
+        log.info(getEmailInfo(email) + "|batchSize=" + batch.size());
+        
+        email.send();
+        if (!"success".equals(email.getServerResponse())) {
+            throw new MessagingException("Sendgrid failed to send a batch of " + batch.size()
+                                         + " emails: " + email.getServerResponse());
+        }
+        
+        for (MimeMessage m : batch) {
+            generateLogReport(m);
+        }
+    }
+    
     public void sendEmailWithLogging(MimeMessage message) throws MessagingException, JSONException, IOException {
         sendEmail(message, true);
     }
@@ -948,6 +1184,83 @@ public class Emails {
         return email;
     }
 
+    /**
+     * Parses a batch given by {@link #groupEmailsIntoBatches(List)} to one Sendgrid email
+     * addressed to all receivers of the batch. The parts of the contents that are the same for
+     * all emails are sent once, and the rest is sent as a substitution value for each receiver.
+     */
+    public Sendgrid parseMimeMessagesToSendgrid(List<MimeMessage> batch)
+            throws MessagingException, JSONException, IOException {
+        if (batch.size() == 1) {
+            return parseMimeMessageToSendgrid(batch.get(0));
+        }
+        
+        Sendgrid email = new Sendgrid(Config.SENDGRID_USERNAME, Config.SENDGRID_PASSWORD);
+        
+        List<String> htmls = new ArrayList<String>();
+        List<String> texts = new ArrayList<String>();
+        for (MimeMessage m : batch) {
+            email.addTo(m.getRecipients(Message.RecipientType.TO)[0].toString());
+            String html = m.getContent().toString();
+            htmls.add(html);
+            texts.add(Jsoup.parse(html).text());
+        }
+        
+        MimeMessage firstMessage = batch.get(0);
+        String from = extractSenderEmail(firstMessage.getFrom()[0].toString());
+        
+        email.setFrom(from)
+             .setSubject(firstMessage.getSubject())
+             .setHtml(getBatchTemplate(email, BATCH_HTML_SUBSTITUTION_TAG, htmls))
+             .setText(getBatchTemplate(email, BATCH_TEXT_SUBSTITUTION_TAG, texts));
+        
+        if (firstMessage.getReplyTo() != null && firstMessage.getReplyTo().length > 0) {
+            email.setReplyTo(firstMessage.getReplyTo()[0].toString());
+        }
+        
+        return email;
+    }
+    
+    /**
+     * Adds the part of each body that differs from the other bodies as the values
+     * of {@code tag} to the email.
+     * @return the common beginning and end of the bodies with {@code tag} in between
+     */
+    private String getBatchTemplate(Sendgrid email, String tag, List<String> bodies) throws JSONException {
+        String firstBody = bodies.get(0);
+        int commonPrefixLength = firstBody.length();
+        int minBodyLength = firstBody.length();
+        for (String body : bodies) {
+            commonPrefixLength = Math.min(commonPrefixLength, body.length());
+            minBodyLength = Math.min(minBodyLength, body.length());
+            int i = 0;
+            while (i < commonPrefixLength && body.charAt(i) == firstBody.charAt(i)) {
+                i++;
+            }
+            commonPrefixLength = i;
+        }
+        
+        // the common end must not overlap the common beginning in the shortest body
+        int commonSuffixLength = minBodyLength - commonPrefixLength;
+        for (String body : bodies) {
+            int i = 0;
+            while (i < commonSuffixLength
+                    && body.charAt(body.length() - 1 - i) == firstBody.charAt(firstBody.length() - 1 - i)) {
+                i++;
+            }
+            commonSuffixLength = i;
+        }
+        
+        List<String> values = new ArrayList<String>();
+        for (String body : bodies) {
+            values.add(body.substring(commonPrefixLength, body.length() - commonSuffixLength));
+        }
+        email.addSubstitution(tag, values);
+        
+        return firstBody.substring(0, commonPrefixLength) + tag
+               + firstBody.substring(firstBody.length() - commonSuffixLength);
+    }
+
     /**
      * Extracts sender email from the string with name and email in the format: Name <Email>
      * @param from String with sender information in the format: Name <Email>
@@ -5,6 +5,7 @@ import static teammates.common.datatransfer.FeedbackParticipantType.SELF;
 import static teammates.common.datatransfer.FeedbackParticipantType.STUDENTS;
 import static teammates.common.datatransfer.FeedbackParticipantType.TEAMS;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -16,6 +17,7 @@ import java.util.Set;
 import java.util.logging.Logger;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
@@ -23,13 +25,15 @@ import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
-import teammates.common.datatransfer.TeamDetailsBundle;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.Utils;
 import teammates.storage.api.FeedbackQuestionsDb;
+import teammates.storage.cache.SharedCache;
+
+import com.google.gson.reflect.TypeToken;
 
 public class FeedbackQuestionsLogic {
     
@@ -38,6 +42,8 @@ public class FeedbackQuestionsLogic {
 
     private static FeedbackQuestionsLogic instance = null;
     
+    private static final Type QUESTION_LIST_TYPE = new TypeToken<List<FeedbackQuestionAttributes>>(){}.getType();
+    
     private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
     private static final FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
     private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
@@ -83,6 +89,7 @@ public class FeedbackQuestionsLogic {
         fqa.questionNumber = questionNumber;
         fqa.removeIrrelevantVisibilityOptions();
         FeedbackQuestionAttributes newFqa = fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        invalidateCachedQuestionsForCourse(fqa.courseId);
         return newFqa;
     }
     
@@ -134,8 +141,12 @@ public class FeedbackQuestionsLogic {
             throw new EntityDoesNotExistException(
                     "Trying to get questions for a feedback session that does not exist.");
         }
-        List<FeedbackQuestionAttributes> questions =
-                fqDb.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        SharedCache.Entry<List<FeedbackQuestionAttributes>> cachedQuestions = SharedCache.getEntry(
+                getQuestionsCacheScope(courseId), feedbackSessionName, QUESTION_LIST_TYPE);
+        if (!cachedQuestions.hasValue()) {
+            cachedQuestions.setValue(fqDb.getFeedbackQuestionsForSession(feedbackSessionName, courseId));
+        }
+        List<FeedbackQuestionAttributes> questions = cachedQuestions.getValue();
         Collections.sort(questions);
         
         if (questions.size() > 1 && !areQuestionNumbersConsistent(questions)) {
@@ -145,6 +156,19 @@ public class FeedbackQuestionsLogic {
         return questions;
     }
     
+    /**
+     * Invalidates the questions of all sessions in the course kept in the shared cache.
+     * This must be called after every write to the questions of the course.
+     */
+    public void invalidateCachedQuestionsForCourse(String courseId) {
+        SharedCache.invalidate(getQuestionsCacheScope(courseId));
+        FeedbackSessionResultsCache.invalidateForCourse(courseId);
+    }
+    
+    private String getQuestionsCacheScope(String courseId) {
+        return "questions:" + courseId;
+    }
+    
     // TODO can be removed once we are sure that question numbers will be consistent
     private boolean areQuestionNumbersConsistent(List<FeedbackQuestionAttributes> questions) {
         Set<Integer> questionNumbersInSession = new HashSet<>();
@@ -360,9 +384,10 @@ public class FeedbackQuestionsLogic {
         List<FeedbackQuestionAttributes> unansweredQuestions =
                 new ArrayList<FeedbackQuestionAttributes>();
         
+        CourseRoster roster = getCourseRoster(courseId);
         for (FeedbackQuestionAttributes question : questions) {
             if (isQuestionFullyAnsweredByTeam(
-                    question, teamName) == false)
+                    question, teamName, roster) == false)
                 unansweredQuestions.add(question);
         }
         
@@ -371,17 +396,39 @@ public class FeedbackQuestionsLogic {
     
     public Map<String,String> getRecipientsForQuestion(FeedbackQuestionAttributes question, String giver) 
             throws EntityDoesNotExistException {
+        return getRecipientsForQuestion(question, giver, getCourseRoster(question.courseId));
+    }
+
+    /**
+     * Gets the recipients of the question for the giver, with the giver and the recipients
+     * looked up in {@code roster} instead of the datastore.
+     */
+    public Map<String,String> getRecipientsForQuestion(FeedbackQuestionAttributes question, String giver,
+            CourseRoster roster) {
         
-        InstructorAttributes instructorGiver = instructorsLogic.getInstructorForEmail(question.courseId, giver);
-        StudentAttributes studentGiver = studentsLogic.getStudentForEmail(question.courseId, giver);
+        InstructorAttributes instructorGiver = roster.getInstructorForEmail(giver);
+        StudentAttributes studentGiver = roster.getStudentForEmail(giver);
         
-        return getRecipientsForQuestion(question, giver, instructorGiver, studentGiver);
+        return getRecipientsForQuestion(question, giver, instructorGiver, studentGiver, roster);
     }
 
     public Map<String,String> getRecipientsForQuestion(
             FeedbackQuestionAttributes question, String giver, 
             InstructorAttributes instructorGiver, StudentAttributes studentGiver)
                     throws EntityDoesNotExistException {
+        return getRecipientsForQuestion(question, giver, instructorGiver, studentGiver,
+                                        getCourseRoster(question.courseId));
+    }
+
+    /**
+     * Gets the recipients of the question for the giver, answered from {@code roster}.
+     * Callers that resolve the recipients of several questions should build the roster
+     * of the course once, using {@link #getCourseRoster(String)}, and pass it to every call.
+     */
+    public Map<String,String> getRecipientsForQuestion(
+            FeedbackQuestionAttributes question, String giver, 
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver,
+            CourseRoster roster) {
 
         Map<String,String> recipients = new HashMap<String,String>();
         
@@ -406,8 +453,7 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case STUDENTS:
-            List<StudentAttributes> studentsInCourse =
-                studentsLogic.getStudentsForCourse(question.courseId);
+            List<StudentAttributes> studentsInCourse = roster.getStudents();
             for(StudentAttributes student : studentsInCourse) {
                 // Ensure student does not evaluate himself
                 if(giver.equals(student.email) == false) {
@@ -416,8 +462,7 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case INSTRUCTORS:
-            List<InstructorAttributes> instructorsInCourse =
-                instructorsLogic.getInstructorsForCourse(question.courseId);
+            List<InstructorAttributes> instructorsInCourse = roster.getInstructors();
             for(InstructorAttributes instr : instructorsInCourse) {
                 // Ensure instructor does not evaluate himself
                 if (!giver.equals(instr.email)) {
@@ -426,13 +471,12 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case TEAMS:
-            List<TeamDetailsBundle> teams =
-                coursesLogic.getTeamsForCourse(question.courseId);
-            for(TeamDetailsBundle team : teams) {
+            List<String> teams = roster.getTeamNames();
+            for(String team : teams) {
                 // Ensure student('s team) does not evaluate own team.
-                if (giverTeam.equals(team.name) == false) {
+                if (giverTeam.equals(team) == false) {
                     // recipientEmail doubles as team name in this case.
-                    recipients.put(team.name, team.name);
+                    recipients.put(team, team);
                 }
             }
             break;
@@ -440,8 +484,7 @@ public class FeedbackQuestionsLogic {
             recipients.put(giverTeam, giverTeam);
             break;
         case OWN_TEAM_MEMBERS:
-            List<StudentAttributes> students = 
-                studentsLogic.getStudentsForTeam(giverTeam, question.courseId);
+            List<StudentAttributes> students = roster.getStudentsForTeam(giverTeam);
             for (StudentAttributes student : students) {
                 if(student.email.equals(giver) == false) {
                     recipients.put(student.email, student.name);
@@ -449,8 +492,7 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case OWN_TEAM_MEMBERS_INCLUDING_SELF:
-            List<StudentAttributes> students_Member = 
-                studentsLogic.getStudentsForTeam(giverTeam, question.courseId);
+            List<StudentAttributes> students_Member = roster.getStudentsForTeam(giverTeam);
             for (StudentAttributes student : students_Member) {
                     //accepts self feedback too
                     recipients.put(student.email, student.name);
@@ -465,6 +507,15 @@ public class FeedbackQuestionsLogic {
         return recipients;
     }
     
+    /**
+     * @return the students and instructors of the course, for resolving the recipients
+     *         of several questions without reading them from the datastore for each question.
+     */
+    public CourseRoster getCourseRoster(String courseId) {
+        return new CourseRoster(studentsLogic.getStudentsForCourse(courseId),
+                                instructorsLogic.getInstructorsForCourse(courseId));
+    }
+    
     public boolean isQuestionHasResponses(String feedbackQuestionId) {
         return !frLogic.getFeedbackResponsesForQuestionWithinRange(feedbackQuestionId, 1)
                        .isEmpty();
@@ -493,6 +544,16 @@ public class FeedbackQuestionsLogic {
     
     public boolean isQuestionFullyAnsweredByUser(FeedbackQuestionAttributes question, String email) 
             throws EntityDoesNotExistException {
+        return isQuestionFullyAnsweredByUser(question, email, getCourseRoster(question.courseId));
+    }
+    
+    /**
+     * Checks if a question has been fully answered by a user, with the recipients of the user
+     * looked up in {@code roster}. Callers that check several questions of a course should
+     * build the roster once, using {@link #getCourseRoster(String)}, and pass it to every call.
+     */
+    public boolean isQuestionFullyAnsweredByUser(FeedbackQuestionAttributes question, String email,
+            CourseRoster roster) {
         
         int numberOfResponsesGiven = 
                 frLogic.getFeedbackResponsesFromGiverForQuestion(question.getId(), email).size();
@@ -500,7 +561,7 @@ public class FeedbackQuestionsLogic {
                 question.numberOfEntitiesToGiveFeedbackTo;
         
         if (numberOfResponsesNeeded == Const.MAX_POSSIBLE_RECIPIENTS) {
-            numberOfResponsesNeeded = getRecipientsForQuestion(question, email).size();
+            numberOfResponsesNeeded = getRecipientsForQuestion(question, email, roster).size();
         }
         
         return numberOfResponsesGiven >= numberOfResponsesNeeded ? true : false;
@@ -515,6 +576,16 @@ public class FeedbackQuestionsLogic {
      */
     public boolean isQuestionFullyAnsweredByTeam(FeedbackQuestionAttributes question, 
             String teamName) throws EntityDoesNotExistException {
+        return isQuestionFullyAnsweredByTeam(question, teamName, getCourseRoster(question.courseId));
+    }
+    
+    /**
+     * Checks if a question has been fully answered by a team, as
+     * {@link #isQuestionFullyAnsweredByTeam(FeedbackQuestionAttributes, String)} does,
+     * with the recipients of the team looked up in {@code roster}.
+     */
+    public boolean isQuestionFullyAnsweredByTeam(FeedbackQuestionAttributes question, 
+            String teamName, CourseRoster roster) {
 
         List<StudentAttributes> studentsInTeam =
                 studentsLogic.getStudentsForTeam(question.courseId, teamName);
@@ -523,7 +594,7 @@ public class FeedbackQuestionsLogic {
                 question.numberOfEntitiesToGiveFeedbackTo;
         
         if (numberOfResponsesNeeded == Const.MAX_POSSIBLE_RECIPIENTS) {
-            numberOfResponsesNeeded = getRecipientsForQuestion(question, teamName).size();
+            numberOfResponsesNeeded = getRecipientsForQuestion(question, teamName, roster).size();
         }
                 
         for (StudentAttributes student : studentsInTeam) {
@@ -649,6 +720,7 @@ public class FeedbackQuestionsLogic {
         oldQuestion.updateValues(newAttributes);
         newAttributes.removeIrrelevantVisibilityOptions();
         fqDb.updateFeedbackQuestion(newAttributes);
+        invalidateCachedQuestionsForCourse(oldQuestion.courseId);
     }
 
     public void deleteFeedbackQuestionsForSession(String feedbackSessionName, String courseId) 
@@ -704,6 +776,7 @@ public class FeedbackQuestionsLogic {
      */
     public void deleteFeedbackQuestionsForCourse(String courseId) {
         fqDb.deleteFeedbackQuestionsForCourse(courseId);
+        invalidateCachedQuestionsForCourse(courseId);
     }
     
     /**
@@ -734,6 +807,7 @@ public class FeedbackQuestionsLogic {
         }
         
         fqDb.deleteEntity(questionToDelete);
+        invalidateCachedQuestionsForCourse(courseId);
         
         if(questionToDelete.questionNumber < questionsToShiftQnNumber.size()) {
             shiftQuestionNumbersDown(questionToDelete.questionNumber, questionsToShiftQnNumber);
@@ -764,10 +838,16 @@ public class FeedbackQuestionsLogic {
             List<FeedbackQuestionAttributes> questions, String giver)
             throws EntityDoesNotExistException {
         List<FeedbackQuestionAttributes> questionsWithRecipients = new ArrayList<FeedbackQuestionAttributes>();
+        Map<String, CourseRoster> rosters = new HashMap<String, CourseRoster>();
         for (FeedbackQuestionAttributes question : questions) {
             int numRecipients = question.numberOfEntitiesToGiveFeedbackTo;
             if (numRecipients == Const.MAX_POSSIBLE_RECIPIENTS) {
-                numRecipients = this.getRecipientsForQuestion(question, giver)
+                CourseRoster roster = rosters.get(question.courseId);
+                if (roster == null) {
+                    roster = getCourseRoster(question.courseId);
+                    rosters.put(question.courseId, roster);
+                }
+                numRecipients = this.getRecipientsForQuestion(question, giver, roster)
                         .size();
             }
             if (numRecipients > 0) {
@@ -54,6 +54,14 @@ public class FeedbackResponseCommentsLogic {
         verifyIsInstructorOfCourse(frComment.courseId, frComment.giverEmail);
         verifyIsFeedbackSessionOfCourse(frComment.courseId, frComment.feedbackSessionName);
         
+        FeedbackResponseCommentAttributes createdComment = createOrUpdateFeedbackResponseComment(frComment);
+        FeedbackSessionResultsCache.invalidateForCourse(frComment.courseId);
+        return createdComment;
+    }
+    
+    private FeedbackResponseCommentAttributes createOrUpdateFeedbackResponseComment(
+                                                     FeedbackResponseCommentAttributes frComment)
+                                                     throws InvalidParametersException {
         try {
             return frcDb.createEntity(frComment);
         } catch (EntityAlreadyExistsException e) {
@@ -105,6 +113,7 @@ public class FeedbackResponseCommentsLogic {
     
     public void updateFeedbackResponseCommentsGiverEmail(String courseId, String oldEmail, String updatedEmail) {
         frcDb.updateGiverEmailOfFeedbackResponseComments(courseId, oldEmail, updatedEmail);
+        FeedbackSessionResultsCache.invalidateForCourse(courseId);
     }
     
     // right now this method only updates comment's giverSection and receiverSection for a given response
@@ -117,12 +126,15 @@ public class FeedbackResponseCommentsLogic {
             comment.receiverSection = response.recipientSection;
             frcDb.updateFeedbackResponseComment(comment);
         }
+        FeedbackSessionResultsCache.invalidateForCourse(response.courseId);
     }
 
     public FeedbackResponseCommentAttributes updateFeedbackResponseComment(
                                                      FeedbackResponseCommentAttributes feedbackResponseComment)
                                                      throws InvalidParametersException, EntityDoesNotExistException {
-        return frcDb.updateFeedbackResponseComment(feedbackResponseComment);    
+        FeedbackResponseCommentAttributes updatedComment = frcDb.updateFeedbackResponseComment(feedbackResponseComment);
+        FeedbackSessionResultsCache.invalidateForCourse(feedbackResponseComment.courseId);
+        return updatedComment;
     }
     
     public List<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsForSendingState(
@@ -152,6 +164,7 @@ public class FeedbackResponseCommentsLogic {
                 frcDb.updateFeedbackResponseComments(courseId, fs.feedbackSessionName, oldState, newState);    
             }
         }
+        FeedbackSessionResultsCache.invalidateForCourse(courseId);
     }
     
     /**
@@ -175,6 +188,7 @@ public class FeedbackResponseCommentsLogic {
     
     public void deleteFeedbackResponseCommentsForCourse(String courseId) {
         frcDb.deleteFeedbackResponseCommentsForCourse(courseId);
+        FeedbackSessionResultsCache.invalidateForCourse(courseId);
     }
     
     public void deleteFeedbackResponseCommentsForResponse(String responseId) {
@@ -183,6 +197,7 @@ public class FeedbackResponseCommentsLogic {
     
     public void deleteFeedbackResponseComment(FeedbackResponseCommentAttributes feedbackResponseComment) {
         frcDb.deleteEntity(feedbackResponseComment);    
+        FeedbackSessionResultsCache.invalidateForCourse(feedbackResponseComment.courseId);
     }
     
     /**
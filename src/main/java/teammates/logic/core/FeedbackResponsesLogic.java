@@ -1,8 +1,13 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -12,6 +17,7 @@ import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.datatransfer.UserType;
@@ -23,6 +29,8 @@ import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.common.util.Utils;
 import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
+import teammates.storage.api.InvalidatableAggregatesDb;
 import teammates.storage.entity.FeedbackResponse;
 
 public class FeedbackResponsesLogic {
@@ -36,6 +44,7 @@ public class FeedbackResponsesLogic {
             .inst();
     private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
     private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
+    private static final FeedbackSessionResultsSnapshotsDb snapshotsDb = new FeedbackSessionResultsSnapshotsDb();
 
     public static FeedbackResponsesLogic inst() {
         if (instance == null)
@@ -45,7 +54,10 @@ public class FeedbackResponsesLogic {
 
     public void createFeedbackResponse(FeedbackResponseAttributes fra) throws InvalidParametersException {
         try {
-            frDb.createEntity(fra);
+            FeedbackResponse createdResponse = (FeedbackResponse) frDb.createEntity(fra);
+            snapshotsDb.updateResponsesInSnapshot(fra.feedbackSessionName, fra.courseId,
+                    Arrays.asList(new FeedbackResponseAttributes(createdResponse)),
+                    Collections.<String>emptyList());
         } catch (EntityAlreadyExistsException eaee) {
             try {
                 updateFeedbackResponse(fra, (FeedbackResponse) eaee.existingEntity);
@@ -72,6 +84,43 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId);
     }
     
+    /**
+     * Gets all responses of the session from its results snapshot, so that
+     * they are read in a single datastore operation. If the snapshot is out of date,
+     * the responses are queried instead and the snapshot is rebuilt from them.
+     * @return responses sorted by id, which can be modified by the caller.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSnapshot(
+            String feedbackSessionName, String courseId) {
+        FeedbackSessionResultsSnapshotAttributes snapshot =
+                snapshotsDb.getSnapshot(feedbackSessionName, courseId);
+        if (snapshot != null && snapshot.isUpToDate()) {
+            return snapshot.responses;
+        }
+
+        if (snapshot == null) {
+            // Start tracking writes to the session, so that a later read can safely rebuild the snapshot
+            snapshotsDb.invalidateSnapshot(feedbackSessionName, courseId);
+        }
+
+        List<FeedbackResponseAttributes> responses =
+                frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId);
+        FeedbackResponseAttributes.sortFeedbackResponses(responses);
+
+        // Responses written just before the invalidation may not be visible to the query yet
+        if (snapshot != null && InvalidatableAggregatesDb.isSafeToSaveRebuild(snapshot.updatedAt)) {
+            List<FeedbackResponseAttributes> snapshotResponses = new ArrayList<FeedbackResponseAttributes>();
+            for (FeedbackResponseAttributes response : responses) {
+                snapshotResponses.add(new FeedbackResponseAttributes(response));
+            }
+            snapshotsDb.saveRebuiltSnapshot(
+                    new FeedbackSessionResultsSnapshotAttributes(feedbackSessionName, courseId, snapshotResponses),
+                    snapshot.updatedAt);
+        }
+
+        return responses;
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSection(
             String feedbackSessionName, String courseId, String section){
         if(section == null){
@@ -145,6 +194,15 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForQuestion(feedbackQuestionId);
     }
 
+    /**
+     * Gets all responses for the question, fetching them from the datastore in pages
+     * so that large questions do not have to be read in a single call.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestionInPages(String feedbackQuestionId) {
+        return frDb.getFeedbackResponsesForQuestionInPages(feedbackQuestionId,
+                                                          Const.SystemParams.RESULTS_CSV_EXPORT_PAGE_SIZE);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestionWithinRange(String feedbackQuestionId, long range) {
         return frDb.getFeedbackResponsesForQuestionWithinRange(feedbackQuestionId, range);
     }
@@ -269,6 +327,85 @@ public class FeedbackResponsesLogic {
         return viewableResponses;
     }
 
+    /**
+     * Same as {@link #getViewableFeedbackResponsesForQuestionInSection(FeedbackQuestionAttributes, String, UserType.Role, String)},
+     * but picks the viewable responses out of {@code responsesForQuestion} (all the responses of the question)
+     * and looks up teams in {@code roster} instead of querying the datastore.
+     */
+    public List<FeedbackResponseAttributes> getViewableFeedbackResponsesForQuestionInSection(
+            FeedbackQuestionAttributes question, String userEmail,
+            UserType.Role role, String section,
+            List<FeedbackResponseAttributes> responsesForQuestion, CourseRoster roster) {
+
+        List<FeedbackResponseAttributes> viewableResponses =
+                new ArrayList<FeedbackResponseAttributes>();
+
+        StudentAttributes student = null;
+        if (role == UserType.Role.STUDENT) {
+            student = roster.getStudentForEmail(userEmail);
+        } else if (role != UserType.Role.INSTRUCTOR) {
+            Assumption.fail("The role of the requesting use has to be Student or Instructor");
+        }
+
+        for (FeedbackResponseAttributes response : responsesForQuestion) {
+            if (isResponseViewableInSection(question, response, userEmail, section)
+                    || student != null && isResponseViewableToStudent(question, response, student, roster)
+                    || role == UserType.Role.INSTRUCTOR
+                       && question.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS)
+                       && isResponseForQuestionInSection(response, section)) {
+                viewableResponses.add(response);
+            }
+        }
+
+        return viewableResponses;
+    }
+
+    private boolean isResponseViewableInSection(FeedbackQuestionAttributes question,
+            FeedbackResponseAttributes response, String userEmail, String section) {
+        boolean isFromOrToSection = section == null
+                || section.equals(response.giverSection) || section.equals(response.recipientSection);
+        boolean isGiver = response.giverEmail.equals(userEmail);
+        boolean isVisibleReceiver = response.recipientEmail.equals(userEmail)
+                && question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER);
+        return isFromOrToSection && (isGiver || isVisibleReceiver);
+    }
+
+    private boolean isResponseForQuestionInSection(FeedbackResponseAttributes response, String section) {
+        if (section == null) {
+            return true;
+        }
+        return section.equals(response.giverSection) && section.equals(response.recipientSection)
+               || section.equals(response.giverSection) && Const.DEFAULT_SECTION.equals(response.recipientSection)
+               || Const.DEFAULT_SECTION.equals(response.giverSection) && section.equals(response.recipientSection);
+    }
+
+    private boolean isResponseViewableToStudent(FeedbackQuestionAttributes question,
+            FeedbackResponseAttributes response, StudentAttributes student, CourseRoster roster) {
+
+        if (question.isResponseVisibleTo(FeedbackParticipantType.STUDENTS)) {
+            return true;
+        }
+
+        String reverseSanitizedTeamName = StringHelper.recoverFromSanitizedText(student.team);
+
+        if (question.recipientType.isTeam()
+                && question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER)
+                && response.recipientEmail.equals(reverseSanitizedTeamName)) {
+            return true;
+        }
+
+        if ((question.giverType == FeedbackParticipantType.TEAMS
+                || question.isResponseVisibleTo(FeedbackParticipantType.OWN_TEAM_MEMBERS))
+                && (roster.isStudentInTeam(response.giverEmail, student.team)
+                    || response.giverEmail.equals(reverseSanitizedTeamName))) {
+            return true;
+        }
+
+        return question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER_TEAM_MEMBERS)
+               && !response.recipientEmail.equals(student.email)
+               && roster.isStudentInTeam(response.recipientEmail, student.team);
+    }
+
     public boolean isNameVisibleTo(
             FeedbackQuestionAttributes question,
             FeedbackResponseAttributes response,
@@ -400,6 +537,24 @@ public class FeedbackResponsesLogic {
             throws InvalidParametersException, EntityDoesNotExistException,
             EntityAlreadyExistsException {
 
+        List<FeedbackResponseAttributes> responsesToPut = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToRemove = new ArrayList<FeedbackResponseAttributes>();
+        updateFeedbackResponse(responseToUpdate, responsesToPut, responsesToRemove);
+        updateResponsesInSnapshots(responsesToPut, responsesToRemove);
+    }
+
+    /**
+     * Updates the response as {@link #updateFeedbackResponse(FeedbackResponseAttributes)} does,
+     * but adds the changes to {@code responsesToPut} and {@code responsesToRemove} instead of
+     * updating the results snapshot.
+     */
+    private void updateFeedbackResponse(
+            FeedbackResponseAttributes responseToUpdate,
+            List<FeedbackResponseAttributes> responsesToPut,
+            List<FeedbackResponseAttributes> responsesToRemove)
+            throws InvalidParametersException, EntityDoesNotExistException,
+            EntityAlreadyExistsException {
+
         // Create a copy.
         FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(
                 responseToUpdate);
@@ -421,7 +576,7 @@ public class FeedbackResponsesLogic {
                     "Trying to update a feedback response that does not exist.");
         }
 
-        updateFeedbackResponse(newResponse, oldResponseEntity);
+        updateFeedbackResponse(newResponse, oldResponseEntity, responsesToPut, responsesToRemove);
     }
 
     /**
@@ -439,12 +594,202 @@ public class FeedbackResponsesLogic {
                         FeedbackResponseAttributes updatedResponse,
                         FeedbackResponse oldResponseEntity)
                                 throws InvalidParametersException, EntityAlreadyExistsException {
+        List<FeedbackResponseAttributes> responsesToPut = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToRemove = new ArrayList<FeedbackResponseAttributes>();
+        updateFeedbackResponse(updatedResponse, oldResponseEntity, responsesToPut, responsesToRemove);
+        updateResponsesInSnapshots(responsesToPut, responsesToRemove);
+    }
+
+    private void updateFeedbackResponse(
+                        FeedbackResponseAttributes updatedResponse,
+                        FeedbackResponse oldResponseEntity,
+                        List<FeedbackResponseAttributes> responsesToPut,
+                        List<FeedbackResponseAttributes> responsesToRemove)
+                                throws InvalidParametersException, EntityAlreadyExistsException {
         Assumption.assertNotNull(oldResponseEntity);
         
+        FeedbackResponseAttributes oldResponse = new FeedbackResponseAttributes(oldResponseEntity);
+        FeedbackResponseAttributes newResponse = getUpdatedResponse(updatedResponse, oldResponse);
+    
+        if (isGiverOrRecipientChanged(newResponse, oldResponse)) {
+            // Recreate response to prevent possible future id conflict.
+            FeedbackResponseAttributes createdResponse = recreateResponse(newResponse, oldResponse);
+            // a response put earlier may be the one recreated now, as both its giver and recipient may change
+            removeResponseWithId(responsesToPut, oldResponse.getId());
+            responsesToRemove.add(oldResponse);
+            removeResponseWithId(responsesToRemove, createdResponse.getId());
+            responsesToPut.add(createdResponse);
+        } else {
+            try {
+                frDb.updateFeedbackResponseOptimized(newResponse, oldResponseEntity);
+            } catch (EntityDoesNotExistException e) {
+                Assumption.fail();
+            }
+            newResponse.setId(oldResponse.getId());
+            removeResponseWithId(responsesToPut, newResponse.getId());
+            responsesToPut.add(newResponse);
+        }
+    }
+
+    private void removeResponseWithId(List<FeedbackResponseAttributes> responses, String responseId) {
+        Iterator<FeedbackResponseAttributes> iter = responses.iterator();
+        while (iter.hasNext()) {
+            if (iter.next().getId().equals(responseId)) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Saves the responses of a submission with a constant number of datastore operations,
+     * instead of looking up and writing each response separately.<br>
+     * Each response in {@code responsesToSave} is created, or updated if there is a
+     * response with its id (or with its question, giver and recipient if it has no id).
+     * As in {@link #updateFeedbackResponse(FeedbackResponseAttributes)}, a response
+     * is recreated if its giver or recipient is changed.<br>
+     * The responses in {@code responsesToDelete} are deleted along with their comments.
+     * They are deleted before the other responses are saved, and even if saving them fails.
+     * @throws EntityDoesNotExistException if a response with an id does not exist.
+     *         Nothing is saved in this case, nor if any of the other exceptions is thrown.
+     * @throws EntityAlreadyExistsException if a response would be recreated with the
+     *         recipient of an existing response.
+     */
+    public void saveFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToSave,
+                                      Collection<FeedbackResponseAttributes> responsesToDelete)
+            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
+        
+        deleteFeedbackResponsesAndCascade(responsesToDelete);
+        if (responsesToSave.isEmpty()) {
+            return;
+        }
+        
+        // look up the responses to update and the responses that would be overwritten in one batch
+        Set<String> responseIdsToGet = new HashSet<String>();
+        for (FeedbackResponseAttributes response : responsesToSave) {
+            if (response.getId() != null) {
+                responseIdsToGet.add(response.getId());
+            }
+            if (response.giverEmail != null && response.recipientEmail != null) {
+                responseIdsToGet.add(getIdOfResponse(response));
+            }
+        }
+        Map<String, FeedbackResponse> existingResponses = frDb.getFeedbackResponseEntitiesForIds(responseIdsToGet);
+        
+        // responses are mapped by their ids after saving, so that a later response
+        // for the same question, giver and recipient replaces an earlier one
+        Map<String, FeedbackResponseAttributes> responsesToCreate = new LinkedHashMap<String, FeedbackResponseAttributes>();
+        Map<String, FeedbackResponseAttributes> responsesToUpdate = new LinkedHashMap<String, FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> recreatedResponses = new ArrayList<FeedbackResponseAttributes>();
+        
+        for (FeedbackResponseAttributes response : responsesToSave) {
+            String responseId = response.getId() == null ? getIdOfResponse(response) : response.getId();
+            FeedbackResponse oldResponseEntity = existingResponses.get(responseId);
+            
+            if (oldResponseEntity == null) {
+                if (response.getId() != null) {
+                    throw new EntityDoesNotExistException(
+                            "Trying to update a feedback response that does not exist.");
+                }
+                responsesToCreate.put(responseId, new FeedbackResponseAttributes(response));
+                continue;
+            }
+            
+            FeedbackResponseAttributes oldResponse = new FeedbackResponseAttributes(oldResponseEntity);
+            FeedbackResponseAttributes newResponse = getUpdatedResponse(response, oldResponse);
+            
+            if (isGiverOrRecipientChanged(newResponse, oldResponse)) {
+                String newResponseId = getIdOfResponse(newResponse);
+                if (existingResponses.containsKey(newResponseId) || responsesToCreate.containsKey(newResponseId)) {
+                    log.warning("Trying to update an existing response to one that already exists.");
+                    throw new EntityAlreadyExistsException(Const.StatusMessages.FEEDBACK_RESPONSE_RECIPIENT_ALREADY_EXISTS);
+                }
+                newResponse.setId(null);
+                responsesToCreate.put(newResponseId, newResponse);
+                recreatedResponses.add(oldResponse);
+            } else {
+                newResponse.setId(oldResponse.getId());
+                responsesToUpdate.put(oldResponse.getId(), newResponse);
+            }
+        }
+        
+        List<String> recreatedResponseIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes recreatedResponse : recreatedResponses) {
+            recreatedResponseIds.add(recreatedResponse.getId());
+            responsesToUpdate.remove(recreatedResponse.getId());
+        }
+        
+        List<FeedbackResponseAttributes> createdResponses =
+                frDb.saveFeedbackResponses(responsesToCreate.values(), responsesToUpdate.values(),
+                                           recreatedResponseIds, existingResponses);
+        
+        List<FeedbackResponseAttributes> savedResponses = new ArrayList<FeedbackResponseAttributes>(createdResponses);
+        savedResponses.addAll(responsesToUpdate.values());
+        updateResponsesInSnapshots(savedResponses, recreatedResponses);
+    }
+
+    private void deleteFeedbackResponsesAndCascade(Collection<FeedbackResponseAttributes> responsesToDelete)
+            throws InvalidParametersException {
+        if (responsesToDelete.isEmpty()) {
+            return;
+        }
+        
+        List<String> responseIdsToDelete = new ArrayList<String>();
+        for (FeedbackResponseAttributes responseToDelete : responsesToDelete) {
+            frcLogic.deleteFeedbackResponseCommentsForResponse(responseToDelete.getId());
+            responseIdsToDelete.add(responseToDelete.getId());
+        }
+        
+        frDb.saveFeedbackResponses(Collections.<FeedbackResponseAttributes>emptyList(),
+                                   Collections.<FeedbackResponseAttributes>emptyList(),
+                                   responseIdsToDelete, frDb.getFeedbackResponseEntitiesForIds(responseIdsToDelete));
+        updateResponsesInSnapshots(Collections.<FeedbackResponseAttributes>emptyList(), responsesToDelete);
+    }
+    
+    /**
+     * Updates the snapshots of all the sessions of the given responses,
+     * rewriting the snapshot of each session once.
+     */
+    public void updateResponsesInSnapshots(Collection<FeedbackResponseAttributes> responsesToPut,
+                                            Collection<FeedbackResponseAttributes> responsesToRemove) {
+        Map<String, List<FeedbackResponseAttributes>> responsesToPutForSession =
+                new HashMap<String, List<FeedbackResponseAttributes>>();
+        Map<String, List<String>> responseIdsToRemoveForSession = new HashMap<String, List<String>>();
+        Map<String, FeedbackResponseAttributes> responseInSession = new HashMap<String, FeedbackResponseAttributes>();
+        
+        for (FeedbackResponseAttributes response : responsesToPut) {
+            String sessionKey = response.feedbackSessionName + "%" + response.courseId;
+            responseInSession.put(sessionKey, response);
+            if (!responsesToPutForSession.containsKey(sessionKey)) {
+                responsesToPutForSession.put(sessionKey, new ArrayList<FeedbackResponseAttributes>());
+            }
+            responsesToPutForSession.get(sessionKey).add(response);
+        }
+        for (FeedbackResponseAttributes response : responsesToRemove) {
+            String sessionKey = response.feedbackSessionName + "%" + response.courseId;
+            responseInSession.put(sessionKey, response);
+            if (!responseIdsToRemoveForSession.containsKey(sessionKey)) {
+                responseIdsToRemoveForSession.put(sessionKey, new ArrayList<String>());
+            }
+            responseIdsToRemoveForSession.get(sessionKey).add(response.getId());
+        }
+        
+        for (Map.Entry<String, FeedbackResponseAttributes> session : responseInSession.entrySet()) {
+            List<FeedbackResponseAttributes> toPut = responsesToPutForSession.get(session.getKey());
+            List<String> toRemove = responseIdsToRemoveForSession.get(session.getKey());
+            snapshotsDb.updateResponsesInSnapshot(session.getValue().feedbackSessionName, session.getValue().courseId,
+                    toPut == null ? Collections.<FeedbackResponseAttributes>emptyList() : toPut,
+                    toRemove == null ? Collections.<String>emptyList() : toRemove);
+        }
+    }
+    
+    /**
+     * @return a copy of {@code updatedResponse}, with the values that cannot be changed
+     *         and the values that are null taken from {@code oldResponse}.
+     */
+    private FeedbackResponseAttributes getUpdatedResponse(FeedbackResponseAttributes updatedResponse,
+                                                          FeedbackResponseAttributes oldResponse) {
         // Create a copy.
         FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(updatedResponse);
-        
-        FeedbackResponseAttributes oldResponse = new FeedbackResponseAttributes(oldResponseEntity);
 
         // Copy values that cannot be changed to defensively avoid invalid
         // parameters.
@@ -468,27 +813,34 @@ public class FeedbackResponsesLogic {
         if (newResponse.recipientSection == null) {
             newResponse.recipientSection = oldResponse.recipientSection;
         }
+        return newResponse;
+    }
     
-        if (!newResponse.recipientEmail.equals(oldResponse.recipientEmail) 
-            || !newResponse.giverEmail.equals(oldResponse.giverEmail)) {
-            // Recreate response to prevent possible future id conflict.
-            recreateResponse(newResponse, oldResponse);
-        } else {
-            try {
-                frDb.updateFeedbackResponseOptimized(newResponse, oldResponseEntity);
-            } catch (EntityDoesNotExistException e) {
-                Assumption.fail();
-            }
-        }
+    private boolean isGiverOrRecipientChanged(FeedbackResponseAttributes newResponse,
+                                              FeedbackResponseAttributes oldResponse) {
+        return !newResponse.recipientEmail.equals(oldResponse.recipientEmail)
+               || !newResponse.giverEmail.equals(oldResponse.giverEmail);
+    }
+    
+    /**
+     * @return the id that a response gets when it is created, which is derived
+     *         from its question, giver and recipient.
+     */
+    private String getIdOfResponse(FeedbackResponseAttributes response) {
+        return ((FeedbackResponse) response.toEntity()).getId();
     }
 
-    private void recreateResponse(FeedbackResponseAttributes newResponse,
+    /**
+     * @return the recreated response.
+     */
+    private FeedbackResponseAttributes recreateResponse(FeedbackResponseAttributes newResponse,
                                     FeedbackResponseAttributes oldResponse)
                                     throws InvalidParametersException, EntityAlreadyExistsException {
         try {
             newResponse.setId(null);
-            frDb.createEntity(newResponse);
+            FeedbackResponse createdResponse = (FeedbackResponse) frDb.createEntity(newResponse);
             frDb.deleteEntity(oldResponse);
+            return new FeedbackResponseAttributes(createdResponse);
         } catch (EntityAlreadyExistsException e) {
             log.warning("Trying to update an existing response to one that already exists.");
             throw new EntityAlreadyExistsException(Const.StatusMessages.FEEDBACK_RESPONSE_RECIPIENT_ALREADY_EXISTS);
@@ -516,6 +868,7 @@ public class FeedbackResponsesLogic {
                 frDb.deleteEntity(response);
             }
         }
+        snapshotsDb.invalidateSnapshotsForCourse(courseId);
 
         List<FeedbackResponseAttributes> responsesToUser =
                 getFeedbackResponsesForReceiverForCourse(courseId, userEmail);
@@ -534,6 +887,7 @@ public class FeedbackResponsesLogic {
                 frDb.deleteEntity(response);
             }
         }
+        snapshotsDb.invalidateSnapshotsForCourse(courseId);
     }
 
     public void updateFeedbackResponsesForChangingSection(
@@ -558,8 +912,15 @@ public class FeedbackResponsesLogic {
             frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
         }
 
+        snapshotsDb.invalidateSnapshotsForCourse(courseId);
     }
 
+    /**
+     * Deletes the response if it is no longer relevant after the team change of the enrollment.
+     * The results snapshot is not updated, so that it can be updated once for all
+     * the adjusted responses with {@link #updateResponsesInSnapshots(Collection, Collection)}.
+     * @return true if the response is deleted.
+     */
     public boolean updateFeedbackResponseForChangingTeam(
             StudentEnrollDetails enrollment,
             FeedbackResponseAttributes response) {
@@ -592,6 +953,11 @@ public class FeedbackResponsesLogic {
            || question.recipientType == FeedbackParticipantType.OWN_TEAM_MEMBERS_INCLUDING_SELF;
     }
     
+    /**
+     * Moves the response to the new section of the enrollment, and updates {@code response}
+     * with its new sections. The results snapshot is not updated, so that it can be updated
+     * once for all the adjusted responses with {@link #updateResponsesInSnapshots(Collection, Collection)}.
+     */
     public void updateFeedbackResponseForChangingSection(
             StudentEnrollDetails enrollment,
             FeedbackResponseAttributes response) throws InvalidParametersException, EntityDoesNotExistException {
@@ -611,6 +977,8 @@ public class FeedbackResponsesLogic {
         }
         
         frDb.commitOutstandingChanges();
+        response.giverSection = feedbackResponse.getGiverSection();
+        response.recipientSection = feedbackResponse.getRecipientSection();
         
         if(isGiverSameForResponseAndEnrollment || isReceiverSameForResponseAndEnrollment){      
             frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
@@ -625,13 +993,16 @@ public class FeedbackResponsesLogic {
             String courseId, String oldEmail, String newEmail)
             throws InvalidParametersException, EntityDoesNotExistException {
 
+        List<FeedbackResponseAttributes> responsesToPut = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToRemove = new ArrayList<FeedbackResponseAttributes>();
+
         List<FeedbackResponseAttributes> responsesFromUser =
                 getFeedbackResponsesFromGiverForCourse(courseId, oldEmail);
 
         for (FeedbackResponseAttributes response : responsesFromUser) {
             response.giverEmail = newEmail;
             try {
-                updateFeedbackResponse(response);
+                updateFeedbackResponse(response, responsesToPut, responsesToRemove);
             } catch (EntityAlreadyExistsException e) {
                 Assumption
                         .fail("Feedback response failed to update successfully"
@@ -645,16 +1016,28 @@ public class FeedbackResponsesLogic {
         for (FeedbackResponseAttributes response : responsesToUser) {
             response.recipientEmail = newEmail;
             try {
-                updateFeedbackResponse(response);
+                updateFeedbackResponse(response, responsesToPut, responsesToRemove);
             } catch (EntityAlreadyExistsException e) {
                 Assumption
                         .fail("Feedback response failed to update successfully"
                             + "as email was already in use.");
             }
         }
+
+        // the snapshot of each session is rewritten once for all the responses
+        updateResponsesInSnapshots(responsesToPut, responsesToRemove);
     }
 
     public void deleteFeedbackResponseAndCascade(FeedbackResponseAttributes responseToDelete) {
+        deleteFeedbackResponseAndComments(responseToDelete);
+        updateResponsesInSnapshots(Collections.<FeedbackResponseAttributes>emptyList(),
+                                   Arrays.asList(responseToDelete));
+    }
+
+    /**
+     * Deletes the response and its comments without updating the results snapshot.
+     */
+    private void deleteFeedbackResponseAndComments(FeedbackResponseAttributes responseToDelete) {
         frcLogic.deleteFeedbackResponseCommentsForResponse(responseToDelete.getId());
         frDb.deleteEntity(responseToDelete);
     }
@@ -667,9 +1050,10 @@ public class FeedbackResponsesLogic {
         Set<String> emails = new HashSet<String>();
 
         for (FeedbackResponseAttributes response : responsesForQuestion) {
-            this.deleteFeedbackResponseAndCascade(response);
+            deleteFeedbackResponseAndComments(response);
             emails.add(response.giverEmail);
         }
+        updateResponsesInSnapshots(Collections.<FeedbackResponseAttributes>emptyList(), responsesForQuestion);
 
         if(!hasResponseRateCheck){
             return;
@@ -719,8 +1103,9 @@ public class FeedbackResponsesLogic {
         }
 
         for (FeedbackResponseAttributes response : responses) {
-            this.deleteFeedbackResponseAndCascade(response);
+            deleteFeedbackResponseAndComments(response);
         }
+        updateResponsesInSnapshots(Collections.<FeedbackResponseAttributes>emptyList(), responses);
     }
 
     /**
@@ -730,6 +1115,15 @@ public class FeedbackResponsesLogic {
      */
     public void deleteFeedbackResponsesForCourse(String courseId) {
         frDb.deleteFeedbackResponsesForCourse(courseId);
+        snapshotsDb.deleteSnapshotsForCourses(Arrays.asList(courseId));
+    }
+
+    /**
+     * Deletes the results snapshot of the session, which should be done
+     * when the session itself is deleted.
+     */
+    public void deleteResultsSnapshotForSession(String feedbackSessionName, String courseId) {
+        snapshotsDb.deleteSnapshot(feedbackSessionName, courseId);
     }
 
     /**
@@ -0,0 +1,61 @@
+package teammates.logic.core;
+
+import java.lang.reflect.Type;
+import java.util.Date;
+
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
+import teammates.storage.cache.SharedCache;
+
+/**
+ * Keeps data derived from the results of feedback sessions, such as the rendered
+ * results panels, in the {@link SharedCache}, so that it is not rebuilt from
+ * the responses whenever the results are viewed again.
+ * <br> Entries are looked up by the response-version stamp of the session, i.e. the time
+ * its results snapshot was last updated, so a changed response never reads the entries
+ * derived before the change. The other data that the results depend on, i.e. the students,
+ * instructors, questions and response comments of the course, invalidate the scope of
+ * the course with {@link #invalidateForCourse(String)} whenever they are written.
+ * <br> As with the versions of the {@link SharedCache}, entries are only stored once the stamp is
+ * older than {@link teammates.common.util.Const.SystemParams#SHARED_CACHE_CONSISTENCY_DELAY_IN_MILLIS}.
+ */
+public class FeedbackSessionResultsCache {
+
+    private static final FeedbackSessionResultsSnapshotsDb snapshotsDb = new FeedbackSessionResultsSnapshotsDb();
+
+    /**
+     * Looks up the entry {@code name} for the current results of the session.
+     * As with {@link SharedCache#getEntry(String, String, Type)}, the entry is looked up
+     * before the results are loaded, and the caller sets its value if it has none.
+     * @return null if the results of the session cannot be cached yet, as writes
+     *         to its responses are not tracked by a results snapshot.
+     */
+    public static <T> SharedCache.Entry<T> getEntry(String feedbackSessionName, String courseId,
+                                                    String name, Type type) {
+        Date resultsUpdatedAt = snapshotsDb.getSnapshotUpdatedAt(feedbackSessionName, courseId);
+        if (resultsUpdatedAt == null) {
+            // Start tracking writes to the responses, so that the results can be cached by later requests
+            snapshotsDb.invalidateSnapshot(feedbackSessionName, courseId);
+            return null;
+        }
+
+        // The results of a recent write may not be seen yet by the queries that load them,
+        // so entries are not stored under a stamp that is younger than the consistency delay
+        return SharedCache.getEntry(getCacheScope(courseId),
+                                    feedbackSessionName + "#" + resultsUpdatedAt.getTime() + "#" + name, type,
+                                    resultsUpdatedAt);
+    }
+
+    /**
+     * Invalidates the entries of all sessions in the course.
+     * This must be called after every write to the students, instructors, questions
+     * or response comments of the course.
+     */
+    public static void invalidateForCourse(String courseId) {
+        SharedCache.invalidate(getCacheScope(courseId));
+    }
+
+    private static String getCacheScope(String courseId) {
+        return "results:" + courseId;
+    }
+
+}
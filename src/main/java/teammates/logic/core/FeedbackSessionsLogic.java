@@ -1,6 +1,9 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
@@ -11,6 +14,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import javax.mail.internet.MimeMessage;
@@ -44,11 +49,11 @@ import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
+import teammates.common.util.ThreadHelper;
 import teammates.common.util.TimeHelper;
 import teammates.common.util.Utils;
+import teammates.storage.api.FeedbackSessionRespondentsDb;
 import teammates.storage.api.FeedbackSessionsDb;
-import teammates.storage.api.InstructorsDb;
-import teammates.storage.api.StudentsDb;
 import teammates.storage.entity.FeedbackResponse;
 
 public class FeedbackSessionsLogic {
@@ -60,6 +65,7 @@ public class FeedbackSessionsLogic {
     // Used by the FeedbackSessionsLogicTest for logging
 
     private static final FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private static final FeedbackSessionRespondentsDb respondentsDb = new FeedbackSessionRespondentsDb();
     private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
     private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
     private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
@@ -207,13 +213,37 @@ public class FeedbackSessionsLogic {
             String googleId, boolean omitArchived)
             throws EntityDoesNotExistException {
 
-        List<FeedbackSessionDetailsBundle> fsDetails = new ArrayList<FeedbackSessionDetailsBundle>();
         List<InstructorAttributes> instructors =
                 instructorsLogic.getInstructorsForGoogleId(googleId, omitArchived);
 
-        for (InstructorAttributes instructor : instructors) {
-            fsDetails.addAll(getFeedbackSessionDetailsForCourse(
-                    instructor.courseId, instructor.email));
+        return getFeedbackSessionDetailsForInstructor(instructors);
+    }
+
+    /**
+     * Returns a {@code List} of all feedback sessions bundled with their
+     * response statistics for the courses of the instructors in {@code instructorList}.<br>
+     * Does not return private sessions unless the instructor is the creator.
+     */
+    public List<FeedbackSessionDetailsBundle> getFeedbackSessionDetailsForInstructor(
+            List<InstructorAttributes> instructorList)
+            throws EntityDoesNotExistException {
+
+        return getFeedbackSessionDetails(getFeedbackSessionsListForInstructor(instructorList));
+    }
+
+    /**
+     * Returns the sessions in {@code fsaList} bundled with their response statistics.
+     */
+    public List<FeedbackSessionDetailsBundle> getFeedbackSessionDetails(
+            List<FeedbackSessionAttributes> fsaList)
+            throws EntityDoesNotExistException {
+
+        List<FeedbackSessionDetailsBundle> fsDetails = new ArrayList<FeedbackSessionDetailsBundle>();
+        
+        // the respondents of all the sessions are counted together, instead of with one query per session
+        List<Integer> numOfRespondents = respondentsDb.getNumOfRespondents(fsaList);
+        for (int i = 0; i < fsaList.size(); i++) {
+            fsDetails.add(getFeedbackSessionDetails(fsaList.get(i), numOfRespondents.get(i)));
         }
 
         return fsDetails;
@@ -262,8 +292,18 @@ public class FeedbackSessionsLogic {
 
         List<FeedbackSessionAttributes> fsList = new ArrayList<FeedbackSessionAttributes>();
         
+        Map<String, InstructorAttributes> instructorsForCourses = new HashMap<String, InstructorAttributes>();
+        List<String> courseIds = new ArrayList<String>();
         for (InstructorAttributes instructor : instructorList) {
-            fsList.addAll(getFeedbackSessionsListForCourse(instructor.courseId, instructor.email));
+            instructorsForCourses.put(instructor.courseId, instructor);
+            courseIds.add(instructor.courseId);
+        }
+        
+        // the sessions of all the courses are retrieved with one query, rather than one query per course
+        for (FeedbackSessionAttributes fsa : fsDb.getFeedbackSessionsForCourses(courseIds)) {
+            if (!fsa.isPrivateSession() || fsa.isCreator(instructorsForCourses.get(fsa.courseId).email)) {
+                fsList.add(fsa);
+            }
         }
 
         return fsList;
@@ -303,12 +343,13 @@ public class FeedbackSessionsLogic {
         
       InstructorAttributes instructorGiver = instructor;
       StudentAttributes studentGiver = null;
+        CourseRoster roster = fqLogic.getCourseRoster(courseId);
 
         for (FeedbackQuestionAttributes question : questions) {
 
             updateBundleAndRecipientListWithResponsesForInstructor(courseId, 
                     userEmail, fsa, instructor, bundle, recipientList,
-                    question, instructorGiver, studentGiver);
+                    question, instructorGiver, studentGiver, roster);
         }
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -340,7 +381,7 @@ public class FeedbackSessionsLogic {
 
         updateBundleAndRecipientListWithResponsesForInstructor(courseId,
                 userEmail, fsa, instructor, bundle, recipientList,
-                question, instructorGiver, studentGiver);
+                question, instructorGiver, studentGiver, fqLogic.getCourseRoster(courseId));
     
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -354,19 +395,20 @@ public class FeedbackSessionsLogic {
             Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
             Map<String, Map<String, String>> recipientList,
             FeedbackQuestionAttributes question,
-            InstructorAttributes instructorGiver, StudentAttributes studentGiver)
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver,
+            CourseRoster roster)
             throws EntityDoesNotExistException {
         List<FeedbackResponseAttributes> responses =
                 frLogic.getFeedbackResponsesFromGiverForQuestion(
                         question.getId(), userEmail);
         Map<String, String> recipients =
-                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver);
+                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver, roster);
         // instructor can only see students in allowed sections for him/her
         if (question.recipientType.equals(FeedbackParticipantType.STUDENTS)) {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> studentEntry = iter.next();
-                StudentAttributes student = studentsLogic.getStudentForEmail(courseId, studentEntry.getKey());
+                StudentAttributes student = roster.getStudentForEmail(studentEntry.getKey());
                 if (!instructor.isAllowedForPrivilege(student.section, 
                         fsa.feedbackSessionName, Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
@@ -378,7 +420,7 @@ public class FeedbackSessionsLogic {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> teamEntry = iter.next();
-                String teamSection = studentsLogic.getSectionForTeam(courseId, teamEntry.getKey());
+                String teamSection = roster.getSectionForTeam(teamEntry.getKey());
                 if (!instructor.isAllowedForPrivilege(teamSection,
                         fsa.feedbackSessionName, Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
@@ -423,12 +465,13 @@ public class FeedbackSessionsLogic {
 
         InstructorAttributes instructorGiver = null;
         StudentAttributes studentGiver = student;
+        CourseRoster roster = fqLogic.getCourseRoster(courseId);
 
         for (FeedbackQuestionAttributes question : questions) {
 
             updateBundleAndRecipientListWithResponses(userEmail, student,
                     bundle, recipientList, question, instructorGiver,
-                    studentGiver);
+                    studentGiver, roster);
         }
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -463,7 +506,7 @@ public class FeedbackSessionsLogic {
         
         updateBundleAndRecipientListWithResponses(userEmail, student,
                 bundle, recipientList, question, instructorGiver,
-                studentGiver);
+                studentGiver, fqLogic.getCourseRoster(courseId));
         
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -475,13 +518,14 @@ public class FeedbackSessionsLogic {
             Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
             Map<String, Map<String, String>> recipientList,
             FeedbackQuestionAttributes question,
-            InstructorAttributes instructorGiver, StudentAttributes studentGiver)
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver,
+            CourseRoster roster)
             throws EntityDoesNotExistException {
         List<FeedbackResponseAttributes> responses =
                 frLogic.getFeedbackResponsesFromStudentOrTeamForQuestion(
                         question, student);
         Map<String, String> recipients =
-                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver);
+                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver, roster);
         normalizeMaximumResponseEntities(question, recipients);
 
         bundle.put(question, responses);
@@ -491,8 +535,8 @@ public class FeedbackSessionsLogic {
     public FeedbackSessionResponseStatus getFeedbackSessionResponseStatus(String feedbackSessionName, String courseId) throws EntityDoesNotExistException{
         
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         FeedbackSessionAttributes session = fsDb.getFeedbackSession(
                 courseId, feedbackSessionName);
 
@@ -500,6 +544,7 @@ public class FeedbackSessionsLogic {
             throw new EntityDoesNotExistException(
                     "Trying to view non-existent feedback session.");
         }
+        addRespondentsToSession(session);
 
         List<FeedbackQuestionAttributes> allQuestions = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
                         courseId);
@@ -521,8 +566,8 @@ public class FeedbackSessionsLogic {
         // methods
         // (rather than loading them many times).
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "false");
@@ -545,8 +590,8 @@ public class FeedbackSessionsLogic {
                                         throws EntityDoesNotExistException{
 
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "true");
@@ -578,8 +623,8 @@ public class FeedbackSessionsLogic {
             throws EntityDoesNotExistException{
         
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "true");
@@ -603,8 +648,8 @@ public class FeedbackSessionsLogic {
             throws EntityDoesNotExistException{
         
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "false");
@@ -626,8 +671,8 @@ public class FeedbackSessionsLogic {
             throws EntityDoesNotExistException{
         
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "false");
@@ -660,8 +705,8 @@ public class FeedbackSessionsLogic {
             throws EntityDoesNotExistException {
         
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "true");
@@ -682,8 +727,8 @@ public class FeedbackSessionsLogic {
             throws EntityDoesNotExistException {
 
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "false");
         params.put("inSection", "false");
@@ -704,8 +749,8 @@ public class FeedbackSessionsLogic {
             throws EntityDoesNotExistException {
 
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         Map<String, String> params = new HashMap<String, String>();
         params.put("isIncludeResponseStatus", "true");
         params.put("inSection", "false");
@@ -798,6 +843,102 @@ public class FeedbackSessionsLogic {
         
     }
 
+    /**
+     * Writes the summary results (without comments) of the session in CSV format to {@code writer}.
+     * The results are written one question at a time, so only the responses of a single question
+     * are held in memory and there is no limit on the number of responses in the session.
+     * @param section the section to export, or null to export all sections
+     */
+    public void writeFeedbackSessionResultsSummaryInSectionAsCsv(
+            String feedbackSessionName, String courseId, String userEmail, String section, Writer writer)
+            throws EntityDoesNotExistException, IOException {
+
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(
+                courseId, feedbackSessionName);
+
+        if (session == null) {
+            throw new EntityDoesNotExistException(
+                    "Trying to view non-existent feedback session.");
+        }
+
+        CourseRoster roster = new CourseRoster(
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
+        InstructorAttributes instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+        Map<String, Set<String>> sectionTeamNameTable = new HashMap<String, Set<String>>();
+        addSectionTeamNamesToTable(sectionTeamNameTable, roster, courseId, userEmail, Role.INSTRUCTOR,
+                                   feedbackSessionName, section);
+
+        writer.write("Course" + "," + Sanitizer.sanitizeForCsv(session.courseId) + Const.EOL
+                + "Session Name" + "," + Sanitizer.sanitizeForCsv(session.feedbackSessionName) + Const.EOL);
+
+        if (section != null) {
+            writer.write("Section Name" + "," + Sanitizer.sanitizeForCsv(section) + Const.EOL);
+        }
+
+        writer.write(Const.EOL + Const.EOL);
+
+        boolean isPrivateSessionNotCreatedByThisUser = session
+                .isPrivateSession() && !session.isCreator(userEmail);
+
+        List<FeedbackQuestionAttributes> allQuestions =
+                fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        Collections.sort(allQuestions);
+
+        for (FeedbackQuestionAttributes question : allQuestions) {
+            List<FeedbackResponseAttributes> responses =
+                    new ArrayList<FeedbackResponseAttributes>();
+            Map<String, FeedbackQuestionAttributes> relevantQuestions =
+                    new HashMap<String, FeedbackQuestionAttributes>();
+            Map<String, String> emailNameTable =
+                    new HashMap<String, String>();
+            Map<String, String> emailLastNameTable =
+                    new HashMap<String, String>();
+            Map<String, String> emailTeamNameTable =
+                    new HashMap<String, String>();
+            Map<String, boolean[]> visibilityTable =
+                    new HashMap<String, boolean[]>();
+
+            relevantQuestions.put(question.getId(), question);
+
+            List<FeedbackResponseAttributes> responsesForQuestion = isPrivateSessionNotCreatedByThisUser
+                    ? new ArrayList<FeedbackResponseAttributes>()
+                    : frLogic.getFeedbackResponsesForQuestionInPages(question.getId());
+
+            for (FeedbackResponseAttributes response : responsesForQuestion) {
+                boolean isInSection = section == null
+                        || section.equals(response.giverSection)
+                        || section.equals(response.recipientSection);
+                if (isInSection && isResponseVisibleForUser(userEmail, courseId, Role.INSTRUCTOR, section,
+                                                            null, new HashSet<String>(), response, question,
+                                                            instructor)) {
+                    responses.add(response);
+                    addEmailNamePairsToTable(emailNameTable, response,
+                            question, roster);
+                    addEmailLastNamePairsToTable(emailLastNameTable, response,
+                            question, roster);
+                    addEmailTeamNamePairsToTable(emailTeamNameTable, response,
+                            question, roster);
+                    addVisibilityToTable(visibilityTable, question,
+                            response, userEmail, Role.INSTRUCTOR, roster);
+                }
+            }
+
+            FeedbackSessionResultsBundle results =
+                    new FeedbackSessionResultsBundle(
+                            session, responses, relevantQuestions, emailNameTable,
+                            emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
+                            visibilityTable, null, roster,
+                            new HashMap<String, List<FeedbackResponseCommentAttributes>>());
+
+            for (Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry : results
+                    .getQuestionResponseMap().entrySet()) {
+                writer.write(getFeedbackSessionResultsForQuestionInCsvFormat(results, entry).toString());
+            }
+            writer.flush();
+        }
+    }
+
     private StringBuilder getFeedbackSessionResultsForQuestionInCsvFormat(
             FeedbackSessionResultsBundle fsrBundle,
             Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry) {
@@ -1041,7 +1182,8 @@ public class FeedbackSessionsLogic {
                                                        String userEmail)
                    throws EntityDoesNotExistException {
         Assumption.assertNotNull(fsa);
-        if (fsa.respondingStudentList.contains(userEmail)) {
+        if (fsa.respondingStudentList.contains(userEmail)
+                || respondentsDb.isRespondent(fsa.feedbackSessionName, fsa.courseId, userEmail, false)) {
             return true;
         }
         
@@ -1064,7 +1206,8 @@ public class FeedbackSessionsLogic {
                     "Trying to check a feedback session that does not exist.");
         }
         
-        if (fsa.respondingInstructorList.contains(userEmail)) {
+        if (fsa.respondingInstructorList.contains(userEmail)
+                || respondentsDb.isRespondent(feedbackSessionName, courseId, userEmail, true)) {
             return true;
         }
 
@@ -1131,16 +1274,22 @@ public class FeedbackSessionsLogic {
         
         List<FeedbackSessionAttributes> feedbackSessions = getFeedbackSessionsForCourse(courseId);
         for(FeedbackSessionAttributes session : feedbackSessions) {
-            fsDb.updateInstructorRespondant(oldEmail, newEmail, session);
+            if (session.respondingInstructorList.contains(oldEmail)) {
+                fsDb.updateInstructorRespondant(oldEmail, newEmail, session);
+            }
         }
+        respondentsDb.updateRespondentEmail(courseId, oldEmail, newEmail, true);
     }
 
     public void updateRespondantsForStudent(String oldEmail, String newEmail, String courseId) throws InvalidParametersException, EntityDoesNotExistException {
 
         List<FeedbackSessionAttributes> feedbackSessions = getFeedbackSessionsForCourse(courseId);
         for(FeedbackSessionAttributes session : feedbackSessions) {
-            fsDb.updateStudentRespondant(oldEmail, newEmail, session);
+            if (session.respondingStudentList.contains(oldEmail)) {
+                fsDb.updateStudentRespondant(oldEmail, newEmail, session);
+            }
         }
+        respondentsDb.updateRespondentEmail(courseId, oldEmail, newEmail, false);
     }
     
     public void updateRespondantsForSession(String feedbackSessionName, String courseId) throws InvalidParametersException, EntityDoesNotExistException {
@@ -1191,13 +1340,17 @@ public class FeedbackSessionsLogic {
         List<FeedbackSessionAttributes> sessionsToUpdate =
                 fsDb.getFeedbackSessionsForCourse(instructor.courseId);
 
-        for(FeedbackSessionAttributes session : sessionsToUpdate){
+        for (FeedbackSessionAttributes session : sessionsToUpdate) {
+            if (!session.respondingInstructorList.contains(instructor.email)) {
+                continue;
+            }
             try {
-                deleteInstructorRespondant(instructor.email, session.feedbackSessionName, session.courseId);
+                fsDb.deleteInstructorRespondant(instructor.email, session);
             } catch (InvalidParametersException | EntityDoesNotExistException e) {
                 Assumption.fail("Fail to delete instructor respondant for " + session.feedbackSessionName);
             }
         }
+        respondentsDb.deleteRespondent(instructor.courseId, instructor.email, true);
     }
 
     public void deleteStudentFromRespondantsList(StudentAttributes student) {  
@@ -1207,13 +1360,17 @@ public class FeedbackSessionsLogic {
         List<FeedbackSessionAttributes> sessionsToUpdate =
                 fsDb.getFeedbackSessionsForCourse(student.course);
 
-        for(FeedbackSessionAttributes session : sessionsToUpdate) {
+        for (FeedbackSessionAttributes session : sessionsToUpdate) {
+            if (!session.respondingStudentList.contains(student.email)) {
+                continue;
+            }
             try {
-                deleteStudentRespondant(student.email, session.feedbackSessionName, session.courseId);
+                fsDb.deleteStudentRespondant(student.email, session);
             } catch (InvalidParametersException | EntityDoesNotExistException e) {
-                Assumption.fail("Fail to delete instructor respondant for " + session.feedbackSessionName);
+                Assumption.fail("Fail to delete student respondant for " + session.feedbackSessionName);
             }
         }
+        respondentsDb.deleteRespondent(student.course, student.email, false);
     }
 
     public void addInstructorRespondant(String email, String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1228,7 +1385,7 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.addInstructorRespondant(email, sessionToUpdate);
+        addInstructorRespondants(Arrays.asList(email), sessionToUpdate);
     }
 
     public void addInstructorRespondants(List<String> emails, String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1243,7 +1400,7 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.addInstructorRespondants(emails, sessionToUpdate);
+        addInstructorRespondants(emails, sessionToUpdate);
     }
 
     public void clearInstructorRespondants(String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1257,7 +1414,10 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.clearInstructorRespondants(sessionToUpdate);        
+        if (!sessionToUpdate.respondingInstructorList.isEmpty()) {
+            fsDb.clearInstructorRespondants(sessionToUpdate);
+        }
+        respondentsDb.deleteRespondents(feedbackSessionName, courseId, true);
     }
 
     public void addStudentRespondant(String email, String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1272,7 +1432,7 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.addStudentRespondant(email, sessionToUpdate);
+        addStudentRespondants(Arrays.asList(email), sessionToUpdate);
     }
 
     public void addStudentRespondants(List<String> emails, String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1287,7 +1447,7 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.addStudentRespondants(emails, sessionToUpdate);
+        addStudentRespondants(emails, sessionToUpdate);
     }
 
     public void clearStudentRespondants(String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1301,7 +1461,10 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.clearStudentRespondants(sessionToUpdate);        
+        if (!sessionToUpdate.respondingStudentList.isEmpty()) {
+            fsDb.clearStudentRespondants(sessionToUpdate);
+        }
+        respondentsDb.deleteRespondents(feedbackSessionName, courseId, false);
     }
 
     public void deleteInstructorRespondant(String email, String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1316,7 +1479,10 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.deleteInstructorRespondant(email, sessionToUpdate);
+        if (sessionToUpdate.respondingInstructorList.contains(email)) {
+            fsDb.deleteInstructorRespondant(email, sessionToUpdate);
+        }
+        respondentsDb.deleteRespondent(feedbackSessionName, courseId, email, true);
     }
 
     public void deleteStudentRespondant(String email, String feedbackSessionName, String courseId) throws EntityDoesNotExistException, InvalidParametersException {
@@ -1331,7 +1497,37 @@ public class FeedbackSessionsLogic {
                     "Trying to update a feedback session that does not exist.");
         }
 
-        fsDb.deleteStudentRespondant(email, sessionToUpdate);
+        if (sessionToUpdate.respondingStudentList.contains(email)) {
+            fsDb.deleteStudentRespondant(email, sessionToUpdate);
+        }
+        respondentsDb.deleteRespondent(feedbackSessionName, courseId, email, false);
+    }
+
+    /**
+     * Adds the respondents that are not in the legacy list of the session,
+     * so that the respondents in the list and in {@link FeedbackSessionRespondentsDb} do not overlap.
+     */
+    private void addInstructorRespondants(List<String> emails, FeedbackSessionAttributes session) {
+        List<String> newRespondents = new ArrayList<String>(emails);
+        newRespondents.removeAll(session.respondingInstructorList);
+        respondentsDb.addRespondents(session.feedbackSessionName, session.courseId, newRespondents, true);
+    }
+
+    private void addStudentRespondants(List<String> emails, FeedbackSessionAttributes session) {
+        List<String> newRespondents = new ArrayList<String>(emails);
+        newRespondents.removeAll(session.respondingStudentList);
+        respondentsDb.addRespondents(session.feedbackSessionName, session.courseId, newRespondents, false);
+    }
+
+    /**
+     * Adds the respondents of the session, which are not stored in the session entity,
+     * to the respondent lists of {@code session}.
+     */
+    private void addRespondentsToSession(FeedbackSessionAttributes session) {
+        session.respondingStudentList.addAll(
+                respondentsDb.getRespondents(session.feedbackSessionName, session.courseId, false));
+        session.respondingInstructorList.addAll(
+                respondentsDb.getRespondents(session.feedbackSessionName, session.courseId, true));
     }
 
     /**
@@ -1589,6 +1785,7 @@ public class FeedbackSessionsLogic {
      */
     public void deleteFeedbackSessionsForCourse(String courseId) {
         fsDb.deleteFeedbackSessionsForCourse(courseId);
+        respondentsDb.deleteRespondentsForCourses(Arrays.asList(courseId));
     }
 
     /**
@@ -1608,12 +1805,27 @@ public class FeedbackSessionsLogic {
         sessionToDelete.courseId = courseId;
 
         fsDb.deleteEntity(sessionToDelete);
+        respondentsDb.deleteRespondentsForSession(feedbackSessionName, courseId);
+        frLogic.deleteResultsSnapshotForSession(feedbackSessionName, courseId);
 
     }
 
     public FeedbackSessionDetailsBundle getFeedbackSessionDetails(
             FeedbackSessionAttributes fsa) throws EntityDoesNotExistException {
 
+        int numOfRespondents = fsa.feedbackSessionType == FeedbackSessionType.STANDARD
+                             ? respondentsDb.getNumOfRespondents(fsa.feedbackSessionName, fsa.courseId)
+                             : 0;
+        return getFeedbackSessionDetails(fsa, numOfRespondents);
+    }
+
+    /**
+     * @param numOfRespondents the number of respondents of the session in {@link FeedbackSessionRespondentsDb},
+     *         which are not in the respondent lists of {@code fsa}.
+     */
+    private FeedbackSessionDetailsBundle getFeedbackSessionDetails(
+            FeedbackSessionAttributes fsa, int numOfRespondents) throws EntityDoesNotExistException {
+
         FeedbackSessionDetailsBundle details =
                 new FeedbackSessionDetailsBundle(fsa);
 
@@ -1645,7 +1857,8 @@ public class FeedbackSessionsLogic {
                 }
             }
             
-            details.stats.submittedTotal += fsa.respondingStudentList.size() + fsa.respondingInstructorList.size();
+            details.stats.submittedTotal += fsa.respondingStudentList.size() + fsa.respondingInstructorList.size()
+                                          + numOfRespondents;
 
             break;
 
@@ -1684,8 +1897,8 @@ public class FeedbackSessionsLogic {
         // methods
         // (rather than loading them many times).
         CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+                studentsLogic.getStudentsForCourse(courseId),
+                instructorsLogic.getInstructorsForCourse(courseId));
         
         return getFeedbackSessionResultsForUserInSectionByQuestions(
                 feedbackSessionName, courseId, userEmail, role, section, roster);
@@ -1704,6 +1917,7 @@ public class FeedbackSessionsLogic {
             throw new EntityDoesNotExistException(
                     "Trying to view non-existent feedback session.");
         }
+        addRespondentsToSession(session);
 
         List<FeedbackQuestionAttributes> allQuestions =
                 fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
@@ -1739,6 +1953,25 @@ public class FeedbackSessionsLogic {
                     visibilityTable, responseStatus, roster, responseComments);
         }
 
+        // the comments do not depend on the responses, so they are read at the same time
+        Future<List<FeedbackResponseCommentAttributes>> allResponseCommentsFuture =
+                startGettingResponseCommentsInSection(courseId, feedbackSessionName, null);
+
+        // Read all responses of the session at once, and pick the viewable ones per question in memory
+        Map<String, List<FeedbackResponseAttributes>> allResponsesByQuestion =
+                new HashMap<String, List<FeedbackResponseAttributes>>();
+        for (FeedbackQuestionAttributes question : allQuestions) {
+            allResponsesByQuestion.put(question.getId(), new ArrayList<FeedbackResponseAttributes>());
+        }
+        for (FeedbackResponseAttributes response
+                : frLogic.getFeedbackResponsesForSessionFromSnapshot(feedbackSessionName, courseId)) {
+            List<FeedbackResponseAttributes> responsesForQuestion =
+                    allResponsesByQuestion.get(response.feedbackQuestionId);
+            if (responsesForQuestion != null) {
+                responsesForQuestion.add(response);
+            }
+        }
+
         Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
         for (FeedbackQuestionAttributes question : allQuestions) {
 
@@ -1747,12 +1980,12 @@ public class FeedbackSessionsLogic {
             boolean isPrivateSessionCreatedByThisUser = session
                     .isCreator(userEmail) && session.isPrivateSession();
             if (isPrivateSessionCreatedByThisUser) {
-                responsesForThisQn = frLogic
-                        .getFeedbackResponsesForQuestion(question.getId());
+                responsesForThisQn = allResponsesByQuestion.get(question.getId());
             } else {
                 responsesForThisQn = frLogic
                         .getViewableFeedbackResponsesForQuestionInSection(
-                                question, userEmail, role, section);
+                                question, userEmail, role, section,
+                                allResponsesByQuestion.get(question.getId()), roster);
             }
 
             boolean thisQuestionHasResponses = (!responsesForThisQn.isEmpty());
@@ -1790,8 +2023,7 @@ public class FeedbackSessionsLogic {
         }
         
         List<FeedbackResponseCommentAttributes> allResponseComments =
-                frcLogic.getFeedbackResponseCommentForSession(courseId,
-                        feedbackSessionName);
+                ThreadHelper.getResult(allResponseCommentsFuture);
         for (FeedbackResponseCommentAttributes frc : allResponseComments) {
             FeedbackResponseAttributes relatedResponse = relevantResponse.get(frc.feedbackResponseId);
             FeedbackQuestionAttributes relatedQuestion = relevantQuestions.get(frc.feedbackQuestionId);
@@ -1847,6 +2079,7 @@ public class FeedbackSessionsLogic {
             throw new EntityDoesNotExistException(
                     "Trying to view non-existent feedback session.");
         }
+        addRespondentsToSession(session);
 
         List<FeedbackQuestionAttributes> allQuestions =
                 fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
@@ -1984,6 +2217,15 @@ public class FeedbackSessionsLogic {
         for (FeedbackQuestionAttributes qn : allQuestions) {
             allQuestionsMap.put(qn.getId(), qn);
         }
+        boolean isIncludingResponseComments = params.get("viewType") == null
+                || params.get("viewType").equals("giver-recipient-question")
+                || params.get("viewType").equals("recipient-giver-question");
+        
+        // the comments do not depend on the responses, so they are read at the same time
+        Future<List<FeedbackResponseCommentAttributes>> allResponseCommentsFuture = isIncludingResponseComments
+                ? startGettingResponseCommentsInSection(courseId, feedbackSessionName, section)
+                : null;
+        
         List<FeedbackResponseAttributes> allResponses = new ArrayList<FeedbackResponseAttributes>();
         if(params.get("range") != null){
             long range = Long.parseLong(params.get("range"));
@@ -2068,12 +2310,9 @@ public class FeedbackSessionsLogic {
             }
         }
 
-        if (params.get("viewType") == null
-                || params.get("viewType").equals("giver-recipient-question")
-                || params.get("viewType").equals("recipient-giver-question")) {
+        if (isIncludingResponseComments) {
             List<FeedbackResponseCommentAttributes> allResponseComments =
-                    frcLogic.getFeedbackResponseCommentForSessionInSection(courseId,
-                            feedbackSessionName, section);
+                    ThreadHelper.getResult(allResponseCommentsFuture);
             for (FeedbackResponseCommentAttributes frc : allResponseComments) {
                 FeedbackResponseAttributes relatedResponse = relevantResponse.get(frc.feedbackResponseId);
                 FeedbackQuestionAttributes relatedQuestion = relevantQuestions.get(frc.feedbackQuestionId);
@@ -2115,6 +2354,24 @@ public class FeedbackSessionsLogic {
         return results;
     }
 
+    /**
+     * Starts reading the response comments of the session in a request thread,
+     * so that other queries for the results can be issued in the meantime.
+     * @param section the section of the comments, or null for all comments of the session.
+     */
+    private Future<List<FeedbackResponseCommentAttributes>> startGettingResponseCommentsInSection(
+            final String courseId, final String feedbackSessionName, final String section) {
+        return ThreadHelper.startInRequestThread(new Callable<List<FeedbackResponseCommentAttributes>>() {
+            @Override
+            public List<FeedbackResponseCommentAttributes> call() {
+                if (section == null) {
+                    return frcLogic.getFeedbackResponseCommentForSession(courseId, feedbackSessionName);
+                }
+                return frcLogic.getFeedbackResponseCommentForSessionInSection(courseId, feedbackSessionName, section);
+            }
+        });
+    }
+
     private void addSectionTeamNamesToTable(Map<String, Set<String>> sectionTeamNameTable,
                                     CourseRoster roster, String courseId, String userEmail, Role role,
                                     String feedbackSessionName, String sectionToView) {
@@ -2283,23 +2540,6 @@ public class FeedbackSessionsLogic {
         }
     }
 
-    private List<FeedbackSessionDetailsBundle> getFeedbackSessionDetailsForCourse(
-            String courseId, String instructorEmail)
-            throws EntityDoesNotExistException {
-
-        List<FeedbackSessionDetailsBundle> fsDetailsWithoutPrivate =
-                new ArrayList<FeedbackSessionDetailsBundle>();
-        List<FeedbackSessionAttributes> fsInCourse =
-                fsDb.getFeedbackSessionsForCourse(courseId);
-
-        for (FeedbackSessionAttributes fsa : fsInCourse) {
-            if ((fsa.isPrivateSession() && !fsa.isCreator(instructorEmail)) == false)
-                fsDetailsWithoutPrivate.add(getFeedbackSessionDetails(fsa));
-        }
-
-        return fsDetailsWithoutPrivate;
-    }
-
     private List<FeedbackSessionAttributes> getFeedbackSessionsListForCourse(
             String courseId, String instructorEmail) throws EntityDoesNotExistException {
         
@@ -2428,8 +2668,9 @@ public class FeedbackSessionsLogic {
                 fqLogic.getFeedbackQuestionsForStudents(feedbackSessionName,
                         courseId);
 
+        CourseRoster roster = fqLogic.getCourseRoster(courseId);
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail)) {
+            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail, roster)) {
                 // If any question is not completely answered, session is not
                 // completed
                 return false;
@@ -2453,8 +2694,9 @@ public class FeedbackSessionsLogic {
                         courseId,
                         userEmail);
 
+        CourseRoster roster = fqLogic.getCourseRoster(courseId);
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail)) {
+            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail, roster)) {
                 // If any question is not completely answered, session is not
                 // completed
                 return false;
@@ -1,5 +1,6 @@
 package teammates.logic.core;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
@@ -16,6 +17,9 @@ import teammates.common.util.Assumption;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.Utils;
 import teammates.storage.api.InstructorsDb;
+import teammates.storage.cache.SharedCache;
+
+import com.google.gson.reflect.TypeToken;
 
 
 /**
@@ -29,6 +33,8 @@ public class InstructorsLogic {
     
     public static final String ERROR_NO_INSTRUCTOR_LINES = "Course must have at lease one instructor\n";
     
+    private static final Type INSTRUCTOR_LIST_TYPE = new TypeToken<List<InstructorAttributes>>(){}.getType();
+    
     private static final InstructorsDb instructorsDb = new InstructorsDb();
     private static final AccountsLogic accountsLogic = AccountsLogic.inst();
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
@@ -82,7 +88,9 @@ public class InstructorsLogic {
         
         log.info("going to create instructor :\n"+instructorToAdd.toString());
         
-        return instructorsDb.createInstructor(instructorToAdd);
+        InstructorAttributes createdInstructor = instructorsDb.createInstructor(instructorToAdd);
+        invalidateCachedInstructorsForCourse(instructorToAdd.courseId);
+        return createdInstructor;
     }
     
     
@@ -92,6 +100,7 @@ public class InstructorsLogic {
         InstructorAttributes instructor = instructorsDb.getInstructorForGoogleId(courseId, googleId);
         instructor.isArchived = archiveStatus;
         instructorsDb.updateInstructorByGoogleId(instructor);
+        invalidateCachedInstructorsForCourse(courseId);
     }
     
     public InstructorAttributes getInstructorForEmail(String courseId, String email) {
@@ -111,7 +120,32 @@ public class InstructorsLogic {
 
     public List<InstructorAttributes> getInstructorsForCourse(String courseId) {
         
-        return instructorsDb.getInstructorsForCourse(courseId);
+        SharedCache.Entry<List<InstructorAttributes>> cachedInstructors =
+                SharedCache.getEntry(getInstructorsCacheScope(courseId), "all", INSTRUCTOR_LIST_TYPE);
+        if (!cachedInstructors.hasValue()) {
+            cachedInstructors.setValue(instructorsDb.getInstructorsForCourse(courseId));
+            return cachedInstructors.getValue();
+        }
+        
+        List<InstructorAttributes> instructors = cachedInstructors.getValue();
+        for (InstructorAttributes instructor : instructors) {
+            // privileges are not kept in the cache, as they are transient
+            instructor.privileges = instructor.getInstructorPrivilegesFromText();
+        }
+        return instructors;
+    }
+    
+    /**
+     * Invalidates the instructors of the course kept in the shared cache.
+     * This must be called after every write to the instructors of the course.
+     */
+    public void invalidateCachedInstructorsForCourse(String courseId) {
+        SharedCache.invalidate(getInstructorsCacheScope(courseId));
+        FeedbackSessionResultsCache.invalidateForCourse(courseId);
+    }
+    
+    private String getInstructorsCacheScope(String courseId) {
+        return "instructors:" + courseId;
     }
     
     public List<InstructorAttributes> getInstructorsForGoogleId(String googleId) {
@@ -217,6 +251,7 @@ public class InstructorsLogic {
         checkForUpdatingRespondants(googleId, instructor);
         
         instructorsDb.updateInstructorByGoogleId(instructor);
+        invalidateCachedInstructorsForCourse(instructor.courseId);
     }
     
     private void checkForUpdatingRespondants(String googleId, InstructorAttributes instructor) 
@@ -259,6 +294,7 @@ public class InstructorsLogic {
         verifyIsEmailOfInstructorOfCourse(email, instructor.courseId);
         
         instructorsDb.updateInstructorByEmail(instructor);
+        invalidateCachedInstructorsForCourse(instructor.courseId);
     }
     
     /**
@@ -367,6 +403,7 @@ public class InstructorsLogic {
         commentsLogic.deleteCommentsForInstructor(courseId, email);
         fsLogic.deleteInstructorFromRespondantsList(getInstructorForEmail(courseId, email));
         instructorsDb.deleteInstructor(courseId, email);
+        invalidateCachedInstructorsForCourse(courseId);
     }
 
     public void deleteInstructorsForGoogleIdAndCascade(String googleId) {
@@ -383,6 +420,7 @@ public class InstructorsLogic {
     public void deleteInstructorsForCourse(String courseId) {
         
         instructorsDb.deleteInstructorsForCourse(courseId);
+        invalidateCachedInstructorsForCourse(courseId);
     }
 
 }
\ No newline at end of file
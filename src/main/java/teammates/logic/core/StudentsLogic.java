@@ -1,17 +1,24 @@
 package teammates.logic.core;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import javax.mail.internet.MimeMessage;
 
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
-import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentAttributesFactory;
@@ -33,7 +40,9 @@ import teammates.common.util.StringHelper;
 import teammates.common.util.Utils;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
+import teammates.storage.api.CourseStatisticsDb;
 import teammates.storage.api.StudentsDb;
+import teammates.storage.cache.SharedCache;
 
 /**
  * Handles  operations related to student roles.
@@ -46,9 +55,11 @@ public class StudentsLogic {
     
     private static int SECTION_SIZE_LIMIT = 100;
     private static int SIZE_LIMIT_PER_ENROLLMENT = 150;
+    private static final Type STUDENT_LIST_TYPE = new TypeToken<List<StudentAttributes>>(){}.getType();
 
     private static StudentsLogic instance = null;
     private StudentsDb studentsDb = new StudentsDb();
+    private CourseStatisticsDb courseStatisticsDb = new CourseStatisticsDb();
     
     private CoursesLogic coursesLogic = CoursesLogic.inst();
     private FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
@@ -80,13 +91,18 @@ public class StudentsLogic {
     
     public void createStudentCascade(StudentAttributes studentData, boolean hasDocument) 
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
-        studentsDb.createStudent(studentData, hasDocument);
-        
         if (!coursesLogic.isCoursePresent(studentData.course)) {
             throw new EntityDoesNotExistException(
                     "Course does not exist [" + studentData.course + "]");
         }
         
+        studentsDb.createStudent(studentData, hasDocument);
+        invalidateCachedStudentsForCourse(studentData.course);
+        courseStatisticsDb.updateCourseStatistics(studentData.course, Collections.<StudentAttributes>emptyList(),
+                                                  Arrays.asList(studentData));
+        commentsLogic.updateCommentVisibilityIndexForStudents(studentData.course,
+                                                              Collections.<StudentAttributes>emptyList(),
+                                                              Arrays.asList(studentData));
     }
 
     @SuppressWarnings("deprecation")
@@ -111,7 +127,25 @@ public class StudentsLogic {
     }
 
     public List<StudentAttributes> getStudentsForCourse(String courseId) {
-        return studentsDb.getStudentsForCourse(courseId);
+        SharedCache.Entry<List<StudentAttributes>> cachedStudents =
+                SharedCache.getEntry(getStudentsCacheScope(courseId), "all", STUDENT_LIST_TYPE);
+        if (!cachedStudents.hasValue()) {
+            cachedStudents.setValue(studentsDb.getStudentsForCourse(courseId));
+        }
+        return cachedStudents.getValue();
+    }
+
+    /**
+     * Invalidates the students of the course kept in the shared cache.
+     * This must be called after every write to the students of the course.
+     */
+    public void invalidateCachedStudentsForCourse(String courseId) {
+        SharedCache.invalidate(getStudentsCacheScope(courseId));
+        FeedbackSessionResultsCache.invalidateForCourse(courseId);
+    }
+
+    private String getStudentsCacheScope(String courseId) {
+        return "students:" + courseId;
     }
     
     public List<StudentAttributes> getStudentsForTeam(String teamName, String courseId) {
@@ -275,6 +309,15 @@ public class StudentsLogic {
         }
         
         studentsDb.updateStudent(student.course, originalEmail, student.name, student.team, student.section, student.email, student.googleId, student.comments, hasDocument);    
+        invalidateCachedStudentsForCourse(student.course);
+        courseStatisticsDb.updateCourseStatistics(student.course, Arrays.asList(originalStudent), Arrays.asList(student));
+        if (!originalEmail.equals(student.email)) {
+            commentsLogic.invalidateCommentVisibilityIndex(student.course);
+        } else if (isTeamChanged(originalStudent.team, student.team)
+                || isSectionChanged(originalStudent.section, student.section)) {
+            commentsLogic.updateCommentVisibilityIndexForStudents(student.course, Arrays.asList(originalStudent),
+                                                                  Arrays.asList(student));
+        }
         
         // cascade email change, if any
         if (!originalEmail.equals(student.email)) {
@@ -300,6 +343,9 @@ public class StudentsLogic {
         studentsDb.updateStudent(originalStudent.course, originalEmail, originalStudent.name, 
                                  originalStudent.team, originalStudent.section, originalStudent.email, 
                                  originalStudent.googleId, originalStudent.comments, hasDocument);  
+        invalidateCachedStudentsForCourse(courseId);
+        // the registered student is not kept, so the statistics are recounted instead
+        courseStatisticsDb.invalidateCourseStatistics(courseId);
     }
 
     public List<StudentAttributes> enrollStudents(String enrollLines,
@@ -354,34 +400,57 @@ public class StudentsLogic {
         }
 
         verifyIsWithinSizeLimitPerEnrollment(studentList);
-        validateSections(studentList, courseId);
+        
+        // the enroll list is compared against one snapshot of the students in the course
+        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        validateSections(studentList, studentsInCourse);
 
-        // TODO: can we use a batch persist operation here?
-        // enroll all students
+        Map<String, StudentAttributes> studentsInCourseByEmail = new HashMap<String, StudentAttributes>();
+        for (StudentAttributes student : studentsInCourse) {
+            studentsInCourseByEmail.put(student.email, student);
+        }
+        
+        List<StudentAttributes> studentsToSave = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsReplaced = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : studentList) {
-            StudentEnrollDetails enrollmentDetails;
-            
-            enrollmentDetails = enrollStudent(student, hasDocument);
+            StudentAttributes originalStudent = studentsInCourseByEmail.get(student.email);
+            StudentEnrollDetails enrollmentDetails = getEnrollmentDetails(student, originalStudent);
             student.updateStatus = enrollmentDetails.updateStatus;
+            if (enrollmentDetails.updateStatus != UpdateStatus.UNMODIFIED) {
+                studentsToSave.add(student);
+            }
+            if (enrollmentDetails.updateStatus == UpdateStatus.MODIFIED) {
+                studentsReplaced.add(originalStudent);
+            }
             
             enrollmentList.add(enrollmentDetails);
             returnList.add(student);
         }
         
-        //Adjust submissions for all feedback responses within the course
-        List<FeedbackSessionAttributes> feedbackSessions = FeedbackSessionsLogic.inst()
-                .getFeedbackSessionsForCourse(courseId);
+        // enroll all new and modified students at once
+        if (!studentsToSave.isEmpty()) {
+            studentsDb.saveStudentsForCourse(courseId, studentsToSave, hasDocument);
+            invalidateCachedStudentsForCourse(courseId);
+            courseStatisticsDb.updateCourseStatistics(courseId, studentsReplaced, studentsToSave);
+            commentsLogic.updateCommentVisibilityIndexForStudents(courseId, studentsReplaced, studentsToSave);
+        }
         
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            //Schedule adjustment of submissions for feedback session in course
-            scheduleSubmissionAdjustmentForFeedbackInCourse(enrollmentList,courseId,
-                    session.feedbackSessionName);
+        //Adjust the responses of students moved to another team or section, in all sessions of the course
+        ArrayList<StudentEnrollDetails> enrollmentsToAdjust = new ArrayList<StudentEnrollDetails>();
+        for (StudentEnrollDetails enrollment : enrollmentList) {
+            if (isSubmissionAdjustmentRequired(enrollment)) {
+                enrollmentsToAdjust.add(enrollment);
+            }
+        }
+        if (!enrollmentsToAdjust.isEmpty()) {
+            scheduleSubmissionAdjustmentForFeedbackInCourse(enrollmentsToAdjust, courseId, null);
         }
 
         // add to return list students not included in the enroll list.
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        // they are not changed by the enrollment, so they are taken from the snapshot
+        Set<String> enrolledEmails = getEmailsInLowerCase(studentList);
         for (StudentAttributes student : studentsInCourse) {
-            if (!isInEnrollList(student, returnList)) {
+            if (!enrolledEmails.contains(student.email.toLowerCase())) {
                 student.updateStatus = StudentAttributes.UpdateStatus.NOT_IN_ENROLL_LIST;
                 returnList.add(student);
             }
@@ -397,16 +466,21 @@ public class StudentsLogic {
     }
 
     public void validateSections(List<StudentAttributes> studentList, String courseId) throws EntityDoesNotExistException, EnrollException {
+        validateSections(studentList, getStudentsForCourse(courseId));
+    }
+
+    private void validateSections(List<StudentAttributes> studentList, List<StudentAttributes> studentsInCourse)
+            throws EnrollException {
 
         List<StudentAttributes> mergedList = new ArrayList<StudentAttributes>();
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
         
         for(StudentAttributes student : studentList) {
             mergedList.add(student);
         }
 
+        Set<String> emailsInStudentList = getEmailsInLowerCase(studentList);
         for(StudentAttributes student : studentsInCourse) {
-            if(!isInEnrollList(student, mergedList)){
+            if(!emailsInStudentList.contains(student.email.toLowerCase())){
                 mergedList.add(student);
             }
         }
@@ -492,13 +566,19 @@ public class StudentsLogic {
         return errorMessage;
     }
 
-    private void scheduleSubmissionAdjustmentForFeedbackInCourse(
-            ArrayList<StudentEnrollDetails> enrollmentList, String courseId, String sessionName) {
-        // private methods -- should I test this?
+    /**
+     * Schedules the adjustment of the responses affected by {@code enrollmentList}.
+     * @param sessionName the session whose responses are adjusted,
+     *         or null to adjust the responses in all sessions of the course.
+     */
+    public void scheduleSubmissionAdjustmentForFeedbackInCourse(
+            List<StudentEnrollDetails> enrollmentList, String courseId, String sessionName) {
         HashMap<String, String> paramMap = new HashMap<String, String>();
         
         paramMap.put(ParamsNames.COURSE_ID, courseId);
-        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
+        if (sessionName != null) {
+            paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
+        }
         
         Gson gsonBuilder = Utils.getTeammatesGson();
         String enrollmentDetails = gsonBuilder.toJson(enrollmentList);
@@ -593,8 +673,15 @@ public class StudentsLogic {
         // delete responses before deleting the student as we need to know the student's team.
         frLogic.deleteFeedbackResponsesForStudentAndCascade(courseId, studentEmail);
         commentsLogic.deleteCommentsForStudent(courseId, studentEmail);
-        fsLogic.deleteStudentFromRespondantsList(getStudentForEmail(courseId, studentEmail));
+        StudentAttributes student = getStudentForEmail(courseId, studentEmail);
+        fsLogic.deleteStudentFromRespondantsList(student);
         studentsDb.deleteStudent(courseId, studentEmail, hasDocument);
+        invalidateCachedStudentsForCourse(courseId);
+        commentsLogic.invalidateCommentVisibilityIndex(courseId);
+        if (student != null) {
+            courseStatisticsDb.updateCourseStatistics(courseId, Arrays.asList(student),
+                                                      Collections.<StudentAttributes>emptyList());
+        }
     }
 
     public void deleteStudentsForGoogleId(String googleId) {
@@ -603,6 +690,12 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondantsList(student);
         }
         studentsDb.deleteStudentsForGoogleId(googleId);
+        for (StudentAttributes student : students) {
+            invalidateCachedStudentsForCourse(student.course);
+            courseStatisticsDb.updateCourseStatistics(student.course, Arrays.asList(student),
+                                                      Collections.<StudentAttributes>emptyList());
+            commentsLogic.invalidateCommentVisibilityIndex(student.course);
+        }
     }
 
     public void deleteStudentsForGoogleIdWithoutDocument(String googleId) {
@@ -611,6 +704,12 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondantsList(student);
         }
         studentsDb.deleteStudentsForGoogleIdWithoutDocument(googleId);
+        for (StudentAttributes student : students) {
+            invalidateCachedStudentsForCourse(student.course);
+            courseStatisticsDb.updateCourseStatistics(student.course, Arrays.asList(student),
+                                                      Collections.<StudentAttributes>emptyList());
+            commentsLogic.invalidateCommentVisibilityIndex(student.course);
+        }
     }
     
     public void deleteStudentsForGoogleIdAndCascade(String googleId) {
@@ -624,38 +723,128 @@ public class StudentsLogic {
 
     public void deleteStudentsForCourse(String courseId) {
         studentsDb.deleteStudentsForCourse(courseId);
+        invalidateCachedStudentsForCourse(courseId);
+        courseStatisticsDb.deleteCourseStatisticsForCourses(Arrays.asList(courseId));
+        commentsLogic.invalidateCommentVisibilityIndex(courseId);
     }
 
     public void deleteStudentsForCourseWithoutDocument(String courseId) {
         studentsDb.deleteStudentsForCourseWithoutDocument(courseId);
+        invalidateCachedStudentsForCourse(courseId);
+        courseStatisticsDb.deleteCourseStatisticsForCourses(Arrays.asList(courseId));
+        commentsLogic.invalidateCommentVisibilityIndex(courseId);
+    }
+    
+    /**
+     * Adjusts the responses given or received by the students in {@code enrollmentList}
+     * who are moved to another team or section. Only the responses of these students are read.
+     * @param feedbackSessionName the session whose responses are adjusted,
+     *         or null to adjust the responses in all sessions of the course.
+     */
+    public void adjustFeedbackResponsesForEnrollments(String courseId, String feedbackSessionName,
+            List<StudentEnrollDetails> enrollmentList) throws InvalidParametersException, EntityDoesNotExistException {
+        
+        // a response between two affected students is adjusted once for both of them
+        Map<String, FeedbackResponseAttributes> responsesToAdjust = new LinkedHashMap<String, FeedbackResponseAttributes>();
+        Map<String, ArrayList<StudentEnrollDetails>> enrollmentsForResponse =
+                new HashMap<String, ArrayList<StudentEnrollDetails>>();
+        
+        for (StudentEnrollDetails enrollment : enrollmentList) {
+            if (!isSubmissionAdjustmentRequired(enrollment)) {
+                continue;
+            }
+            
+            List<FeedbackResponseAttributes> responsesOfStudent = new ArrayList<FeedbackResponseAttributes>();
+            responsesOfStudent.addAll(frLogic.getFeedbackResponsesFromGiverForCourse(courseId, enrollment.email));
+            responsesOfStudent.addAll(frLogic.getFeedbackResponsesForReceiverForCourse(courseId, enrollment.email));
+            
+            for (FeedbackResponseAttributes response : responsesOfStudent) {
+                if (feedbackSessionName != null && !feedbackSessionName.equals(response.feedbackSessionName)) {
+                    continue;
+                }
+                
+                String responseId = response.getId();
+                if (!enrollmentsForResponse.containsKey(responseId)) {
+                    responsesToAdjust.put(responseId, response);
+                    enrollmentsForResponse.put(responseId, new ArrayList<StudentEnrollDetails>());
+                }
+                if (!enrollmentsForResponse.get(responseId).contains(enrollment)) {
+                    enrollmentsForResponse.get(responseId).add(enrollment);
+                }
+            }
+        }
+        
+        // the results snapshot of each session is updated once for all the adjusted responses
+        List<FeedbackResponseAttributes> responsesToPut = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToRemove = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responsesToAdjust.values()) {
+            adjustFeedbackResponseForEnrollments(enrollmentsForResponse.get(response.getId()), response,
+                                                 responsesToPut, responsesToRemove);
+        }
+        frLogic.updateResponsesInSnapshots(responsesToPut, responsesToRemove);
     }
     
     public void adjustFeedbackResponseForEnrollments(
             ArrayList<StudentEnrollDetails> enrollmentList,
             FeedbackResponseAttributes response) throws InvalidParametersException, EntityDoesNotExistException {
+        List<FeedbackResponseAttributes> responsesToPut = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToRemove = new ArrayList<FeedbackResponseAttributes>();
+        adjustFeedbackResponseForEnrollments(enrollmentList, response, responsesToPut, responsesToRemove);
+        frLogic.updateResponsesInSnapshots(responsesToPut, responsesToRemove);
+    }
+    
+    /**
+     * Adjusts the response as {@link #adjustFeedbackResponseForEnrollments(ArrayList, FeedbackResponseAttributes)}
+     * does, but adds the response to {@code responsesToPut} or {@code responsesToRemove}
+     * instead of updating the results snapshot.
+     */
+    private void adjustFeedbackResponseForEnrollments(
+            ArrayList<StudentEnrollDetails> enrollmentList, FeedbackResponseAttributes response,
+            List<FeedbackResponseAttributes> responsesToPut, List<FeedbackResponseAttributes> responsesToRemove)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        boolean isSectionChanged = false;
         for(StudentEnrollDetails enrollment : enrollmentList) {
             boolean isResponseDeleted = false;
             if(enrollment.updateStatus == UpdateStatus.MODIFIED &&
                     isTeamChanged(enrollment.oldTeam, enrollment.newTeam)) {
                 isResponseDeleted = frLogic.updateFeedbackResponseForChangingTeam(enrollment, response);
             }
+            
+            if (isResponseDeleted) {
+                // there is nothing left to adjust for the other enrollments
+                responsesToRemove.add(response);
+                return;
+            }
         
-            if(!isResponseDeleted && enrollment.updateStatus == UpdateStatus.MODIFIED &&
+            if(enrollment.updateStatus == UpdateStatus.MODIFIED &&
                     isSectionChanged(enrollment.oldSection, enrollment.newSection)){
                 frLogic.updateFeedbackResponseForChangingSection(enrollment, response);
+                isSectionChanged = true;
             }
         }
+        if (isSectionChanged) {
+            responsesToPut.add(response);
+        }
+    }
+    
+    private boolean isSubmissionAdjustmentRequired(StudentEnrollDetails enrollment) {
+        return enrollment.updateStatus == UpdateStatus.MODIFIED
+               && (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)
+                   || isSectionChanged(enrollment.oldSection, enrollment.newSection));
     }
     
     public void putDocument(StudentAttributes student){
         studentsDb.putDocument(student);
     }
     
-    private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument) 
-            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
-        StudentAttributes originalStudentAttributes = getStudentForEmail(
-                validStudentAttributes.course, validStudentAttributes.email);
-        
+    /**
+     * Compares a student in the enroll list with the existing student of the same email.
+     * A modified student is updated with the fields of the existing student that
+     * are not given in the enroll list, e.g. the Google ID.
+     * @param originalStudentAttributes null if the student is not in the course yet.
+     */
+    private StudentEnrollDetails getEnrollmentDetails(StudentAttributes validStudentAttributes,
+            StudentAttributes originalStudentAttributes) {
         StudentEnrollDetails enrollmentDetails = new StudentEnrollDetails();
         enrollmentDetails.course = validStudentAttributes.course;
         enrollmentDetails.email = validStudentAttributes.email;
@@ -665,7 +854,7 @@ public class StudentsLogic {
         if (validStudentAttributes.isEnrollInfoSameAs(originalStudentAttributes)) {
             enrollmentDetails.updateStatus = UpdateStatus.UNMODIFIED;
         } else if (originalStudentAttributes != null) {
-            updateStudentCascadeWithSubmissionAdjustmentScheduled(originalStudentAttributes.email, validStudentAttributes, true);
+            validStudentAttributes.updateWithExistingRecord(originalStudentAttributes);
             enrollmentDetails.updateStatus = UpdateStatus.MODIFIED;
             
             if(!originalStudentAttributes.team.equals(validStudentAttributes.team)) {
@@ -675,7 +864,6 @@ public class StudentsLogic {
                 enrollmentDetails.oldSection = originalStudentAttributes.section;
             }
         } else {
-            createStudentCascade(validStudentAttributes, hasDocument);
             enrollmentDetails.updateStatus = UpdateStatus.NEW;
         }
 
@@ -735,14 +923,12 @@ public class StudentsLogic {
         return isEmailDuplicated;
     }
     
-    private boolean isInEnrollList(StudentAttributes student,
-            List<StudentAttributes> studentInfoList) {
-        for (StudentAttributes studentInfo : studentInfoList) {
-            if (studentInfo.email.equalsIgnoreCase(student.email)) {
-                return true;
-            }
+    private Set<String> getEmailsInLowerCase(List<StudentAttributes> students) {
+        Set<String> emails = new HashSet<String>();
+        for (StudentAttributes student : students) {
+            emails.add(student.email.toLowerCase());
         }
-        return false;
+        return emails;
     }
     
     private boolean isTeamChanged(String originalTeam, String newTeam) {
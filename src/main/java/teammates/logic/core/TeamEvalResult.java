@@ -2,6 +2,7 @@ package teammates.logic.core;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import teammates.common.util.Const;
@@ -39,58 +40,66 @@ public class TeamEvalResult {
     // The 2d int arrays are of the format [giverIndex][recipientIndex]
     public List<String> studentEmails = null;
     
+    /**
+     * Used when a result is read back from the cache.
+     */
+    @SuppressWarnings("unused")
+    private TeamEvalResult() {
+    }
 
     public TeamEvalResult(int[][] submissionValues) {
         /*This is the only method that should be public. However, many of the 
          * other methods are set as public for the ease of testing.
          */
 
-        log.fine("==================\n" + "starting result calculation for\n"
-                + pointsToString(submissionValues));
-
         claimed = submissionValues;
 
         normalizedClaimed = normalizeValues(claimed);
 
         int[][] claimedSanitized = sanitizeInput(submissionValues);
-        log.fine("claimed values sanitized :\n"
-                + pointsToString(claimedSanitized));
 
         double[][] claimedSanitizedNormalized = normalizeValues(intToDouble(claimedSanitized));
-        log.fine("claimed values sanitized and normalized :\n"
-                + pointsToString(claimedSanitizedNormalized));
 
         double[][] peerContributionRatioAsDouble = calculatePeerContributionRatio(claimedSanitizedNormalized);
-        log.fine("peerContributionRatio as double :\n"
-                + pointsToString(peerContributionRatioAsDouble));
 
         double[] averagePerceivedAsDouble = averageColumns(peerContributionRatioAsDouble);
-        log.fine("averagePerceived as double:\n"
-                + replaceMagicNumbers(Arrays.toString(averagePerceivedAsDouble)));
 
         double[] normalizedAveragePerceivedAsDouble = normalizeValues(averagePerceivedAsDouble);
-        log.fine("normalizedAveragePerceivedAsDouble as double:\n"
-                + replaceMagicNumbers(Arrays
-                        .toString(normalizedAveragePerceivedAsDouble)));
 
         double[][] normalizedPeerContributionRatioAsDouble = adjustPeerContributionRatioToTallyNormalizedAveragePerceived(peerContributionRatioAsDouble);
-        log.fine("normalizedPeerContributionRatio as double :\n"
-                + pointsToString(peerContributionRatioAsDouble));
 
         normalizedPeerContributionRatio = doubleToInt(normalizedPeerContributionRatioAsDouble);
-        log.fine("normalizedUnbiasedClaimed as int :\n"
-                + pointsToString(normalizedPeerContributionRatio));
 
         denormalizedAveragePerceived = calculatePerceivedForStudents(
                 claimedSanitized, normalizedAveragePerceivedAsDouble);
-        log.fine("perceived to students :\n"
-                + pointsToString(denormalizedAveragePerceived));
 
         normalizedAveragePerceived = doubleToInt(normalizedAveragePerceivedAsDouble);
 
-        log.fine("Final result:\n" + this.toString());
-
-        log.fine("==================");
+        // the intermediate values are only formatted when they are actually logged,
+        // as formatting them costs more than the calculation itself
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("==================\n" + "starting result calculation for\n"
+                    + pointsToString(submissionValues));
+            log.fine("claimed values sanitized :\n"
+                    + pointsToString(claimedSanitized));
+            log.fine("claimed values sanitized and normalized :\n"
+                    + pointsToString(claimedSanitizedNormalized));
+            log.fine("peerContributionRatio as double :\n"
+                    + pointsToString(peerContributionRatioAsDouble));
+            log.fine("averagePerceived as double:\n"
+                    + replaceMagicNumbers(Arrays.toString(averagePerceivedAsDouble)));
+            log.fine("normalizedAveragePerceivedAsDouble as double:\n"
+                    + replaceMagicNumbers(Arrays
+                            .toString(normalizedAveragePerceivedAsDouble)));
+            log.fine("normalizedPeerContributionRatio as double :\n"
+                    + pointsToString(normalizedPeerContributionRatioAsDouble));
+            log.fine("normalizedUnbiasedClaimed as int :\n"
+                    + pointsToString(normalizedPeerContributionRatio));
+            log.fine("perceived to students :\n"
+                    + pointsToString(denormalizedAveragePerceived));
+            log.fine("Final result:\n" + this.toString());
+            log.fine("==================");
+        }
     }
     
 
@@ -149,13 +158,15 @@ public class TeamEvalResult {
 
         verify("Unsanitized value received ", isSanitized(claimedSanitizedRow));
 
+        double[] claimedSanitizedRowAsDouble = intToDouble(claimedSanitizedRow);
+
         // remove from each array values matching special values in the other
         double[] filteredPerceived = purgeValuesCorrespondingToSpecialValuesInFilter(
-                intToDouble(claimedSanitizedRow),
+                claimedSanitizedRowAsDouble,
                 normalizedAveragePerceivedAsDouble);
         int[] filteredSanitizedActual = doubleToInt(purgeValuesCorrespondingToSpecialValuesInFilter(
                 normalizedAveragePerceivedAsDouble,
-                intToDouble(claimedSanitizedRow)));
+                claimedSanitizedRowAsDouble));
 
         double sumOfperceived = sum(filteredPerceived);
         double sumOfActual = sum(filteredSanitizedActual);
@@ -180,6 +191,15 @@ public class TeamEvalResult {
         return true;
     }
 
+    private static boolean isSanitized(double[] array) {
+        for (int i = 0; i < array.length; i++) {
+            if (!isSanitized((int) Math.round(array[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean isSanitized(int i) {
         if (i == NSU) {
             return false;
@@ -235,8 +255,7 @@ public class TeamEvalResult {
             return 0;
         }
 
-        verify("Unsanitized value in " + Arrays.toString(input),
-                isSanitized(doubleToInt(input)));
+        verifySanitized(input);
 
         for (int i = 0; i < input.length; i++) {
 
@@ -300,7 +319,9 @@ public class TeamEvalResult {
     
         double idealSum = count * 100.0;
         double factor = actualSum == 0 ? 0 : idealSum / actualSum;
-        log.fine("Factor = " + idealSum + "/" + actualSum + " = " + factor);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Factor = " + idealSum + "/" + actualSum + " = " + factor);
+        }
         return factor;
     }
 
@@ -341,23 +362,22 @@ public class TeamEvalResult {
         double[] output = new double[input.length];
 
         for (int i = 0; i < input.length; i++) {
-            verify("Unsanitized value in " + Arrays.toString(input[i]),
-                    isSanitized(doubleToInt(input[i])));
+            verifySanitized(input[i]);
             output[i] = averageColumn(input, i);
         }
-        log.fine("Column averages: "
-                + replaceMagicNumbers(Arrays.toString(output)));
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Column averages: "
+                    + replaceMagicNumbers(Arrays.toString(output)));
+        }
         return output;
     }
 
     private static double averageColumn(double[][] array, int columnIndex) {
         double sum = 0;
         int count = 0;
-        String values = "";
         for (int j = 0; j < array.length; j++) {
             double value = array[j][columnIndex];
 
-            values = values + value + " ";
             if (value == NA) {
                 continue;
             } else {
@@ -368,8 +388,14 @@ public class TeamEvalResult {
         // omit calculation if no data points
         double average = count == 0 ? NA : (double) (sum / count);
 
-        String logMessage = "Average(" + values.trim() + ") = " + average;
-        log.fine(replaceMagicNumbers(logMessage));
+        if (log.isLoggable(Level.FINE)) {
+            StringBuilder values = new StringBuilder();
+            for (int j = 0; j < array.length; j++) {
+                values.append(array[j][columnIndex]).append(' ');
+            }
+            String logMessage = "Average(" + values.toString().trim() + ") = " + average;
+            log.fine(replaceMagicNumbers(logMessage));
+        }
 
         return average;
     }
@@ -452,6 +478,13 @@ public class TeamEvalResult {
         return sb.toString();
     }
 
+    private static void verifySanitized(double[] input) {
+        // the message is only built when the check fails
+        if (!isSanitized(input)) {
+            verify("Unsanitized value in " + Arrays.toString(input), false);
+        }
+    }
+
     private static void verify(String message, boolean condition) {
         // TODO: replace with Assumption.assert*
         if (!condition) {
@@ -15,6 +15,7 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Utils;
+import teammates.logic.core.ActivityLogsLogic;
 
 /** 
  * Serves the public resources stored in google cloud storage using the blobkey.<br>
@@ -59,6 +60,8 @@ public abstract class PublicResourcesServlet extends HttpServlet {
     protected void logMessage(HttpServletRequest request, String message) {
         String url = HttpRequestHelper.getRequestedURL(request);
         ActivityLogEntry activityLogEntry = new ActivityLogEntry(servletName, action, null, message, url);
-        log.log(Level.INFO, activityLogEntry.generateLogMessage());
+        String logMessage = activityLogEntry.generateLogMessage();
+        log.log(Level.INFO, logMessage);
+        ActivityLogsLogic.inst().recordActivityLog(logMessage);
     }
 }
@@ -233,6 +233,12 @@ public class AccountsDb extends EntitiesDb {
         return getAccountEntity(googleId, false);
     }
 
+    @Override
+    protected boolean isLookedUpByKey() {
+        // accounts are looked up by their key, the google id
+        return true;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes entity) {
         return getAccountEntity(((AccountAttributes)entity).googleId);
@@ -0,0 +1,204 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.ActivityLog;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.Query.FilterPredicate;
+import com.google.appengine.api.datastore.QueryResultList;
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Handles CRUD operations for the activity log entries kept in the datastore.
+ * <br> An entry is found by one of its indexed attributes, one day partition at a time,
+ * so that a query only needs the built-in indexes of the datastore.
+ * <br> The entries are read with their own persistence manager, so that they do not interfere
+ * with the outstanding changes of the request. They are written and deleted as low-level
+ * entities of the same kind, so that they can be written asynchronously and deleted by key.
+ */
+public class ActivityLogsDb {
+
+    private static final long MILLISECONDS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final String FILTER_ON_SERVLET_NAME = "servletName == valueParam";
+    private static final String FILTER_ON_ROLE = "role == valueParam";
+    private static final String FILTER_ON_PERSON = "personKeys.contains(valueParam)";
+
+    /**
+     * Keeps the activity log entry of {@code logMessage}, which is in the format of
+     * {@link ActivityLogEntry#generateLogMessage()}, as logged at {@code logTime}.
+     * The entry is written asynchronously, so the caller does not wait for the write.
+     * @return the result of the write, which the caller need not wait for.
+     */
+    public Future<Key> createActivityLog(String logMessage, long logTime) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, logMessage);
+
+        ActivityLogEntry entry = new ActivityLogEntry(logMessage, logTime);
+        Set<String> personKeys = new HashSet<String>();
+        personKeys.add(entry.getName().toLowerCase());
+        personKeys.add(entry.getGoogleId().toLowerCase());
+        personKeys.add(entry.getEmail().toLowerCase());
+
+        // the properties are those of ActivityLog, so the entry is read as one
+        Entity activityLog = new Entity(ActivityLog.class.getSimpleName());
+        activityLog.setProperty("timePartition", getTimePartition(logTime));
+        activityLog.setUnindexedProperty("createdAt", new Date(logTime));
+        activityLog.setProperty("servletName", entry.getServletName().toLowerCase());
+        activityLog.setProperty("role", entry.getRole().toLowerCase());
+        activityLog.setProperty("personKeys", new ArrayList<String>(personKeys));
+        activityLog.setUnindexedProperty("logMessage", new Text(logMessage));
+
+        return DatastoreServiceFactory.getAsyncDatastoreService().put(activityLog);
+    }
+
+    /**
+     * Deletes the entries logged on the days before the day of {@code time}, in batches,
+     * until there are no more entries or {@code timeBudgetInMillis} has passed. The entries
+     * that are left are deleted by a later call.
+     * @return the number of entries deleted.
+     */
+    public int deleteActivityLogsBefore(long time, long timeBudgetInMillis) {
+        long deadline = System.currentTimeMillis() + timeBudgetInMillis;
+        com.google.appengine.api.datastore.Query q =
+                new com.google.appengine.api.datastore.Query(ActivityLog.class.getSimpleName())
+                        .setFilter(new FilterPredicate("timePartition", FilterOperator.LESS_THAN,
+                                                       getTimePartition(time)))
+                        .setKeysOnly();
+
+        DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+        FetchOptions fetchOptions =
+                FetchOptions.Builder.withLimit(Const.SystemParams.MAX_NUM_OF_INPUT_FOR_APP_ENGINE_BATCH);
+        int numOfDeletedEntries = 0;
+        while (System.currentTimeMillis() < deadline) {
+            // the cursor moves past the deleted entries, which the index of the query may still list
+            QueryResultList<Entity> activityLogs = datastore.prepare(q).asQueryResultList(fetchOptions);
+            List<Key> keys = new ArrayList<Key>();
+            for (Entity activityLog : activityLogs) {
+                keys.add(activityLog.getKey());
+            }
+            datastore.delete(keys);
+            numOfDeletedEntries += keys.size();
+            if (keys.size() < Const.SystemParams.MAX_NUM_OF_INPUT_FOR_APP_ENGINE_BATCH) {
+                break;
+            }
+            fetchOptions.startCursor(activityLogs.getCursor());
+        }
+        return numOfDeletedEntries;
+    }
+
+    /**
+     * @param person the name, google ID or email of the entries, in lower case
+     * @return the entries of the person logged from {@code fromTime} (inclusive)
+     *         to {@code toTime} (exclusive), latest first. At most {@code limit} entries
+     *         are read, from the latest days first.
+     */
+    public List<ActivityLogEntry> getActivityLogsForPerson(String person, long fromTime, long toTime, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, person);
+        return getActivityLogs(FILTER_ON_PERSON, Collections.singletonList(person), fromTime, toTime, limit);
+    }
+
+    /**
+     * @param servletNames the servlet names of the entries, in lower case
+     * @return the entries of any of the servlets logged from {@code fromTime} (inclusive)
+     *         to {@code toTime} (exclusive), latest first. At most {@code limit} entries
+     *         are read, from the latest days first.
+     */
+    public List<ActivityLogEntry> getActivityLogsForServletNames(Collection<String> servletNames,
+                                                                 long fromTime, long toTime, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, servletNames);
+        return getActivityLogs(FILTER_ON_SERVLET_NAME, servletNames, fromTime, toTime, limit);
+    }
+
+    /**
+     * @param roles the roles of the entries, in lower case
+     * @return the entries of any of the roles logged from {@code fromTime} (inclusive)
+     *         to {@code toTime} (exclusive), latest first. At most {@code limit} entries
+     *         are read, from the latest days first.
+     */
+    public List<ActivityLogEntry> getActivityLogsForRoles(Collection<String> roles, long fromTime, long toTime,
+                                                          int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, roles);
+        return getActivityLogs(FILTER_ON_ROLE, roles, fromTime, toTime, limit);
+    }
+
+    /**
+     * Reads the entries one day at a time, latest day first, and stops once {@code limit} entries
+     * are found. The entries of a day are not ordered, so the entries of the earliest day read
+     * may be any of the entries of that day.
+     * @return at most {@code limit} entries.
+     */
+    private List<ActivityLogEntry> getActivityLogs(String filter, Collection<String> values,
+                                                   long fromTime, long toTime, int limit) {
+        List<ActivityLogEntry> entries = new ArrayList<ActivityLogEntry>();
+        if (fromTime >= toTime) {
+            return entries;
+        }
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            long firstTimePartition = getTimePartition(fromTime);
+            for (long timePartition = getTimePartition(toTime - 1);
+                    timePartition >= firstTimePartition && entries.size() < limit; timePartition--) {
+                for (String value : new HashSet<String>(values)) {
+                    int remaining = limit - entries.size();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    for (ActivityLog activityLog : getActivityLogEntities(pm, filter, timePartition, value,
+                                                                          remaining)) {
+                        long logTime = activityLog.getCreatedAt().getTime();
+                        if (logTime >= fromTime && logTime < toTime) {
+                            entries.add(new ActivityLogEntry(activityLog.getLogMessage(), logTime));
+                        }
+                    }
+                }
+            }
+        } finally {
+            pm.close();
+        }
+
+        Collections.sort(entries, new Comparator<ActivityLogEntry>() {
+            @Override
+            public int compare(ActivityLogEntry entry1, ActivityLogEntry entry2) {
+                return Long.compare(entry2.getTime(), entry1.getTime());
+            }
+        });
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ActivityLog> getActivityLogEntities(PersistenceManager pm, String filter,
+                                                     long timePartition, String value, int limit) {
+        Query q = pm.newQuery(ActivityLog.class);
+        q.declareParameters("Long timePartitionParam, String valueParam");
+        q.setFilter("timePartition == timePartitionParam && " + filter);
+        q.setRange(0, limit);
+
+        return (List<ActivityLog>) q.execute(timePartition, value);
+    }
+
+    private long getTimePartition(long time) {
+        return time / MILLISECONDS_PER_DAY;
+    }
+}
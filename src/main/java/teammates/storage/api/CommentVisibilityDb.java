@@ -0,0 +1,234 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.CommentParticipantType;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Utils;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.CommentVisibility;
+import teammates.storage.entity.CommentVisibilityIndex;
+
+/**
+ * Handles CRUD operations for the index of the groups of students that comments relate to.
+ * <br> The index of a course is only read while it is up to date. Writes that cannot keep
+ * the index up to date invalidate it instead, and it is then rebuilt from all the comments
+ * and students of the course, as described in {@link InvalidatableAggregatesDb}.
+ */
+public class CommentVisibilityDb {
+
+    private static final Logger log = Utils.getLogger();
+
+    private static final InvalidatableAggregatesDb<CommentVisibilityIndex> aggregates =
+            new InvalidatableAggregatesDb<CommentVisibilityIndex>(CommentVisibilityIndex.class);
+
+    /**
+     * @return the key of a group of students, e.g. the key of the team {@code viewer}
+     *         if {@code viewerType} is {@link CommentParticipantType#TEAM}.
+     */
+    public static String getViewerKey(CommentParticipantType viewerType, String viewer) {
+        return viewerType + "%" + viewer;
+    }
+
+    /**
+     * @return null if the index of the course is up to date, or else the time it was last
+     *         invalidated. A course without an index is given an invalidated one.
+     */
+    public Date getInvalidatedAt(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            CommentVisibilityIndex index = getIndexEntity(pm, courseId);
+            if (index == null) {
+                return invalidateIndex(courseId);
+            }
+            return index.isUpToDate() ? null : index.getUpdatedAt();
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Marks the index of the course as out of date.
+     * @return the time of the invalidation.
+     */
+    public Date invalidateIndex(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        return aggregates.invalidate(new CommentVisibilityIndex(courseId, false, new Date()));
+    }
+
+    /**
+     * Replaces the groups of students that a comment relates to, if the index of the course
+     * is up to date. Otherwise, the index is invalidated again so that a rebuild that started
+     * before this comment was written is not saved.
+     */
+    public void setViewerKeys(String courseId, Long commentId, Set<String> viewerKeys) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, commentId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, viewerKeys);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            CommentVisibilityIndex index = getIndexEntity(pm, courseId);
+            if (index == null || !index.isUpToDate()) {
+                invalidateIndex(courseId);
+            } else if (viewerKeys.isEmpty()) {
+                deleteVisibilityEntity(pm, commentId);
+            } else {
+                pm.makePersistent(new CommentVisibility(commentId, courseId, viewerKeys));
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Replaces the whole index of the course with one rebuilt from the comments and students of the course,
+     * and marks it as up to date, as described in {@link InvalidatableAggregatesDb#saveRebuilt}. Whether the
+     * index is still invalidated is checked before the index is replaced as well, so that a rebuild that is
+     * already out of date does not rewrite the index.
+     * @param viewerKeysByCommentId the groups of students that each comment of the course relates to
+     * @return true if the index was marked as up to date.
+     */
+    public boolean saveRebuiltIndex(String courseId, Map<Long, Set<String>> viewerKeysByCommentId,
+                                    Date invalidatedAt) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, viewerKeysByCommentId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, invalidatedAt);
+
+        if (!aggregates.isInvalidatedAt(courseId, invalidatedAt)) {
+            return false;
+        }
+
+        List<CommentVisibility> visibilities = new ArrayList<CommentVisibility>();
+        for (Map.Entry<Long, Set<String>> entry : viewerKeysByCommentId.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                visibilities.add(new CommentVisibility(entry.getKey(), courseId, entry.getValue()));
+            }
+        }
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            pm.deletePersistentAll(getVisibilityEntitiesForCourse(pm, courseId));
+            pm.makePersistentAll(visibilities);
+        } finally {
+            pm.close();
+        }
+
+        boolean isSaved = aggregates.saveRebuilt(courseId, invalidatedAt,
+                                                 new InvalidatableAggregatesDb.Update<CommentVisibilityIndex>() {
+                                                     @Override
+                                                     public boolean apply(CommentVisibilityIndex index) {
+                                                         index.setUpToDate(true);
+                                                         return true;
+                                                     }
+                                                 });
+        if (isSaved) {
+            log.info("Rebuilt comment visibility index of " + courseId + " with "
+                     + visibilities.size() + " comments");
+        }
+        return isSaved;
+    }
+
+    /**
+     * @return the groups among {@code viewerKeys} that each comment relates to, by comment id.
+     *         The index of the course must be up to date.
+     */
+    public Map<Long, Set<String>> getViewerKeysForViewer(String courseId, Collection<String> viewerKeys) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, viewerKeys);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            Map<Long, Set<String>> viewerKeysByCommentId = new HashMap<Long, Set<String>>();
+            for (String viewerKey : viewerKeys) {
+                for (CommentVisibility visibility : getVisibilityEntitiesForViewerKey(pm, courseId, viewerKey)) {
+                    Set<String> keys = viewerKeysByCommentId.get(visibility.getCommentId());
+                    if (keys == null) {
+                        keys = new HashSet<String>();
+                        viewerKeysByCommentId.put(visibility.getCommentId(), keys);
+                    }
+                    keys.add(viewerKey);
+                }
+            }
+            return viewerKeysByCommentId;
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void deleteViewerKeysForComment(Long commentId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, commentId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            deleteVisibilityEntity(pm, commentId);
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void deleteIndexesForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            List<CommentVisibilityIndex> indexes = new ArrayList<CommentVisibilityIndex>();
+            for (String courseId : courseIds) {
+                pm.deletePersistentAll(getVisibilityEntitiesForCourse(pm, courseId));
+                CommentVisibilityIndex index = getIndexEntity(pm, courseId);
+                if (index != null) {
+                    indexes.add(index);
+                }
+            }
+            pm.deletePersistentAll(indexes);
+        } finally {
+            pm.close();
+        }
+    }
+
+    private void deleteVisibilityEntity(PersistenceManager pm, Long commentId) {
+        try {
+            pm.deletePersistent(pm.getObjectById(CommentVisibility.class, commentId));
+        } catch (JDOObjectNotFoundException e) {
+            // the comment does not relate to any student
+        }
+    }
+
+    private CommentVisibilityIndex getIndexEntity(PersistenceManager pm, String courseId) {
+        return aggregates.getAggregate(pm, courseId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CommentVisibility> getVisibilityEntitiesForViewerKey(PersistenceManager pm, String courseId,
+                                                                      String viewerKey) {
+        Query q = pm.newQuery(CommentVisibility.class);
+        q.declareParameters("String courseIdParam, String viewerKeyParam");
+        q.setFilter("courseId == courseIdParam && viewerKeys.contains(viewerKeyParam)");
+
+        return (List<CommentVisibility>) q.execute(courseId, viewerKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CommentVisibility> getVisibilityEntitiesForCourse(PersistenceManager pm, String courseId) {
+        Query q = pm.newQuery(CommentVisibility.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+
+        return (List<CommentVisibility>) q.execute(courseId);
+    }
+}
@@ -238,6 +238,22 @@ public class CommentsDb extends EntitiesDb {
         return commentAttributesList;
     }
     
+    /*
+     * Get comments for a collection of comment ids, skipping the ids of comments that do not exist
+     */
+    public List<CommentAttributes> getCommentsForIds(Collection<Long> commentIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, commentIds);
+        
+        List<CommentAttributes> commentAttributesList = new ArrayList<CommentAttributes>();
+        if (commentIds.isEmpty()) {
+            return commentAttributesList;
+        }
+        
+        for (Comment comment : getCommentEntitiesForIds(commentIds)) {
+            commentAttributesList.add(new CommentAttributes(comment));
+        }
+        return commentAttributesList;
+    }
     
     /*
      * Update comment from old state to new state
@@ -474,6 +490,15 @@ public class CommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.COMMENT, new CommentSearchDocument(comment));
     }
     
+    /**
+     * @return the search document of the comment with the given id, built from
+     *         the current state of the comment, or null if there is no such comment.
+     */
+    public CommentSearchDocument getSearchDocument(String commentId) {
+        CommentAttributes comment = getComment(Long.valueOf(commentId));
+        return comment == null ? null : new CommentSearchDocument(comment);
+    }
+    
     /**
      * Search for comments
      * @return {@link CommentSearchResultBundle}
@@ -548,6 +573,17 @@ public class CommentsDb extends EntitiesDb {
         return commentsForCourse;
     }
     
+    private List<Comment> getCommentEntitiesForIds(Collection<Long> commentIds) {
+        // a filter on the key alone is executed as a batch get rather than a query
+        Query q = getPM().newQuery(Comment.class);
+        q.setFilter(":p.contains(commentId)");
+        
+        @SuppressWarnings("unchecked")
+        List<Comment> commentList = (List<Comment>) q.execute(new ArrayList<Long>(commentIds));
+        
+        return getCommentsWithoutDeletedEntity(commentList);
+    }
+    
     private List<Comment> getCommentEntitiesForSendingState(String courseId, CommentSendingState sendingState) {
         Query q = getPM().newQuery(Comment.class);
         q.declareParameters("String courseIdParam, String sendingStateParam");
@@ -0,0 +1,160 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.CourseStatisticsAttributes;
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.CourseStatistics;
+
+/**
+ * Handles CRUD operations for the statistics of courses.
+ * <br> Statistics that cannot be updated are invalidated instead, and are rebuilt
+ * from the students of the course by a later read, as described in {@link InvalidatableAggregatesDb}.
+ */
+public class CourseStatisticsDb extends EntitiesDb {
+
+    private static final InvalidatableAggregatesDb<CourseStatistics> aggregates =
+            new InvalidatableAggregatesDb<CourseStatistics>(CourseStatistics.class);
+
+    /**
+     * @return null if there are no statistics for the course.
+     */
+    public CourseStatisticsAttributes getCourseStatistics(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            CourseStatistics statistics = getCourseStatisticsEntity(pm, courseId);
+            return statistics == null ? null : new CourseStatisticsAttributes(statistics);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Gets the statistics of all the courses with one batch get.
+     * @return the statistics found, in no particular order. Courses without statistics are omitted.
+     */
+    public List<CourseStatisticsAttributes> getCourseStatisticsForCourses(Collection<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        List<CourseStatisticsAttributes> statisticsList = new ArrayList<CourseStatisticsAttributes>();
+        if (courseIds.isEmpty()) {
+            return statisticsList;
+        }
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            // a filter on the key alone is executed as a batch get rather than a query
+            Query q = pm.newQuery(CourseStatistics.class);
+            q.setFilter(":p.contains(courseId)");
+
+            @SuppressWarnings("unchecked")
+            List<CourseStatistics> statisticsEntities =
+                    (List<CourseStatistics>) q.execute(new ArrayList<String>(courseIds));
+            for (CourseStatistics statistics : statisticsEntities) {
+                statisticsList.add(new CourseStatisticsAttributes(statistics));
+            }
+            return statisticsList;
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Removes {@code studentsRemoved} from, and then adds {@code studentsAdded} to,
+     * the statistics of the course. A modified student is given as its original
+     * in {@code studentsRemoved} and as its updated version in {@code studentsAdded}.
+     * <br> If the course has no up-to-date statistics, or the changes cannot be applied,
+     * the statistics are invalidated instead.
+     */
+    public void updateCourseStatistics(String courseId, final Collection<StudentAttributes> studentsRemoved,
+                                       final Collection<StudentAttributes> studentsAdded) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsRemoved);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsAdded);
+
+        aggregates.update(courseId, new CourseStatistics(courseId, null, new Date()),
+                          new InvalidatableAggregatesDb.Update<CourseStatistics>() {
+                              @Override
+                              public boolean apply(CourseStatistics statistics) {
+                                  CourseStatisticsAttributes attributes = new CourseStatisticsAttributes(statistics);
+                                  for (StudentAttributes student : studentsRemoved) {
+                                      attributes.removeStudent(student);
+                                  }
+                                  for (StudentAttributes student : studentsAdded) {
+                                      attributes.addStudent(student);
+                                  }
+                                  statistics.setCounts(attributes.getCountsAsText());
+                                  return true;
+                              }
+                          });
+    }
+
+    /**
+     * Marks the statistics of the course as out of date, creating
+     * invalidated statistics if there are none.
+     */
+    public void invalidateCourseStatistics(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        aggregates.invalidate(new CourseStatistics(courseId, null, new Date()));
+    }
+
+    /**
+     * Saves statistics rebuilt from the students of the course.
+     * @return true if the statistics were saved.
+     * @see InvalidatableAggregatesDb#saveRebuilt
+     */
+    public boolean saveRebuiltCourseStatistics(final CourseStatisticsAttributes rebuiltStatistics,
+                                               Date invalidatedAt) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, rebuiltStatistics);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, invalidatedAt);
+
+        return aggregates.saveRebuilt(rebuiltStatistics.courseId, invalidatedAt,
+                                      new InvalidatableAggregatesDb.Update<CourseStatistics>() {
+                                          @Override
+                                          public boolean apply(CourseStatistics statistics) {
+                                              statistics.setCounts(rebuiltStatistics.getCountsAsText());
+                                              return true;
+                                          }
+                                      });
+    }
+
+    public void deleteCourseStatisticsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            List<CourseStatistics> statisticsList = new ArrayList<CourseStatistics>();
+            for (String courseId : courseIds) {
+                CourseStatistics statistics = getCourseStatisticsEntity(pm, courseId);
+                if (statistics != null) {
+                    statisticsList.add(statistics);
+                }
+            }
+            pm.deletePersistentAll(statisticsList);
+        } finally {
+            pm.close();
+        }
+    }
+
+    private CourseStatistics getCourseStatisticsEntity(PersistenceManager pm, String courseId) {
+        return aggregates.getAggregate(pm, courseId);
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        return getCourseStatisticsEntity(getPM(), ((CourseStatisticsAttributes) attributes).courseId);
+    }
+}
@@ -5,7 +5,6 @@ import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
-import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
 import teammates.common.datatransfer.CourseAttributes;
@@ -144,6 +143,12 @@ public class CoursesDb extends EntitiesDb {
         deleteEntity(entityToDelete);
     }
     
+    @Override
+    protected boolean isLookedUpByKey() {
+        // courses are looked up by their key, the course id
+        return true;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         return getCourseEntity(((CourseAttributes) attributes).id);
@@ -151,18 +156,15 @@ public class CoursesDb extends EntitiesDb {
 
 
     private Course getCourseEntity(String courseId) {
-        Query q = getPM().newQuery(Course.class);
-        q.declareParameters("String courseIdParam");
-        q.setFilter("ID == courseIdParam");
-        
-        @SuppressWarnings("unchecked")
-        List<Course> courseList = (List<Course>) q.execute(courseId);
-        
-        if (courseList.isEmpty() || JDOHelper.isDeleted(courseList.get(0))) {
-            return null;
+        Course cachedCourse = (Course) getFromRequestCache("courseForId", courseId);
+        if (cachedCourse != null) {
+            return cachedCourse;
         }
-    
-        return courseList.get(0);
+        
+        // the course id is the key of the course, so a strongly consistent lookup is possible
+        Course course = getEntityByKeyName(Course.class, courseId);
+        putInRequestCache(course, "courseForId", courseId);
+        return course;
     }
     
     private List<Course> getCourseEntities(List<String> courseIds) {
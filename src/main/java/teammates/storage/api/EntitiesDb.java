@@ -5,8 +5,11 @@ import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
 
+import com.google.appengine.api.datastore.KeyFactory;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -72,11 +75,12 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPM().makePersistent(entity);
         getPM().flush();
+        Datastore.clearRequestCache();
 
         // Wait for the operation to persist
-        int elapsedTime = 0;
-        Object createdEntity = getEntity(entityToAdd);
-        if(Config.PERSISTENCE_CHECK_DURATION > 0){
+        if (isPollingAfterWrites()) {
+            int elapsedTime = 0;
+            Object createdEntity = getEntity(entityToAdd);
             while ((createdEntity == null)
                     && (elapsedTime < Config.PERSISTENCE_CHECK_DURATION)) {
                 ThreadHelper.waitBriefly();
@@ -124,6 +128,7 @@ public abstract class EntitiesDb {
        
         getPM().makePersistentAll(entities);
         getPM().flush();
+        Datastore.clearRequestCache();
  
         return entitiesToUpdate;
 
@@ -155,6 +160,7 @@ public abstract class EntitiesDb {
         
         getPM().makePersistentAll(entities);
         getPM().flush();
+        Datastore.clearRequestCache();
  
         return entities;
 
@@ -181,9 +187,10 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPM().makePersistent(entity);
         getPM().flush();
+        Datastore.clearRequestCache();
 
         // Wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
+        if (isPollingAfterWrites()) {
             int elapsedTime = 0;
             Object entityCheck = getEntity(entityToAdd);
             while ((entityCheck == null)
@@ -224,9 +231,10 @@ public abstract class EntitiesDb {
 
         getPM().deletePersistent(entity);
         getPM().flush();
+        Datastore.clearRequestCache();
         
         // wait for the operation to persist
-        if(Config.PERSISTENCE_CHECK_DURATION > 0){
+        if (isPollingAfterWrites()) {
             int elapsedTime = 0;
             Object entityCheck = getEntity(entityToDelete);
             while ((entityCheck != null)
@@ -261,6 +269,45 @@ public abstract class EntitiesDb {
         
         getPM().deletePersistentAll(entities);
         getPM().flush();
+        Datastore.clearRequestCache();
+    }
+    
+    /**
+     * Writes used to be followed by polling until they became visible to the lookups
+     * that follow them. This is skipped for entities whose lookups are key gets
+     * (see {@link #isLookedUpByKey()}), as those are strongly consistent.
+     * The polling can be turned back on for all entities with "app.persistence.pollafterwrites".
+     */
+    protected boolean isPollingAfterWrites() {
+        return Config.PERSISTENCE_CHECK_DURATION > 0
+               && (Config.IS_POLLING_AFTER_WRITES || !isLookedUpByKey());
+    }
+    
+    /**
+     * Whether the entity is looked up by its key when it is looked up by its identity,
+     * e.g. in {@link #getEntity(EntityAttributes)}, so the lookups right after writes see them.
+     * Entities with generated keys, such as students, are looked up by queries instead,
+     * which can miss a write made just before them.
+     */
+    protected boolean isLookedUpByKey() {
+        return false;
+    }
+    
+    /**
+     * Looks up an entity by the name of its key. Unlike a query, this is strongly
+     * consistent, so it sees writes made just before it.
+     * @return null if there is no such entity or it has been deleted.
+     */
+    protected <T> T getEntityByKeyName(Class<T> entityClass, String keyName) {
+        try {
+            T entity = getPM().getObjectById(entityClass,
+                                             KeyFactory.createKey(entityClass.getSimpleName(), keyName));
+            return JDOHelper.isDeleted(entity) ? null : entity;
+        } catch (IllegalArgumentException iae) {
+            return null;
+        } catch (JDOObjectNotFoundException je) {
+            return null;
+        }
     }
     
     public void commitOutstandingChanges() {
@@ -271,6 +318,7 @@ public abstract class EntitiesDb {
         if (!getPM().isClosed()) {
             getPM().close();
         }
+        Datastore.clearRequestCache();
     }
     
     public void deletePicture(BlobKey key) throws BlobstoreFailureException {
@@ -301,11 +349,51 @@ public abstract class EntitiesDb {
     protected PersistenceManager getPM() {
         return Datastore.getPersistenceManager();
     }
+
+    /**
+     * @return the entity or list of entities cached earlier in the request for the lookup
+     *         {@code lookupName} with parameters {@code params}, or null if there is none.
+     * @see Datastore#startRequestCache()
+     */
+    protected Object getFromRequestCache(String lookupName, String... params) {
+        return Datastore.getFromRequestCache(getRequestCacheKey(lookupName, params));
+    }
+
+    /**
+     * Caches the entity found by the lookup {@code lookupName} with parameters {@code params}
+     * for the rest of the request. Lookups that find nothing are not cached.
+     */
+    protected void putInRequestCache(Object entity, String lookupName, String... params) {
+        if (entity != null) {
+            Datastore.putInRequestCache(getRequestCacheKey(lookupName, params), entity);
+        }
+    }
+
+    /**
+     * Caches the entities found by the lookup {@code lookupName} with parameters {@code params}
+     * for the rest of the request.
+     * @return a copy of {@code entities} that does not depend on the query that returned them.
+     *         It is shared by later lookups and must not be modified.
+     */
+    protected <T> List<T> putListInRequestCache(List<T> entities, String lookupName, String... params) {
+        List<T> entitiesToCache = new ArrayList<T>(entities);
+        Datastore.putInRequestCache(getRequestCacheKey(lookupName, params), entitiesToCache);
+        return entitiesToCache;
+    }
+
+    private String getRequestCacheKey(String lookupName, String... params) {
+        StringBuilder key = new StringBuilder(getClass().getName()).append('.').append(lookupName);
+        for (String param : params) {
+            // parameters are separated by a character that cannot appear in them
+            key.append('\0').append(param);
+        }
+        return key.toString();
+    }
     
     //the followings APIs are used by Teammates' search engine
     protected void putDocument(String indexName, SearchDocument document){
         try{
-            SearchManager.putDocument(indexName, document.build());
+            SearchManager.putDocument(indexName, document);
         } catch (Exception e){
             log.info("Failed to put searchable document in " + indexName + " for " + document.toString());
         }
@@ -329,8 +417,16 @@ public abstract class EntitiesDb {
     }
     
     protected void deleteDocument(String indexName, String documentId){
+        deleteDocument(indexName, documentId, documentId);
+    }
+    
+    /**
+     * @param entityId the id used to find the entity the document is built from,
+     *         as given by {@link SearchDocument#getEntityId()}.
+     */
+    protected void deleteDocument(String indexName, String documentId, String entityId){
         try{
-            SearchManager.deleteDocument(indexName, documentId);
+            SearchManager.deleteDocument(indexName, documentId, entityId);
         } catch (Exception e){
             log.info("Unable to delete document in the index: " + indexName + " with document id " + documentId);
         }
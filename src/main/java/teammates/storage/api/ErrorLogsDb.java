@@ -0,0 +1,204 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.ErrorLogSummary;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.ErrorLogCompilation;
+import teammates.storage.entity.ErrorLogFingerprint;
+
+/**
+ * Handles CRUD operations for the running counts of error logs, and for how far
+ * the error logs have been compiled.
+ * <br> These are read and written with their own persistence manager,
+ * so that they do not interfere with the outstanding changes of the request.
+ */
+public class ErrorLogsDb {
+
+    private static final String COMPILATION_NAME = "errorLogs";
+
+    /**
+     * @return the time before which the error logs have been compiled,
+     *         or null if they have never been compiled.
+     */
+    public Date getCompiledUntil() {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            ErrorLogCompilation compilation = getCompilationEntity(pm);
+            return compilation == null ? null : compilation.getCompiledUntil();
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return the ids of the requests whose error logs have been compiled, among those that ended within
+     *         {@link Const.SystemParams#ERROR_LOG_COMPILATION_OVERLAP_IN_MILLIS} before the time
+     *         returned by {@link #getCompiledUntil()}.
+     */
+    public Set<String> getCompiledRequestIds() {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            Set<String> requestIds = new HashSet<String>();
+            ErrorLogCompilation compilation = getCompilationEntity(pm);
+            if (compilation != null && compilation.getCompiledRequests() != null) {
+                for (String compiledRequest : compilation.getCompiledRequests()) {
+                    requestIds.add(compiledRequest.split(" ", 2)[1]);
+                }
+            }
+            return requestIds;
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @param errorLogs error logs with at most one summary per fingerprint
+     * @return the running counts of the fingerprints of {@code errorLogs}, including {@code errorLogs},
+     *         as they would be after {@link #addErrorLogs}. Nothing is written.
+     */
+    public List<ErrorLogSummary> getRunningCounts(Collection<ErrorLogSummary> errorLogs) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, errorLogs);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            return getRunningCounts(errorLogs, getFingerprintEntities(pm, errorLogs));
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Adds the error logs compiled up to {@code compiledUntil} to the running counts of their fingerprints,
+     * and records that the error logs have been compiled up to that time.
+     * @param errorLogs the compiled error logs, with at most one summary per fingerprint
+     * @param compiledRequestEndTimes the end times of the requests whose error logs were compiled,
+     *         by request id. Those that ended within the overlap of the next compilation are kept.
+     * @return the running counts of the fingerprints of {@code errorLogs}, including the compiled error logs.
+     */
+    public List<ErrorLogSummary> addErrorLogs(Collection<ErrorLogSummary> errorLogs, Date compiledUntil,
+                                              Map<String, Long> compiledRequestEndTimes) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, errorLogs);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, compiledUntil);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, compiledRequestEndTimes);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            Map<String, ErrorLogFingerprint> existingFingerprints = getFingerprintEntities(pm, errorLogs);
+            List<ErrorLogSummary> runningCounts = getRunningCounts(errorLogs, existingFingerprints);
+
+            List<ErrorLogFingerprint> fingerprintsToSave = new ArrayList<ErrorLogFingerprint>();
+            for (ErrorLogSummary runningCount : runningCounts) {
+                ErrorLogFingerprint existingFingerprint = existingFingerprints.get(runningCount.fingerprint);
+                if (existingFingerprint == null) {
+                    fingerprintsToSave.add(new ErrorLogFingerprint(
+                            runningCount.fingerprint, runningCount.errorType, runningCount.location,
+                            runningCount.sampleMessage, runningCount.count,
+                            runningCount.firstSeenAt, runningCount.lastSeenAt));
+                } else {
+                    existingFingerprint.setSampleMessage(runningCount.sampleMessage);
+                    existingFingerprint.setCount(runningCount.count);
+                    existingFingerprint.setFirstSeenAt(runningCount.firstSeenAt);
+                    existingFingerprint.setLastSeenAt(runningCount.lastSeenAt);
+                }
+            }
+            pm.makePersistentAll(fingerprintsToSave);
+
+            long overlapStartTime = compiledUntil.getTime()
+                                    - Const.SystemParams.ERROR_LOG_COMPILATION_OVERLAP_IN_MILLIS;
+            List<String> compiledRequests = new ArrayList<String>();
+            ErrorLogCompilation compilation = getCompilationEntity(pm);
+            if (compilation != null && compilation.getCompiledRequests() != null) {
+                for (String compiledRequest : compilation.getCompiledRequests()) {
+                    String[] endTimeAndRequestId = compiledRequest.split(" ", 2);
+                    if (Long.parseLong(endTimeAndRequestId[0]) >= overlapStartTime
+                            && !compiledRequestEndTimes.containsKey(endTimeAndRequestId[1])) {
+                        compiledRequests.add(compiledRequest);
+                    }
+                }
+            }
+            for (Map.Entry<String, Long> requestEndTime : compiledRequestEndTimes.entrySet()) {
+                if (requestEndTime.getValue() >= overlapStartTime) {
+                    compiledRequests.add(requestEndTime.getValue() + " " + requestEndTime.getKey());
+                }
+            }
+
+            if (compilation == null) {
+                pm.makePersistent(new ErrorLogCompilation(COMPILATION_NAME, compiledUntil, compiledRequests));
+            } else {
+                compilation.setCompiledUntil(compiledUntil);
+                compilation.setCompiledRequests(compiledRequests);
+            }
+            return runningCounts;
+        } finally {
+            pm.close();
+        }
+    }
+
+    private List<ErrorLogSummary> getRunningCounts(Collection<ErrorLogSummary> errorLogs,
+                                                   Map<String, ErrorLogFingerprint> existingFingerprints) {
+        List<ErrorLogSummary> runningCounts = new ArrayList<ErrorLogSummary>();
+        for (ErrorLogSummary errorLog : errorLogs) {
+            ErrorLogFingerprint existingFingerprint = existingFingerprints.get(errorLog.fingerprint);
+            ErrorLogSummary runningCount = new ErrorLogSummary(errorLog.errorType, errorLog.location,
+                                                               errorLog.sampleMessage, errorLog.count,
+                                                               errorLog.firstSeenAt, errorLog.lastSeenAt);
+            if (existingFingerprint != null) {
+                runningCount.add(new ErrorLogSummary(existingFingerprint.getErrorType(),
+                                                     existingFingerprint.getLocation(),
+                                                     existingFingerprint.getSampleMessage(),
+                                                     existingFingerprint.getCount(),
+                                                     existingFingerprint.getFirstSeenAt(),
+                                                     existingFingerprint.getLastSeenAt()));
+            }
+            runningCounts.add(runningCount);
+        }
+        return runningCounts;
+    }
+
+    private ErrorLogCompilation getCompilationEntity(PersistenceManager pm) {
+        try {
+            return pm.getObjectById(ErrorLogCompilation.class, COMPILATION_NAME);
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    private Map<String, ErrorLogFingerprint> getFingerprintEntities(PersistenceManager pm,
+                                                                    Collection<ErrorLogSummary> errorLogs) {
+        Map<String, ErrorLogFingerprint> fingerprints = new HashMap<String, ErrorLogFingerprint>();
+        if (errorLogs.isEmpty()) {
+            return fingerprints;
+        }
+
+        List<String> keys = new ArrayList<String>();
+        for (ErrorLogSummary errorLog : errorLogs) {
+            keys.add(errorLog.fingerprint);
+        }
+
+        // a filter on the key alone is executed as a batch get rather than a query
+        Query q = pm.newQuery(ErrorLogFingerprint.class);
+        q.setFilter(":p.contains(fingerprint)");
+
+        @SuppressWarnings("unchecked")
+        List<ErrorLogFingerprint> fingerprintList = (List<ErrorLogFingerprint>) q.execute(keys);
+
+        for (ErrorLogFingerprint fingerprint : fingerprintList) {
+            fingerprints.put(fingerprint.getFingerprint(), fingerprint);
+        }
+        return fingerprints;
+    }
+}
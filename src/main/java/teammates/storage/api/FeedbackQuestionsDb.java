@@ -255,6 +255,13 @@ public class FeedbackQuestionsDb extends EntitiesDb {
     
     private List<FeedbackQuestion> getFeedbackQuestionEntitiesForSession(
             String feedbackSessionName, String courseId) {
+        @SuppressWarnings("unchecked")
+        List<FeedbackQuestion> cachedQuestionList = (List<FeedbackQuestion>) getFromRequestCache(
+                "questionsForSession", feedbackSessionName, courseId);
+        if (cachedQuestionList != null) {
+            return cachedQuestionList;
+        }
+        
         Query q = getPM().newQuery(FeedbackQuestion.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
         q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
@@ -263,7 +270,7 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         List<FeedbackQuestion> feedbackQuestionList = 
             (List<FeedbackQuestion>) q.execute(feedbackSessionName, courseId);
         
-        return feedbackQuestionList;
+        return putListInRequestCache(feedbackQuestionList, "questionsForSession", feedbackSessionName, courseId);
     }
     
     private List<FeedbackQuestion> getFeedbackQuestionEntitiesForCourse(String courseId) {
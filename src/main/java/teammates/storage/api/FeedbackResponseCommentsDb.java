@@ -402,6 +402,16 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, new FeedbackResponseCommentSearchDocument(comment));
     }
     
+    /**
+     * @return the search document of the response comment with the given id, built from
+     *         the current state of the comment, or null if there is no such comment.
+     */
+    public FeedbackResponseCommentSearchDocument getSearchDocument(String feedbackResponseCommentId) {
+        FeedbackResponseCommentAttributes comment =
+                getFeedbackResponseComment(Long.valueOf(feedbackResponseCommentId));
+        return comment == null ? null : new FeedbackResponseCommentSearchDocument(comment);
+    }
+    
     /**
      * Search for response comments
      * @return {@link FeedbackResponseCommentSearchResultBundle}
@@ -10,6 +10,8 @@ import java.util.logging.Logger;
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -19,6 +21,8 @@ import teammates.common.util.Const;
 import teammates.common.util.Utils;
 import teammates.storage.entity.FeedbackResponse;
 
+import com.google.appengine.api.datastore.Cursor;
+
 public class FeedbackResponsesDb extends EntitiesDb {
 
     private static final Logger log = Utils.getLogger();
@@ -188,6 +192,34 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;   
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null. This function will find the responses for a
+     * specified question by fetching them in pages of {@code pageSize}, each page continuing
+     * from the query cursor of the previous one, rather than in a single datastore call.
+     * 
+     * @return An empty list if no such responses are found.
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestionInPages(
+            String feedbackQuestionId, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionId);
+        
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        Cursor cursor = null;
+        
+        do {
+            List<FeedbackResponse> frList =
+                    getFeedbackResponseEntitiesForQuestionFromCursor(feedbackQuestionId, cursor, pageSize);
+            for (FeedbackResponse fr : frList) {
+                fraList.add(new FeedbackResponseAttributes(fr));
+            }
+            cursor = frList.size() < pageSize ? null : JDOCursorHelper.getCursor(frList);
+        } while (cursor != null);
+        
+        return fraList;
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null. 
@@ -599,6 +631,109 @@ public class FeedbackResponsesDb extends EntitiesDb {
         getPM().close();
     }
     
+    /**
+     * Gets the responses with the given ids. As the ids are the keys of the responses,
+     * they are looked up in a single batch get, which is strongly consistent.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the responses that exist, mapped by their ids.
+     */
+    public Map<String, FeedbackResponse> getFeedbackResponseEntitiesForIds(Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseIds);
+        
+        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
+        if (feedbackResponseIds.isEmpty()) {
+            return feedbackResponses;
+        }
+        
+        // a filter on the key alone is executed as a batch get rather than a query
+        Query q = getPM().newQuery(FeedbackResponse.class);
+        q.setFilter(":p.contains(feedbackResponseId)");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponseList =
+                (List<FeedbackResponse>) q.execute(new ArrayList<String>(feedbackResponseIds));
+        
+        for (FeedbackResponse fr : feedbackResponseList) {
+            if (!JDOHelper.isDeleted(fr)) {
+                feedbackResponses.put(fr.getId(), fr);
+            }
+        }
+        return feedbackResponses;
+    }
+    
+    /**
+     * Creates, updates and deletes a batch of responses, with one datastore operation
+     * for each kind of write rather than one per response.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null. <br>
+     * * {@code existingResponses} contains the responses to update and to delete, as
+     * retrieved by {@link #getFeedbackResponseEntitiesForIds(Collection)}.
+     * @return the created responses, with their ids.
+     */
+    public List<FeedbackResponseAttributes> saveFeedbackResponses(
+            Collection<FeedbackResponseAttributes> responsesToCreate,
+            Collection<FeedbackResponseAttributes> responsesToUpdate,
+            Collection<String> responseIdsToDelete,
+            Map<String, FeedbackResponse> existingResponses) throws InvalidParametersException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responsesToCreate);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responsesToUpdate);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responseIdsToDelete);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, existingResponses);
+        
+        // validate everything first, so that nothing is written if any response is invalid
+        for (FeedbackResponseAttributes responseToCreate : responsesToCreate) {
+            responseToCreate.sanitizeForSaving();
+            if (!responseToCreate.isValid()) {
+                throw new InvalidParametersException(responseToCreate.getInvalidityInfo());
+            }
+        }
+        for (FeedbackResponseAttributes responseToUpdate : responsesToUpdate) {
+            if (!responseToUpdate.isValid()) {
+                throw new InvalidParametersException(responseToUpdate.getInvalidityInfo());
+            }
+        }
+        
+        List<FeedbackResponse> entitiesToDelete = new ArrayList<FeedbackResponse>();
+        for (String responseIdToDelete : responseIdsToDelete) {
+            FeedbackResponse fr = existingResponses.get(responseIdToDelete);
+            if (fr != null) {
+                entitiesToDelete.add(fr);
+                log.info(new FeedbackResponseAttributes(fr).getBackupIdentifier());
+            }
+        }
+        
+        // the updated entities are written when the persistence manager is closed
+        for (FeedbackResponseAttributes responseToUpdate : responsesToUpdate) {
+            FeedbackResponse fr = existingResponses.get(responseToUpdate.getId());
+            Assumption.assertNotNull(ERROR_UPDATE_NON_EXISTENT + responseToUpdate.toString(), fr);
+            
+            fr.setAnswer(responseToUpdate.responseMetaData);
+            fr.setRecipientEmail(responseToUpdate.recipientEmail);
+            fr.setGiverSection(responseToUpdate.giverSection);
+            fr.setRecipientSection(responseToUpdate.recipientSection);
+            log.info(responseToUpdate.getBackupIdentifier());
+        }
+        
+        List<FeedbackResponse> entitiesToCreate = new ArrayList<FeedbackResponse>();
+        for (FeedbackResponseAttributes responseToCreate : responsesToCreate) {
+            entitiesToCreate.add((FeedbackResponse) responseToCreate.toEntity());
+            log.info(responseToCreate.getBackupIdentifier());
+        }
+        
+        getPM().deletePersistentAll(entitiesToDelete);
+        getPM().makePersistentAll(entitiesToCreate);
+        
+        List<FeedbackResponseAttributes> createdResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse fr : entitiesToCreate) {
+            createdResponses.add(new FeedbackResponseAttributes(fr));
+        }
+        
+        closePM();
+        return createdResponses;
+    }
+    
     public void deleteFeedbackResponsesForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -648,25 +783,23 @@ public class FeedbackResponsesDb extends EntitiesDb {
     }
     
     private FeedbackResponse getFeedbackResponseEntity(String feedbackResponseId) {
-        Query q = getPM().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackResponseIdParam");
-        q.setFilter("feedbackResponseId == feedbackResponseIdParam");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> FeedbackResponseList =
-            (List<FeedbackResponse>) q.execute(feedbackResponseId);
-        
-        if (FeedbackResponseList.isEmpty() || JDOHelper.isDeleted(FeedbackResponseList.get(0))) {
-            return null;
-        }
-    
-        return FeedbackResponseList.get(0);
+        // the response id is the key of the response, so a strongly consistent lookup is possible
+        return getEntityByKeyName(FeedbackResponse.class, feedbackResponseId);
     }
 
         
     private FeedbackResponse getFeedbackResponseEntity(
             String feedbackQuestionId, String giverEmail, String receiver) {
         
+        // responses are keyed by questionId%giver%recipient, which allows a strongly consistent lookup
+        String keyName = feedbackQuestionId + "%" + giverEmail + "%" + receiver;
+        FeedbackResponse response = getEntityByKeyName(FeedbackResponse.class, keyName);
+        if (response != null && response.getGiverEmail().equals(giverEmail)
+                && response.getRecipientEmail().equals(receiver)) {
+            return response;
+        }
+        
+        // the giver or recipient of the response may have been changed after it was created
         Query q = getPM().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, " +
                 "String giverEmailParam, String receiverParam");
@@ -678,11 +811,14 @@ public class FeedbackResponsesDb extends EntitiesDb {
         List<FeedbackResponse> FeedbackResponseList =
             (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, receiver);
         
-        if (FeedbackResponseList.isEmpty() || JDOHelper.isDeleted(FeedbackResponseList.get(0))) {
-            return null;
+        for (FeedbackResponse queriedResponse : FeedbackResponseList) {
+            // the key lookup has already found that the response under keyName is not a match,
+            // so a query that still returns it has not seen the latest write to it yet
+            if (!JDOHelper.isDeleted(queriedResponse) && !queriedResponse.getId().equals(keyName)) {
+                return queriedResponse;
+            }
         }
-    
-        return FeedbackResponseList.get(0);
+        return null;
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestionInSection(    
@@ -691,23 +827,23 @@ public class FeedbackResponsesDb extends EntitiesDb {
         List<FeedbackResponse> FeedbackResponseList = new ArrayList<FeedbackResponse>();
        
         Query q = getPM().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackQuestionIdParam, String giverSectionParam, String receiverSectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverSection == giverSectionParam && receiverSection == receiverSectionParam");
+        q.declareParameters("String feedbackQuestionIdParam, String sectionParam");
+        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && sections == sectionParam");
         
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, section);
-        FeedbackResponseList.addAll(firstQueryResponses);
-         
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, "None");
-        FeedbackResponseList.addAll(secondQueryResponses);
-
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> thirdQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackQuestionId, "None", section);
-        FeedbackResponseList.addAll(thirdQueryResponses);
+        List<FeedbackResponse> queryResponses =
+            (List<FeedbackResponse>) q.execute(feedbackQuestionId, section);
+        
+        // Keep responses within the section, and those between the section and no section
+        for (FeedbackResponse response : queryResponses) {
+            boolean isGiverInSectionOrNone = section.equals(response.getGiverSection())
+                                             || Const.DEFAULT_SECTION.equals(response.getGiverSection());
+            boolean isRecipientInSectionOrNone = section.equals(response.getRecipientSection())
+                                                 || Const.DEFAULT_SECTION.equals(response.getRecipientSection());
+            if (isGiverInSectionOrNone && isRecipientInSectionOrNone) {
+                FeedbackResponseList.add(response);
+            }
+        }
        
         return FeedbackResponseList;
     }
@@ -726,6 +862,26 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return FeedbackResponseList;
     }
 
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestionFromCursor(
+                String feedbackQuestionId, Cursor cursor, int pageSize) {
+    
+        Query q = getPM().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackQuestionIdParam");
+        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam ");
+        if (cursor != null) {
+            Map<String, Object> extensionMap = new HashMap<String, Object>();
+            extensionMap.put(JDOCursorHelper.CURSOR_EXTENSION, cursor);
+            q.setExtensions(extensionMap);
+        }
+        q.setRange(0, pageSize);
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> FeedbackResponseList =
+            (List<FeedbackResponse>) q.execute(feedbackQuestionId);
+        
+        return FeedbackResponseList;
+    }
+
     private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestionWithinRange(    
                 String feedbackQuestionId, long range) {
     
@@ -773,28 +929,15 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
 
-        Map<String, FeedbackResponse> FeedbackResponseList = new HashMap<String,FeedbackResponse>();
-
         Query q = getPM().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && giverSection == sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && sections == sectionParam");
         
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for(FeedbackResponse response : firstQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
             (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for(FeedbackResponse response : secondQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
         
-        return FeedbackResponseList.values();   
+        return queryResponses;   
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSection(
@@ -828,30 +971,16 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
             String feedbackSessionName, String courseId, String section, long range) {
 
-        Map<String, FeedbackResponse> FeedbackResponseList = new HashMap<String,FeedbackResponse>();
-
         Query q = getPM().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && giverSection == sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && sections == sectionParam");
         q.setRange(0, range + 1);
         
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for(FeedbackResponse response : firstQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam && receiverSection == sectionParam");
-        q.setRange(0, range + 1);
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
             (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for(FeedbackResponse response : secondQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
         
-        return FeedbackResponseList.values();   
+        return queryResponses;   
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSectionWithinRange(
@@ -901,30 +1030,16 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
             String feedbackQuestionId, String receiver, String section) {
         
-        Map<String, FeedbackResponse> FeedbackResponseList = new HashMap<String,FeedbackResponse>();
-        
         Query q = getPM().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String receiverParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& sections == sectionParam");
     
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for(FeedbackResponse response : firstQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
             (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for(FeedbackResponse response : secondQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
         
-        return FeedbackResponseList.values();   
+        return queryResponses;   
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestion(
@@ -944,30 +1059,16 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private Collection<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
             String feedbackQuestionId, String giverEmail, String section) {
         
-        Map<String, FeedbackResponse> FeedbackResponseList = new HashMap<String,FeedbackResponse>();
-        
         Query q = getPM().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String giverEmailParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& sections == sectionParam");
     
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-            (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for(FeedbackResponse response : firstQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
             (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for(FeedbackResponse response : secondQueryResponses){
-            FeedbackResponseList.put(response.getId(), response);
-        }
         
-        return FeedbackResponseList.values(); 
+        return queryResponses; 
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForSessionWithinRange(
@@ -1013,6 +1114,12 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return FeedbackResponseList;
     }
     
+    @Override
+    protected boolean isLookedUpByKey() {
+        // responses are looked up by their key, questionId%giver%recipient
+        return true;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
@@ -0,0 +1,309 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Utils;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackSessionRespondent;
+
+/**
+ * Handles CRUD operations for the respondents of feedback sessions.
+ * <br> Every respondent is a separate entity keyed by the session, the type and the email
+ * of the respondent, so adding a respondent is a single put that does not read or write
+ * the session, and adding the same respondent again only overwrites the same entity.
+ * <br> Respondents are read and written with their own persistence manager,
+ * so that they do not interfere with the outstanding changes of the request.
+ */
+public class FeedbackSessionRespondentsDb {
+
+    private static final Logger log = Utils.getLogger();
+
+    public void addRespondents(String feedbackSessionName, String courseId,
+                               Collection<String> emails, boolean isInstructor) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
+
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        List<FeedbackSessionRespondent> respondents = new ArrayList<FeedbackSessionRespondent>();
+        for (String email : emails) {
+            respondents.add(new FeedbackSessionRespondent(feedbackSessionName, courseId, email, isInstructor));
+        }
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            pm.makePersistentAll(respondents);
+        } finally {
+            pm.close();
+        }
+        log.info("Added " + respondents.size() + " respondents to " + feedbackSessionName + "/" + courseId);
+    }
+
+    public boolean isRespondent(String feedbackSessionName, String courseId, String email, boolean isInstructor) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            pm.getObjectById(FeedbackSessionRespondent.class,
+                             FeedbackSessionRespondent.generateId(feedbackSessionName, courseId,
+                                                                  email, isInstructor));
+            return true;
+        } catch (JDOObjectNotFoundException e) {
+            return false;
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return the emails of the students (or instructors) who have responded to the session.
+     */
+    public Set<String> getRespondents(String feedbackSessionName, String courseId, boolean isInstructor) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            Set<String> emails = new HashSet<String>();
+            for (FeedbackSessionRespondent respondent
+                    : getRespondentEntitiesForSession(pm, feedbackSessionName, courseId, isInstructor)) {
+                emails.add(respondent.getEmail());
+            }
+            return emails;
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return the number of students and instructors who have responded to the session,
+     *         counted without reading the respondents.
+     */
+    public int getNumOfRespondents(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            Query q = pm.newQuery(FeedbackSessionRespondent.class);
+            q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+            q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
+            q.setResult("count(this)");
+
+            return ((Number) q.execute(feedbackSessionName, courseId)).intValue();
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return the number of students and instructors who have responded to each of the sessions,
+     *         in the same order as {@code sessions}. The respondents are counted from the keys of
+     *         one keys-only query per course, for up to {@link Const.SystemParams#MAX_NUM_OF_VALUES_FOR_IN_QUERY}
+     *         sessions of the course at a time, instead of one count query per session.
+     */
+    public List<Integer> getNumOfRespondents(List<FeedbackSessionAttributes> sessions) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, sessions);
+
+        // a respondent id starts with the id of its session, followed by the type of the respondent
+        Map<String, Integer> sessionIndexes = new HashMap<String, Integer>();
+        Map<String, List<String>> sessionNamesByCourseId = new LinkedHashMap<String, List<String>>();
+        for (int i = 0; i < sessions.size(); i++) {
+            FeedbackSessionAttributes session = sessions.get(i);
+            sessionIndexes.put(FeedbackSessionRespondent.generateId(session.feedbackSessionName,
+                                                                    session.courseId, "", false), i);
+            sessionIndexes.put(FeedbackSessionRespondent.generateId(session.feedbackSessionName,
+                                                                    session.courseId, "", true), i);
+            List<String> sessionNames = sessionNamesByCourseId.get(session.courseId);
+            if (sessionNames == null) {
+                sessionNames = new ArrayList<String>();
+                sessionNamesByCourseId.put(session.courseId, sessionNames);
+            }
+            sessionNames.add(session.feedbackSessionName);
+        }
+
+        List<Integer> numOfRespondents = new ArrayList<Integer>(Collections.nCopies(sessions.size(), 0));
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            for (Map.Entry<String, List<String>> entry : sessionNamesByCourseId.entrySet()) {
+                List<String> sessionNames = entry.getValue();
+                // the datastore limits the number of values of an IN filter
+                for (int i = 0; i < sessionNames.size(); i += Const.SystemParams.MAX_NUM_OF_VALUES_FOR_IN_QUERY) {
+                    int end = Math.min(sessionNames.size(), i + Const.SystemParams.MAX_NUM_OF_VALUES_FOR_IN_QUERY);
+                    for (String respondentId : getRespondentIdsForSessions(
+                            pm, entry.getKey(), new ArrayList<String>(sessionNames.subList(i, end)))) {
+                        Integer sessionIndex = getSessionIndex(sessionIndexes, respondentId);
+                        if (sessionIndex != null) {
+                            numOfRespondents.set(sessionIndex, numOfRespondents.get(sessionIndex) + 1);
+                        }
+                    }
+                }
+            }
+        } finally {
+            pm.close();
+        }
+        return numOfRespondents;
+    }
+
+    /**
+     * @return the index of the session of the respondent, or null if the session was not asked for.
+     *         The id of the session is found by trying every '%' in the respondent id as its end,
+     *         as the session name and the email may contain '%' themselves.
+     */
+    private Integer getSessionIndex(Map<String, Integer> sessionIndexes, String respondentId) {
+        for (int end = respondentId.indexOf('%'); end != -1; end = respondentId.indexOf('%', end + 1)) {
+            Integer sessionIndex = sessionIndexes.get(respondentId.substring(0, end + 1));
+            if (sessionIndex != null) {
+                return sessionIndex;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the email of a respondent in all the sessions of the course.
+     */
+    public void updateRespondentEmail(String courseId, String oldEmail, String newEmail, boolean isInstructor) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
+
+        if (oldEmail.equals(newEmail)) {
+            return;
+        }
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            List<FeedbackSessionRespondent> oldRespondents =
+                    getRespondentEntitiesForEmail(pm, courseId, oldEmail, isInstructor);
+            List<FeedbackSessionRespondent> newRespondents = new ArrayList<FeedbackSessionRespondent>();
+            for (FeedbackSessionRespondent respondent : oldRespondents) {
+                newRespondents.add(new FeedbackSessionRespondent(respondent.getFeedbackSessionName(),
+                                                                 courseId, newEmail, isInstructor));
+            }
+            pm.makePersistentAll(newRespondents);
+            pm.deletePersistentAll(oldRespondents);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Removes a respondent from all the sessions of the course.
+     */
+    public void deleteRespondent(String courseId, String email, boolean isInstructor) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            pm.deletePersistentAll(getRespondentEntitiesForEmail(pm, courseId, email, isInstructor));
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void deleteRespondent(String feedbackSessionName, String courseId, String email, boolean isInstructor) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            FeedbackSessionRespondent respondent = pm.getObjectById(
+                    FeedbackSessionRespondent.class,
+                    FeedbackSessionRespondent.generateId(feedbackSessionName, courseId, email, isInstructor));
+            pm.deletePersistent(respondent);
+        } catch (JDOObjectNotFoundException e) {
+            // the email is not a respondent of the session
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void deleteRespondents(String feedbackSessionName, String courseId, boolean isInstructor) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            pm.deletePersistentAll(getRespondentEntitiesForSession(pm, feedbackSessionName, courseId, isInstructor));
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void deleteRespondentsForSession(String feedbackSessionName, String courseId) {
+        deleteRespondents(feedbackSessionName, courseId, false);
+        deleteRespondents(feedbackSessionName, courseId, true);
+    }
+
+    public void deleteRespondentsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            List<FeedbackSessionRespondent> respondents = new ArrayList<FeedbackSessionRespondent>();
+            for (String courseId : courseIds) {
+                respondents.addAll(getRespondentEntitiesForCourse(pm, courseId));
+            }
+            pm.deletePersistentAll(respondents);
+        } finally {
+            pm.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionRespondent> getRespondentEntitiesForSession(PersistenceManager pm,
+            String feedbackSessionName, String courseId, boolean isInstructor) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = pm.newQuery(FeedbackSessionRespondent.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, boolean isInstructorParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam"
+                    + " && isInstructor == isInstructorParam");
+
+        return (List<FeedbackSessionRespondent>) q.execute(feedbackSessionName, courseId, isInstructor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getRespondentIdsForSessions(PersistenceManager pm, String courseId,
+                                                     List<String> feedbackSessionNames) {
+        Query q = pm.newQuery(FeedbackSessionRespondent.class);
+        q.setFilter("courseId == :courseIdParam && :feedbackSessionNamesParam.contains(feedbackSessionName)");
+        q.setResult("respondentId");
+
+        return (List<String>) q.execute(courseId, feedbackSessionNames);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionRespondent> getRespondentEntitiesForEmail(PersistenceManager pm,
+            String courseId, String email, boolean isInstructor) {
+        Query q = pm.newQuery(FeedbackSessionRespondent.class);
+        q.declareParameters("String courseIdParam, String emailParam, boolean isInstructorParam");
+        q.setFilter("courseId == courseIdParam && email == emailParam && isInstructor == isInstructorParam");
+
+        return (List<FeedbackSessionRespondent>) q.execute(courseId, email, isInstructor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionRespondent> getRespondentEntitiesForCourse(PersistenceManager pm, String courseId) {
+        Query q = pm.newQuery(FeedbackSessionRespondent.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+
+        return (List<FeedbackSessionRespondent>) q.execute(courseId);
+    }
+}
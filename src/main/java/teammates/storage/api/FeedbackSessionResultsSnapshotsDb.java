@@ -0,0 +1,188 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackSessionResultsSnapshot;
+
+import com.google.appengine.api.datastore.Blob;
+
+/**
+ * Handles CRUD operations for results snapshots of feedback sessions.
+ * <br> A snapshot that cannot be patched is invalidated instead, and is rebuilt
+ * from the responses by a later read, as described in {@link InvalidatableAggregatesDb}.
+ */
+public class FeedbackSessionResultsSnapshotsDb extends EntitiesDb {
+
+    private static final InvalidatableAggregatesDb<FeedbackSessionResultsSnapshot> aggregates =
+            new InvalidatableAggregatesDb<FeedbackSessionResultsSnapshot>(FeedbackSessionResultsSnapshot.class);
+
+    /**
+     * @return null if there is no snapshot for the session.
+     */
+    public FeedbackSessionResultsSnapshotAttributes getSnapshot(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            FeedbackSessionResultsSnapshot snapshot = getSnapshotEntity(pm, feedbackSessionName, courseId);
+            return snapshot == null ? null : new FeedbackSessionResultsSnapshotAttributes(snapshot);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return the time the snapshot of the session was last updated, which changes with
+     *         every write to the responses of the session, or null if there is no snapshot.
+     */
+    public Date getSnapshotUpdatedAt(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            FeedbackSessionResultsSnapshot snapshot = getSnapshotEntity(pm, feedbackSessionName, courseId);
+            return snapshot == null ? null : snapshot.getUpdatedAt();
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Applies the given changes to the snapshot of the session.
+     * If the session has no up-to-date snapshot, or the changes cannot be applied,
+     * the snapshot is invalidated instead.
+     */
+    public void updateResponsesInSnapshot(String feedbackSessionName, String courseId,
+                                          final Collection<FeedbackResponseAttributes> responsesToPut,
+                                          final Collection<String> responseIdsToRemove) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responsesToPut);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responseIdsToRemove);
+
+        aggregates.update(FeedbackSessionResultsSnapshot.generateId(feedbackSessionName, courseId),
+                          new FeedbackSessionResultsSnapshot(feedbackSessionName, courseId, null, new Date()),
+                          new InvalidatableAggregatesDb.Update<FeedbackSessionResultsSnapshot>() {
+                              @Override
+                              public boolean apply(FeedbackSessionResultsSnapshot snapshot) {
+                                  FeedbackSessionResultsSnapshotAttributes attributes =
+                                          new FeedbackSessionResultsSnapshotAttributes(snapshot);
+                                  attributes.patch(responsesToPut, responseIdsToRemove);
+                                  return setResponses(snapshot, attributes);
+                              }
+                          });
+    }
+
+    /**
+     * Marks the snapshot of the session as out of date, creating an
+     * invalidated snapshot if there is none.
+     */
+    public void invalidateSnapshot(String feedbackSessionName, String courseId) {
+        aggregates.invalidate(new FeedbackSessionResultsSnapshot(feedbackSessionName, courseId, null, new Date()));
+    }
+
+    public void invalidateSnapshotsForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            for (FeedbackSessionResultsSnapshot snapshot : getSnapshotEntitiesForCourse(pm, courseId)) {
+                snapshot.invalidate();
+                snapshot.setUpdatedAt(new Date());
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Saves a snapshot rebuilt from the responses of the session.
+     * @return true if the snapshot was saved.
+     * @see InvalidatableAggregatesDb#saveRebuilt
+     */
+    public boolean saveRebuiltSnapshot(final FeedbackSessionResultsSnapshotAttributes rebuiltSnapshot,
+                                       Date invalidatedAt) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, rebuiltSnapshot);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, invalidatedAt);
+
+        return aggregates.saveRebuilt(
+                FeedbackSessionResultsSnapshot.generateId(rebuiltSnapshot.feedbackSessionName, rebuiltSnapshot.courseId),
+                invalidatedAt,
+                new InvalidatableAggregatesDb.Update<FeedbackSessionResultsSnapshot>() {
+                    @Override
+                    public boolean apply(FeedbackSessionResultsSnapshot snapshot) {
+                        return setResponses(snapshot, rebuiltSnapshot);
+                    }
+                });
+    }
+
+    public void deleteSnapshot(String feedbackSessionName, String courseId) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            FeedbackSessionResultsSnapshot snapshot = getSnapshotEntity(pm, feedbackSessionName, courseId);
+            if (snapshot != null) {
+                pm.deletePersistent(snapshot);
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
+    public void deleteSnapshotsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            List<FeedbackSessionResultsSnapshot> snapshots = new ArrayList<FeedbackSessionResultsSnapshot>();
+            for (String courseId : courseIds) {
+                snapshots.addAll(getSnapshotEntitiesForCourse(pm, courseId));
+            }
+            pm.deletePersistentAll(snapshots);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return false if the responses do not fit in the snapshot.
+     */
+    private boolean setResponses(FeedbackSessionResultsSnapshot snapshot,
+                                 FeedbackSessionResultsSnapshotAttributes attributes) {
+        Blob responses = attributes.getCompressedResponses();
+        snapshot.setResponses(responses);
+        return responses != null;
+    }
+
+    private FeedbackSessionResultsSnapshot getSnapshotEntity(PersistenceManager pm,
+                                                             String feedbackSessionName, String courseId) {
+        return aggregates.getAggregate(pm, FeedbackSessionResultsSnapshot.generateId(feedbackSessionName, courseId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionResultsSnapshot> getSnapshotEntitiesForCourse(PersistenceManager pm,
+                                                                              String courseId) {
+        Query q = pm.newQuery(FeedbackSessionResultsSnapshot.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+
+        return (List<FeedbackSessionResultsSnapshot>) q.execute(courseId);
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        FeedbackSessionResultsSnapshotAttributes snapshotToGet = (FeedbackSessionResultsSnapshotAttributes) attributes;
+        return getSnapshotEntity(getPM(), snapshotToGet.feedbackSessionName, snapshotToGet.courseId);
+    }
+}
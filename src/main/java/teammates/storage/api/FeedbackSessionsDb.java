@@ -5,8 +5,10 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.jdo.JDOHelper;
@@ -170,6 +172,41 @@ public class FeedbackSessionsDb extends EntitiesDb {
         return fsaList;
     }
     
+    /**
+     * Gets the sessions of all the courses with one query per
+     * {@link Const.SystemParams#MAX_NUM_OF_VALUES_FOR_IN_QUERY} courses. The sessions of each course
+     * are cached for the rest of the request, so that later lookups of the sessions
+     * of one of the courses do not query again.
+     * Preconditions: <br>
+     * * All parameters are non-null. 
+     * @return An empty list if no sessions are found for the given courses.
+     */
+    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourses(List<String> courseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
+        if (courseIds.isEmpty()) {
+            return fsaList;
+        }
+        
+        Map<String, List<FeedbackSession>> fsListForCourses = new LinkedHashMap<String, List<FeedbackSession>>();
+        for (String courseId : courseIds) {
+            fsListForCourses.put(courseId, new ArrayList<FeedbackSession>());
+        }
+        for (FeedbackSession fs : getFeedbackSessionEntitiesForCourses(courseIds)) {
+            fsListForCourses.get(fs.getCourseId()).add(fs);
+        }
+        
+        for (Map.Entry<String, List<FeedbackSession>> fsListForCourse : fsListForCourses.entrySet()) {
+            putListInRequestCache(fsListForCourse.getValue(), "sessionsForCourse", fsListForCourse.getKey());
+            for (FeedbackSession fs : fsListForCourse.getValue()) {
+                fsaList.add(new FeedbackSessionAttributes(fs));
+            }
+        }
+        return fsaList;
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null. 
@@ -472,11 +509,19 @@ public class FeedbackSessionsDb extends EntitiesDb {
     }
     
     private List<FeedbackSession> getFeedbackSessionEntitiesForCourses(List<String> courseIds) {
-        Query q = getPM().newQuery(FeedbackSession.class);
-        q.setFilter(":p.contains(courseId)");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackSession> feedbackSessionList = (List<FeedbackSession>) q.execute(courseIds);
+        List<FeedbackSession> feedbackSessionList = new ArrayList<FeedbackSession>();
+        // the datastore limits the number of values of an IN filter
+        for (int i = 0; i < courseIds.size(); i += Const.SystemParams.MAX_NUM_OF_VALUES_FOR_IN_QUERY) {
+            int end = Math.min(courseIds.size(), i + Const.SystemParams.MAX_NUM_OF_VALUES_FOR_IN_QUERY);
+            
+            Query q = getPM().newQuery(FeedbackSession.class);
+            q.setFilter(":p.contains(courseId)");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackSession> feedbackSessionsInChunk =
+                    (List<FeedbackSession>) q.execute(new ArrayList<String>(courseIds.subList(i, end)));
+            feedbackSessionList.addAll(feedbackSessionsInChunk);
+        }
         return feedbackSessionList;
     }
     
@@ -501,13 +546,20 @@ public class FeedbackSessionsDb extends EntitiesDb {
     }
     
     private List<FeedbackSession> getFeedbackSessionEntitiesForCourse(String courseId) {        
+        @SuppressWarnings("unchecked")
+        List<FeedbackSession> cachedFsList =
+                (List<FeedbackSession>) getFromRequestCache("sessionsForCourse", courseId);
+        if (cachedFsList != null) {
+            return cachedFsList;
+        }
+        
         Query q = getPM().newQuery(FeedbackSession.class);
         q.declareParameters("String courseIdParam");
         q.setFilter("courseId == courseIdParam");
         
         @SuppressWarnings("unchecked")
         List<FeedbackSession> fsList = (List<FeedbackSession>) q.execute(courseId);
-        return fsList;
+        return putListInRequestCache(fsList, "sessionsForCourse", courseId);
     }
     
     private List<FeedbackSession> getFeedbackSessionEntitiesWithUnsentOpenEmail() {
@@ -531,7 +583,24 @@ public class FeedbackSessionsDb extends EntitiesDb {
     }
     
     private FeedbackSession getFeedbackSessionEntity(String feedbackSessionName, String courseId) {
+        FeedbackSession cachedFs =
+                (FeedbackSession) getFromRequestCache("sessionForName", feedbackSessionName, courseId);
+        if (cachedFs != null) {
+            return cachedFs;
+        }
         
+        // sessions are keyed by name and course, which allows a strongly consistent lookup
+        FeedbackSession fs = getEntityByKeyName(FeedbackSession.class, feedbackSessionName + "%" + courseId);
+        if (fs == null) {
+            // fall back to a query in case the session was stored under a different key
+            fs = getFeedbackSessionEntityByQuery(feedbackSessionName, courseId);
+        }
+    
+        putInRequestCache(fs, "sessionForName", feedbackSessionName, courseId);
+        return fs;
+    }
+    
+    private FeedbackSession getFeedbackSessionEntityByQuery(String feedbackSessionName, String courseId) {
         Query q = getPM().newQuery(FeedbackSession.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
         q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
@@ -543,10 +612,16 @@ public class FeedbackSessionsDb extends EntitiesDb {
         if (feedbackSessionList.isEmpty() || JDOHelper.isDeleted(feedbackSessionList.get(0))) {
             return null;
         }
-    
+        
         return feedbackSessionList.get(0);
     }
 
+    @Override
+    protected boolean isLookedUpByKey() {
+        // sessions are looked up by their key, name%courseId
+        return true;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         FeedbackSessionAttributes feedbackSessionToGet = (FeedbackSessionAttributes) attributes;
@@ -60,13 +60,40 @@ public class InstructorsDb extends EntitiesDb{
             
             // handle legacy data which do not have key attribute (key == null)
             if(instructor.key != null) {
-                deleteDocument(Const.SearchIndex.INSTRUCTOR, StringHelper.encrypt(instructor.key));
+                deleteDocument(Const.SearchIndex.INSTRUCTOR, StringHelper.encrypt(instructor.key),
+                               getSearchDocumentEntityId(instructor));
             }
         } else {
-            deleteDocument(Const.SearchIndex.INSTRUCTOR, StringHelper.encrypt(instructorToDelete.key));
+            deleteDocument(Const.SearchIndex.INSTRUCTOR, StringHelper.encrypt(instructorToDelete.key),
+                           getSearchDocumentEntityId(instructorToDelete));
         }
     }
     
+    /**
+     * @return the id used to find the instructor when its search document is rebuilt.
+     *         Course ids cannot contain '%', which separates the course id from the email.
+     */
+    public static String getSearchDocumentEntityId(InstructorAttributes instructor) {
+        return instructor.courseId + '%' + instructor.email;
+    }
+    
+    /**
+     * @return the search document with the given id, built from the current state of its instructor,
+     *         or null if there is no such instructor.
+     */
+    public InstructorSearchDocument getSearchDocument(String documentId, String entityId) {
+        int separatorIndex = entityId.indexOf('%');
+        InstructorAttributes instructor = getInstructorForEmail(entityId.substring(0, separatorIndex),
+                                                                entityId.substring(separatorIndex + 1));
+        if (instructor == null || !StringHelper.encrypt(instructor.key).equals(documentId)) {
+            // the email of the instructor may have changed since. The registration key is only found by
+            // an eventually consistent query, so a document deleted just now may be put back; such
+            // documents are deleted again when they turn up in search results.
+            instructor = getInstructorForRegistrationKey(documentId);
+        }
+        return instructor == null ? null : new InstructorSearchDocument(instructor);
+    }
+    
     /**
      * This method should be used by admin only since the searching does not restrict the 
      * visibility according to the logged-in user's google ID. This is used by amdin to
@@ -376,7 +403,7 @@ public class InstructorsDb extends EntitiesDb{
         getPM().flush();
   
         // Check delete operation persisted
-        if(Config.PERSISTENCE_CHECK_DURATION > 0){
+        if (isPollingAfterWrites()) {
             int elapsedTime = 0;
             Instructor instructorCheck = getInstructorEntityForEmail(courseId, email);
             while ((instructorCheck != null)
@@ -453,6 +480,10 @@ public class InstructorsDb extends EntitiesDb{
     }
     
     private Instructor getInstructorEntityForGoogleId(String courseId, String googleId) {
+        Instructor cachedInstructor = (Instructor) getFromRequestCache("instructorForGoogleId", courseId, googleId);
+        if (cachedInstructor != null) {
+            return cachedInstructor;
+        }
         
         Query q = getPM().newQuery(Instructor.class);
         q.declareParameters("String googleIdParam, String courseIdParam");
@@ -466,11 +497,29 @@ public class InstructorsDb extends EntitiesDb{
             return null;
         }
 
+        putInRequestCache(instructorList.get(0), "instructorForGoogleId", courseId, googleId);
         return instructorList.get(0);
     }
     
     private Instructor getInstructorEntityForEmail(String courseId, String email) {
+        Instructor cachedInstructor = (Instructor) getFromRequestCache("instructorForEmail", courseId, email);
+        if (cachedInstructor != null) {
+            return cachedInstructor;
+        }
         
+        // instructors are keyed by email%courseId, which allows a strongly consistent lookup
+        String keyName = email + '%' + courseId;
+        Instructor instructor = getEntityByKeyName(Instructor.class, keyName);
+        if (instructor == null || !instructor.getEmail().equals(email)) {
+            // the email of the instructor may have been changed after it was created
+            instructor = getInstructorEntityForEmailByQuery(courseId, email, keyName);
+        }
+        
+        putInRequestCache(instructor, "instructorForEmail", courseId, email);
+        return instructor;
+    }
+    
+    private Instructor getInstructorEntityForEmailByQuery(String courseId, String email, String keyName) {
         Query q = getPM().newQuery(Instructor.class);
         q.declareParameters("String courseIdParam, String emailParam");
         q.setFilter("courseId == courseIdParam && email == emailParam");
@@ -478,12 +527,14 @@ public class InstructorsDb extends EntitiesDb{
         @SuppressWarnings("unchecked")
         List<Instructor> instructorList = (List<Instructor>) q.execute(courseId, email);
         
-        if (instructorList.isEmpty()
-                || JDOHelper.isDeleted(instructorList.get(0))) {
-            return null;
+        for (Instructor instructor : instructorList) {
+            // the key lookup has already found that the instructor under keyName is not a match,
+            // so a query that still returns it has not seen the latest write to it yet
+            if (!JDOHelper.isDeleted(instructor) && !instructor.getUniqueId().equals(keyName)) {
+                return instructor;
+            }
         }
-
-        return instructorList.get(0);
+        return null;
     }
     
     private List<Instructor> getInstructorEntitiesForCourses(List<String> courseIds){
@@ -559,6 +610,12 @@ public class InstructorsDb extends EntitiesDb{
     }
 
     private List<Instructor> getInstructorEntitiesForCourse(String courseId) {
+        @SuppressWarnings("unchecked")
+        List<Instructor> cachedInstructorList =
+                (List<Instructor>) getFromRequestCache("instructorsForCourse", courseId);
+        if (cachedInstructorList != null) {
+            return cachedInstructorList;
+        }
         
         Query q = getPM().newQuery(Instructor.class);
         q.declareParameters("String courseIdParam");
@@ -567,7 +624,7 @@ public class InstructorsDb extends EntitiesDb{
         @SuppressWarnings("unchecked")
         List<Instructor> instructorList = (List<Instructor>) q.execute(courseId);
         
-        return instructorList;
+        return putListInRequestCache(instructorList, "instructorsForCourse", courseId);
     }
 
     private List<Instructor> getInstructorEntities() {
@@ -581,6 +638,12 @@ public class InstructorsDb extends EntitiesDb{
         return instructorList;
     }
 
+    @Override
+    protected boolean isLookedUpByKey() {
+        // instructors are looked up by their key, email%courseId
+        return true;
+    }
+    
     @Override
     protected Object getEntity(EntityAttributes attributes) {
         
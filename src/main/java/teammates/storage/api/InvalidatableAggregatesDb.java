@@ -0,0 +1,164 @@
+package teammates.storage.api;
+
+import java.util.Date;
+import java.util.logging.Logger;
+
+import javax.jdo.JDOException;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+
+import teammates.common.util.Const;
+import teammates.common.util.Utils;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.InvalidatableAggregate;
+
+/**
+ * Handles the invalidation and rebuilding of {@link InvalidatableAggregate} entities of one kind.
+ * <br> A write that cannot keep an aggregate up to date invalidates it instead, and a later read
+ * rebuilds it from the entities it aggregates. The rebuild reads them with queries, which may not see
+ * the writes made just before the invalidation, so a rebuilt aggregate is only saved if it was invalidated
+ * long enough ago (see {@link #isSafeToSaveRebuild(Date)}), and if no write has invalidated it again
+ * since the rebuild started.
+ * <br> Aggregates are read and written with their own persistence manager,
+ * in transactions that do not interfere with the outstanding changes of the request.
+ * @param <E> the class of the aggregates
+ */
+public class InvalidatableAggregatesDb<E extends InvalidatableAggregate> {
+
+    private static final Logger log = Utils.getLogger();
+
+    /**
+     * A change to an aggregate that is up to date.
+     */
+    public interface Update<E> {
+        /**
+         * @return false if the change cannot be applied to the aggregate.
+         */
+        boolean apply(E aggregate);
+    }
+
+    private final Class<E> entityClass;
+
+    public InvalidatableAggregatesDb(Class<E> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * @return true if the aggregate was invalidated at {@code invalidatedAt} long enough ago
+     *         for the queries of a rebuild to see the writes made before the invalidation.
+     */
+    public static boolean isSafeToSaveRebuild(Date invalidatedAt) {
+        return new Date().getTime() - invalidatedAt.getTime() > Const.SystemParams.AGGREGATE_REBUILD_DELAY_IN_MILLIS;
+    }
+
+    /**
+     * @return null if there is no aggregate with the id.
+     */
+    public E getAggregate(PersistenceManager pm, Object id) {
+        try {
+            return pm.getObjectById(entityClass, id);
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Applies the update to the aggregate with the id if it is up to date. Otherwise, or if the update
+     * cannot be applied, the aggregate is invalidated again, so that a rebuild that started before
+     * this write is not saved.
+     * @param invalidatedAggregate saved if there is no aggregate with the id, so that writes
+     *         are tracked from now on and a later read can rebuild the aggregate
+     */
+    public void update(Object id, E invalidatedAggregate, Update<E> update) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            E aggregate = getAggregate(pm, id);
+            if (aggregate == null) {
+                aggregate = pm.makePersistent(invalidatedAggregate);
+                aggregate.invalidate();
+            } else if (!aggregate.isUpToDate() || !update.apply(aggregate)) {
+                aggregate.invalidate();
+            }
+            aggregate.setUpdatedAt(new Date());
+            tx.commit();
+        } catch (JDOException e) {
+            log.info("Failed to update " + entityClass.getSimpleName() + " " + id + ", invalidating it instead: "
+                     + e.getMessage());
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+                invalidate(pm, invalidatedAggregate);
+            }
+            pm.close();
+        }
+    }
+
+    /**
+     * Marks the aggregate as out of date, replacing any aggregate with the same id.
+     * @return the time of the invalidation.
+     */
+    public Date invalidate(E invalidatedAggregate) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            return invalidate(pm, invalidatedAggregate);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return true if the aggregate with the id is still the invalidated one last updated at
+     *         {@code invalidatedAt}. This is checked again when the rebuilt aggregate is saved.
+     */
+    public boolean isInvalidatedAt(Object id, Date invalidatedAt) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            return isInvalidatedAt(getAggregate(pm, id), invalidatedAt);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Saves an aggregate rebuilt by {@code rebuild}, if the stored aggregate is still the invalidated one
+     * last updated at {@code invalidatedAt}, i.e. there has been no write to the aggregated entities
+     * since the rebuild started.
+     * @return true if the rebuilt aggregate was saved.
+     */
+    public boolean saveRebuilt(Object id, Date invalidatedAt, Update<E> rebuild) {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            E aggregate = getAggregate(pm, id);
+            if (!isInvalidatedAt(aggregate, invalidatedAt) || !rebuild.apply(aggregate)) {
+                return false;
+            }
+            aggregate.setUpdatedAt(new Date());
+            tx.commit();
+            return true;
+        } catch (JDOException e) {
+            return false;
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            pm.close();
+        }
+    }
+
+    private Date invalidate(PersistenceManager pm, E invalidatedAggregate) {
+        Date invalidatedAt = new Date();
+        invalidatedAggregate.invalidate();
+        invalidatedAggregate.setUpdatedAt(invalidatedAt);
+        pm.makePersistent(invalidatedAggregate);
+        return invalidatedAt;
+    }
+
+    private boolean isInvalidatedAt(E aggregate, Date invalidatedAt) {
+        return aggregate != null && !aggregate.isUpToDate() && invalidatedAt.equals(aggregate.getUpdatedAt());
+    }
+}
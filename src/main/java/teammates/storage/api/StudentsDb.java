@@ -2,9 +2,11 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.jdo.JDOHelper;
@@ -47,6 +49,15 @@ public class StudentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
     }
     
+    /**
+     * @return the search document of the student with the given registration key, built from
+     *         the current state of the student, or null if there is no such student.
+     */
+    public StudentSearchDocument getSearchDocument(String registrationKey) {
+        StudentAttributes student = getStudentForRegistrationKey(registrationKey);
+        return student == null ? null : new StudentSearchDocument(student);
+    }
+    
     /**
      * Search for students
      * @return {@link StudentSearchResultBundle}
@@ -135,6 +146,70 @@ public class StudentsDb extends EntitiesDb {
         }
     }
 
+    /**
+     * Creates or updates the students of a course in one batch, e.g. when enrolling
+     * many students at once. The students are matched to the existing students of the
+     * course by email, and the enrollment details (name, team, section and comments)
+     * of existing students are updated. <br>
+     * Nothing is written if any of the students is invalid. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null. <br>
+     * * All {@code students} belong to {@code courseId} and have distinct emails.
+     * @return the saved students, including the registration keys of created students.
+     */
+    public List<StudentAttributes> saveStudentsForCourse(String courseId,
+            Collection<StudentAttributes> students, boolean hasDocument) throws InvalidParametersException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, students);
+        
+        // validate everything first, so that nothing is written if any student is invalid
+        for (StudentAttributes student : students) {
+            student.sanitizeForSaving();
+            if (!student.isValid()) {
+                throw new InvalidParametersException(student.getInvalidityInfo());
+            }
+        }
+        
+        Map<String, Student> existingStudents = new HashMap<String, Student>();
+        for (Student student : getStudentEntitiesForCourse(courseId)) {
+            existingStudents.put(student.getEmail(), student);
+        }
+        
+        // the updated entities are written when the persistence manager is closed
+        List<Student> studentsToCreate = new ArrayList<Student>();
+        List<Student> savedStudents = new ArrayList<Student>();
+        for (StudentAttributes student : students) {
+            Student studentEntity = existingStudents.get(student.email);
+            if (studentEntity == null) {
+                studentEntity = (Student) student.toEntity();
+                studentsToCreate.add(studentEntity);
+            } else {
+                studentEntity.setName(student.name);
+                studentEntity.setLastName(Sanitizer.sanitizeName(StringHelper.splitName(student.name)[1]));
+                studentEntity.setComments(student.comments);
+                studentEntity.setTeamName(student.team);
+                studentEntity.setSectionName(student.section);
+            }
+            savedStudents.add(studentEntity);
+            log.info(student.getBackupIdentifier());
+        }
+        
+        getPM().makePersistentAll(studentsToCreate);
+        
+        List<StudentAttributes> savedStudentAttributes = new ArrayList<StudentAttributes>();
+        for (Student student : savedStudents) {
+            StudentAttributes savedStudent = new StudentAttributes(student);
+            savedStudentAttributes.add(savedStudent);
+            if (hasDocument) {
+                putDocument(savedStudent);
+            }
+        }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        closePM();
+        return savedStudentAttributes;
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -439,7 +514,7 @@ public class StudentsDb extends EntitiesDb {
         getPM().flush();
     
         // Check delete operation persisted
-        if(Config.PERSISTENCE_CHECK_DURATION > 0){
+        if (isPollingAfterWrites()) {
             int elapsedTime = 0;
             Student studentCheck = getStudentEntityForEmail(courseId, email);
             while ((studentCheck != null)
@@ -535,6 +610,10 @@ public class StudentsDb extends EntitiesDb {
     }
 
     private Student getStudentEntityForEmail(String courseId, String email) {
+        Student cachedStudent = (Student) getFromRequestCache("studentForEmail", courseId, email);
+        if (cachedStudent != null) {
+            return cachedStudent;
+        }
         
         Query q = getPM().newQuery(Student.class);
         q.declareParameters("String courseIdParam, String emailParam");
@@ -547,17 +626,24 @@ public class StudentsDb extends EntitiesDb {
             return null;
         }
     
+        putInRequestCache(studentList.get(0), "studentForEmail", courseId, email);
         return studentList.get(0);
     }
 
     private List<Student> getStudentEntitiesForCourse(String courseId) {
+        @SuppressWarnings("unchecked")
+        List<Student> cachedStudentList = (List<Student>) getFromRequestCache("studentsForCourse", courseId);
+        if (cachedStudentList != null) {
+            return cachedStudentList;
+        }
+        
         Query q = getPM().newQuery(Student.class);
         q.declareParameters("String courseIdParam");
         q.setFilter("courseID == courseIdParam");
         
         @SuppressWarnings("unchecked")
         List<Student> studentList = (List<Student>) q.execute(courseId);
-        return studentList;
+        return putListInRequestCache(studentList, "studentsForCourse", courseId);
     }
     
     private List<Student> getStudentEntitiesForCourses(List<String> courseIds){
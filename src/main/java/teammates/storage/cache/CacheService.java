@@ -0,0 +1,27 @@
+package teammates.storage.cache;
+
+/**
+ * A key-value cache that is shared by all instances of the application.
+ * Values may be evicted at any time, so a missing value only means that
+ * it has to be loaded again.
+ */
+public interface CacheService {
+
+    /**
+     * @return the value for {@code key}, or null if there is none.
+     */
+    Object get(String key);
+
+    /**
+     * Stores {@code value} for {@code key}, replacing any existing value.
+     * Failures are not reported, as the value can always be loaded again.
+     */
+    void put(String key, Object value, int expirationInSeconds);
+
+    /**
+     * Stores {@code value} for {@code key} only if there is no value for it.
+     * The value does not expire, but may still be evicted.
+     */
+    void putIfAbsent(String key, Object value);
+
+}
@@ -0,0 +1,30 @@
+package teammates.storage.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link CacheService} that keeps values in the memory of the current instance.
+ * This is a stand-in for the memcache in tests and on the dev server,
+ * where there is only one instance. Values do not expire.
+ */
+public class InMemoryCacheService implements CacheService {
+
+    private final ConcurrentMap<String, Object> values = new ConcurrentHashMap<String, Object>();
+
+    @Override
+    public Object get(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public void put(String key, Object value, int expirationInSeconds) {
+        values.put(key, value);
+    }
+
+    @Override
+    public void putIfAbsent(String key, Object value) {
+        values.putIfAbsent(key, value);
+    }
+
+}
@@ -0,0 +1,43 @@
+package teammates.storage.cache;
+
+import java.util.logging.Logger;
+
+import teammates.common.util.Utils;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+
+/**
+ * A {@link CacheService} backed by the App Engine memcache.
+ * Codes reference:
+ * https://cloud.google.com/appengine/docs/java/memcache/
+ */
+public class MemcacheCacheService implements CacheService {
+
+    private static final Logger log = Utils.getLogger();
+
+    private final MemcacheService memcache = MemcacheServiceFactory.getMemcacheService();
+
+    @Override
+    public Object get(String key) {
+        return memcache.get(key);
+    }
+
+    @Override
+    public void put(String key, Object value, int expirationInSeconds) {
+        try {
+            memcache.put(key, value, Expiration.byDeltaSeconds(expirationInSeconds));
+        } catch (RuntimeException e) {
+            // e.g. the value is larger than the memcache limit
+            log.info("Failed to put " + key + " in memcache: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void putIfAbsent(String key, Object value) {
+        memcache.put(key, value, null, SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+    }
+
+}
@@ -0,0 +1,164 @@
+package teammates.storage.cache;
+
+import java.lang.reflect.Type;
+import java.util.Date;
+
+import teammates.common.util.Const;
+
+import com.google.appengine.api.utils.SystemProperty;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+/**
+ * Caches data that is expensive to load, such as the students of a course,
+ * across requests and instances.
+ * <br> Entries belong to a scope, e.g. a course, and are stored under the current
+ * version of their scope. Invalidating a scope starts a new version, so the entries
+ * of the previous version are never read again and eventually expire.
+ * <br> Entries are not stored under a version that is less than
+ * {@link Const.SystemParams#SHARED_CACHE_CONSISTENCY_DELAY_IN_MILLIS} old, as the
+ * queries that load them may not see the writes that caused the invalidation yet.
+ * The same applies if the version of a scope has been evicted, as invalidations
+ * may then have been missed.
+ */
+public class SharedCache {
+
+    private static final String VERSION_KEY_PREFIX = "version:";
+
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new DateInMillisAdapter())
+            .create();
+
+    private static volatile CacheService service = createDefaultService();
+    private static volatile long consistencyDelayInMillis = Const.SystemParams.SHARED_CACHE_CONSISTENCY_DELAY_IN_MILLIS;
+
+    /**
+     * Replaces the cache service, e.g. with an {@link InMemoryCacheService} in tests.
+     */
+    public static void setService(CacheService newService) {
+        setService(newService, Const.SystemParams.SHARED_CACHE_CONSISTENCY_DELAY_IN_MILLIS);
+    }
+
+    public static void setService(CacheService newService, long newConsistencyDelayInMillis) {
+        service = newService;
+        consistencyDelayInMillis = newConsistencyDelayInMillis;
+    }
+
+    /**
+     * Looks up the entry {@code name} of {@code scope}. If the entry has no value,
+     * the caller is expected to load the value and set it with {@link Entry#setValue(Object)}.
+     * The entry is looked up before loading, so that a value loaded while the scope
+     * is invalidated is stored under the previous version.
+     * @param type the type of the value, which must be serializable as JSON
+     */
+    public static <T> Entry<T> getEntry(String scope, String name, Type type) {
+        return getEntry(scope, name, type, null);
+    }
+
+    /**
+     * Looks up the entry {@code name} of {@code scope}, as {@link #getEntry(String, String, Type)}
+     * does, for a value that also depends on data that is versioned outside the cache.
+     * The entry is not stored if that data was written less than
+     * {@link Const.SystemParams#SHARED_CACHE_CONSISTENCY_DELAY_IN_MILLIS} ago, as with the
+     * version of the scope.
+     * @param dataUpdatedAt the time the data was last written, which should be part of {@code name}
+     */
+    public static <T> Entry<T> getEntry(String scope, String name, Type type, Date dataUpdatedAt) {
+        Long version = getVersion(scope);
+        long now = System.currentTimeMillis();
+        if (now - version < consistencyDelayInMillis
+                || dataUpdatedAt != null && now - dataUpdatedAt.getTime() < consistencyDelayInMillis) {
+            return new Entry<T>(null, type, null);
+        }
+
+        String key = scope + "#" + version + "#" + name;
+        String json = (String) service.get(key);
+        T value = json == null ? null : gson.<T>fromJson(json, type);
+        return new Entry<T>(key, type, value);
+    }
+
+    /**
+     * Invalidates all entries of {@code scope}.
+     */
+    public static void invalidate(String scope) {
+        service.put(VERSION_KEY_PREFIX + scope, System.currentTimeMillis(),
+                    Const.SystemParams.SHARED_CACHE_EXPIRATION_IN_SECONDS);
+    }
+
+    private static Long getVersion(String scope) {
+        String versionKey = VERSION_KEY_PREFIX + scope;
+        Long version = (Long) service.get(versionKey);
+        if (version == null) {
+            service.putIfAbsent(versionKey, System.currentTimeMillis());
+            version = (Long) service.get(versionKey);
+        }
+        // the version can only be missing here if the cache service is unavailable
+        return version == null ? System.currentTimeMillis() : version;
+    }
+
+    private static CacheService createDefaultService() {
+        if (SystemProperty.environment.value() == SystemProperty.Environment.Value.Development) {
+            return new InMemoryCacheService();
+        }
+        return new MemcacheCacheService();
+    }
+
+    /**
+     * An entry of the cache, which may not have a value yet.
+     */
+    public static class Entry<T> {
+
+        private final String key;
+        private final Type type;
+        private T value;
+
+        private Entry(String key, Type type, T value) {
+            this.key = key;
+            this.type = type;
+            this.value = value;
+        }
+
+        public boolean hasValue() {
+            return value != null;
+        }
+
+        /**
+         * @return the cached value. A new copy is returned every time the entry is looked up,
+         *         so the value can be modified by the caller.
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Stores {@code newValue} in the cache, unless the version of the scope is too recent.
+         * {@code newValue} is serialized immediately, so it can be modified afterwards.
+         */
+        public void setValue(T newValue) {
+            value = newValue;
+            if (key != null && newValue != null) {
+                service.put(key, gson.toJson(newValue, type), Const.SystemParams.SHARED_CACHE_EXPIRATION_IN_SECONDS);
+            }
+        }
+    }
+
+    private static class DateInMillisAdapter implements JsonSerializer<Date>, JsonDeserializer<Date> {
+
+        @Override
+        public JsonElement serialize(Date date, Type typeOfDate, JsonSerializationContext context) {
+            return new JsonPrimitive(date.getTime());
+        }
+
+        @Override
+        public Date deserialize(JsonElement json, Type typeOfDate, JsonDeserializationContext context) {
+            return new Date(json.getAsLong());
+        }
+    }
+
+}
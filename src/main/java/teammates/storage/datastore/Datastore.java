@@ -1,13 +1,21 @@
 package teammates.storage.datastore;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Transaction;
+import javax.jdo.listener.CreateLifecycleListener;
+import javax.jdo.listener.DeleteLifecycleListener;
+import javax.jdo.listener.DirtyLifecycleListener;
+import javax.jdo.listener.InstanceLifecycleEvent;
+import javax.jdo.listener.StoreLifecycleListener;
 
 import teammates.common.util.Utils;
+import teammates.storage.search.SearchManager;
 
 //TODO: we might not really need this class. To be reconsidered.
 /**
@@ -19,6 +27,8 @@ public class Datastore {
     private static PersistenceManagerFactory PMF = null;
     private static Logger log = Utils.getLogger();
     private static final ThreadLocal<PersistenceManager> PER_THREAD_PM = new ThreadLocal<PersistenceManager>();
+    private static final ThreadLocal<Map<String, Object>> PER_THREAD_CACHE = new ThreadLocal<Map<String, Object>>();
+    private static final CacheInvalidator CACHE_INVALIDATOR = new CacheInvalidator();
 
     public static void initialize() {
         if (PMF == null) {
@@ -33,19 +43,85 @@ public class Datastore {
 
         PersistenceManager pm = PER_THREAD_PM.get();
         if (pm == null) {
-            pm = PMF.getPersistenceManager();
+            pm = createPersistenceManager();
             PER_THREAD_PM.set(pm);
 
         } else if (pm.isClosed()) {
 
             PER_THREAD_PM.remove();
-            pm = PMF.getPersistenceManager();
+            pm = createPersistenceManager();
             PER_THREAD_PM.set(pm);
 
         }
         return pm;
     }
 
+    private static PersistenceManager createPersistenceManager() {
+        // Cached entities belong to the previous persistence manager
+        clearRequestCache();
+        PersistenceManager pm = PMF.getPersistenceManager();
+        pm.addInstanceLifecycleListener(CACHE_INVALIDATOR, (Class[]) null);
+        return pm;
+    }
+
+    /**
+     * Returns a new {@link PersistenceManager} that is not shared with the rest
+     * of the request. This is meant for short transactions that must not
+     * commit or roll back the outstanding changes of the shared one.
+     * The caller is responsible for closing it.
+     */
+    public static PersistenceManager getIsolatedPersistenceManager() {
+        return PMF.getPersistenceManager();
+    }
+
+    /**
+     * Starts caching entities looked up through the persistence manager of this thread,
+     * until {@link #finishRequestCache()} is called. The cache is cleared whenever an
+     * entity is created, modified or deleted, and whenever the persistence manager is closed.
+     */
+    public static void startRequestCache() {
+        PER_THREAD_CACHE.set(new HashMap<String, Object>());
+    }
+
+    public static void finishRequestCache() {
+        PER_THREAD_CACHE.remove();
+    }
+
+    /**
+     * @return the value cached for {@code key} in this request,
+     *         or null if there is none or the request cache is not started.
+     */
+    public static Object getFromRequestCache(String key) {
+        Map<String, Object> cache = PER_THREAD_CACHE.get();
+        if (cache == null) {
+            return null;
+        }
+        PersistenceManager pm = PER_THREAD_PM.get();
+        if (pm == null || pm.isClosed()) {
+            cache.clear();
+            return null;
+        }
+        return cache.get(key);
+    }
+
+    /**
+     * Caches {@code value} for {@code key} if the request cache is started.
+     * {@code value} must not be modified after this.
+     */
+    public static void putInRequestCache(String key, Object value) {
+        Map<String, Object> cache = PER_THREAD_CACHE.get();
+        if (cache != null) {
+            cache.put(key, value);
+        }
+    }
+
+    public static void clearRequestCache() {
+        Map<String, Object> cache = PER_THREAD_CACHE.get();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     public static void finishRequest() {
 
         PersistenceManager pm = PER_THREAD_PM.get();
@@ -65,4 +141,68 @@ public class Datastore {
         }
 
     }
+
+    /**
+     * Runs {@code task} in the current thread with a request cache and a search document buffer
+     * of its own, as {@link DatastoreFilter} does for a request. This is meant for threads started
+     * for part of a request. The buffered search documents are flushed, and the request cache and
+     * the persistence manager of the thread are released, when the task is done.
+     */
+    public static void runAsPartOfRequest(Runnable task) {
+        startRequestCache();
+        SearchManager.startBufferingDocuments();
+        try {
+            task.run();
+        } finally {
+            try {
+                SearchManager.flushBufferedDocuments();
+            } finally {
+                finishRequestCache();
+                finishRequest();
+            }
+        }
+    }
+
+    /**
+     * Clears the request cache on any write through the persistence manager,
+     * including writes that do not go through {@code EntitiesDb}.
+     */
+    private static class CacheInvalidator implements CreateLifecycleListener, DirtyLifecycleListener,
+                                                     StoreLifecycleListener, DeleteLifecycleListener {
+
+        @Override
+        public void postCreate(InstanceLifecycleEvent event) {
+            clearRequestCache();
+        }
+
+        @Override
+        public void preDirty(InstanceLifecycleEvent event) {
+            clearRequestCache();
+        }
+
+        @Override
+        public void postDirty(InstanceLifecycleEvent event) {
+            clearRequestCache();
+        }
+
+        @Override
+        public void preStore(InstanceLifecycleEvent event) {
+            // the cache is cleared after the store
+        }
+
+        @Override
+        public void postStore(InstanceLifecycleEvent event) {
+            clearRequestCache();
+        }
+
+        @Override
+        public void preDelete(InstanceLifecycleEvent event) {
+            clearRequestCache();
+        }
+
+        @Override
+        public void postDelete(InstanceLifecycleEvent event) {
+            clearRequestCache();
+        }
+    }
 }
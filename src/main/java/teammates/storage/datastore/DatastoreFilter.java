@@ -8,6 +8,8 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
+import teammates.storage.search.SearchManager;
+
 //TODO: Do we really need this filter? To be reconsidered.
 /**
  * Servlet Filter to ensure that the datastore is initialized before a request
@@ -25,7 +27,17 @@ public final class DatastoreFilter implements javax.servlet.Filter {
         //There was a Datastore.finishRequest() here inside a finally clause.
         //  It was removed at 4.19 because some requests span multiple entity
         //  groups. We are not allowed to apply transactions to such requests.
-        chain.doFilter(request, response);
+        //  Only the request cache is cleared at the end of the request.
+        //  Search documents written during the request are put into their
+        //  indexes in batches from a task queue after the request.
+        Datastore.startRequestCache();
+        SearchManager.startBufferingDocuments();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Datastore.finishRequestCache();
+            SearchManager.flushBufferedDocuments();
+        }
 
     }
 
@@ -0,0 +1,88 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+import java.util.Set;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents an activity log entry, as shown in the admin activity log page.
+ * <br> The entries are partitioned by the day they are created on, and indexed by
+ * the servlet, the role and the person of the entry, so that the entries matching
+ * a filter are found without going through the request logs of the application.
+ */
+@PersistenceCapable
+public class ActivityLog {
+
+    @PrimaryKey
+    @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
+    private Long id;
+
+    /** The number of days from the epoch to the day the entry is created on, in UTC */
+    @Persistent
+    private Long timePartition;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date createdAt;
+
+    /** The servlet name of the entry, in lower case */
+    @Persistent
+    private String servletName;
+
+    /** The role of the entry, in lower case */
+    @Persistent
+    private String role;
+
+    /** The name, google ID and email of the entry, in lower case */
+    @Persistent
+    private Set<String> personKeys;
+
+    /** The log message of the entry, in the format of {@link teammates.common.util.ActivityLogEntry} */
+    @Persistent
+    private Text logMessage;
+
+    public ActivityLog(Long timePartition, Date createdAt, String servletName, String role,
+                       Set<String> personKeys, String logMessage) {
+        this.timePartition = timePartition;
+        this.createdAt = createdAt;
+        this.servletName = servletName;
+        this.role = role;
+        this.personKeys = personKeys;
+        this.logMessage = new Text(logMessage);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTimePartition() {
+        return timePartition;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getServletName() {
+        return servletName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Set<String> getPersonKeys() {
+        return personKeys;
+    }
+
+    public String getLogMessage() {
+        return logMessage.getValue();
+    }
+}
@@ -0,0 +1,46 @@
+package teammates.storage.entity;
+
+import java.util.Set;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents the groups of students that a comment relates to, i.e. the students that
+ * the comment is given to, and their teams, sections and course.
+ * <br> The groups are indexed, so that the comments related to a student are found
+ * with queries on the groups of the student instead of reading all comments of the course.
+ */
+@PersistenceCapable
+public class CommentVisibility {
+
+    @PrimaryKey
+    @Persistent
+    private Long commentId;
+
+    @Persistent
+    private String courseId;
+
+    /** The groups of students, each in the format viewerType%viewer, e.g. TEAM%Team 1 */
+    @Persistent
+    private Set<String> viewerKeys;
+
+    public CommentVisibility(Long commentId, String courseId, Set<String> viewerKeys) {
+        this.commentId = commentId;
+        this.courseId = courseId;
+        this.viewerKeys = viewerKeys;
+    }
+
+    public Long getCommentId() {
+        return commentId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Set<String> getViewerKeys() {
+        return viewerKeys;
+    }
+}
@@ -0,0 +1,63 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents whether the {@link CommentVisibility} entities of a course are up to date.
+ * <br> The visibilities are invalidated by writes that change the students that comments
+ * relate to, e.g. a student moving to another team, and are then rebuilt by a later read.
+ */
+@PersistenceCapable
+public class CommentVisibilityIndex implements InvalidatableAggregate {
+
+    @PrimaryKey
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private boolean isUpToDate;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date updatedAt;
+
+    public CommentVisibilityIndex(String courseId, boolean isUpToDate, Date updatedAt) {
+        this.courseId = courseId;
+        this.isUpToDate = isUpToDate;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    @Override
+    public boolean isUpToDate() {
+        return isUpToDate;
+    }
+
+    public void setUpToDate(boolean isUpToDate) {
+        this.isUpToDate = isUpToDate;
+    }
+
+    @Override
+    public void invalidate() {
+        isUpToDate = false;
+    }
+
+    @Override
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,73 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents the counts of the students, unregistered students, teams and sections
+ * of a course, maintained as the students of the course are written so that the
+ * statistics of a course can be read without reading its students.
+ */
+@PersistenceCapable
+public class CourseStatistics implements InvalidatableAggregate {
+
+    @PrimaryKey
+    @Persistent
+    private String courseId;
+
+    /**
+     * JSON of the counts of the course.
+     * This is null if the statistics have been invalidated and are pending a rebuild.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Text counts;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date updatedAt;
+
+    public CourseStatistics(String courseId, Text counts, Date updatedAt) {
+        this.courseId = courseId;
+        this.counts = counts;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Text getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Text counts) {
+        this.counts = counts;
+    }
+
+    @Override
+    public boolean isUpToDate() {
+        return counts != null;
+    }
+
+    @Override
+    public void invalidate() {
+        counts = null;
+    }
+
+    @Override
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
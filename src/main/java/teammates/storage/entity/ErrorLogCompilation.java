@@ -0,0 +1,61 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents how far the error logs have been compiled, so that each
+ * compilation only goes through the logs after the previous one.
+ */
+@PersistenceCapable
+public class ErrorLogCompilation {
+
+    @PrimaryKey
+    @Persistent
+    private String name;
+
+    /** The error logs of requests that ended before this time have been compiled */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date compiledUntil;
+
+    /**
+     * The requests whose error logs have been compiled, among those that ended shortly before
+     * {@link #compiledUntil}, as "endTimeInMillis requestId". The next compilation goes through
+     * these requests again, as their logs may not all have been queryable, and skips them.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private List<String> compiledRequests;
+
+    public ErrorLogCompilation(String name, Date compiledUntil, List<String> compiledRequests) {
+        this.name = name;
+        this.compiledUntil = compiledUntil;
+        this.compiledRequests = compiledRequests;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Date getCompiledUntil() {
+        return compiledUntil;
+    }
+
+    public void setCompiledUntil(Date compiledUntil) {
+        this.compiledUntil = compiledUntil;
+    }
+
+    public List<String> getCompiledRequests() {
+        return compiledRequests;
+    }
+
+    public void setCompiledRequests(List<String> compiledRequests) {
+        this.compiledRequests = compiledRequests;
+    }
+}
@@ -0,0 +1,100 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents the running count of the error logs that share a fingerprint,
+ * i.e. the type of the error and the location in the code that it is thrown from.
+ */
+@PersistenceCapable
+public class ErrorLogFingerprint {
+
+    @PrimaryKey
+    @Persistent
+    private String fingerprint;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private String errorType;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private String location;
+
+    @Persistent
+    private Text sampleMessage;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Long count;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date firstSeenAt;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date lastSeenAt;
+
+    public ErrorLogFingerprint(String fingerprint, String errorType, String location, String sampleMessage,
+                               Long count, Date firstSeenAt, Date lastSeenAt) {
+        this.fingerprint = fingerprint;
+        this.errorType = errorType;
+        this.location = location;
+        this.sampleMessage = new Text(sampleMessage);
+        this.count = count;
+        this.firstSeenAt = firstSeenAt;
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getErrorType() {
+        return errorType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getSampleMessage() {
+        return sampleMessage.getValue();
+    }
+
+    public void setSampleMessage(String sampleMessage) {
+        this.sampleMessage = new Text(sampleMessage);
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Date getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(Date firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+
+    public Date getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Date lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+}
@@ -1,5 +1,8 @@
 package teammates.storage.entity;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.PrimaryKey;
@@ -42,6 +45,13 @@ public class FeedbackResponse {
     
     @Persistent
     private String receiverSection;
+    
+    /**
+     * The giver and receiver sections, kept in sync with {@code giverSection} and
+     * {@code receiverSection} so that responses in a section can be found with a single query.
+     */
+    @Persistent
+    private List<String> sections;
 
     @Persistent
     private Text answer; //TODO: rename to responseMetaData, will require database conversion
@@ -101,6 +111,7 @@ public class FeedbackResponse {
 
     public void setGiverSection(String giverSection) {
         this.giverSection = giverSection;
+        updateSections();
     }
 
     public String getRecipientEmail() {
@@ -117,6 +128,25 @@ public class FeedbackResponse {
 
     public void setRecipientSection(String recipientSection) {
         this.receiverSection = recipientSection;
+        updateSections();
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+
+    /**
+     * Recomputes {@code sections} from the giver and receiver sections.
+     */
+    public void updateSections() {
+        List<String> updatedSections = new ArrayList<String>();
+        if (giverSection != null) {
+            updatedSections.add(giverSection);
+        }
+        if (receiverSection != null && !receiverSection.equals(giverSection)) {
+            updatedSections.add(receiverSection);
+        }
+        this.sections = updatedSections;
     }
 
     public Text getResponseMetaData() {
@@ -139,6 +169,7 @@ public class FeedbackResponse {
         this.receiver = recipient;
         this.receiverSection = recipientSection;
         this.answer = answer;
+        updateSections();
                 
         this.feedbackResponseId = feedbackQuestionId + "%" + giverEmail + "%" + receiver;                                
     }
@@ -0,0 +1,65 @@
+package teammates.storage.entity;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents a student or an instructor who has responded to a feedback session.
+ * <br> Each respondent is stored in its own entity, so that concurrent first submissions
+ * to a session do not contend for the session entity.
+ */
+@PersistenceCapable
+public class FeedbackSessionRespondent {
+
+    // Format is feedbackSessionName%courseId%isInstructor%email
+    @PrimaryKey
+    @Persistent
+    private String respondentId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    private String email;
+
+    @Persistent
+    private boolean isInstructor;
+
+    public FeedbackSessionRespondent(String feedbackSessionName, String courseId,
+                                     String email, boolean isInstructor) {
+        this.respondentId = generateId(feedbackSessionName, courseId, email, isInstructor);
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.email = email;
+        this.isInstructor = isInstructor;
+    }
+
+    public static String generateId(String feedbackSessionName, String courseId,
+                                    String email, boolean isInstructor) {
+        return feedbackSessionName + "%" + courseId + "%" + isInstructor + "%" + email;
+    }
+
+    public String getId() {
+        return respondentId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isInstructor() {
+        return isInstructor;
+    }
+}
@@ -0,0 +1,94 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Blob;
+
+/**
+ * Represents a materialized copy of all the responses of a feedback session,
+ * stored as a single compressed blob so that the results of the session
+ * can be read in one datastore operation.
+ */
+@PersistenceCapable
+public class FeedbackSessionResultsSnapshot implements InvalidatableAggregate {
+
+    // Format is feedbackSessionName%courseId
+    @PrimaryKey
+    @Persistent
+    private String snapshotId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    /**
+     * GZIP-compressed JSON of the responses in the session.
+     * This is null if the snapshot has been invalidated and is pending a rebuild.
+     */
+    @Persistent
+    private Blob responses;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date updatedAt;
+
+    public FeedbackSessionResultsSnapshot(String feedbackSessionName, String courseId,
+                                          Blob responses, Date updatedAt) {
+        this.snapshotId = generateId(feedbackSessionName, courseId);
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.responses = responses;
+        this.updatedAt = updatedAt;
+    }
+
+    public static String generateId(String feedbackSessionName, String courseId) {
+        return feedbackSessionName + "%" + courseId;
+    }
+
+    public String getId() {
+        return snapshotId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Blob getResponses() {
+        return responses;
+    }
+
+    public void setResponses(Blob responses) {
+        this.responses = responses;
+    }
+
+    @Override
+    public boolean isUpToDate() {
+        return responses != null;
+    }
+
+    @Override
+    public void invalidate() {
+        responses = null;
+    }
+
+    @Override
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+/**
+ * An entity that aggregates other entities, e.g. the statistics of a course, which aggregate
+ * its students. The aggregate is kept up to date as those entities are written, or is
+ * invalidated by the writes that cannot keep it up to date, and is then rebuilt.
+ * @see teammates.storage.api.InvalidatableAggregatesDb
+ */
+public interface InvalidatableAggregate {
+
+    /**
+     * @return false if the aggregate has been invalidated and is pending a rebuild.
+     */
+    boolean isUpToDate();
+
+    /**
+     * Discards the content of the aggregate, which is rebuilt by a later read.
+     */
+    void invalidate();
+
+    /**
+     * @return the time of the last write to the aggregate, which identifies
+     *         the invalidation that a rebuild replaces.
+     */
+    Date getUpdatedAt();
+
+    void setUpdatedAt(Date updatedAt);
+
+}
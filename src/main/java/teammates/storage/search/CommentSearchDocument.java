@@ -29,6 +29,11 @@ public class CommentSearchDocument extends SearchDocument {
         this.comment = comment;
     }
     
+    @Override
+    public String getDocumentId() {
+        return comment.getCommentId().toString();
+    }
+    
     @Override
     protected void prepareData() {
         if(comment == null) return;
@@ -128,7 +133,7 @@ public class CommentSearchDocument extends SearchDocument {
                     new Gson().toJson(giverAsInstructor != null? giverAsInstructor.displayedName + " " + giverAsInstructor.name: comment.giverEmail)))
             .addField(Field.newBuilder().setName(Const.SearchDocumentField.COMMENT_RECIPIENT_NAME).setText(
                     new Gson().toJson(commentRecipientNameBuilder.toString())))
-            .setId(comment.getCommentId().toString())
+            .setId(getDocumentId())
             .build();
         return doc;
     }
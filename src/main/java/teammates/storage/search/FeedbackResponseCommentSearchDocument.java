@@ -39,6 +39,11 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         this.comment = comment;
     }
     
+    @Override
+    public String getDocumentId() {
+        return comment.getId().toString();
+    }
+    
     @Override
     protected void prepareData(){
         if(comment == null) return;
@@ -193,7 +198,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
             .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE).setText(new Gson().toJson(relatedSession)))
             .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_GIVER_NAME).setText(
                     new Gson().toJson(giverAsInstructor != null? giverAsInstructor.displayedName +" "+ giverAsInstructor.name: comment.giverEmail)))
-            .setId(comment.getId().toString())
+            .setId(getDocumentId())
             .build();
         return doc;
     }
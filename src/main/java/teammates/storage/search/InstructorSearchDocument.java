@@ -4,6 +4,7 @@ import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
+import teammates.storage.api.InstructorsDb;
 
 import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Field;
@@ -18,6 +19,16 @@ public class InstructorSearchDocument extends SearchDocument {
         this.instructor = instructor;
     }
     
+    @Override
+    public String getDocumentId() {
+        return StringHelper.encrypt(instructor.key);
+    }
+    
+    @Override
+    public String getEntityId() {
+        return InstructorsDb.getSearchDocumentEntityId(instructor);
+    }
+    
     @Override
     protected void prepareData() {
         if(instructor == null){
@@ -50,7 +61,7 @@ public class InstructorSearchDocument extends SearchDocument {
                        .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT).setText(searchableTextBuilder.toString()))
                        //attribute field is used to convert a doc back to attribute
                        .addField(Field.newBuilder().setName(Const.SearchDocumentField.INSTRUCTOR_ATTRIBUTE).setText(new Gson().toJson(instructor)))
-                       .setId(StringHelper.encrypt(instructor.key))
+                       .setId(getDocumentId())
                        .build();
                 
         return doc;
@@ -25,6 +25,19 @@ public abstract class SearchDocument {
         return toDocument();
     }
     
+    /**
+     * @return the id of the document in its index.
+     */
+    public abstract String getDocumentId();
+    
+    /**
+     * @return the id that the Db of the index uses to find the entity the document is built from,
+     *         which is the id of the document itself unless overridden.
+     */
+    public String getEntityId() {
+        return getDocumentId();
+    }
+    
     protected abstract void prepareData();
     
     protected abstract Document toDocument();
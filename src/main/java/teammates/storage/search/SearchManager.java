@@ -1,16 +1,30 @@
 package teammates.storage.search;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
+import teammates.common.util.Assumption;
 import teammates.common.util.Config;
+import teammates.common.util.Const;
 import teammates.common.util.ThreadHelper;
 import teammates.common.util.Utils;
 
 import com.google.appengine.api.search.Index;
 import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.OperationResult;
 import com.google.appengine.api.search.PutException;
 import com.google.appengine.api.search.PutResponse;
 import com.google.appengine.api.search.Query;
@@ -18,88 +32,309 @@ import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchServiceFactory;
 import com.google.appengine.api.search.StatusCode;
+import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskOptions;
 
 /**
  * Represents the search manager for index.
  * Codes reference:
  * https://developers.google.com/appengine/docs/java/search/
+ * <br> During a request, only the ids of the documents that are put or deleted are buffered.
+ * After the request, tasks of the {@link Const.SystemParams#SEARCH_DOCUMENT_TASK_QUEUE} rebuild
+ * each of these documents from the current state of its entity, in batches, and put it into its
+ * index, or delete it if the entity no longer exists.
+ * <br> As every task writes what the datastore holds when it runs, rather than what it held when
+ * the task was added, the order in which the tasks run does not matter. A document may only be
+ * left stale if its entity changes again while a task is building it, in which case the task
+ * added for that change rebuilds the document once more.
  */
 public class SearchManager {
     private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE = "Failed to put document %s into search index %s due to non-transient backend issue.";
-    private static final String ERROR_EXCEED_DURATION = "Operation did not succeed in time to put document %s into search index %s";
+    private static final String ERROR_EXCEED_DURATION = "Operation did not succeed in time to put %d documents into search index %s";
     private static final Logger log = Utils.getLogger();
     private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String,Index>>();
-    
+
+    /**
+     * The ids of the documents changed in each index, mapped to the ids of the entities they
+     * are built from, as given by {@link SearchDocument#getEntityId()}.
+     */
+    private static final ThreadLocal<Map<String, Map<String, String>>> PER_THREAD_DOCUMENT_BUFFER =
+            new ThreadLocal<Map<String, Map<String, String>>>();
+
+    /** Tasks are limited to 100KB, which leaves some room for the rest of the task */
+    private static final int MAX_TASK_PAYLOAD_SIZE = 90 * 1024;
+
+    private static final AtomicLong numOfBatchesPut = new AtomicLong();
+    private static final AtomicLong totalBatchPutDuration = new AtomicLong();
+
     /*
-     * Create or update the search document for the given document and index
+     * Create or update the search document for the given document and index.
+     * Only the id of the document is buffered if buffering has been started for the current request;
+     * otherwise the document is built and put now.
+     */
+    public static void putDocument(String indexName, SearchDocument document){
+        Map<String, Map<String, String>> buffer = PER_THREAD_DOCUMENT_BUFFER.get();
+        if (buffer == null) {
+            List<Document> documents = new ArrayList<Document>();
+            documents.add(document.build());
+            putDocuments(indexName, documents);
+            return;
+        }
+
+        getBufferForIndex(buffer, indexName).put(document.getDocumentId(), document.getEntityId());
+    }
+
+    /**
+     * Puts the documents into the index now.
+     * @return true if all documents were put successfully.
+     * @see #applyDocumentChanges(String, List, List)
+     */
+    public static boolean putDocuments(String indexName, List<Document> documents) {
+        return applyDocumentChanges(indexName, documents, new ArrayList<String>());
+    }
+
+    /**
+     * Puts and deletes the documents in the index now. Documents are put in batches of up to
+     * {@link Const.SystemParams#SEARCH_DOCUMENT_BATCH_SIZE}; documents that fail due to
+     * transient errors are retried, waiting twice as long before each retry,
+     * for up to {@link Config#PERSISTENCE_CHECK_DURATION} in total.
+     * @return true if all changes were applied successfully.
+     */
+    public static boolean applyDocumentChanges(String indexName, List<Document> documentsToPut,
+                                               List<String> documentIdsToDelete) {
+        boolean isSuccessful = true;
+        for (int i = 0; i < documentsToPut.size(); i += Const.SystemParams.SEARCH_DOCUMENT_BATCH_SIZE) {
+            int end = Math.min(documentsToPut.size(), i + Const.SystemParams.SEARCH_DOCUMENT_BATCH_SIZE);
+            List<Document> failedDocuments = putBatchWithRetries(indexName, documentsToPut.subList(i, end));
+            isSuccessful &= failedDocuments.isEmpty();
+        }
+        for (int i = 0; i < documentIdsToDelete.size(); i += Const.SystemParams.SEARCH_DOCUMENT_BATCH_SIZE) {
+            int end = Math.min(documentIdsToDelete.size(), i + Const.SystemParams.SEARCH_DOCUMENT_BATCH_SIZE);
+            List<String> batch = documentIdsToDelete.subList(i, end);
+            try {
+                getIndex(indexName).delete(batch);
+            } catch (RuntimeException e) {
+                log.warning("Failed to delete " + batch.size() + " documents from search index " + indexName
+                            + ": " + e.getMessage());
+                isSuccessful = false;
+            }
+        }
+        return isSuccessful;
+    }
+
+    /**
+     * @return the documents that were not put, as they failed due to transient errors
+     *         even after the retries.
      */
-    public static void putDocument(String indexName, Document document){
+    private static List<Document> putBatchWithRetries(String indexName, List<Document> documents) {
+        long startTime = System.currentTimeMillis();
         int elapsedTime = 0;
-        boolean isSuccessful = tryPutDocument(indexName, document);
-        while (!isSuccessful
+        int waitDuration = ThreadHelper.WAIT_DURATION;
+        List<Document> documentsToRetry = tryPutDocuments(indexName, documents);
+        while (!documentsToRetry.isEmpty()
                 && (elapsedTime < Config.PERSISTENCE_CHECK_DURATION)) {
-            ThreadHelper.waitBriefly();
-            //retry putting the document
-            isSuccessful = tryPutDocument(indexName, document);
-            //check before incrementing to avoid boundary case problem
-            if (!isSuccessful) {
-                elapsedTime += ThreadHelper.WAIT_DURATION;
-            }
-            log.info("TEST");
+            ThreadHelper.waitFor(waitDuration);
+            elapsedTime += waitDuration;
+            waitDuration *= 2;
+            documentsToRetry = tryPutDocuments(indexName, documentsToRetry);
         }
-        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-            log.severe(String.format(ERROR_EXCEED_DURATION, document, indexName));
+
+        numOfBatchesPut.incrementAndGet();
+        totalBatchPutDuration.addAndGet(System.currentTimeMillis() - startTime);
+
+        if (!documentsToRetry.isEmpty()) {
+            log.severe(String.format(ERROR_EXCEED_DURATION, documentsToRetry.size(), indexName));
         }
+        return documentsToRetry;
     }
-    
-    private static boolean tryPutDocument(String indexName, Document document){
+
+    /**
+     * @return the documents that failed due to transient errors and can be retried.
+     */
+    private static List<Document> tryPutDocuments(String indexName, List<Document> documents){
         Index index = getIndex(indexName);
+        List<OperationResult> results;
         try {
-            PutResponse result = index.put(document);
-            return (result.getResults().get(0).getCode() == StatusCode.OK);
+            PutResponse response = index.put(documents);
+            results = response.getResults();
         } catch (PutException e) {
-            //if it's a transient error in the server, it can be re-tried
-            if(!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())){
-                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName) 
-                        + " e:\n" + e.getStackTrace());
+            results = e.getResults();
+        }
+
+        List<Document> documentsToRetry = new ArrayList<Document>();
+        for (int i = 0; i < documents.size(); i++) {
+            // a missing result means that the whole call failed
+            StatusCode code = i < results.size() ? results.get(i).getCode() : StatusCode.TRANSIENT_ERROR;
+            if (StatusCode.TRANSIENT_ERROR.equals(code)) {
+                documentsToRetry.add(documents.get(i));
+            } else if (!StatusCode.OK.equals(code)) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, documents.get(i), indexName)
+                           + " code: " + code);
+            }
+        }
+        return documentsToRetry;
+    }
+
+    /**
+     * Starts buffering the changes to documents made by the current thread, until
+     * {@link #flushBufferedDocuments()} is called.
+     */
+    public static void startBufferingDocuments() {
+        PER_THREAD_DOCUMENT_BUFFER.set(new HashMap<String, Map<String, String>>());
+    }
+
+    /**
+     * Adds tasks to rebuild the documents changed since buffering started, and stops buffering.
+     */
+    public static void flushBufferedDocuments() {
+        Map<String, Map<String, String>> buffer = PER_THREAD_DOCUMENT_BUFFER.get();
+        PER_THREAD_DOCUMENT_BUFFER.remove();
+        if (buffer == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Map<String, String>> changesForIndex : buffer.entrySet()) {
+            List<Map.Entry<String, String>> changes =
+                    new ArrayList<Map.Entry<String, String>>(changesForIndex.getValue().entrySet());
+            for (int i = 0; i < changes.size(); i += Const.SystemParams.SEARCH_DOCUMENT_BATCH_SIZE) {
+                int end = Math.min(changes.size(), i + Const.SystemParams.SEARCH_DOCUMENT_BATCH_SIZE);
+                addDocumentChangesTask(changesForIndex.getKey(), changes.subList(i, end));
             }
-            return false;
         }
     }
-    
+
+    private static void addDocumentChangesTask(String indexName, List<Map.Entry<String, String>> changes) {
+        Map<String, String> entityIds = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, String> change : changes) {
+            entityIds.put(change.getKey(), change.getValue());
+        }
+        byte[] payload = serializeDocumentChanges(entityIds);
+
+        if (payload.length > MAX_TASK_PAYLOAD_SIZE && changes.size() > 1) {
+            int middle = changes.size() / 2;
+            addDocumentChangesTask(indexName, changes.subList(0, middle));
+            addDocumentChangesTask(indexName, changes.subList(middle, changes.size()));
+            return;
+        }
+
+        try {
+            Queue queue = QueueFactory.getQueue(Const.SystemParams.SEARCH_DOCUMENT_TASK_QUEUE);
+            queue.add(TaskOptions.Builder.withUrl(Const.ActionURIs.SEARCH_DOCUMENT_WORKER + "?"
+                                                  + Const.ParamsNames.SEARCH_INDEX_NAME + "=" + indexName)
+                                         .payload(payload));
+        } catch (RuntimeException e) {
+            // the documents are left as they are until their entities change again
+            log.severe("Failed to add task to rebuild " + changes.size() + " documents in index " + indexName
+                       + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the average time taken to put a batch of documents into an index,
+     *         including retries, by this instance.
+     */
+    public static long getAverageBatchPutDurationInMillis() {
+        long numOfBatches = numOfBatchesPut.get();
+        return numOfBatches == 0 ? 0 : totalBatchPutDuration.get() / numOfBatches;
+    }
+
+    /**
+     * @param entityIds the ids of the changed documents, mapped to the ids of their entities.
+     */
+    public static byte[] serializeDocumentChanges(Map<String, String> entityIds) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(entityIds.size());
+            for (Map.Entry<String, String> entry : entityIds.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            out.close();
+        } catch (IOException e) {
+            // writing to an array does not fail
+            Assumption.fail("Failed to serialize search document ids: " + e.getMessage());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the changes written by {@link #serializeDocumentChanges(Map)}.
+     * @return the ids of the changed documents, mapped to the ids of their entities.
+     */
+    public static Map<String, String> deserializeDocumentChanges(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        try {
+            int numOfDocuments = in.readInt();
+            Map<String, String> entityIds = new LinkedHashMap<String, String>();
+            for (int i = 0; i < numOfDocuments; i++) {
+                String documentId = in.readUTF();
+                entityIds.put(documentId, in.readUTF());
+            }
+            return entityIds;
+        } finally {
+            in.close();
+        }
+    }
+
+    public static Map<String, String> deserializeDocumentChanges(byte[] payload) throws IOException {
+        return deserializeDocumentChanges(new ByteArrayInputStream(payload));
+    }
+
     /*
      * Get document for index and the documentId
      */
     public static Document getDocument(String indexName, String documentId){
         return getIndex(indexName).get(documentId);
     }
-    
+
     /*
      * Search document by query
      */
     public static Results<ScoredDocument> searchDocuments(String indexName, Query query){
         return getIndex(indexName).search(query);
     }
-    
+
     /*
-     * Delete document by documentId
+     * Delete document by documentId.
+     * The delete is buffered if buffering has been started for the current request.
      */
-    public static void deleteDocument(String indexName, String documentId){
-        getIndex(indexName).deleteAsync(documentId);
+    public static void deleteDocument(String indexName, String documentId, String entityId){
+        Map<String, Map<String, String>> buffer = PER_THREAD_DOCUMENT_BUFFER.get();
+        if (buffer == null) {
+            applyDocumentChanges(indexName, new ArrayList<Document>(), Arrays.asList(documentId));
+            return;
+        }
+
+        getBufferForIndex(buffer, indexName).put(documentId, entityId);
     }
-    
+
     /*
-     * Delete documents by documentIds
+     * Delete documents by documentIds, which are also the ids of their entities.
+     * The deletes are buffered if buffering has been started for the current request.
      */
     public static void deleteDocuments(String indexName, String[] documentIds){
-        getIndex(indexName).deleteAsync(documentIds);
+        for (String documentId : documentIds) {
+            deleteDocument(indexName, documentId, documentId);
+        }
     }
-    
+
+    private static Map<String, String> getBufferForIndex(Map<String, Map<String, String>> buffer,
+                                                         String indexName) {
+        Map<String, String> bufferForIndex = buffer.get(indexName);
+        if (bufferForIndex == null) {
+            bufferForIndex = new LinkedHashMap<String, String>();
+            buffer.put(indexName, bufferForIndex);
+        }
+        return bufferForIndex;
+    }
+
     private static Index getIndex(String indexName) {
         Map<String, Index> indicesTable = getIndicesTable();
         Index index = indicesTable.get(indexName);
         if(index == null){
-            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build(); 
+            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
             index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
             indicesTable.put(indexName, index);
         }
@@ -16,6 +16,11 @@ public class StudentSearchDocument extends SearchDocument {
         this.student = student;
     }
     
+    @Override
+    public String getDocumentId() {
+        return student.key;
+    }
+    
     @Override
     protected void prepareData() {
         if(student == null) 
@@ -48,7 +53,7 @@ public class StudentSearchDocument extends SearchDocument {
             .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT).setText(searchableTextBuilder.toString()))
             //attribute field is used to convert a doc back to attribute
             .addField(Field.newBuilder().setName(Const.SearchDocumentField.STUDENT_ATTRIBUTE).setText(new Gson().toJson(student)))
-            .setId(student.key)
+            .setId(getDocumentId())
             .build();
         
         return doc;
@@ -482,6 +482,24 @@ public abstract class Action {
                                       fileContent);
     }
 
+    /**
+     * Generates a {@link FeedbackSessionResultsCsvDownloadResult} with the information in this object.
+     * @param section the section to download, or null to download all sections
+     */
+    public FeedbackSessionResultsCsvDownloadResult createFeedbackSessionResultsCsvDownloadResult(
+            String fileName, String courseId, String feedbackSessionName, String instructorEmail, String section) {
+        return new FeedbackSessionResultsCsvDownloadResult("filedownload",
+                                                          account,
+                                                          requestParameters,
+                                                          statusToUser,
+                                                          fileName,
+                                                          logic,
+                                                          courseId,
+                                                          feedbackSessionName,
+                                                          instructorEmail,
+                                                          section);
+    }
+
     protected ActionResult createPleaseJoinCourseResponse(String courseId) {
         String errorMessage = "You are not registered in the course " + Sanitizer.sanitizeForHtml(courseId);
         statusToUser.add(new StatusMessage(errorMessage, StatusMessageColor.DANGER));
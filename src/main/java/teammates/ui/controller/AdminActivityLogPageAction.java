@@ -32,6 +32,7 @@ public class AdminActivityLogPageAction extends Action {
     private static final int RELEVANT_LOGS_PER_PAGE = 50;
     private static final int SEARCH_TIME_INCREMENT = 2*60*60*1000;  // two hours in millisecond
     private static final int MAX_SEARCH_TIMES = 12;                 // maximum 1 day
+    private static final String ADMIN_ACTIVITY_LOG_PAGE_SERVLET_NAME = "adminActivityLogPage";
     
     private int totalLogsSearched;
     private boolean isFirstRow = true;
@@ -162,8 +163,7 @@ public class AdminActivityLogPageAction extends Action {
             data.setFromDate(nextTwoHour);
             numberOfSearchTimes++;
             
-            LogQuery query = buildQuery(data);
-            List<ActivityLogEntry> searchResult = searchLogsByQuery(query, data);
+            List<ActivityLogEntry> searchResult = searchLogs(data);
             if (!searchResult.isEmpty()) {
                 appLogs.addAll(searchResult);
             }
@@ -174,8 +174,42 @@ public class AdminActivityLogPageAction extends Action {
     
     private List<ActivityLogEntry> searchLogsWithExactTimePeriod(AdminActivityLogPageData data) {
         totalLogsSearched = 0;
-        LogQuery query = buildQuery(data);
-        List<ActivityLogEntry> appLogs = searchLogsByQuery(query, data);
+        List<ActivityLogEntry> appLogs = searchLogs(data);
+        return appLogs;
+    }
+    
+    /**
+     * Searches the logs from the fromDate to the toDate of {@code data}. Queries on a person,
+     * request or role are answered by the activity log entries kept in the datastore, 
+     * and other queries by going through the application logs.
+     */
+    private List<ActivityLogEntry> searchLogs(AdminActivityLogPageData data) {
+        boolean isSearchableInDatastore = !data.isVersionSpecifiedInQuery()
+                                          && (data.isPersonSpecified() || data.isRequestSpecified()
+                                              || data.isRoleSpecified());
+        if (!isSearchableInDatastore) {
+            return searchLogsByQuery(buildQuery(data), data);
+        }
+        
+        List<ActivityLogEntry> entries;
+        if (data.isPersonSpecified()) {
+            entries = logic.getActivityLogsForPerson(data.getPersonSpecified(), 
+                                                     data.getFromDate(), data.getToDate());
+        } else if (data.isRequestSpecified()) {
+            entries = logic.getActivityLogsForServletNames(data.getRequestsSpecified(), 
+                                                           data.getFromDate(), data.getToDate());
+        } else {
+            entries = logic.getActivityLogsForRoles(data.getRolesSpecified(), 
+                                                    data.getFromDate(), data.getToDate());
+        }
+        
+        List<ActivityLogEntry> appLogs = new LinkedList<ActivityLogEntry>();
+        for (ActivityLogEntry activityLogEntry : entries) {
+            totalLogsSearched++;
+            if (!activityLogEntry.getServletName().equals(ADMIN_ACTIVITY_LOG_PAGE_SERVLET_NAME)) {
+                addLogIfRelevant(activityLogEntry, data, appLogs);
+            }
+        }
         return appLogs;
     }
 
@@ -189,22 +223,26 @@ public class AdminActivityLogPageAction extends Action {
             for (AppLogLine appLog : appLogLines) {
                 totalLogsSearched++;
                 String logMsg = appLog.getLogMessage();
-                if (logMsg.contains("TEAMMATESLOG") && !logMsg.contains("adminActivityLogPage")) {
-                    ActivityLogEntry activityLogEntry = new ActivityLogEntry(appLog);                   
-                    activityLogEntry = data.filterLogs(activityLogEntry);
-                    if (activityLogEntry.toShow() && ((!activityLogEntry.isTestingData()) || data.getIfShowTestData())) {
-                        if (isFirstRow ) {
-                            activityLogEntry.setFirstRow();
-                            isFirstRow = false;
-                        }
-                        appLogs.add(activityLogEntry);
-                    }
+                if (logMsg.contains("TEAMMATESLOG") && !logMsg.contains(ADMIN_ACTIVITY_LOG_PAGE_SERVLET_NAME)) {
+                    addLogIfRelevant(new ActivityLogEntry(appLog), data, appLogs);
                 }
             }    
         }
         return appLogs;
     }
     
+    private void addLogIfRelevant(ActivityLogEntry activityLogEntry, AdminActivityLogPageData data,
+                                  List<ActivityLogEntry> appLogs) {
+        activityLogEntry = data.filterLogs(activityLogEntry);
+        if (activityLogEntry.toShow() && ((!activityLogEntry.isTestingData()) || data.getIfShowTestData())) {
+            if (isFirstRow ) {
+                activityLogEntry.setFirstRow();
+                isFirstRow = false;
+            }
+            appLogs.add(activityLogEntry);
+        }
+    }
+    
     private LogQuery buildQuery(AdminActivityLogPageData data) {
         LogQuery query = LogQuery.Builder.withDefaults();
         List<String> versions = data.getVersions();
@@ -3,6 +3,7 @@ package teammates.ui.controller;
 import java.lang.reflect.Field;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -498,6 +499,26 @@ public class AdminActivityLogPageData extends PageData {
     public boolean isFromDateSpecifiedInQuery() {
         return isFromDateSpecifiedInQuery;
     }
+    
+    public boolean isRequestSpecified() {
+        return (q != null) && q.isRequestInQuery;
+    }
+    
+    public List<String> getRequestsSpecified() {
+        return isRequestSpecified() ? Arrays.asList(q.requestValues) : null;
+    }
+    
+    public boolean isRoleSpecified() {
+        return (q != null) && q.isRoleInQuery;
+    }
+    
+    public List<String> getRolesSpecified() {
+        return isRoleSpecified() ? Arrays.asList(q.roleValues) : null;
+    }
+    
+    public boolean isVersionSpecifiedInQuery() {
+        return (versions != null) && !versions.isEmpty();
+    }
 
     
 }
@@ -1,6 +1,7 @@
 package teammates.ui.controller;
 
 import java.io.IOException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.mail.internet.MimeMessage;
@@ -65,25 +66,25 @@ public class ControllerServlet extends HttpServlet {
             long timeTaken = System.currentTimeMillis() - startTime;
             // This is the log message that is used to generate the 'activity log' for the admin.
             
-            log.info(c.getLogMessage() + "|||"+ timeTaken);
+            logActivity(Level.INFO, c.getLogMessage() + "|||"+ timeTaken);
             
         } catch (PageNotFoundException e) {
-            log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
+            logActivity(Level.WARNING, ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ACTION_NOT_FOUND_PAGE);
         } catch (EntityDoesNotExistException e) {
-            log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
+            logActivity(Level.WARNING, ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ENTITY_NOT_FOUND_PAGE);
 
         } catch (FeedbackSessionNotVisibleException e) {
-            log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
+            logActivity(Level.WARNING, ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             req.getSession().setAttribute(Const.ParamsNames.FEEDBACK_SESSION_NOT_VISIBLE, e.getStartTimeString());
             resp.sendRedirect(Const.ViewURIs.FEEDBACK_SESSION_NOT_VISIBLE);
             
         } catch (UnauthorizedAccessException e) {
-            log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
+            logActivity(Level.WARNING, ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.UNAUTHORIZED);
 
@@ -117,13 +118,22 @@ public class ControllerServlet extends HttpServlet {
         } catch (Throwable e) {
             MimeMessage email = new Logic().emailErrorReport(req, e);
 
-            log.severe(ActivityLogEntry.generateSystemErrorReportLogMessage(req, email)); 
+            logActivity(Level.SEVERE, ActivityLogEntry.generateSystemErrorReportLogMessage(req, email)); 
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
         }  
         
     }
     
+    /**
+     * Logs an activity log message, and keeps its entry in the datastore
+     * for the admin activity log page.
+     */
+    private void logActivity(Level level, String logMessage) {
+        log.log(level, logMessage);
+        new Logic().recordActivityLog(logMessage);
+    }
+    
     private void cleanUpStatusMessageInSession(HttpServletRequest req){
         req.getSession().removeAttribute(Const.ParamsNames.STATUS_MESSAGE);
         req.getSession().removeAttribute(Const.ParamsNames.STATUS_MESSAGE_COLOR);
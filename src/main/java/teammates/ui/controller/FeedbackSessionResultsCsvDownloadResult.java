@@ -0,0 +1,70 @@
+package teammates.ui.controller;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.util.Assumption;
+import teammates.common.util.StatusMessage;
+import teammates.logic.api.Logic;
+
+/**
+ * A {@link FileDownloadResult} for the results of a feedback session in CSV format.
+ * The results are generated while they are being sent, instead of being
+ * built as a single string beforehand.
+ */
+public class FeedbackSessionResultsCsvDownloadResult extends FileDownloadResult {
+
+    private Logic logic;
+    private String courseId;
+    private String feedbackSessionName;
+    private String instructorEmail;
+    private String section;
+
+    /**
+     * @param section the section to download, or null to download all sections
+     */
+    public FeedbackSessionResultsCsvDownloadResult(
+            String destination, AccountAttributes account,
+            Map<String, String[]> parametersFromPreviousRequest, List<StatusMessage> status,
+            String fileName, Logic logic, String courseId, String feedbackSessionName,
+            String instructorEmail, String section) {
+        super(destination, account, parametersFromPreviousRequest, status, fileName, "");
+        this.logic = logic;
+        this.courseId = courseId;
+        this.feedbackSessionName = feedbackSessionName;
+        this.instructorEmail = instructorEmail;
+        this.section = section;
+    }
+
+    @Override
+    protected void writeFileContent(Writer writer) throws IOException, ServletException {
+        try {
+            logic.writeFeedbackSessionResultSummaryInSectionAsCsv(courseId, feedbackSessionName,
+                                                                  instructorEmail, section, writer);
+        } catch (EntityDoesNotExistException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    /**
+     * Generates the whole file in memory. This is meant for testing only.
+     */
+    @Override
+    public String getFileContent() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeFileContent(writer);
+        } catch (IOException | ServletException e) {
+            Assumption.fail("Failed to generate file content: " + e.getMessage());
+        }
+        return writer.toString();
+    }
+
+}
@@ -60,6 +60,9 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             return createSpecificRedirectResult();
         }
         
+        List<FeedbackResponseAttributes> responsesToSave = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        
         int numOfQuestionsToGet = data.bundle.questionResponseBundle.size();
         for (int questionIndx = 1; questionIndx <= numOfQuestionsToGet; questionIndx++) {
             String totalResponsesForQuestion = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_RESPONSETOTAL + "-" + questionIndx);
@@ -118,7 +121,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
                 
                 if (response.responseMetaData.getValue().isEmpty()) {
                     // deletes the response since answer is empty
-                    saveResponse(response);
+                    addResponseToSaveOrDelete(response, responsesToSave, responsesToDelete);
                 } else {
                     response.giverEmail = questionAttributes.giverType.isTeam() ? userTeamForCourse
                                                                                 : userEmailForCourse;
@@ -136,7 +139,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             
             if (errors.isEmpty()) {
                 for (FeedbackResponseAttributes response : responsesForQuestion) {
-                    saveResponse(response);
+                    addResponseToSaveOrDelete(response, responsesToSave, responsesToDelete);
                 }
             } else {
                 List<StatusMessage> errorMessages = new ArrayList<StatusMessage>();
@@ -151,6 +154,14 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             
         }
         
+        // all responses are saved together, which takes fewer datastore operations than saving them one by one
+        try {
+            logic.saveFeedbackResponses(responsesToSave, responsesToDelete);
+            hasValidResponse = !responsesToSave.isEmpty();
+        } catch (EntityAlreadyExistsException | InvalidParametersException e) {
+            setStatusForException(e);
+        }
+        
         if (!isError) {
             statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_RESPONSES_SAVED, StatusMessageColor.SUCCESS));
         }
@@ -194,29 +205,20 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
         return true;
     }
 
-    private void saveResponse(FeedbackResponseAttributes response)
-            throws EntityDoesNotExistException {
+    private void addResponseToSaveOrDelete(FeedbackResponseAttributes response,
+                                           List<FeedbackResponseAttributes> responsesToSave,
+                                           List<FeedbackResponseAttributes> responsesToDelete) {
         if (response.getId() != null) {
             // Delete away response if any empty fields
             if (response.responseMetaData.getValue().isEmpty() ||
                     response.recipientEmail.isEmpty()) {
-                logic.deleteFeedbackResponse(response);
+                responsesToDelete.add(response);
                 return;
             }
-            try {
-                logic.updateFeedbackResponse(response);
-                hasValidResponse = true;
-            } catch (EntityAlreadyExistsException | InvalidParametersException e) {
-                setStatusForException(e);
-            }
+            responsesToSave.add(response);
         } else if (!response.responseMetaData.getValue().isEmpty() &&
                 !response.recipientEmail.isEmpty()) {
-            try {
-                logic.createFeedbackResponse(response);
-                hasValidResponse = true;
-            } catch (EntityAlreadyExistsException | InvalidParametersException e) {
-                setStatusForException(e);
-            }
+            responsesToSave.add(response);
         }
     }
     
@@ -2,9 +2,11 @@ package teammates.ui.controller;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -33,7 +35,7 @@ public class FileDownloadResult extends ActionResult {
 
     
     @Override
-    public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException, ServletException {
         /*
          * We have to call setContentType() instead of setHeader() in order
          *     to make the servlet aware of the specified charset encoding
@@ -42,6 +44,13 @@ public class FileDownloadResult extends ActionResult {
         resp.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + ".csv\"");
         PrintWriter writer = resp.getWriter();
         writer.write("\uFEFF");
+        writeFileContent(writer);
+    }
+    
+    /**
+     * Writes the content of the file to be downloaded to {@code writer}.
+     */
+    protected void writeFileContent(Writer writer) throws IOException, ServletException {
         writer.append(fileContent);
     }
     
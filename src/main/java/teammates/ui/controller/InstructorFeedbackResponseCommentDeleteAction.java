@@ -35,6 +35,7 @@ public class InstructorFeedbackResponseCommentDeleteAction extends Action {
         
         FeedbackResponseCommentAttributes feedbackResponseComment = new FeedbackResponseCommentAttributes();
         feedbackResponseComment.setId(Long.parseLong(feedbackResponseCommentId));
+        feedbackResponseComment.courseId = courseId;
         
         logic.deleteDocument(feedbackResponseComment);
         logic.deleteFeedbackResponseComment(feedbackResponseComment);
@@ -1,5 +1,7 @@
 package teammates.ui.controller;
 
+import java.util.Arrays;
+
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
 import teammates.common.datatransfer.InstructorAttributes;
@@ -10,8 +12,12 @@ import teammates.common.util.Const;
 import teammates.common.util.Const.StatusMessageColor;
 import teammates.common.util.StatusMessage;
 import teammates.common.util.StringHelper;
+import teammates.common.util.Utils;
 import teammates.logic.api.GateKeeper;
+import teammates.logic.core.FeedbackSessionResultsCache;
+import teammates.storage.cache.SharedCache;
 import teammates.ui.controller.InstructorFeedbackResultsPageData.ViewType;
+import teammates.ui.template.InstructorFeedbackResultsRenderedPanels;
 
 public class InstructorFeedbackResultsPageAction extends Action {
 
@@ -82,6 +88,48 @@ public class InstructorFeedbackResultsPageAction extends Action {
         
         String questionId = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_ID);
         
+        ViewType viewType = getViewType(sortType);
+        SharedCache.Entry<InstructorFeedbackResultsRenderedPanels> renderedPanels =
+                FeedbackSessionResultsCache.getEntry(feedbackSessionName, courseId,
+                                                     getRenderedPanelsCacheName(instructor, selectedSection, viewType,
+                                                                                showStats, groupByTeam, questionId,
+                                                                                startIndex, needAjax),
+                                                     InstructorFeedbackResultsRenderedPanels.class);
+        
+        if (renderedPanels != null && renderedPanels.hasValue()) {
+            // the results have not changed since the panels were rendered, so they are not loaded again
+            data.initForRenderedPanels(instructor, session, selectedSection, showStats, groupByTeam,
+                                       viewType, renderedPanels.getValue());
+        } else {
+            loadBundle(needAjax, queryRange, courseId, feedbackSessionName, instructor, data,
+                       selectedSection, sortType, questionId);
+            
+            if (viewType == ViewType.QUESTION) {
+                data.initForViewByQuestion(instructor, selectedSection, showStats, groupByTeam);
+            } else {
+                data.initForSectionPanelViews(instructor, selectedSection, showStats, groupByTeam, viewType);
+            }
+            data.setRenderedPanelsCacheEntry(renderedPanels);
+        }
+
+        // Warning for section wise viewing in case of many responses.
+        boolean isShowSectionWarningForQuestionView = data.isLargeNumberOfRespondents() 
+                                                   && sortType.equals("question");
+        boolean isShowSectionWarningForParticipantView = !data.isResultsComplete()
+                                                   && !sortType.equals("question");
+        if (selectedSection.equals(ALL_SECTION_OPTION) && (isShowSectionWarningForParticipantView
+                                                           || isShowSectionWarningForQuestionView)) {
+            statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_RESULTS_SECTIONVIEWWARNING, StatusMessageColor.WARNING));
+            isError = true;
+        }
+        
+        return createShowPageResult(getViewUri(viewType), data);
+    }
+
+    private void loadBundle(String needAjax, int queryRange, String courseId, String feedbackSessionName,
+                            InstructorAttributes instructor, InstructorFeedbackResultsPageData data,
+                            String selectedSection, String sortType, String questionId)
+                            throws EntityDoesNotExistException {
         if (ALL_SECTION_OPTION.equals(selectedSection) && questionId == null && !sortType.equals("question")) {
             // bundle for all questions and all sections  
             data.setBundle(
@@ -112,53 +160,52 @@ public class InstructorFeedbackResultsPageAction extends Action {
             throw new EntityDoesNotExistException("Feedback session " + feedbackSessionName
                                                   + " does not exist in " + courseId + ".");
         }
+    }
 
-        // Warning for section wise viewing in case of many responses.
-        boolean isShowSectionWarningForQuestionView = data.isLargeNumberOfRespondents() 
-                                                   && sortType.equals("question");
-        boolean isShowSectionWarningForParticipantView = !data.getBundle().isComplete
-                                                   && !sortType.equals("question");
-        if (selectedSection.equals(ALL_SECTION_OPTION) && (isShowSectionWarningForParticipantView
-                                                           || isShowSectionWarningForQuestionView)) {
-            statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_RESULTS_SECTIONVIEWWARNING, StatusMessageColor.WARNING));
-            isError = true;
-        }
-        
-
+    private ViewType getViewType(String sortType) {
         switch (sortType) {
             case "question":
-                data.initForViewByQuestion(instructor, selectedSection, showStats, groupByTeam);
-                return createShowPageResult(
-                        Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_QUESTION, data);
-            case "recipient-giver-question":
-                data.initForSectionPanelViews(instructor, selectedSection, showStats, groupByTeam, 
-                                              ViewType.RECIPIENT_GIVER_QUESTION);
-                return createShowPageResult(
-                        Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_RECIPIENT_GIVER_QUESTION, data);
+                return ViewType.QUESTION;
             case "giver-recipient-question":
-                data.initForSectionPanelViews(instructor, selectedSection, showStats, groupByTeam,
-                                              ViewType.GIVER_RECIPIENT_QUESTION);
-                return createShowPageResult(
-                        Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_GIVER_RECIPIENT_QUESTION, data);
+                return ViewType.GIVER_RECIPIENT_QUESTION;
             case "recipient-question-giver":
-                data.initForSectionPanelViews(instructor, selectedSection, showStats, groupByTeam,
-                                              ViewType.RECIPIENT_QUESTION_GIVER);
-                return createShowPageResult(
-                        Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_RECIPIENT_QUESTION_GIVER, data);
+                return ViewType.RECIPIENT_QUESTION_GIVER;
             case "giver-question-recipient":
-                data.initForSectionPanelViews(instructor, selectedSection, showStats, groupByTeam, 
-                                              ViewType.GIVER_QUESTION_RECIPIENT);
-                return createShowPageResult(
-                        Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_GIVER_QUESTION_RECIPIENT, data);
+                return ViewType.GIVER_QUESTION_RECIPIENT;
+            case "recipient-giver-question":
+            default:
+                return ViewType.RECIPIENT_GIVER_QUESTION;
+        }
+    }
+
+    private String getViewUri(ViewType viewType) {
+        switch (viewType) {
+            case QUESTION:
+                return Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_QUESTION;
+            case GIVER_RECIPIENT_QUESTION:
+                return Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_GIVER_RECIPIENT_QUESTION;
+            case RECIPIENT_QUESTION_GIVER:
+                return Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_RECIPIENT_QUESTION_GIVER;
+            case GIVER_QUESTION_RECIPIENT:
+                return Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_GIVER_QUESTION_RECIPIENT;
+            case RECIPIENT_GIVER_QUESTION:
             default:
-                sortType = "recipient-giver-question";
-                data.initForSectionPanelViews(instructor, selectedSection, showStats, groupByTeam, 
-                                              ViewType.RECIPIENT_GIVER_QUESTION);
-                return createShowPageResult(
-                        Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_RECIPIENT_GIVER_QUESTION, data);
+                return Const.ViewURIs.INSTRUCTOR_FEEDBACK_RESULTS_BY_RECIPIENT_GIVER_QUESTION;
         }
     }
 
+    /**
+     * The rendered panels depend on everything that the request selects,
+     * and on the instructor viewing them, as their privileges and links are in the panels.
+     */
+    private String getRenderedPanelsCacheName(InstructorAttributes instructor, String selectedSection,
+                                              ViewType viewType, String showStats, String groupByTeam,
+                                              String questionId, String startIndex, String needAjax) {
+        return Utils.getTeammatesGson().toJson(Arrays.asList(
+                account.googleId, instructor.email, selectedSection, viewType.toString(), showStats,
+                groupByTeam, questionId, startIndex, needAjax));
+    }
+
     private FeedbackSessionResultsBundle getBundleForQuestionView(String needAjax, String courseId, String feedbackSessionName,
                                                                   InstructorAttributes instructor, InstructorFeedbackResultsPageData data,
                                                                   String selectedSection, String sortType, String questionId)
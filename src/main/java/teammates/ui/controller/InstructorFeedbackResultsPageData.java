@@ -17,12 +17,14 @@ import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.StringHelper;
+import teammates.storage.cache.SharedCache;
 import teammates.ui.template.FeedbackResponseComment;
 import teammates.ui.template.InstructorFeedbackResultsFilterPanel;
 import teammates.ui.template.InstructorFeedbackResultsNoResponsePanel;
@@ -36,6 +38,7 @@ import teammates.ui.template.InstructorFeedbackResultsSectionPanel;
 import teammates.ui.template.FeedbackSessionPublishButton;
 import teammates.ui.template.ElementTag;
 import teammates.ui.template.InstructorFeedbackResultsQuestionTable;
+import teammates.ui.template.InstructorFeedbackResultsRenderedPanels;
 import teammates.ui.template.InstructorFeedbackResultsResponseRow;
 import teammates.ui.template.InstructorFeedbackResultsModerationButton;
 
@@ -54,6 +57,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
     private boolean isLargeNumberOfRespondents = false;
     
     private FeedbackSessionResultsBundle bundle = null;
+    private FeedbackSessionAttributes feedbackSession = null;
     private InstructorAttributes instructor = null;
     private List<String> sections = null;
     private String selectedSection = null;
@@ -80,6 +84,11 @@ public class InstructorFeedbackResultsPageData extends PageData {
     // giver > recipient > question, recipient > giver > question
     private LinkedHashMap<String, InstructorFeedbackResultsSectionPanel> sectionPanels;
     
+    // set if the panels are served from the cache, in which case the bundle is not loaded
+    private InstructorFeedbackResultsRenderedPanels renderedPanels;
+    // set if the panels rendered for this page are to be kept in the cache
+    private transient SharedCache.Entry<InstructorFeedbackResultsRenderedPanels> renderedPanelsCacheEntry;
+    
     private Map<FeedbackQuestionAttributes, FeedbackQuestionDetails> questionToDetailsMap = new HashMap<>();
     private Map<String, String> profilePictureLinks = new HashMap<>();
     
@@ -158,15 +167,26 @@ public class InstructorFeedbackResultsPageData extends PageData {
         
     }
 
+    /**
+     * Prepares the page around panels that have been rendered before, without the bundle
+     * 
+     * {@code renderedPanels} should be read from the cache for the same view of the same results
+     */
+    public void initForRenderedPanels(InstructorAttributes instructor, FeedbackSessionAttributes feedbackSession,
+                                      String selectedSection, String showStats, String groupByTeam,
+                                      ViewType view, InstructorFeedbackResultsRenderedPanels renderedPanels) {
+        this.viewType = view;
+        this.sortType = view.toString();
+        this.renderedPanels = renderedPanels;
+        this.isPanelsCollapsed = renderedPanels.isPanelsCollapsed();
+        this.sections = renderedPanels.getSections();
+        initSessionVariables(instructor, feedbackSession, selectedSection, showStats, groupByTeam);
+    }
+
     private void initCommonVariables(InstructorAttributes instructor, String selectedSection,
                                     String showStats, String groupByTeam) {
         Assumption.assertNotNull(bundle);
         
-        this.instructor = instructor;
-        this.selectedSection = selectedSection;
-        this.showStats = showStats;
-        this.groupByTeam = groupByTeam;
-        
         for (FeedbackQuestionAttributes question : bundle.questions.values()) {
             FeedbackQuestionDetails questionDetails = question.getQuestionDetails();
             questionToDetailsMap.put(question, questionDetails);
@@ -174,8 +194,19 @@ public class InstructorFeedbackResultsPageData extends PageData {
         
         this.sections = getSectionsFromBundle();
         
-        displayableFsName = sanitizeForHtml(bundle.feedbackSession.feedbackSessionName);
-        displayableCourseId = sanitizeForHtml(bundle.feedbackSession.courseId);
+        initSessionVariables(instructor, bundle.feedbackSession, selectedSection, showStats, groupByTeam);
+    }
+
+    private void initSessionVariables(InstructorAttributes instructor, FeedbackSessionAttributes feedbackSession,
+                                      String selectedSection, String showStats, String groupByTeam) {
+        this.instructor = instructor;
+        this.feedbackSession = feedbackSession;
+        this.selectedSection = selectedSection;
+        this.showStats = showStats;
+        this.groupByTeam = groupByTeam;
+        
+        displayableFsName = sanitizeForHtml(feedbackSession.feedbackSessionName);
+        displayableCourseId = sanitizeForHtml(feedbackSession.courseId);
     }
 
     private List<String> getSectionsFromBundle() {
@@ -364,7 +395,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
        sectionPanels = new LinkedHashMap<String, InstructorFeedbackResultsSectionPanel>();
        InstructorFeedbackResultsSectionPanel sectionPanel = new InstructorFeedbackResultsSectionPanel();
        
-       LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> responsesGroupedByTeam 
+       Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> responsesGroupedByTeam 
            = viewType.isPrimaryGroupingOfGiverType() ? bundle.getQuestionResponseMapByGiverTeam()
                                                      : bundle.getQuestionResponseMapByRecipientTeam();
        
@@ -664,7 +695,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
 
     private void finalizeBuildingSectionPanel(
                  InstructorFeedbackResultsSectionPanel sectionPanel, String sectionName,
-                 LinkedHashMap<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> responsesGroupedByTeam,
+                 Map<String, Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> responsesGroupedByTeam,
                  Set<String> teamsWithResponses) {
         switch (viewType) {
             case GIVER_QUESTION_RECIPIENT:
@@ -1552,7 +1583,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
     private FeedbackSessionPublishButton getInstructorFeedbackSessionPublishAndUnpublishAction() {
         boolean isHome = false;
         return new FeedbackSessionPublishButton(this,
-                                                bundle.feedbackSession,
+                                                feedbackSession,
                                                 isHome,
                                                 instructor,
                                                 "btn-primary btn-block");
@@ -1724,6 +1755,51 @@ public class InstructorFeedbackResultsPageData extends PageData {
     public FeedbackSessionResultsBundle getBundle() {
         return bundle;
     }
+    
+    public FeedbackSessionAttributes getFeedbackSession() {
+        return feedbackSession;
+    }
+    
+    public boolean isResultsComplete() {
+        return renderedPanels != null ? renderedPanels.isResultsComplete() : bundle.isComplete;
+    }
+    
+    public boolean isResponsesEmpty() {
+        return renderedPanels != null ? renderedPanels.isResponsesEmpty() : bundle.responses.isEmpty();
+    }
+    
+    /**
+     * Panels are only kept in the cache if the bundle has questions, so the bundle
+     * is never needed for the panel of participants who have not responded.
+     */
+    public boolean isQuestionsEmpty() {
+        return renderedPanels == null && bundle.questions.isEmpty();
+    }
+    
+    public boolean isPanelsRendered() {
+        return renderedPanels != null;
+    }
+    
+    public String getRenderedPanels() {
+        return renderedPanels.getHtml();
+    }
+    
+    public void setRenderedPanelsCacheEntry(SharedCache.Entry<InstructorFeedbackResultsRenderedPanels> entry) {
+        this.renderedPanelsCacheEntry = entry;
+    }
+    
+    /**
+     * Keeps the panels rendered for this page in the cache, if they are cacheable.
+     * This is set by the view once the panels are rendered, as they are only built then.
+     */
+    public void setRenderedPanelsToCache(String html) {
+        if (renderedPanelsCacheEntry == null || isQuestionsEmpty()) {
+            return;
+        }
+        renderedPanelsCacheEntry.setValue(new InstructorFeedbackResultsRenderedPanels(
+                html, isResultsComplete(), isResponsesEmpty(), isPanelsCollapsed,
+                isLargeNumberOfRespondents(), sections));
+    }
 
     public InstructorAttributes getInstructor() {
         return instructor;
@@ -1790,13 +1866,13 @@ public class InstructorFeedbackResultsPageData extends PageData {
 
     private String getInstructorFeedbackSessionEditLink() {
         return instructor.isAllowedForPrivilege(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION)
-               ? getInstructorFeedbackEditLink(bundle.feedbackSession.courseId, 
-                                                      bundle.feedbackSession.feedbackSessionName)
+               ? getInstructorFeedbackEditLink(feedbackSession.courseId, 
+                                                      feedbackSession.feedbackSessionName)
                : null;
     }
     
     private String getInstructorFeedbackSessionResultsLink() {
-        return getInstructorFeedbackResultsLink(bundle.feedbackSession.courseId, bundle.feedbackSession.feedbackSessionName);
+        return getInstructorFeedbackResultsLink(feedbackSession.courseId, feedbackSession.feedbackSessionName);
     }
     
     public boolean isAllSectionsSelected() {
@@ -1806,13 +1882,13 @@ public class InstructorFeedbackResultsPageData extends PageData {
     // TODO: place below getter methods for template objects in some init method common to all views
     public InstructorFeedbackResultsSessionPanel getSessionPanel() {
         return new InstructorFeedbackResultsSessionPanel(
-                bundle.feedbackSession, getInstructorFeedbackSessionEditLink(),
+                feedbackSession, getInstructorFeedbackSessionEditLink(),
                 getInstructorFeedbackSessionPublishAndUnpublishAction(), selectedSection);
     }
     
     public InstructorFeedbackResultsFilterPanel getFilterPanel() {
         return new InstructorFeedbackResultsFilterPanel(
-                isStatsShown(), isPanelsCollapsed, bundle.feedbackSession, isAllSectionsSelected(), selectedSection,
+                isStatsShown(), isPanelsCollapsed, feedbackSession, isAllSectionsSelected(), selectedSection,
                 isGroupedByTeam(), sortType, getInstructorFeedbackSessionResultsLink(), getSections());
     }
     
@@ -1835,10 +1911,13 @@ public class InstructorFeedbackResultsPageData extends PageData {
     
     public boolean isLargeNumberOfResponses() {
         return (viewType == ViewType.QUESTION && isLargeNumberOfRespondents() && isAllSectionsSelected())
-             || !bundle.isComplete;
+             || !isResultsComplete();
     }
     
     public boolean isLargeNumberOfRespondents() {
+        if (renderedPanels != null) {
+            return renderedPanels.isLargeNumberOfRespondents();
+        }
         int numRespondents = (bundle.feedbackSession.respondingInstructorList.size() 
                            + bundle.feedbackSession.respondingStudentList.size());
         return isLargeNumberOfRespondents 
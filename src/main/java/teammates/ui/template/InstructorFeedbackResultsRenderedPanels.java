@@ -0,0 +1,53 @@
+package teammates.ui.template;
+
+import java.util.List;
+
+/**
+ * The rendered HTML of the section or question panels of the results page, together with
+ * what the rest of the page needs to know about the results that the panels were built from.
+ * <br> These are kept in the cache, so that the results do not have to be loaded again
+ * to show the panels.
+ */
+public class InstructorFeedbackResultsRenderedPanels {
+    private String html;
+    private boolean isResultsComplete;
+    private boolean isResponsesEmpty;
+    private boolean isPanelsCollapsed;
+    private boolean isLargeNumberOfRespondents;
+    private List<String> sections;
+
+    public InstructorFeedbackResultsRenderedPanels(String html, boolean isResultsComplete, boolean isResponsesEmpty,
+                                                   boolean isPanelsCollapsed, boolean isLargeNumberOfRespondents,
+                                                   List<String> sections) {
+        this.html = html;
+        this.isResultsComplete = isResultsComplete;
+        this.isResponsesEmpty = isResponsesEmpty;
+        this.isPanelsCollapsed = isPanelsCollapsed;
+        this.isLargeNumberOfRespondents = isLargeNumberOfRespondents;
+        this.sections = sections;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public boolean isResultsComplete() {
+        return isResultsComplete;
+    }
+
+    public boolean isResponsesEmpty() {
+        return isResponsesEmpty;
+    }
+
+    public boolean isPanelsCollapsed() {
+        return isPanelsCollapsed;
+    }
+
+    public boolean isLargeNumberOfRespondents() {
+        return isLargeNumberOfRespondents;
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+}
@@ -3,18 +3,18 @@
 <%@ taglib tagdir="/WEB-INF/tags/instructor/results" prefix="r" %>
 <%@ page import="teammates.common.util.Const"%>
 <%@ page import="teammates.common.util.TimeHelper"%>
-<%-- When the page structure is loaded, bundle.questions will contain every question --%>
+<%-- When the page structure is loaded, the bundle will contain every question --%>
 <%-- When generating the noResponsePanel when loaded by ajax, there won't be any questions in the bundle --%>
 <%-- TODO it might make sense to make a new action entirely for generating the noResponsePanel --%>
-<c:set var="isLoadingStructure" value="${not empty data.bundle.questions}" />
+<c:set var="isLoadingStructure" value="${not data.questionsEmpty}" />
 
 <c:if test="${data.allSectionsSelected}">
     <div class="panel panel-warning">
         <%-- see instructorFeedbackResultsAjaxResponseRate.js --%>
         <div class="panel-heading ${data.largeNumberOfResponses ? 'ajax_response_rate_submit' : 'ajax_response_rate_auto'}">
             <form style="display:none;" id="responseRate" class="responseRateForm" action="<%=Const.ActionURIs.INSTRUCTOR_FEEDBACK_RESULTS_PAGE%>">
-                <input type="hidden" name="<%=Const.ParamsNames.COURSE_ID%>" value="${data.bundle.feedbackSession.courseId}">
-                <input type="hidden" name="<%=Const.ParamsNames.FEEDBACK_SESSION_NAME%>" value="${data.bundle.feedbackSession.feedbackSessionName}">
+                <input type="hidden" name="<%=Const.ParamsNames.COURSE_ID%>" value="${data.feedbackSession.courseId}">
+                <input type="hidden" name="<%=Const.ParamsNames.FEEDBACK_SESSION_NAME%>" value="${data.feedbackSession.feedbackSessionName}">
                 <input type="hidden" name="<%=Const.ParamsNames.USER_ID%>" value="${data.account.googleId}">
                 <input type="hidden" name="<%=Const.ParamsNames.FEEDBACK_QUESTION_ID%>" value="-1">
             </form>
@@ -7,7 +7,9 @@
 </c:set>
 
 <results:resultsPage pageTitle="TEAMMATES - Feedback Session Results" bodyTitle="Session Results" jsIncludes="${jsIncludes}" data="${data}">
-    <results:bySectionPanels isGroupedByQuestion="${true}" isGroupedByTeam="${data.groupedByTeam}"
-                             isShowingAll="${data.bundle.complete}" 
-                             isPanelsCollapsed="${data.shouldCollapsed}" />
+    <results:renderedPanels data="${data}">
+        <results:bySectionPanels isGroupedByQuestion="${true}" isGroupedByTeam="${data.groupedByTeam}"
+                                 isShowingAll="${data.bundle.complete}" 
+                                 isPanelsCollapsed="${data.shouldCollapsed}" />
+    </results:renderedPanels>
 </results:resultsPage>
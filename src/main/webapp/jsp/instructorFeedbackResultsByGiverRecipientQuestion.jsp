@@ -8,5 +8,7 @@
 </c:set>
 
 <results:resultsPage pageTitle="TEAMMATES - Feedback Session Results" bodyTitle="Session Results" jsIncludes="${jsIncludes}" data="${data}">
-    <results:bySectionPanels isGroupedByQuestion="${false}" isShowingAll="${data.bundle.complete}" isPanelsCollapsed="${data.shouldCollapsed}" isGroupedByTeam="${data.groupedByTeam}" />
+    <results:renderedPanels data="${data}">
+        <results:bySectionPanels isGroupedByQuestion="${false}" isShowingAll="${data.bundle.complete}" isPanelsCollapsed="${data.shouldCollapsed}" isGroupedByTeam="${data.groupedByTeam}" />
+    </results:renderedPanels>
 </results:resultsPage>
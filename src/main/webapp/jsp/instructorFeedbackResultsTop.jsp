@@ -5,7 +5,7 @@
 <%@ page import="teammates.common.util.Const"%>
 <%@ page import="teammates.common.util.TimeHelper"%>
 <c:set var="showAll" value="${!data.largeNumberOfResponses}" />
-<c:set var="noResponses" value="${empty data.bundle.responses}" />
+<c:set var="noResponses" value="${data.responsesEmpty}" />
 
 <r:sessionPanel sessionPanel="${data.sessionPanel}" />
 
@@ -1,6 +1,7 @@
 package teammates.test.cases.automated;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.fail;
@@ -63,8 +64,8 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
             assertTrue(paramMap.containsKey(ParamsNames.ENROLLMENT_DETAILS));
             assertNotNull(paramMap.get(ParamsNames.ENROLLMENT_DETAILS));
             
-            assertTrue(paramMap.containsKey(ParamsNames.FEEDBACK_SESSION_NAME));
-            assertNotNull(paramMap.get(ParamsNames.FEEDBACK_SESSION_NAME));
+            // one task adjusts the responses in all sessions of the course
+            assertFalse(paramMap.containsKey(ParamsNames.FEEDBACK_SESSION_NAME));
             
             SubmissionsAdjustmentTaskQueueCallback.taskCount++;
             return Const.StatusCodes.TASK_QUEUE_RESPONSE_OK;
@@ -140,25 +141,17 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
         enrollLines = "Section | Team | Name | Email | Comment" + Const.EOL;
         enrollLines += newStudentLine + Const.EOL + "\t";
         
-        int counter = 0;
-        while(counter != 10){
-            SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
-            studentsInfo = studentsLogic.enrollStudentsWithoutDocument(enrollLines, course1.id);
+        SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
+        studentsInfo = studentsLogic.enrollStudentsWithoutDocument(enrollLines, course1.id);
         
-            //Check whether students are present in database
-            assertNotNull(studentsLogic.getStudentForEmail(course1.id, "s@g"));
+        //Check whether students are present in database
+        assertNotNull(studentsLogic.getStudentForEmail(course1.id, "s@g"));
 
-            //Verify no tasks sent to the task queue
-            if(SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(
-                    fsLogic.getFeedbackSessionsForCourse(course1.id).size())){
-                break;
-            }
-            counter++;
+        //Verify no tasks sent to the task queue, as new students have no responses to adjust
+        if(!SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(0)){
+            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 0);
         }
         
-        assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount,
-                    fsLogic.getFeedbackSessionsForCourse(course1.id).size());     
-        
         
         ______TS("change an existing students email and verify update "
                 + "of responses");
@@ -193,21 +186,19 @@ public class SubmissionsAdjustmentTest extends BaseComponentUsingTaskQueueTestCa
         enrollLines = "Section | Team | Name | Email | Comment";
         enrollLines += studentInTeam1.toEnrollmentString();
         
-        counter = 0;
+        int counter = 0;
         while(counter != 10){
             SubmissionsAdjustmentTaskQueueCallback.resetTaskCount();
             studentsInfo = studentsLogic.enrollStudentsWithoutDocument(enrollLines, studentInTeam1.course);
             
-            //Verify scheduling of adjustment of responses
-            if(SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(
-                    fsLogic.getFeedbackSessionsForCourse(studentInTeam1.course).size())){
+            //Verify scheduling of one adjustment of responses for the whole course
+            if(SubmissionsAdjustmentTaskQueueCallback.verifyTaskCount(1)){
                 break;
             }
             counter++;
         }
         if(counter == 10){
-            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount,
-                        fsLogic.getFeedbackSessionsForCourse(studentInTeam1.course).size());
+            assertEquals(SubmissionsAdjustmentTaskQueueCallback.taskCount, 1);
         }
        
         
@@ -1,6 +1,7 @@
 package teammates.test.cases.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.testng.annotations.Test;
@@ -9,6 +10,7 @@ import static org.testng.AssertJUnit.*;
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
 
 public class CourseRosterTest extends BaseTestCase{
@@ -74,6 +76,26 @@ public class CourseRosterTest extends BaseTestCase{
         assertEquals(roster.getInstructorForEmail("ins2@email.com").email, "ins2@email.com");
         assertEquals(roster.getInstructorForEmail("ins2@email.com").name, "Jean");
         
+        ______TS("team and section indexes");
+        
+        List<StudentAttributes> students = createStudentList("team 2", "s3@gmail.com",
+                                                             "team 1", "s1@gmail.com",
+                                                             "team 1", "s2@gmail.com");
+        students.get(0).section = "section 2";
+        students.get(1).section = "section 1";
+        students.get(2).section = "section 1";
+        roster = new CourseRoster(students, null);
+        
+        assertEquals(Arrays.asList("team 1", "team 2"), roster.getTeamNames());
+        
+        assertEquals(2, roster.getStudentsForTeam("team 1").size());
+        assertEquals("s3@gmail.com", roster.getStudentsForTeam("team 2").get(0).email);
+        assertTrue(roster.getStudentsForTeam("non-existent team").isEmpty());
+        
+        assertEquals("section 1", roster.getSectionForTeam("team 1"));
+        assertEquals("section 2", roster.getSectionForTeam("team 2"));
+        assertEquals(Const.DEFAULT_SECTION, roster.getSectionForTeam("non-existent team"));
+        
     }
 
     private List<StudentAttributes> createStudentList(String... studentData) {
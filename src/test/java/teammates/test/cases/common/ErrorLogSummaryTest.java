@@ -0,0 +1,75 @@
+package teammates.test.cases.common;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import java.util.Date;
+
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.ErrorLogSummary;
+import teammates.test.cases.BaseTestCase;
+
+public class ErrorLogSummaryTest extends BaseTestCase {
+
+    @Test
+    public void testFromLogMessage() {
+
+        ______TS("exception: fingerprinted by its type and the first TEAMMATES stack frame");
+
+        String message = "java.lang.NullPointerException: course is null<br/>"
+                         + "at java.util.HashMap.get(HashMap.java:10)<br/>"
+                         + "at teammates.logic.core.CoursesLogic.getCourse(CoursesLogic.java:123)<br/>"
+                         + "at teammates.ui.controller.Action.execute(Action.java:45)";
+        ErrorLogSummary errorLog = ErrorLogSummary.fromLogMessage("ERROR", message, new Date(1000));
+        assertEquals("java.lang.NullPointerException", errorLog.errorType);
+        assertEquals("teammates.logic.core.CoursesLogic.getCourse(CoursesLogic.java:123)", errorLog.location);
+        assertEquals("java.lang.NullPointerException at "
+                     + "teammates.logic.core.CoursesLogic.getCourse(CoursesLogic.java:123)", errorLog.fingerprint);
+        assertEquals(message, errorLog.sampleMessage);
+        assertEquals(1, errorLog.count);
+        assertEquals(new Date(1000), errorLog.firstSeenAt);
+        assertEquals(new Date(1000), errorLog.lastSeenAt);
+
+        ______TS("exception without TEAMMATES stack frames: fingerprinted by the first stack frame");
+
+        errorLog = ErrorLogSummary.fromLogMessage("ERROR", "java.lang.IllegalStateException\n"
+                                                  + "\tat java.util.HashMap.get(HashMap.java:10)", new Date(1000));
+        assertEquals("java.lang.IllegalStateException", errorLog.errorType);
+        assertEquals("java.util.HashMap.get(HashMap.java:10)", errorLog.location);
+
+        ______TS("message without exception: fingerprinted by its first line, with numbers masked");
+
+        ErrorLogSummary errorLog1 = ErrorLogSummary.fromLogMessage("FATAL", "Timed out after 30 seconds\nid 1",
+                                                                   new Date(1000));
+        ErrorLogSummary errorLog2 = ErrorLogSummary.fromLogMessage("FATAL", "Timed out after 60 seconds\nid 2",
+                                                                   new Date(2000));
+        assertEquals("FATAL: Timed out after # seconds", errorLog1.errorType);
+        assertEquals("unknown location", errorLog1.location);
+        assertEquals(errorLog1.fingerprint, errorLog2.fingerprint);
+        assertFalse(errorLog1.fingerprint.equals(
+                ErrorLogSummary.fromLogMessage("ERROR", "Timed out after 30 seconds", new Date(1000)).fingerprint));
+    }
+
+    @Test
+    public void testAdd() {
+        ErrorLogSummary errorLog = new ErrorLogSummary("type", "location", "message 2", 2,
+                                                       new Date(2000), new Date(3000));
+
+        ______TS("earlier occurrences: the first seen time is updated");
+
+        errorLog.add(new ErrorLogSummary("type", "location", "message 1", 1, new Date(1000), new Date(1000)));
+        assertEquals(3, errorLog.count);
+        assertEquals(new Date(1000), errorLog.firstSeenAt);
+        assertEquals(new Date(3000), errorLog.lastSeenAt);
+        assertEquals("message 2", errorLog.sampleMessage);
+
+        ______TS("later occurrences: the last seen time and the sample message are updated");
+
+        errorLog.add(new ErrorLogSummary("type", "location", "message 3", 4, new Date(4000), new Date(5000)));
+        assertEquals(7, errorLog.count);
+        assertEquals(new Date(1000), errorLog.firstSeenAt);
+        assertEquals(new Date(5000), errorLog.lastSeenAt);
+        assertEquals("message 3", errorLog.sampleMessage);
+    }
+}
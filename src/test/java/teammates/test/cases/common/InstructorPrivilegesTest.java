@@ -441,7 +441,47 @@ public class InstructorPrivilegesTest extends BaseTestCase {
         assertTrue(privileges.isAllowedForPrivilege(sectionName, Const.ParamsNames.INSTRUCTOR_PERMISSION_GIVE_COMMENT_IN_SECTIONS));
         assertTrue(privileges.isAllowedForPrivilege(sectionName, sessionName, Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS));
     }
-    
+
+    @Test
+    public void testIsAllowedForPrivilegeAfterUpdates() {
+        InstructorPrivileges privileges = new InstructorPrivileges(Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_TUTOR);
+        String sectionId = "sectionId";
+        String sessionId = "sessionId";
+        String sessionId2 = "sessionId2";
+        String privilegeName = Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS;
+
+        ______TS("checks after updates see the updated privileges");
+
+        assertTrue(privileges.isAllowedForPrivilege(sectionId, sessionId, privilegeName));
+        assertFalse(privileges.isAllowedForPrivilegeAnySection(sessionId, privilegeName));
+
+        privileges.updatePrivilege(sectionId, privilegeName, false);
+        assertFalse(privileges.isAllowedForPrivilege(sectionId, sessionId, privilegeName));
+        assertTrue(privileges.isAllowedForPrivilege("otherSectionId", sessionId, privilegeName));
+        assertFalse(privileges.isAllowedForPrivilegeAnySection(sessionId, privilegeName));
+
+        privileges.updatePrivilege(sectionId, sessionId, privilegeName, true);
+        assertTrue(privileges.isAllowedForPrivilege(sectionId, sessionId, privilegeName));
+        assertFalse(privileges.isAllowedForPrivilege(sectionId, sessionId2, privilegeName));
+        assertTrue(privileges.isAllowedForPrivilegeAnySection(sessionId, privilegeName));
+        assertFalse(privileges.isAllowedForPrivilegeAnySection(sessionId2, privilegeName));
+
+        privileges.removeSessionPrivileges(sectionId, sessionId);
+        assertFalse(privileges.isAllowedForPrivilege(sectionId, sessionId, privilegeName));
+        assertFalse(privileges.isAllowedForPrivilegeAnySection(sessionId, privilegeName));
+
+        privileges.removeSectionLevelPrivileges(sectionId);
+        assertTrue(privileges.isAllowedForPrivilege(sectionId, sessionId, privilegeName));
+
+        privileges.setDefaultPrivilegesForObserver();
+        assertFalse(privileges.isAllowedForPrivilege(sectionId, sessionId, privilegeName));
+
+        ______TS("invalid privilege names are not allowed");
+
+        assertFalse(privileges.isAllowedForPrivilege(sectionId, sessionId, "invalidPrivilegeName"));
+        assertFalse(privileges.isAllowedForPrivilegeAnySection(sessionId, "invalidPrivilegeName"));
+    }
+
     @AfterClass
     public static void tearDown() {
         printTestClassFooter();
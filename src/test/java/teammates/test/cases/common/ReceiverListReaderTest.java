@@ -0,0 +1,56 @@
+package teammates.test.cases.common;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.ReceiverListReader;
+import teammates.test.cases.BaseTestCase;
+
+public class ReceiverListReaderTest extends BaseTestCase {
+
+    @Test
+    public void testReadNextAddress() throws IOException {
+
+        ______TS("addresses are trimmed and empty entries are skipped");
+
+        byte[] file = "a@email.tmt, b@email.tmt,,\n ç@email.tmt ,".getBytes("UTF-8");
+        ReceiverListReader reader = new ReceiverListReader(new ByteArrayInputStream(file), 0);
+
+        assertEquals("a@email.tmt", reader.readNextAddress());
+        assertEquals("a@email.tmt,".length(), reader.getOffset());
+        assertEquals("b@email.tmt", reader.readNextAddress());
+        assertEquals("ç@email.tmt", reader.readNextAddress());
+        assertNull(reader.readNextAddress());
+        assertEquals(file.length, reader.getOffset());
+        reader.close();
+
+        ______TS("resume: reading from an offset continues with the next address");
+
+        reader = new ReceiverListReader(new ByteArrayInputStream(file), 0);
+        reader.readNextAddress();
+        reader.readNextAddress();
+        long offset = reader.getOffset();
+        reader.close();
+
+        reader = new ReceiverListReader(
+                new ByteArrayInputStream(Arrays.copyOfRange(file, (int) offset, file.length)), offset);
+        assertEquals("ç@email.tmt", reader.readNextAddress());
+        assertNull(reader.readNextAddress());
+        assertEquals(file.length, reader.getOffset());
+        reader.close();
+
+        ______TS("last address without a trailing comma");
+
+        reader = new ReceiverListReader(new ByteArrayInputStream("a@email.tmt".getBytes("UTF-8")), 0);
+        assertEquals("a@email.tmt", reader.readNextAddress());
+        assertNull(reader.readNextAddress());
+        reader.close();
+    }
+
+}
@@ -1,7 +1,9 @@
 package teammates.test.cases.common;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
 
+import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 
 import org.testng.annotations.Test;
@@ -124,6 +126,29 @@ public class StringHelperTest extends BaseTestCase {
         
         decrptedMsg = StringHelper.decrypt(StringHelper.encrypt(msg));
         assertEquals(msg, decrptedMsg);
+
+        ______TS("encrypted values are upper-case hex, and decrypted in either case");
+
+        String encryptedMsg = StringHelper.encrypt(msg);
+        assertTrue(encryptedMsg.matches("[0-9A-F]+"));
+        assertEquals(encryptedMsg, StringHelper.encrypt(msg));
+        assertEquals(msg, StringHelper.decrypt(encryptedMsg.toLowerCase()));
+
+        ______TS("invalid encrypted values: the ciphers can still be used after the failure");
+
+        try {
+            StringHelper.decrypt(encryptedMsg.substring(2));
+            signalFailureToDetectException();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof GeneralSecurityException);
+        }
+        try {
+            StringHelper.decrypt("XY" + encryptedMsg.substring(2));
+            signalFailureToDetectException();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+        assertEquals(msg, StringHelper.decrypt(encryptedMsg));
     }
     
     @Test
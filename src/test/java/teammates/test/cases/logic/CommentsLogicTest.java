@@ -1,12 +1,19 @@
 package teammates.test.cases.logic;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import javax.jdo.PersistenceManager;
 
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -23,12 +30,18 @@ import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.logic.core.CommentsLogic;
+import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.CommentVisibilityDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.CommentVisibilityIndex;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
 public class CommentsLogicTest extends BaseComponentTestCase {
 
     private CommentsLogic commentsLogic = CommentsLogic.inst();
+    private StudentsLogic studentsLogic = StudentsLogic.inst();
+    private CommentVisibilityDb commentVisibilityDb = new CommentVisibilityDb();
     private static DataBundle dataBundle = getTypicalDataBundle();
     
     @BeforeClass
@@ -395,6 +408,93 @@ public class CommentsLogicTest extends BaseComponentTestCase {
         verifyAbsentInDatastore(c);
     }
     
+    @Test
+    public void testCommentVisibilityIndex() throws Exception {
+        String courseId = "idOfTypicalCourse1";
+        List<StudentAttributes> students = studentsLogic.getStudentsForCourse(courseId);
+        
+        CommentAttributes c = new CommentAttributes();
+        c.courseId = courseId;
+        c.giverEmail = "instructor1@course1.tmt";
+        c.recipientType = CommentParticipantType.TEAM;
+        c.recipients = new HashSet<String>();
+        c.recipients.add("Team new");
+        c.showCommentTo = new ArrayList<CommentParticipantType>();
+        c.showCommentTo.add(CommentParticipantType.TEAM);
+        c.showCommentTo.add(CommentParticipantType.SECTION);
+        c.showGiverNameTo = new ArrayList<CommentParticipantType>();
+        c.showGiverNameTo.add(CommentParticipantType.SECTION);
+        c.showRecipientNameTo = new ArrayList<CommentParticipantType>();
+        c.createdAt = new Date();
+        c.commentText = new Text("Comment to a team that has no students yet");
+        c = commentsLogic.createComment(c);
+        
+        ______TS("the index gives the same comments as a rebuild from all the comments and students");
+        
+        saveRebuiltIndex(courseId, students.get(0));
+        Map<String, List<String>> indexedComments = getVisibleComments(students);
+        
+        commentsLogic.invalidateCommentVisibilityIndex(courseId);
+        Map<String, List<String>> rebuiltComments = getVisibleComments(students);
+        // a rebuild is not saved until the invalidation is old enough for the queries to see the latest writes
+        assertNotNull(commentVisibilityDb.getInvalidatedAt(courseId));
+        
+        assertEquals(rebuiltComments, indexedComments);
+        
+        ______TS("enrollment indexes the comments of the team again, without invalidating the index");
+        
+        saveRebuiltIndex(courseId, students.get(0));
+        StudentAttributes newStudent = new StudentAttributes("Section 1", "Team new", "New student",
+                                                             "newStudentInCourse1@gmail.tmt", "", courseId);
+        studentsLogic.createStudentCascadeWithoutDocument(newStudent);
+        assertNull(commentVisibilityDb.getInvalidatedAt(courseId));
+        
+        students.add(newStudent);
+        indexedComments = getVisibleComments(students);
+        
+        commentsLogic.invalidateCommentVisibilityIndex(courseId);
+        rebuiltComments = getVisibleComments(students);
+        
+        assertEquals(rebuiltComments, indexedComments);
+        // the comment now relates to the section of the new student
+        String student1Email = dataBundle.students.get("student1InCourse1").email;
+        AssertHelper.assertContains(c.getCommentId().toString(), indexedComments.get(student1Email).toString());
+        
+        studentsLogic.deleteStudentCascadeWithoutDocument(courseId, newStudent.email);
+        commentsLogic.deleteComment(c);
+    }
+    
+    /**
+     * Makes the invalidation of the index old enough for a rebuild to be saved, and rebuilds it.
+     */
+    private void saveRebuiltIndex(String courseId, StudentAttributes student) throws Exception {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            pm.makePersistent(new CommentVisibilityIndex(courseId, false,
+                                                         new Date(new Date().getTime() - 60 * 1000)));
+        } finally {
+            pm.close();
+        }
+        commentsLogic.getCommentsForStudent(student);
+        assertNull(commentVisibilityDb.getInvalidatedAt(courseId));
+    }
+    
+    /**
+     * @return the ids of the comments visible to each student, with the names shown to them, by email
+     */
+    private Map<String, List<String>> getVisibleComments(List<StudentAttributes> students) throws Exception {
+        Map<String, List<String>> visibleComments = new HashMap<String, List<String>>();
+        for (StudentAttributes student : students) {
+            List<String> comments = new ArrayList<String>();
+            for (CommentAttributes comment : commentsLogic.getCommentsForStudent(student)) {
+                comments.add(comment.getCommentId() + ":" + comment.giverEmail + ":"
+                             + new TreeSet<String>(comment.recipients));
+            }
+            visibleComments.put(student.email, comments);
+        }
+        return visibleComments;
+    }
+    
     // TODO: add tests for those one level down api call if test coverage is considered
     
     private void verifyCommentsGiverNameVisible(List<CommentAttributes> comments){
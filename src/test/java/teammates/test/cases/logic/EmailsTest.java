@@ -5,10 +5,14 @@ import static org.testng.AssertJUnit.assertTrue;
 import static org.testng.AssertJUnit.assertFalse;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.Scanner;
 import java.util.logging.Level;
 
 import javax.mail.Message;
@@ -23,7 +27,12 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.google.appengine.labs.repackaged.org.json.JSONArray;
 import com.google.appengine.labs.repackaged.org.json.JSONException;
+import com.google.appengine.labs.repackaged.org.json.JSONObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
@@ -512,6 +521,125 @@ public class EmailsTest extends BaseComponentTestCase {
         testEmailAttributes(email, sendgridEmail);
     }
 
+    @Test
+    public void testSendEmailBatch() throws Exception {
+        FeedbackSessionAttributes fsa = new FeedbackSessionAttributes();
+        fsa.feedbackSessionName = "Feedback Session Name";
+        fsa.endTime = TimeHelper.getDateOffsetToCurrentTime(0);
+
+        CourseAttributes c = new CourseAttributes();
+        c.id = "course-id";
+        c.name = "Course Name";
+
+        String template = EmailTemplates.USER_FEEDBACK_SESSION;
+        List<MimeMessage> emails = new ArrayList<MimeMessage>();
+        for (int i = 0; i < 3; i++) {
+            StudentAttributes s = new StudentAttributes();
+            s.name = "Student " + i;
+            s.key = "skxxxxxxxxxks" + i;
+            s.email = "student" + i + "@email.tmt";
+            emails.add(new Emails().generateFeedbackSessionEmailBaseForStudents(c, fsa, s, template));
+        }
+        emails.add(new Emails().generateCompiledLogsEmail("logs"));
+
+        ______TS("group emails: emails with the same subject are batched together");
+
+        List<List<MimeMessage>> batches = new Emails().groupEmailsIntoBatches(emails);
+        assertEquals(2, batches.size());
+        assertEquals(emails.subList(0, 3), batches.get(0));
+        assertEquals(emails.subList(3, 4), batches.get(1));
+
+        ______TS("group emails: batches are bounded by the number of emails");
+
+        List<MimeMessage> manyEmails = new ArrayList<MimeMessage>();
+        for (int i = 0; i <= Const.SystemParams.SENDGRID_MAX_EMAILS_PER_BATCH; i++) {
+            manyEmails.add(new Emails().generateCompiledLogsEmail("logs " + i));
+        }
+        batches = new Emails().groupEmailsIntoBatches(manyEmails);
+        assertEquals(2, batches.size());
+        assertEquals(Const.SystemParams.SENDGRID_MAX_EMAILS_PER_BATCH, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+
+        ______TS("group emails: batches are bounded by the size of their encoded task payload");
+
+        // each '<' takes 3 bytes once form-encoded, so each email takes about 30KB of the task payload
+        StringBuilder largeLogs = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            largeLogs.append('<');
+        }
+        List<MimeMessage> largeEmails = new ArrayList<MimeMessage>();
+        for (int i = 0; i < 7; i++) {
+            largeEmails.add(new Emails().generateCompiledLogsEmail(largeLogs.toString()));
+        }
+        batches = new Emails().groupEmailsIntoBatches(largeEmails);
+        assertEquals(3, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(3, batches.get(1).size());
+        assertEquals(1, batches.get(2).size());
+
+        ______TS("parse batch: the differing parts of the contents are substitution values");
+
+        List<MimeMessage> batch = emails.subList(0, 3);
+        Sendgrid sendgridEmail = new Emails().parseMimeMessagesToSendgrid(batch);
+        JSONArray htmlValues = sendgridEmail.getSubstitutions().getJSONArray(Emails.BATCH_HTML_SUBSTITUTION_TAG);
+        assertEquals(3, sendgridEmail.getTos().size());
+        assertEquals(3, htmlValues.length());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(batch.get(i).getAllRecipients()[0].toString(), sendgridEmail.getTos().get(i));
+            assertEquals(batch.get(i).getContent().toString(),
+                         sendgridEmail.getHtml().replace(Emails.BATCH_HTML_SUBSTITUTION_TAG,
+                                                         htmlValues.getString(i)));
+            assertTrue(htmlValues.getString(i).length() < batch.get(i).getContent().toString().length());
+        }
+        assertEquals(emails.get(0).getSubject(), sendgridEmail.getSubject());
+        assertEquals(emails.get(0).getReplyTo()[0].toString(), sendgridEmail.getReplyTo());
+
+        ______TS("send batch: one call to a local Sendgrid server");
+
+        final List<String> requestBodies = new ArrayList<String>();
+        final int[] responseCode = { HttpURLConnection.HTTP_OK };
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/mail.send.json", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                Scanner scanner = new Scanner(exchange.getRequestBody(), "UTF-8").useDelimiter("\\A");
+                requestBodies.add(scanner.hasNext() ? scanner.next() : "");
+                byte[] response = "{\"message\":\"success\"}".getBytes("UTF-8");
+                exchange.sendResponseHeaders(responseCode[0], response.length);
+                exchange.getResponseBody().write(response);
+                exchange.close();
+            }
+        });
+        server.start();
+        String stubDomain = "http://localhost:" + server.getAddress().getPort() + "/";
+
+        try {
+            sendgridEmail.setDomain(stubDomain).send();
+            assertEquals("success", sendgridEmail.getServerResponse());
+            assertEquals(1, requestBodies.size());
+
+            String smtpApiHeader = null;
+            for (String param : requestBodies.get(0).split("&")) {
+                if (param.startsWith("x-smtpapi=")) {
+                    smtpApiHeader = URLDecoder.decode(param.substring("x-smtpapi=".length()), "UTF-8");
+                }
+            }
+            JSONObject smtpApi = new JSONObject(smtpApiHeader);
+            assertEquals(3, smtpApi.getJSONArray("to").length());
+            assertEquals(3, smtpApi.getJSONObject("sub").getJSONArray(Emails.BATCH_TEXT_SUBSTITUTION_TAG).length());
+
+            ______TS("send batch: failure of the server is reported");
+
+            responseCode[0] = HttpURLConnection.HTTP_INTERNAL_ERROR;
+            sendgridEmail = new Emails().parseMimeMessagesToSendgrid(batch);
+            sendgridEmail.setDomain(stubDomain).send();
+            assertFalse("success".equals(sendgridEmail.getServerResponse()));
+            assertEquals(2, requestBodies.size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
     private void testEmailAttributes(MimeMessage email, Sendgrid sendgridEmail) throws MessagingException,
                                     IOException {
         // check receiver
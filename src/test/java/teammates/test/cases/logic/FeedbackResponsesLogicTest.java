@@ -21,6 +21,7 @@ import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
@@ -31,7 +32,9 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.logic.core.InstructorsLogic;
 import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
 import teammates.test.cases.BaseComponentTestCase;
@@ -61,9 +64,11 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         testIsNameVisibleTo();
         testGetViewableResponsesForQuestionInSection();
         testUpdateFeedbackResponse();
+        testSaveFeedbackResponses();
         testUpdateFeedbackResponsesForChangingTeam();
         testUpdateFeedbackResponsesForChangingEmail();
         testDeleteFeedbackResponsesForStudent();
+        testResponsesFromSnapshot();
         testSpecialCharactersInTeamName();
         testDeleteFeedbackResponsesForCourse();
     }
@@ -226,6 +231,92 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         }
     }
     
+    public void testSaveFeedbackResponses() throws Exception {
+        
+        ______TS("success: create, update and delete in one batch");
+        
+        FeedbackResponseAttributes responseToUpdate = getResponseFromDatastore("response1ForQ1S1C1");
+        FeedbackResponseAttributes responseToDelete = getResponseFromDatastore("response2ForQ1S1C1");
+        
+        FeedbackResponseAttributes responseToCreate = 
+                new FeedbackResponseAttributes(
+                        responseToUpdate.feedbackSessionName, 
+                        responseToUpdate.courseId, 
+                        responseToUpdate.feedbackQuestionId, 
+                        responseToUpdate.feedbackQuestionType, 
+                        "student3InCourse1@gmail.tmt",
+                        responseToUpdate.giverSection,
+                        "student3InCourse1@gmail.tmt",
+                        responseToUpdate.recipientSection,
+                        new Text("New response in batch"));
+        responseToUpdate.responseMetaData = new Text("Updated response in batch");
+        
+        List<FeedbackResponseAttributes> responsesToSave = new ArrayList<FeedbackResponseAttributes>();
+        responsesToSave.add(responseToUpdate);
+        responsesToSave.add(responseToCreate);
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        responsesToDelete.add(responseToDelete);
+        
+        frLogic.saveFeedbackResponses(responsesToSave, responsesToDelete);
+        
+        assertEquals(responseToUpdate.toString(),
+                     frLogic.getFeedbackResponse(responseToUpdate.getId()).toString());
+        FeedbackResponseAttributes createdResponse = frLogic.getFeedbackResponse(
+                responseToCreate.feedbackQuestionId, responseToCreate.giverEmail, responseToCreate.recipientEmail);
+        assertEquals("New response in batch", createdResponse.responseMetaData.getValue());
+        assertNull(frLogic.getFeedbackResponse(responseToDelete.getId()));
+        
+        ______TS("success: new response for an existing recipient updates the existing response");
+        
+        FeedbackResponseAttributes responseWithoutId = new FeedbackResponseAttributes(createdResponse);
+        responseWithoutId.setId(null);
+        responseWithoutId.responseMetaData = new Text("Updated response without id");
+        responsesToSave.clear();
+        responsesToSave.add(responseWithoutId);
+        
+        frLogic.saveFeedbackResponses(responsesToSave, new ArrayList<FeedbackResponseAttributes>());
+        
+        assertEquals("Updated response without id",
+                     frLogic.getFeedbackResponse(createdResponse.getId()).responseMetaData.getValue());
+        
+        ______TS("failure: recipient changed to one that already exists, nothing saved");
+        
+        FeedbackResponseAttributes responseToRecreate = getResponseFromDatastore("response1ForQ1S1C1");
+        responseToRecreate.giverEmail = "student3InCourse1@gmail.tmt";
+        responseToRecreate.recipientEmail = "student3InCourse1@gmail.tmt";
+        responseToUpdate = frLogic.getFeedbackResponse(createdResponse.getId());
+        responseToUpdate.responseMetaData = new Text("Should not be saved");
+        responsesToSave.clear();
+        responsesToSave.add(responseToUpdate);
+        responsesToSave.add(responseToRecreate);
+        
+        try {
+            frLogic.saveFeedbackResponses(responsesToSave, new ArrayList<FeedbackResponseAttributes>());
+            signalFailureToDetectException("Should have detected that same giver->recipient response alr exists");
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains(
+                    "Error trying to update recipient for response, as another response with the same recipient already exists.", 
+                    e.getMessage());
+        }
+        assertEquals("Updated response without id",
+                     frLogic.getFeedbackResponse(createdResponse.getId()).responseMetaData.getValue());
+        
+        ______TS("failure: no such response");
+        
+        responseToUpdate.setId("invalidId");
+        responsesToSave.clear();
+        responsesToSave.add(responseToUpdate);
+        
+        try {
+            frLogic.saveFeedbackResponses(responsesToSave, new ArrayList<FeedbackResponseAttributes>());
+            signalFailureToDetectException("Should have detected that this response does not exist");
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains(
+                    "Trying to update a feedback response that does not exist.", 
+                    e.getMessage());
+        }
+    }
+    
     public void testUpdateFeedbackResponsesForChangingTeam() throws Exception {
         
         ______TS("standard update team case");
@@ -527,6 +618,80 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         assertEquals(remainingResponses.size(),0);    
     }
     
+    public void testResponsesFromSnapshot() throws Exception {
+        
+        String courseId = "idOfTypicalCourse1";
+        String sessionName = "First feedback session";
+        FeedbackSessionResultsSnapshotsDb snapshotsDb = new FeedbackSessionResultsSnapshotsDb();
+        
+        ______TS("snapshot rebuilt from the responses of the session");
+        
+        // the first read starts tracking writes to the session, and a later read rebuilds the snapshot
+        List<FeedbackResponseAttributes> queriedResponses =
+                frLogic.getFeedbackResponsesForSessionFromSnapshot(sessionName, courseId);
+        FeedbackSessionResultsSnapshotAttributes snapshot = snapshotsDb.getSnapshot(sessionName, courseId);
+        assertFalse(snapshot.isUpToDate());
+        assertTrue(snapshotsDb.saveRebuiltSnapshot(
+                new FeedbackSessionResultsSnapshotAttributes(sessionName, courseId, queriedResponses),
+                snapshot.updatedAt));
+        
+        ______TS("snapshot kept up to date by batched writes");
+        
+        InstructorAttributes instructor = typicalBundle.instructors.get("instructor1OfCourse1");
+        frLogic.updateFeedbackResponsesForChangingEmail(courseId, instructor.email, "new@email.tmt");
+        frLogic.updateFeedbackResponsesForChangingEmail(courseId, "new@email.tmt", instructor.email);
+        frLogic.deleteFeedbackResponsesForQuestionAndCascade(getQuestionFromDatastore("qn1InSession1InCourse1").getId(),
+                                                            true);
+        
+        assertTrue(snapshotsDb.getSnapshot(sessionName, courseId).isUpToDate());
+        
+        ______TS("responses filtered from the snapshot match the queried responses");
+        
+        List<FeedbackResponseAttributes> snapshotResponses =
+                frLogic.getFeedbackResponsesForSessionFromSnapshot(sessionName, courseId);
+        List<FeedbackResponseAttributes> sessionResponses = frLogic.getFeedbackResponsesForSession(sessionName, courseId);
+        FeedbackResponseAttributes.sortFeedbackResponses(sessionResponses);
+        assertEquals(snapshotResponses.toString(), sessionResponses.toString());
+        
+        List<StudentAttributes> students = StudentsLogic.inst().getStudentsForCourse(courseId);
+        List<InstructorAttributes> instructors = InstructorsLogic.inst().getInstructorsForCourse(courseId);
+        CourseRoster roster = new CourseRoster(students, instructors);
+        
+        for (FeedbackQuestionAttributes question : fqLogic.getFeedbackQuestionsForSession(sessionName, courseId)) {
+            List<FeedbackResponseAttributes> responsesForQuestion = new ArrayList<FeedbackResponseAttributes>();
+            for (FeedbackResponseAttributes response : snapshotResponses) {
+                if (response.feedbackQuestionId.equals(question.getId())) {
+                    responsesForQuestion.add(response);
+                }
+            }
+            
+            for (StudentAttributes student : students) {
+                assertSameResponses(
+                        frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                                question, student.email, Role.STUDENT, null),
+                        frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                                question, student.email, Role.STUDENT, null, responsesForQuestion, roster));
+            }
+            for (InstructorAttributes instructorInCourse : instructors) {
+                assertSameResponses(
+                        frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                                question, instructorInCourse.email, Role.INSTRUCTOR, null),
+                        frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                                question, instructorInCourse.email, Role.INSTRUCTOR, null,
+                                responsesForQuestion, roster));
+            }
+        }
+    }
+    
+    private void assertSameResponses(List<FeedbackResponseAttributes> expected,
+                                     List<FeedbackResponseAttributes> actual) {
+        List<FeedbackResponseAttributes> sortedExpected = new ArrayList<FeedbackResponseAttributes>(expected);
+        FeedbackResponseAttributes.sortFeedbackResponses(sortedExpected);
+        List<FeedbackResponseAttributes> sortedActual = new ArrayList<FeedbackResponseAttributes>(actual);
+        FeedbackResponseAttributes.sortFeedbackResponses(sortedActual);
+        assertEquals(sortedActual.toString(), sortedExpected.toString());
+    }
+    
     public void testDeleteFeedbackResponsesForCourse() {
         ______TS("standard delete");
         
@@ -0,0 +1,83 @@
+package teammates.test.cases.logic;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.logic.core.FeedbackResponseCommentsLogic;
+import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.logic.core.FeedbackSessionResultsCache;
+import teammates.storage.cache.SharedCache;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.datastore.Text;
+
+public class FeedbackSessionResultsCacheTest extends BaseComponentTestCase {
+
+    private static final String SESSION_NAME = "First feedback session";
+    private static final String COURSE_ID = "idOfTypicalCourse1";
+
+    private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
+    private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
+
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+        gaeSimulation.resetSharedCache();
+    }
+
+    @Test
+    public void testGetEntry() throws Exception {
+
+        // the results can be cached once writes to the responses are tracked
+        FeedbackSessionResultsCache.getEntry(SESSION_NAME, COURSE_ID, "panels", String.class);
+
+        ______TS("entries are read for unchanged results");
+
+        SharedCache.Entry<String> entry =
+                FeedbackSessionResultsCache.getEntry(SESSION_NAME, COURSE_ID, "panels", String.class);
+        assertNotNull(entry);
+        assertFalse(entry.hasValue());
+        entry.setValue("rendered panels");
+
+        entry = FeedbackSessionResultsCache.getEntry(SESSION_NAME, COURSE_ID, "panels", String.class);
+        assertTrue(entry.hasValue());
+        assertEquals("rendered panels", entry.getValue());
+        assertFalse(FeedbackSessionResultsCache.getEntry(SESSION_NAME, COURSE_ID, "other panels", String.class)
+                                               .hasValue());
+
+        ______TS("a changed response is not read from the entries set before the change");
+
+        FeedbackResponseAttributes response = frLogic.getFeedbackResponsesForSession(SESSION_NAME, COURSE_ID).get(0);
+        response.responseMetaData = new Text("Updated answer");
+        frLogic.updateFeedbackResponse(response);
+
+        entry = FeedbackSessionResultsCache.getEntry(SESSION_NAME, COURSE_ID, "panels", String.class);
+        assertFalse(entry.hasValue());
+        entry.setValue("rendered panels");
+
+        ______TS("a changed comment invalidates the entries of the course");
+
+        FeedbackResponseCommentAttributes comment =
+                frcLogic.getFeedbackResponseCommentForSession(COURSE_ID, SESSION_NAME).get(0);
+        frcLogic.deleteFeedbackResponseComment(comment);
+
+        assertFalse(FeedbackSessionResultsCache.getEntry(SESSION_NAME, COURSE_ID, "panels", String.class)
+                                               .hasValue());
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        gaeSimulation.resetSharedCache();
+        printTestClassFooter();
+    }
+
+}
@@ -3,9 +3,12 @@ package teammates.test.cases.logic;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNotSame;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
 import static org.testng.AssertJUnit.assertTrue;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -13,7 +16,10 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
+import javax.jdo.PersistenceManager;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 
@@ -29,6 +35,7 @@ import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
@@ -50,9 +57,11 @@ import teammates.logic.automated.FeedbackSessionPublishedMailAction;
 import teammates.logic.backdoor.BackDoorLogic;
 import teammates.logic.core.Emails;
 import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.Emails.EmailType;
+import teammates.storage.datastore.Datastore;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -62,6 +71,7 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
     private static FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
     private static FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
     private static FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
+    private static FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
     private DataBundle dataBundle = getTypicalDataBundle();
     
     
@@ -85,6 +95,7 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         testGetFeedbackSessionQuestionsForStudent();
         testGetFeedbackSessionQuestionsForInstructor();
         testGetFeedbackSessionResultsForUser();
+        testGetResponseCommentsInRequestThread();
         testGetFeedbackSessionResultsSummaryAsCsv();
         testIsFeedbackSessionViewableToStudents();
         
@@ -1079,6 +1090,37 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         AssertHelper.assertContains(expectedStrings, mapString);
         assertEquals(2, results.visibilityTable.size());
         
+        ______TS("views of the responses are built once, without reordering the responses");
+        
+        List<FeedbackResponseAttributes> responsesInOriginalOrder =
+                new ArrayList<FeedbackResponseAttributes>(results.responses);
+        Map<String, Map<String, List<FeedbackResponseAttributes>>> responsesByGiver =
+                results.getResponsesSortedByGiver(true);
+        results.getResponsesSortedByRecipientQuestionGiver(true);
+        assertSame(responsesByGiver, results.getResponsesSortedByGiver(true));
+        assertEquals(responsesInOriginalOrder, results.responses);
+        
+        ______TS("views of the responses are shared, so they cannot be modified");
+        
+        try {
+            responsesByGiver.clear();
+            signalFailureToDetectException();
+        } catch (UnsupportedOperationException e) {
+            // the view is unmodifiable
+        }
+        try {
+            responsesByGiver.values().iterator().next().values().iterator().next().clear();
+            signalFailureToDetectException();
+        } catch (UnsupportedOperationException e) {
+            // the lists of the view are unmodifiable too
+        }
+        
+        ______TS("views of the responses are rebuilt when the responses are replaced");
+        
+        results.responses = new ArrayList<FeedbackResponseAttributes>();
+        assertNotSame(responsesByGiver, results.getResponsesSortedByGiver(true));
+        assertTrue(results.getResponsesSortedByGiver(true).isEmpty());
+        
         ______TS("failure: no session");
                 
         try {
@@ -1092,6 +1134,52 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
     }
     
     
+    public void testGetResponseCommentsInRequestThread() throws Exception {
+        
+        ______TS("response comments loaded in a request thread");
+        
+        final FeedbackSessionAttributes session = dataBundle.feedbackSessions.get("session1InCourse1");
+        final List<PersistenceManager> taskPms = new ArrayList<PersistenceManager>();
+        PersistenceManager callerPm = Datastore.getPersistenceManager();
+        
+        Future<List<FeedbackResponseCommentAttributes>> commentsFuture = ThreadHelper.startInRequestThread(
+                new Callable<List<FeedbackResponseCommentAttributes>>() {
+                    @Override
+                    public List<FeedbackResponseCommentAttributes> call() {
+                        taskPms.add(Datastore.getPersistenceManager());
+                        return frcLogic.getFeedbackResponseCommentForSession(session.courseId,
+                                                                             session.feedbackSessionName);
+                    }
+                });
+        List<FeedbackResponseCommentAttributes> comments = ThreadHelper.getResult(commentsFuture);
+        
+        assertEquals(3, comments.size());
+        assertEquals(frcLogic.getFeedbackResponseCommentForSession(session.courseId,
+                                                                   session.feedbackSessionName).toString(),
+                     comments.toString());
+        
+        ______TS("persistence manager of the request thread is released");
+        
+        // the task runs in the calling thread, with its persistence manager, where threads cannot be created
+        if (taskPms.get(0) == callerPm) {
+            assertFalse(callerPm.isClosed());
+        } else {
+            assertTrue(taskPms.get(0).isClosed());
+            assertFalse(callerPm.isClosed());
+        }
+        
+        ______TS("results include the comments loaded in a request thread");
+        
+        InstructorAttributes instructor = dataBundle.instructors.get("instructor1OfCourse1");
+        FeedbackSessionResultsBundle results = fsLogic.getFeedbackSessionResultsForInstructor(
+                session.feedbackSessionName, session.courseId, instructor.email);
+        int numOfCommentsInResults = 0;
+        for (List<FeedbackResponseCommentAttributes> commentsForResponse : results.responseComments.values()) {
+            numOfCommentsInResults += commentsForResponse.size();
+        }
+        assertEquals(comments.size(), numOfCommentsInResults);
+    }
+    
     public void testGetFeedbackSessionResultsSummaryAsCsv() throws Exception {
 
         ______TS("typical case");
@@ -2085,6 +2173,22 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         };
         
         assertEquals(StringUtils.join(expected, Const.EOL), export);        
+        
+        ______TS("streamed export is the same as the export built in memory");
+        
+        StringWriter writer = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.feedbackSessionName, session.courseId, instructor.email, null, writer);
+        assertEquals(export, writer.toString());
+        
+        session = newDataBundle.feedbackSessions.get("contribSessionInstructorSectionRestricted");
+        instructor = newDataBundle.instructors.get("instructor1OfCourseWithSections");
+        writer = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.feedbackSessionName, session.courseId, instructor.email, "Section 2", writer);
+        assertEquals(fsLogic.getFeedbackSessionResultsSummaryInSectionAsCsv(
+                             session.feedbackSessionName, session.courseId, instructor.email, "Section 2"),
+                     writer.toString());
        
         ______TS("Non-existent Course/Session");
         
@@ -2094,6 +2198,14 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         } catch (EntityDoesNotExistException e) {
             assertEquals(e.getMessage(), "Trying to view non-existent feedback session.");
         }
+        
+        try {
+            fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv("non.existent", "no course", instructor.email,
+                                                                     null, new StringWriter());
+            signalFailureToDetectException("Failed to detect non-existent feedback session.");
+        } catch (EntityDoesNotExistException e) {
+            assertEquals(e.getMessage(), "Trying to view non-existent feedback session.");
+        }
     }
 
     public void testIsFeedbackSessionViewableToStudents() throws EntityDoesNotExistException {
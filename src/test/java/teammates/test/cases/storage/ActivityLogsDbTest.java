@@ -0,0 +1,107 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.ActivityLogEntry;
+import teammates.storage.api.ActivityLogsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class ActivityLogsDbTest extends BaseComponentTestCase {
+
+    private static final ActivityLogsDb activityLogsDb = new ActivityLogsDb();
+
+    private static final long ONE_DAY = 24L * 60 * 60 * 1000;
+    // the entries are logged on the first days after the epoch, so that they are not mixed with other entries
+    private static final long LOG_TIME = 60 * 1000;
+    private static final int LIMIT = 100;
+    private static final long TIME_BUDGET = 60 * 1000;
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testActivityLogs() throws Exception {
+
+        activityLogsDb.createActivityLog(getLogMessage("instructorHomePage", "Instructor", "Instr Name",
+                                                       "instr.id", "instr@email.tmt"), LOG_TIME).get();
+        activityLogsDb.createActivityLog(getLogMessage("studentHomePage", "Student", "Stud Name",
+                                                       "stud.id", "stud@email.tmt"), LOG_TIME + ONE_DAY).get();
+        activityLogsDb.createActivityLog(getLogMessage("instructorCoursesPage", "Instructor(M)", "Instr Name",
+                                                       "instr.id", "instr@email.tmt"), LOG_TIME + 2 * ONE_DAY).get();
+
+        ______TS("person: matches the name, google ID or email, across days, latest first");
+
+        List<ActivityLogEntry> entries = activityLogsDb.getActivityLogsForPerson("instr.id", 0, 3 * ONE_DAY, LIMIT);
+        assertEquals(2, entries.size());
+        assertEquals("instructorCoursesPage", entries.get(0).getServletName());
+        assertEquals(LOG_TIME + 2 * ONE_DAY, entries.get(0).getTime());
+        assertEquals("instructorHomePage", entries.get(1).getServletName());
+
+        assertEquals(2, activityLogsDb.getActivityLogsForPerson("instr name", 0, 3 * ONE_DAY, LIMIT).size());
+        assertEquals(1, activityLogsDb.getActivityLogsForPerson("stud@email.tmt", 0, 3 * ONE_DAY, LIMIT).size());
+        assertTrue(activityLogsDb.getActivityLogsForPerson("instr", 0, 3 * ONE_DAY, LIMIT).isEmpty());
+
+        ______TS("time: from is inclusive and to is exclusive");
+
+        entries = activityLogsDb.getActivityLogsForPerson("instr.id", LOG_TIME, LOG_TIME + 2 * ONE_DAY, LIMIT);
+        assertEquals(1, entries.size());
+        assertEquals("instructorHomePage", entries.get(0).getServletName());
+        assertTrue(activityLogsDb.getActivityLogsForPerson("instr.id", LOG_TIME + 1, LOG_TIME + 2 * ONE_DAY, LIMIT)
+                                 .isEmpty());
+
+        ______TS("servlet names and roles");
+
+        entries = activityLogsDb.getActivityLogsForServletNames(
+                Arrays.asList("studenthomepage", "instructorhomepage"), 0, 3 * ONE_DAY, LIMIT);
+        assertEquals(2, entries.size());
+        assertEquals("studentHomePage", entries.get(0).getServletName());
+        assertEquals("instructorHomePage", entries.get(1).getServletName());
+
+        entries = activityLogsDb.getActivityLogsForRoles(Arrays.asList("instructor(m)"), 0, 3 * ONE_DAY, LIMIT);
+        assertEquals(1, entries.size());
+        assertEquals("Instructor(M)", entries.get(0).getRole());
+
+        ______TS("limit: the entries of the latest days are read first");
+
+        entries = activityLogsDb.getActivityLogsForPerson("instr.id", 0, 3 * ONE_DAY, 1);
+        assertEquals(1, entries.size());
+        assertEquals("instructorCoursesPage", entries.get(0).getServletName());
+
+        ______TS("delete: the entries of the days before the given time");
+
+        assertEquals(2, activityLogsDb.deleteActivityLogsBefore(LOG_TIME + 2 * ONE_DAY, TIME_BUDGET));
+        entries = activityLogsDb.getActivityLogsForPerson("instr.id", 0, 3 * ONE_DAY, LIMIT);
+        assertEquals(1, entries.size());
+        assertEquals("instructorCoursesPage", entries.get(0).getServletName());
+        assertTrue(activityLogsDb.getActivityLogsForPerson("stud.id", 0, 3 * ONE_DAY, LIMIT).isEmpty());
+
+        ______TS("delete: stops once the time budget has passed");
+
+        assertEquals(0, activityLogsDb.deleteActivityLogsBefore(LOG_TIME + 3 * ONE_DAY, 0));
+        assertEquals(1, activityLogsDb.getActivityLogsForPerson("instr.id", 0, 3 * ONE_DAY, LIMIT).size());
+
+        assertEquals(1, activityLogsDb.deleteActivityLogsBefore(LOG_TIME + 3 * ONE_DAY, TIME_BUDGET));
+        assertTrue(activityLogsDb.getActivityLogsForPerson("instr.id", 0, 3 * ONE_DAY, LIMIT).isEmpty());
+    }
+
+    private String getLogMessage(String servletName, String role, String name, String googleId, String email) {
+        return "TEAMMATESLOG|||" + servletName + "|||" + servletName + "|||true|||" + role + "|||" + name
+               + "|||" + googleId + "|||" + email + "|||Message|||/page/" + servletName + "|||"
+               + googleId + "%19700101000000000|||100";
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+    }
+}
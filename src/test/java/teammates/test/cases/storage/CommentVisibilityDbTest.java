@@ -0,0 +1,120 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CommentParticipantType;
+import teammates.storage.api.CommentVisibilityDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class CommentVisibilityDbTest extends BaseComponentTestCase {
+
+    private static final CommentVisibilityDb commentVisibilityDb = new CommentVisibilityDb();
+    private static final String COURSE_ID = "testCourse";
+
+    private static final String STUDENT_KEY =
+            CommentVisibilityDb.getViewerKey(CommentParticipantType.PERSON, "s1@email.tmt");
+    private static final String TEAM_KEY = CommentVisibilityDb.getViewerKey(CommentParticipantType.TEAM, "Team 1");
+    private static final String COURSE_KEY = CommentVisibilityDb.getViewerKey(CommentParticipantType.COURSE, COURSE_ID);
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+        turnLoggingUp(CommentVisibilityDb.class);
+    }
+
+    @Test
+    public void testCommentVisibilityLifecycle() throws Exception {
+
+        ______TS("no index: an invalidated index is created");
+
+        Date invalidatedAt = commentVisibilityDb.getInvalidatedAt(COURSE_ID);
+        assertNotNull(invalidatedAt);
+
+        ______TS("set viewer keys: the index is invalidated again while it is out of date");
+
+        commentVisibilityDb.setViewerKeys(COURSE_ID, 1L, asSet(STUDENT_KEY));
+        Date reinvalidatedAt = commentVisibilityDb.getInvalidatedAt(COURSE_ID);
+        assertNotNull(reinvalidatedAt);
+        assertTrue(!reinvalidatedAt.before(invalidatedAt));
+
+        ______TS("rebuild: an out of date rebuild does not rewrite the index");
+
+        Map<Long, Set<String>> rebuiltIndex = new HashMap<Long, Set<String>>();
+        rebuiltIndex.put(1L, asSet(STUDENT_KEY, TEAM_KEY));
+        rebuiltIndex.put(2L, asSet(TEAM_KEY, COURSE_KEY));
+        rebuiltIndex.put(3L, new HashSet<String>());
+
+        assertFalse(commentVisibilityDb.saveRebuiltIndex(COURSE_ID, rebuiltIndex,
+                                                         new Date(reinvalidatedAt.getTime() - 1)));
+        assertNotNull(commentVisibilityDb.getInvalidatedAt(COURSE_ID));
+        assertTrue(getViewerKeysForStudent().isEmpty());
+
+        ______TS("rebuild: success");
+
+        assertTrue(commentVisibilityDb.saveRebuiltIndex(COURSE_ID, rebuiltIndex, reinvalidatedAt));
+        assertNull(commentVisibilityDb.getInvalidatedAt(COURSE_ID));
+
+        Map<Long, Set<String>> viewerKeys = getViewerKeysForStudent();
+        assertEquals(2, viewerKeys.size());
+        assertEquals(asSet(STUDENT_KEY, TEAM_KEY), viewerKeys.get(1L));
+        assertEquals(asSet(TEAM_KEY, COURSE_KEY), viewerKeys.get(2L));
+
+        ______TS("set viewer keys: replaces the keys of the comment");
+
+        commentVisibilityDb.setViewerKeys(COURSE_ID, 1L, asSet(COURSE_KEY));
+        commentVisibilityDb.setViewerKeys(COURSE_ID, 2L, new HashSet<String>());
+        commentVisibilityDb.setViewerKeys(COURSE_ID, 3L, asSet(TEAM_KEY));
+
+        viewerKeys = getViewerKeysForStudent();
+        assertEquals(2, viewerKeys.size());
+        assertEquals(asSet(COURSE_KEY), viewerKeys.get(1L));
+        assertEquals(asSet(TEAM_KEY), viewerKeys.get(3L));
+
+        ______TS("delete viewer keys for comment");
+
+        commentVisibilityDb.deleteViewerKeysForComment(3L);
+        commentVisibilityDb.deleteViewerKeysForComment(4L);
+        viewerKeys = getViewerKeysForStudent();
+        assertEquals(1, viewerKeys.size());
+        assertEquals(asSet(COURSE_KEY), viewerKeys.get(1L));
+
+        ______TS("delete indexes for courses");
+
+        commentVisibilityDb.deleteIndexesForCourses(Arrays.asList(COURSE_ID));
+        invalidatedAt = commentVisibilityDb.getInvalidatedAt(COURSE_ID);
+        assertTrue(commentVisibilityDb.saveRebuiltIndex(COURSE_ID, new HashMap<Long, Set<String>>(),
+                                                        invalidatedAt));
+        assertTrue(getViewerKeysForStudent().isEmpty());
+    }
+
+    private Map<Long, Set<String>> getViewerKeysForStudent() {
+        List<String> studentViewerKeys = Arrays.asList(STUDENT_KEY, TEAM_KEY, COURSE_KEY);
+        return commentVisibilityDb.getViewerKeysForViewer(COURSE_ID, studentViewerKeys);
+    }
+
+    private Set<String> asSet(String... viewerKeys) {
+        return new HashSet<String>(Arrays.asList(viewerKeys));
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+        commentVisibilityDb.deleteIndexesForCourses(Arrays.asList(COURSE_ID));
+    }
+}
@@ -0,0 +1,104 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseStatisticsAttributes;
+import teammates.common.datatransfer.CourseStats;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.storage.api.CourseStatisticsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class CourseStatisticsDbTest extends BaseComponentTestCase {
+
+    private static final CourseStatisticsDb courseStatisticsDb = new CourseStatisticsDb();
+    private static final String COURSE_ID = "testCourse";
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+        turnLoggingUp(CourseStatisticsDb.class);
+    }
+
+    @Test
+    public void testCourseStatisticsLifecycle() throws Exception {
+
+        ______TS("rebuild");
+
+        courseStatisticsDb.invalidateCourseStatistics(COURSE_ID);
+        CourseStatisticsAttributes statistics = courseStatisticsDb.getCourseStatistics(COURSE_ID);
+        assertFalse(statistics.isUpToDate());
+
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        students.add(getStudent("s1", "Section 1", "Team 1", null));
+        students.add(getStudent("s2", "Section 1", "Team 1", "s2.google"));
+        students.add(getStudent("s3", Const.DEFAULT_SECTION, "Team 2", "s3.google"));
+        CourseStatisticsAttributes rebuiltStatistics = new CourseStatisticsAttributes(COURSE_ID, students);
+
+        assertTrue(courseStatisticsDb.saveRebuiltCourseStatistics(rebuiltStatistics, statistics.updatedAt));
+        verifyCourseStats(1, 2, 3, 1);
+
+        ______TS("update: a student moves to a new team in a new section and registers");
+
+        courseStatisticsDb.updateCourseStatistics(COURSE_ID,
+                                                  Arrays.asList(getStudent("s1", "Section 1", "Team 1", null)),
+                                                  Arrays.asList(getStudent("s1", "Section 2", "Team 3", "s1.google")));
+        verifyCourseStats(2, 3, 3, 0);
+
+        ______TS("update: the last student of a team and a section is deleted");
+
+        courseStatisticsDb.updateCourseStatistics(COURSE_ID,
+                                                  Arrays.asList(getStudent("s1", "Section 2", "Team 3", "s1.google")),
+                                                  Collections.<StudentAttributes>emptyList());
+        verifyCourseStats(1, 2, 2, 0);
+
+        ______TS("batch get: courses without statistics are omitted");
+
+        List<CourseStatisticsAttributes> statisticsList = courseStatisticsDb.getCourseStatisticsForCourses(
+                Arrays.asList(COURSE_ID, "non-existent-course"));
+        assertEquals(1, statisticsList.size());
+        assertEquals(COURSE_ID, statisticsList.get(0).courseId);
+        assertEquals(2, statisticsList.get(0).getCourseStats().studentsTotal);
+        assertTrue(courseStatisticsDb.getCourseStatisticsForCourses(new ArrayList<String>()).isEmpty());
+
+        ______TS("delete");
+
+        courseStatisticsDb.deleteCourseStatisticsForCourses(Arrays.asList(COURSE_ID));
+        assertNull(courseStatisticsDb.getCourseStatistics(COURSE_ID));
+    }
+
+    private void verifyCourseStats(int sectionsTotal, int teamsTotal, int studentsTotal, int unregisteredTotal) {
+        CourseStatisticsAttributes statistics = courseStatisticsDb.getCourseStatistics(COURSE_ID);
+        assertTrue(statistics.isUpToDate());
+
+        CourseStats stats = statistics.getCourseStats();
+        assertEquals(sectionsTotal, stats.sectionsTotal);
+        assertEquals(teamsTotal, stats.teamsTotal);
+        assertEquals(studentsTotal, stats.studentsTotal);
+        assertEquals(unregisteredTotal, stats.unregisteredTotal);
+    }
+
+    private StudentAttributes getStudent(String name, String section, String team, String googleId) {
+        StudentAttributes student = new StudentAttributes(section, team, name, name + "@email.tmt", "", COURSE_ID);
+        student.googleId = googleId;
+        return student;
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+        courseStatisticsDb.deleteCourseStatisticsForCourses(Arrays.asList(COURSE_ID));
+    }
+}
@@ -0,0 +1,107 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.ErrorLogSummary;
+import teammates.common.util.Const;
+import teammates.storage.api.ErrorLogsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class ErrorLogsDbTest extends BaseComponentTestCase {
+
+    private static final ErrorLogsDb errorLogsDb = new ErrorLogsDb();
+
+    private static final long OVERLAP = Const.SystemParams.ERROR_LOG_COMPILATION_OVERLAP_IN_MILLIS;
+    private static final long COMPILED_UNTIL = 100 * OVERLAP;
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testErrorLogs() throws Exception {
+
+        ______TS("running counts: not written until the error logs are added");
+
+        ErrorLogSummary nullPointer = getErrorLog("java.lang.NullPointerException", "first message", 2,
+                                                  COMPILED_UNTIL - 3000, COMPILED_UNTIL - 2000);
+        ErrorLogSummary deadline = getErrorLog("com.google.apphosting.api.DeadlineExceededException",
+                                               "deadline message", 1, COMPILED_UNTIL - 1000, COMPILED_UNTIL - 1000);
+
+        List<ErrorLogSummary> runningCounts = errorLogsDb.getRunningCounts(Arrays.asList(nullPointer, deadline));
+        assertEquals(2, runningCounts.size());
+        assertEquals(2, runningCounts.get(0).count);
+        assertEquals(1, runningCounts.get(1).count);
+        assertNull(errorLogsDb.getCompiledUntil());
+        assertTrue(errorLogsDb.getCompiledRequestIds().isEmpty());
+
+        ______TS("add: the compilation advances and keeps the requests within the overlap");
+
+        Map<String, Long> requestEndTimes = new HashMap<String, Long>();
+        requestEndTimes.put("request1", COMPILED_UNTIL - 1000);
+        requestEndTimes.put("request0", COMPILED_UNTIL - OVERLAP - 1);
+        runningCounts = errorLogsDb.addErrorLogs(Arrays.asList(nullPointer, deadline), new Date(COMPILED_UNTIL),
+                                                 requestEndTimes);
+        assertEquals(2, runningCounts.get(0).count);
+
+        assertEquals(new Date(COMPILED_UNTIL), errorLogsDb.getCompiledUntil());
+        assertEquals(new HashSet<String>(Arrays.asList("request1")), errorLogsDb.getCompiledRequestIds());
+
+        ______TS("running counts: merged with the counts added before");
+
+        ErrorLogSummary laterNullPointer = getErrorLog("java.lang.NullPointerException", "later message", 3,
+                                                       COMPILED_UNTIL + 1000, COMPILED_UNTIL + 2000);
+        runningCounts = errorLogsDb.getRunningCounts(Arrays.asList(laterNullPointer));
+        assertEquals(1, runningCounts.size());
+        ErrorLogSummary runningCount = runningCounts.get(0);
+        assertEquals(5, runningCount.count);
+        assertEquals(new Date(COMPILED_UNTIL - 3000), runningCount.firstSeenAt);
+        assertEquals(new Date(COMPILED_UNTIL + 2000), runningCount.lastSeenAt);
+        assertEquals("later message", runningCount.sampleMessage);
+
+        ______TS("add: an earlier occurrence moves the first seen time, and keeps the later sample message");
+
+        ErrorLogSummary earlierNullPointer = getErrorLog("java.lang.NullPointerException", "earlier message", 1,
+                                                         COMPILED_UNTIL - 5000, COMPILED_UNTIL - 5000);
+        requestEndTimes = new HashMap<String, Long>();
+        requestEndTimes.put("request2", COMPILED_UNTIL + OVERLAP);
+        errorLogsDb.addErrorLogs(Arrays.asList(earlierNullPointer), new Date(COMPILED_UNTIL + OVERLAP),
+                                 requestEndTimes);
+
+        runningCount = errorLogsDb.getRunningCounts(Arrays.asList(laterNullPointer)).get(0);
+        assertEquals(6, runningCount.count);
+        assertEquals(new Date(COMPILED_UNTIL - 5000), runningCount.firstSeenAt);
+        assertEquals(new Date(COMPILED_UNTIL + 2000), runningCount.lastSeenAt);
+
+        runningCount = errorLogsDb.getRunningCounts(Arrays.asList(earlierNullPointer)).get(0);
+        assertEquals("first message", runningCount.sampleMessage);
+
+        assertEquals(new Date(COMPILED_UNTIL + OVERLAP), errorLogsDb.getCompiledUntil());
+        assertEquals(new HashSet<String>(Arrays.asList("request2")), errorLogsDb.getCompiledRequestIds());
+    }
+
+    private ErrorLogSummary getErrorLog(String errorType, String message, long count,
+                                        long firstSeenAt, long lastSeenAt) {
+        return new ErrorLogSummary(errorType, "teammates.logic.SomeClass.someMethod(SomeClass.java:1)", message,
+                                   count, new Date(firstSeenAt), new Date(lastSeenAt));
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+    }
+}
@@ -5,6 +5,7 @@ import static org.testng.AssertJUnit.assertNull;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -190,11 +191,33 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         
         assertEquals(3, responses.size());
 
+        ______TS("responses between the default section and the section are kept");
+
+        int numOfResponsesFromDefaultSection = 0;
+        for (FeedbackResponseAttributes response : responses) {
+            assertEquals("Section 1", response.recipientSection);
+            if (response.giverSection.equals(Const.DEFAULT_SECTION)) {
+                numOfResponsesFromDefaultSection++;
+            }
+        }
+        assertEquals(1, numOfResponsesFromDefaultSection);
+
         ______TS("No responses as they are filtered out");
 
+        // the only response in Section 2 is given from Section 1, so it is filtered out after the query
         responses = frDb.getFeedbackResponsesForQuestionInSection(questionId, "Section 2");
         
         assertEquals(0, responses.size());
+
+        ______TS("default section");
+
+        responses = frDb.getFeedbackResponsesForQuestionInSection(questionId, Const.DEFAULT_SECTION);
+
+        assertEquals(3, responses.size());
+        for (FeedbackResponseAttributes response : responses) {
+            assertEquals(Const.DEFAULT_SECTION, response.giverSection);
+            assertEquals(Const.DEFAULT_SECTION, response.recipientSection);
+        }
         
         ______TS("null params");
         
@@ -571,6 +594,32 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         List<FeedbackResponseAttributes> responses = frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, "Section 1");
         
         assertEquals(5, responses.size());
+
+        ______TS("responses with the giver and recipient in the section are returned once");
+
+        Set<String> responseIds = new HashSet<String>();
+        for (FeedbackResponseAttributes response : responses) {
+            assertTrue(responseIds.add(response.getId()));
+        }
+
+        ______TS("responses with either the giver or the recipient in the section");
+
+        String secondSessionName = fras.get("response1ForQ1S2C1").feedbackSessionName;
+
+        assertEquals(3, frDb.getFeedbackResponsesForSessionInSection(secondSessionName, courseId, "Section 1").size());
+        
+        responses = frDb.getFeedbackResponsesForSessionInSection(secondSessionName, courseId, "Section 2");
+        
+        assertEquals(1, responses.size());
+        assertEquals("Section 1", responses.get(0).giverSection);
+        assertEquals("Section 2", responses.get(0).recipientSection);
+
+        ______TS("default section");
+
+        responses = frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, Const.DEFAULT_SECTION);
+
+        assertEquals(1, responses.size());
+        assertEquals("instructor1@course1.tmt", responses.get(0).giverEmail);
         
         ______TS("null params");
         
@@ -597,6 +646,56 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         assertTrue(frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, "non-existent courseId", "Section 1").isEmpty());
     }
 
+    @Test
+    public void testGetFeedbackResponsesForSessionInSectionWithinRange() throws Exception {
+
+        ______TS("more responses than the range: one response more than the range is returned");
+
+        String courseId = fras.get("response1ForQ1S1C1").courseId;
+        String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
+
+        // the extra response tells the caller that the responses are not complete
+        assertEquals(3, frDb.getFeedbackResponsesForSessionInSectionWithinRange(
+                                feedbackSessionName, courseId, "Section 1", 2).size());
+        assertEquals(3, frDb.getFeedbackResponsesForSessionFromSectionWithinRange(
+                                feedbackSessionName, courseId, "Section 1", 2).size());
+        assertEquals(3, frDb.getFeedbackResponsesForSessionToSectionWithinRange(
+                                feedbackSessionName, courseId, "Section 1", 2).size());
+
+        ______TS("range covering all responses: no more than the responses in the section are returned");
+
+        assertEquals(5, frDb.getFeedbackResponsesForSessionInSectionWithinRange(
+                                feedbackSessionName, courseId, "Section 1", 5).size());
+        assertEquals(5, frDb.getFeedbackResponsesForSessionInSectionWithinRange(
+                                feedbackSessionName, courseId, "Section 1", 10).size());
+
+        ______TS("default section");
+
+        assertEquals(1, frDb.getFeedbackResponsesForSessionInSectionWithinRange(
+                                feedbackSessionName, courseId, Const.DEFAULT_SECTION, 1).size());
+
+        ______TS("null params");
+
+        try {
+            frDb.getFeedbackResponsesForSessionInSectionWithinRange(null, courseId, "Section 1", 1);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+
+        try {
+            frDb.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName, courseId, null, 1);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+
+        ______TS("non-existent feedback session");
+
+        assertTrue(frDb.getFeedbackResponsesForSessionInSectionWithinRange(
+                            "non-existent feedback session", courseId, "Section 1", 1).isEmpty());
+    }
+
     @Test 
     public void testGetFeedbackResponsesForSessionFromSection() throws Exception {
         
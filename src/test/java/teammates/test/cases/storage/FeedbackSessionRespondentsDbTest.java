@@ -0,0 +1,101 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.storage.api.FeedbackSessionRespondentsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class FeedbackSessionRespondentsDbTest extends BaseComponentTestCase {
+
+    private static final FeedbackSessionRespondentsDb respondentsDb = new FeedbackSessionRespondentsDb();
+    private static final String SESSION_NAME = "fsTest1";
+    private static final String OTHER_SESSION_NAME = "fsTest2";
+    private static final String COURSE_ID = "testCourse";
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+        turnLoggingUp(FeedbackSessionRespondentsDb.class);
+    }
+
+    @Test
+    public void testRespondents() throws Exception {
+
+        ______TS("add respondents: adding the same respondent again is not counted twice");
+
+        respondentsDb.addRespondents(SESSION_NAME, COURSE_ID,
+                                     Arrays.asList("student1@email.tmt", "student2@email.tmt"), false);
+        respondentsDb.addRespondents(SESSION_NAME, COURSE_ID, Arrays.asList("student1@email.tmt"), false);
+        respondentsDb.addRespondents(SESSION_NAME, COURSE_ID, Arrays.asList("instructor1@email.tmt"), true);
+        respondentsDb.addRespondents(OTHER_SESSION_NAME, COURSE_ID, Arrays.asList("student1@email.tmt"), false);
+
+        assertEquals(3, respondentsDb.getNumOfRespondents(SESSION_NAME, COURSE_ID));
+        assertEquals(new HashSet<String>(Arrays.asList("student1@email.tmt", "student2@email.tmt")),
+                     respondentsDb.getRespondents(SESSION_NAME, COURSE_ID, false));
+        assertEquals(new HashSet<String>(Arrays.asList("instructor1@email.tmt")),
+                     respondentsDb.getRespondents(SESSION_NAME, COURSE_ID, true));
+
+        ______TS("membership: students and instructors are tracked separately");
+
+        assertTrue(respondentsDb.isRespondent(SESSION_NAME, COURSE_ID, "student1@email.tmt", false));
+        assertFalse(respondentsDb.isRespondent(SESSION_NAME, COURSE_ID, "student1@email.tmt", true));
+        assertFalse(respondentsDb.isRespondent(SESSION_NAME, COURSE_ID, "student3@email.tmt", false));
+
+        ______TS("update email: updated in all sessions of the course");
+
+        respondentsDb.updateRespondentEmail(COURSE_ID, "student1@email.tmt", "student1new@email.tmt", false);
+
+        assertFalse(respondentsDb.isRespondent(SESSION_NAME, COURSE_ID, "student1@email.tmt", false));
+        assertTrue(respondentsDb.isRespondent(SESSION_NAME, COURSE_ID, "student1new@email.tmt", false));
+        assertTrue(respondentsDb.isRespondent(OTHER_SESSION_NAME, COURSE_ID, "student1new@email.tmt", false));
+        assertEquals(3, respondentsDb.getNumOfRespondents(SESSION_NAME, COURSE_ID));
+
+        ______TS("number of respondents of many sessions: counted together");
+
+        assertEquals(Arrays.asList(3, 1, 0, 0),
+                     respondentsDb.getNumOfRespondents(Arrays.asList(getSession(SESSION_NAME, COURSE_ID),
+                                                                     getSession(OTHER_SESSION_NAME, COURSE_ID),
+                                                                     getSession("fsTest3", COURSE_ID),
+                                                                     getSession(SESSION_NAME, "otherCourse"))));
+
+        ______TS("delete respondent: from one session and from all sessions of the course");
+
+        respondentsDb.deleteRespondent(SESSION_NAME, COURSE_ID, "student2@email.tmt", false);
+        assertEquals(2, respondentsDb.getNumOfRespondents(SESSION_NAME, COURSE_ID));
+
+        respondentsDb.deleteRespondent(COURSE_ID, "student1new@email.tmt", false);
+        assertEquals(1, respondentsDb.getNumOfRespondents(SESSION_NAME, COURSE_ID));
+        assertEquals(0, respondentsDb.getNumOfRespondents(OTHER_SESSION_NAME, COURSE_ID));
+
+        ______TS("delete respondents of the course");
+
+        respondentsDb.addRespondents(OTHER_SESSION_NAME, COURSE_ID, Arrays.asList("student1@email.tmt"), false);
+        respondentsDb.deleteRespondentsForCourses(Arrays.asList(COURSE_ID));
+
+        assertEquals(0, respondentsDb.getNumOfRespondents(SESSION_NAME, COURSE_ID));
+        assertEquals(0, respondentsDb.getNumOfRespondents(OTHER_SESSION_NAME, COURSE_ID));
+    }
+
+    private FeedbackSessionAttributes getSession(String feedbackSessionName, String courseId) {
+        FeedbackSessionAttributes session = new FeedbackSessionAttributes();
+        session.feedbackSessionName = feedbackSessionName;
+        session.courseId = courseId;
+        return session;
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+    }
+
+}
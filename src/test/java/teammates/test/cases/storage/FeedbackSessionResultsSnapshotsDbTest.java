@@ -0,0 +1,109 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
+import teammates.common.datatransfer.FeedbackTextResponseDetails;
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class FeedbackSessionResultsSnapshotsDbTest extends BaseComponentTestCase {
+
+    private static final FeedbackSessionResultsSnapshotsDb snapshotsDb = new FeedbackSessionResultsSnapshotsDb();
+    private static final String SESSION_NAME = "fsTest1";
+    private static final String COURSE_ID = "testCourse";
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+        turnLoggingUp(FeedbackSessionResultsSnapshotsDb.class);
+    }
+
+    @Test
+    public void testSnapshotLifecycle() throws Exception {
+
+        ______TS("rebuild");
+
+        snapshotsDb.invalidateSnapshot(SESSION_NAME, COURSE_ID);
+        FeedbackSessionResultsSnapshotAttributes snapshot = snapshotsDb.getSnapshot(SESSION_NAME, COURSE_ID);
+        assertFalse(snapshot.isUpToDate());
+
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        responses.add(getResponse("giver1@email.tmt", "answer 1"));
+        FeedbackSessionResultsSnapshotAttributes rebuiltSnapshot =
+                new FeedbackSessionResultsSnapshotAttributes(SESSION_NAME, COURSE_ID, responses);
+
+        assertTrue(snapshotsDb.saveRebuiltSnapshot(rebuiltSnapshot, snapshot.updatedAt));
+        snapshot = snapshotsDb.getSnapshot(SESSION_NAME, COURSE_ID);
+        assertTrue(snapshot.isUpToDate());
+        assertEquals(1, snapshot.responses.size());
+        assertEquals("answer 1", snapshot.responses.get(0).getResponseDetails().getAnswerString());
+
+        ______TS("patch: add and update responses");
+
+        snapshotsDb.updateResponsesInSnapshot(SESSION_NAME, COURSE_ID,
+                Arrays.asList(getResponse("giver1@email.tmt", "updated answer 1"),
+                              getResponse("giver2@email.tmt", "answer 2")),
+                Collections.<String>emptyList());
+
+        snapshot = snapshotsDb.getSnapshot(SESSION_NAME, COURSE_ID);
+        assertEquals(2, snapshot.responses.size());
+        assertEquals("updated answer 1", snapshot.responses.get(0).getResponseDetails().getAnswerString());
+        assertEquals("answer 2", snapshot.responses.get(1).getResponseDetails().getAnswerString());
+
+        ______TS("patch: remove response");
+
+        snapshotsDb.updateResponsesInSnapshot(SESSION_NAME, COURSE_ID,
+                Collections.<FeedbackResponseAttributes>emptyList(),
+                Arrays.asList(getResponse("giver1@email.tmt", "").getId()));
+
+        snapshot = snapshotsDb.getSnapshot(SESSION_NAME, COURSE_ID);
+        assertEquals(1, snapshot.responses.size());
+        assertEquals("giver2@email.tmt", snapshot.responses.get(0).giverEmail);
+
+        ______TS("invalidate and delete");
+
+        snapshotsDb.invalidateSnapshotsForCourse(COURSE_ID);
+        assertFalse(snapshotsDb.getSnapshot(SESSION_NAME, COURSE_ID).isUpToDate());
+
+        snapshotsDb.deleteSnapshotsForCourses(Arrays.asList(COURSE_ID));
+        assertNull(snapshotsDb.getSnapshot(SESSION_NAME, COURSE_ID));
+    }
+
+    private FeedbackResponseAttributes getResponse(String giverEmail, String answer) {
+        FeedbackResponseAttributes fra = new FeedbackResponseAttributes();
+
+        fra.feedbackSessionName = SESSION_NAME;
+        fra.courseId = COURSE_ID;
+        fra.feedbackQuestionType = FeedbackQuestionType.TEXT;
+        fra.giverEmail = giverEmail;
+        fra.giverSection = "None";
+        fra.recipientEmail = "recipient@email.tmt";
+        fra.recipientSection = "None";
+        fra.feedbackQuestionId = "testFeedbackQuestionId";
+        fra.setResponseDetails(new FeedbackTextResponseDetails(answer));
+        fra.setId(fra.feedbackQuestionId + "%" + fra.giverEmail + "%" + fra.recipientEmail);
+
+        return fra;
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+        snapshotsDb.deleteSnapshotsForCourses(Arrays.asList(COURSE_ID));
+    }
+}
@@ -9,6 +9,8 @@ import static teammates.common.util.FieldValidator.FEEDBACK_SESSION_NAME;
 import static teammates.common.util.FieldValidator.START_TIME_FIELD_NAME;
 import static teammates.common.util.FieldValidator.TIME_FRAME_ERROR_MESSAGE;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -108,6 +110,7 @@ public class FeedbackSessionsDbTest extends BaseComponentTestCase {
 
         testGetFeedbackSessions();
         testGetFeedbackSessionsForCourse();
+        testGetFeedbackSessionsForCourses();
         testGetNonPrivateFeedbackSessions();
         testGetFeedbackSessionsWithUnsentOpenEmail();
         testGetFeedbackSessionsWithUnsentPublishedEmail();
@@ -185,6 +188,54 @@ public class FeedbackSessionsDbTest extends BaseComponentTestCase {
         assertTrue(fsDb.getFeedbackSessionsForCourse("idOfCourseNoEvals").isEmpty());    
     }
     
+    private void testGetFeedbackSessionsForCourses() throws Exception {
+        
+        ______TS("standard success case: sessions of all the courses");
+        
+        List<FeedbackSessionAttributes> sessions = fsDb.getFeedbackSessionsForCourses(
+                Arrays.asList("idOfTypicalCourse1", "idOfTypicalCourse2", "idOfCourseNoEvals"));
+        
+        assertEquals(8, sessions.size());
+        int sessionsInCourse1 = 0;
+        for (FeedbackSessionAttributes session : sessions) {
+            if (session.courseId.equals("idOfTypicalCourse1")) {
+                sessionsInCourse1++;
+            }
+        }
+        assertEquals(6, sessionsInCourse1);
+        
+        ______TS("more courses than the values allowed in one query");
+        
+        List<String> courseIds = new ArrayList<String>();
+        courseIds.add("idOfTypicalCourse1");
+        for (int i = 0; i < Const.SystemParams.MAX_NUM_OF_VALUES_FOR_IN_QUERY + 5; i++) {
+            FeedbackSessionAttributes fsa = getNewFeedbackSession();
+            fsa.courseId = "FSDbT.course" + i;
+            fsDb.createEntity(fsa);
+            courseIds.add(fsa.courseId);
+        }
+        
+        sessions = fsDb.getFeedbackSessionsForCourses(courseIds);
+        
+        assertEquals(6 + Const.SystemParams.MAX_NUM_OF_VALUES_FOR_IN_QUERY + 5, sessions.size());
+        
+        fsDb.deleteFeedbackSessionsForCourses(courseIds.subList(1, courseIds.size()));
+        assertEquals(6, fsDb.getFeedbackSessionsForCourses(courseIds).size());
+        
+        ______TS("no courses");
+        
+        assertTrue(fsDb.getFeedbackSessionsForCourses(new ArrayList<String>()).isEmpty());
+        
+        ______TS("null params");
+        
+        try {
+            fsDb.getFeedbackSessionsForCourses(null);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+    }
+    
     private void testGetNonPrivateFeedbackSessions() throws Exception {
         
         ______TS("standard success case"); 
@@ -312,6 +312,7 @@ public class InstructorsDbTest extends BaseComponentTestCase {
         
         ______TS("Success: update an instructor");
 
+        String originalEmail = instructorToEdit.email;
         instructorToEdit.name = "New Name";
         instructorToEdit.email = "InstrDbT.new-email@email.tmt";
         instructorsDb.updateInstructorByGoogleId(instructorToEdit);
@@ -320,6 +321,11 @@ public class InstructorsDbTest extends BaseComponentTestCase {
         assertEquals(instructorToEdit.name, instructorUpdated.name);
         assertEquals(instructorToEdit.email, instructorUpdated.email);
         
+        // the instructor is still stored under the key of its original email
+        instructorUpdated = instructorsDb.getInstructorForEmail(instructorToEdit.courseId, instructorToEdit.email);
+        assertEquals(instructorToEdit.googleId, instructorUpdated.googleId);
+        assertNull(instructorsDb.getInstructorForEmail(instructorToEdit.courseId, originalEmail));
+        
         ______TS("Failure: invalid parameters");
         
         instructorToEdit.name = "";
@@ -0,0 +1,145 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import javax.jdo.PersistenceManager;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.common.util.ThreadHelper;
+import teammates.storage.api.CourseStatisticsDb;
+import teammates.storage.api.InvalidatableAggregatesDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.CourseStatistics;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.datastore.Text;
+
+public class InvalidatableAggregatesDbTest extends BaseComponentTestCase {
+
+    private static final InvalidatableAggregatesDb<CourseStatistics> aggregates =
+            new InvalidatableAggregatesDb<CourseStatistics>(CourseStatistics.class);
+    private static final String COURSE_ID = "testCourse";
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+        turnLoggingUp(InvalidatableAggregatesDb.class);
+    }
+
+    @Test
+    public void testAggregateLifecycle() throws Exception {
+
+        ______TS("no aggregate: updating creates an invalidated aggregate");
+
+        assertNull(getAggregate());
+        aggregates.update(COURSE_ID, createInvalidatedAggregate(), setCounts("updated"));
+
+        CourseStatistics aggregate = getAggregate();
+        assertFalse(aggregate.isUpToDate());
+        Date invalidatedAt = aggregate.getUpdatedAt();
+
+        ______TS("rebuild: not saved if the aggregate was invalidated again");
+
+        assertFalse(aggregates.saveRebuilt(COURSE_ID, new Date(invalidatedAt.getTime() - 1), setCounts("rebuilt")));
+        assertFalse(getAggregate().isUpToDate());
+
+        ______TS("rebuild: not saved if the rebuild cannot be applied");
+
+        assertFalse(aggregates.saveRebuilt(COURSE_ID, invalidatedAt, failToApply()));
+        assertFalse(getAggregate().isUpToDate());
+
+        ______TS("rebuild: success");
+
+        assertTrue(aggregates.saveRebuilt(COURSE_ID, invalidatedAt, setCounts("rebuilt")));
+        aggregate = getAggregate();
+        assertEquals("rebuilt", aggregate.getCounts().getValue());
+
+        ______TS("rebuild: not saved over an aggregate that is up to date");
+
+        assertFalse(aggregates.saveRebuilt(COURSE_ID, aggregate.getUpdatedAt(), setCounts("rebuilt again")));
+        assertEquals("rebuilt", getAggregate().getCounts().getValue());
+
+        ______TS("update: applied to an aggregate that is up to date");
+
+        aggregates.update(COURSE_ID, createInvalidatedAggregate(), setCounts("updated"));
+        assertEquals("updated", getAggregate().getCounts().getValue());
+
+        ______TS("update: an update that cannot be applied invalidates the aggregate");
+
+        aggregates.update(COURSE_ID, createInvalidatedAggregate(), failToApply());
+        aggregate = getAggregate();
+        assertFalse(aggregate.isUpToDate());
+
+        ______TS("update: an invalidated aggregate is invalidated again, so that earlier rebuilds are not saved");
+
+        // the times of the two invalidations must differ
+        ThreadHelper.waitFor(1);
+        aggregates.update(COURSE_ID, createInvalidatedAggregate(), setCounts("updated"));
+        assertFalse(getAggregate().isUpToDate());
+        assertFalse(aggregates.saveRebuilt(COURSE_ID, aggregate.getUpdatedAt(), setCounts("rebuilt")));
+
+        ______TS("invalidate");
+
+        assertTrue(aggregates.saveRebuilt(COURSE_ID, getAggregate().getUpdatedAt(), setCounts("rebuilt")));
+        aggregates.invalidate(createInvalidatedAggregate());
+        assertFalse(getAggregate().isUpToDate());
+
+        ______TS("rebuilds are only saved long enough after the invalidation");
+
+        assertFalse(InvalidatableAggregatesDb.isSafeToSaveRebuild(new Date()));
+        assertTrue(InvalidatableAggregatesDb.isSafeToSaveRebuild(
+                new Date(new Date().getTime() - Const.SystemParams.AGGREGATE_REBUILD_DELAY_IN_MILLIS - 1)));
+    }
+
+    private CourseStatistics getAggregate() {
+        PersistenceManager pm = Datastore.getIsolatedPersistenceManager();
+        try {
+            CourseStatistics aggregate = aggregates.getAggregate(pm, COURSE_ID);
+            // a copy, as the entity is not read once its persistence manager is closed
+            return aggregate == null ? null
+                                     : new CourseStatistics(COURSE_ID, aggregate.getCounts(), aggregate.getUpdatedAt());
+        } finally {
+            pm.close();
+        }
+    }
+
+    private CourseStatistics createInvalidatedAggregate() {
+        return new CourseStatistics(COURSE_ID, null, new Date());
+    }
+
+    private InvalidatableAggregatesDb.Update<CourseStatistics> setCounts(final String counts) {
+        return new InvalidatableAggregatesDb.Update<CourseStatistics>() {
+            @Override
+            public boolean apply(CourseStatistics aggregate) {
+                aggregate.setCounts(new Text(counts));
+                return true;
+            }
+        };
+    }
+
+    private InvalidatableAggregatesDb.Update<CourseStatistics> failToApply() {
+        return new InvalidatableAggregatesDb.Update<CourseStatistics>() {
+            @Override
+            public boolean apply(CourseStatistics aggregate) {
+                aggregate.setCounts(new Text("partially applied"));
+                return false;
+            }
+        };
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+        new CourseStatisticsDb().deleteCourseStatisticsForCourses(Arrays.asList(COURSE_ID));
+    }
+}
@@ -0,0 +1,148 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.storage.search.SearchDocument;
+import teammates.storage.search.SearchManager;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.QueueFactory;
+
+public class SearchManagerTest extends BaseComponentTestCase {
+
+    private static final String INDEX_NAME = "searchmanagertest";
+
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testPutDocuments() {
+        List<Document> documents = new ArrayList<Document>();
+        documents.add(createDocument("put1"));
+        documents.add(createDocument("put2"));
+
+        assertTrue(SearchManager.putDocuments(INDEX_NAME, documents));
+
+        assertNotNull(SearchManager.getDocument(INDEX_NAME, "put1"));
+        assertNotNull(SearchManager.getDocument(INDEX_NAME, "put2"));
+    }
+
+    @Test
+    public void testBufferedDocuments() {
+
+        ______TS("buffered documents are not put immediately");
+
+        SearchManager.startBufferingDocuments();
+        SearchManager.putDocument(INDEX_NAME, new DocumentStub("buffered1"));
+
+        assertNull(SearchManager.getDocument(INDEX_NAME, "buffered1"));
+
+        ______TS("deletes are buffered with the puts");
+
+        List<Document> documents = new ArrayList<Document>();
+        documents.add(createDocument("buffered2"));
+        assertTrue(SearchManager.putDocuments(INDEX_NAME, documents));
+
+        SearchManager.deleteDocuments(INDEX_NAME, new String[] { "buffered2" });
+
+        assertNotNull(SearchManager.getDocument(INDEX_NAME, "buffered2"));
+
+        ______TS("a task is added to rebuild the buffered documents");
+
+        Queue queue = QueueFactory.getQueue(Const.SystemParams.SEARCH_DOCUMENT_TASK_QUEUE);
+        int numOfTasks = queue.fetchStatistics().getNumTasks();
+
+        SearchManager.flushBufferedDocuments();
+
+        assertEquals(numOfTasks + 1, queue.fetchStatistics().getNumTasks());
+
+        ______TS("documents are put and deleted immediately when not buffering");
+
+        SearchManager.putDocument(INDEX_NAME, new DocumentStub("notBuffered"));
+
+        assertNotNull(SearchManager.getDocument(INDEX_NAME, "notBuffered"));
+
+        SearchManager.deleteDocument(INDEX_NAME, "notBuffered", "notBuffered");
+
+        assertNull(SearchManager.getDocument(INDEX_NAME, "notBuffered"));
+    }
+
+    @Test
+    public void testSerializeDocumentChanges() throws Exception {
+
+        ______TS("changes are read back as written");
+
+        Map<String, String> entityIds = new LinkedHashMap<String, String>();
+        entityIds.put("document1", "entity1");
+        entityIds.put("document2", "entity2");
+
+        assertEquals(entityIds, SearchManager.deserializeDocumentChanges(
+                                        SearchManager.serializeDocumentChanges(entityIds)));
+
+        ______TS("incomplete changes are not read");
+
+        byte[] payload = SearchManager.serializeDocumentChanges(entityIds);
+
+        try {
+            SearchManager.deserializeDocumentChanges(Arrays.copyOf(payload, payload.length - 1));
+            signalFailureToDetectException("Should not read incomplete changes");
+        } catch (IOException e) {
+            ignoreExpectedException();
+        }
+    }
+
+    private Document createDocument(String id) {
+        return Document.newBuilder()
+                       .setId(id)
+                       .addField(Field.newBuilder().setName("text").setText("Text of " + id))
+                       .build();
+    }
+
+    private class DocumentStub extends SearchDocument {
+        private String id;
+
+        public DocumentStub(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String getDocumentId() {
+            return id;
+        }
+
+        @Override
+        protected void prepareData() {
+        }
+
+        @Override
+        protected Document toDocument() {
+            return createDocument(id);
+        }
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        printTestClassFooter();
+    }
+
+}
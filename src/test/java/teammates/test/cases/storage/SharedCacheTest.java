@@ -0,0 +1,103 @@
+package teammates.test.cases.storage;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.storage.cache.InMemoryCacheService;
+import teammates.storage.cache.SharedCache;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.gson.reflect.TypeToken;
+
+public class SharedCacheTest extends BaseComponentTestCase {
+
+    private static final Type STUDENT_LIST_TYPE = new TypeToken<List<StudentAttributes>>(){}.getType();
+
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testGetEntryAndInvalidate() {
+        SharedCache.setService(new InMemoryCacheService(), 0);
+
+        ______TS("miss, then hit with a copy of the value");
+
+        SharedCache.Entry<List<StudentAttributes>> entry =
+                SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE);
+        assertFalse(entry.hasValue());
+
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        students.add(new StudentAttributes("Section 1", "Team 1", "Student 1", "student1@email.tmt", "", "course1"));
+        entry.setValue(students);
+        students.get(0).name = "modified after caching";
+
+        entry = SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE);
+        assertTrue(entry.hasValue());
+        assertEquals(1, entry.getValue().size());
+        assertEquals("Student 1", entry.getValue().get(0).name);
+        assertEquals("Team 1", entry.getValue().get(0).team);
+
+        ______TS("entries of other scopes are not affected by invalidation");
+
+        SharedCache.getEntry("students:course2", "all", STUDENT_LIST_TYPE)
+                   .setValue(new ArrayList<StudentAttributes>());
+        SharedCache.invalidate("students:course1");
+
+        assertFalse(SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE).hasValue());
+        assertTrue(SharedCache.getEntry("students:course2", "all", STUDENT_LIST_TYPE).hasValue());
+
+        ______TS("value loaded before an invalidation is not visible after it");
+
+        entry = SharedCache.getEntry("students:course2", "all", STUDENT_LIST_TYPE);
+        SharedCache.invalidate("students:course2");
+        entry.setValue(students);
+
+        assertFalse(SharedCache.getEntry("students:course2", "all", STUDENT_LIST_TYPE).hasValue());
+
+        ______TS("values are not stored under a version that is too recent");
+
+        SharedCache.setService(new InMemoryCacheService());
+
+        entry = SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE);
+        assertFalse(entry.hasValue());
+        entry.setValue(students);
+        assertTrue(entry.hasValue());
+
+        assertFalse(SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE).hasValue());
+
+        ______TS("values are not stored for data that was written too recently");
+
+        InMemoryCacheService service = new InMemoryCacheService();
+        long minuteAgo = System.currentTimeMillis() - 60 * 1000;
+        service.putIfAbsent("version:students:course1", minuteAgo);
+        SharedCache.setService(service, 10 * 1000);
+
+        SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE, new Date())
+                   .setValue(students);
+        assertFalse(SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE).hasValue());
+
+        SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE, new Date(minuteAgo))
+                   .setValue(students);
+        assertTrue(SharedCache.getEntry("students:course1", "all", STUDENT_LIST_TYPE).hasValue());
+    }
+
+    @AfterClass
+    public static void classTearDown() throws Exception {
+        gaeSimulation.resetSharedCache();
+        printTestClassFooter();
+    }
+
+}
@@ -7,6 +7,9 @@ import static org.testng.AssertJUnit.assertTrue;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -19,6 +22,7 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.storage.api.StudentsDb;
+import teammates.storage.datastore.Datastore;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -264,6 +268,99 @@ public class StudentsDbTest extends BaseComponentTestCase {
         return s;
     }
     
+    @Test
+    public void testSaveStudentsForCourse() throws Exception {
+        StudentAttributes existingStudent = createNewStudent("save-existing@email.com");
+        
+        ______TS("existing students are updated and new students are created");
+        
+        StudentAttributes updatedStudent = new StudentAttributes("new section", "new team", "updated name",
+                                                                 existingStudent.email, "new comments",
+                                                                 existingStudent.course);
+        StudentAttributes newStudent = new StudentAttributes("new section", "new team", "new name",
+                                                             "save-new@email.com", "", existingStudent.course);
+        
+        List<StudentAttributes> savedStudents = studentsDb.saveStudentsForCourse(
+                existingStudent.course, Arrays.asList(updatedStudent, newStudent), false);
+        
+        assertEquals(2, savedStudents.size());
+        assertNotNull(savedStudents.get(1).key);
+        
+        StudentAttributes retrieved = studentsDb.getStudentForEmail(existingStudent.course, existingStudent.email);
+        assertEquals("updated name", retrieved.name);
+        assertEquals("new team", retrieved.team);
+        assertEquals("new section", retrieved.section);
+        assertEquals("new comments", retrieved.comments);
+        assertEquals("new name", studentsDb.getStudentForEmail(newStudent.course, newStudent.email).name);
+        
+        ______TS("nothing is saved if any student is invalid");
+        
+        StudentAttributes invalidStudent = new StudentAttributes("new section", "new team", "invalid student",
+                                                                 "invalid email", "", existingStudent.course);
+        StudentAttributes validStudent = new StudentAttributes("new section", "new team", "valid student",
+                                                               "save-valid@email.com", "", existingStudent.course);
+        try {
+            studentsDb.saveStudentsForCourse(existingStudent.course,
+                                             Arrays.asList(validStudent, invalidStudent), false);
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            AssertHelper.assertContains("invalid email", e.getMessage());
+        }
+        assertNull(studentsDb.getStudentForEmail(validStudent.course, validStudent.email));
+        
+        studentsDb.deleteStudentWithoutDocument(existingStudent.course, existingStudent.email);
+        studentsDb.deleteStudentWithoutDocument(newStudent.course, newStudent.email);
+    }
+    
+    @Test
+    public void testRequestCache() throws Exception {
+        Datastore.startRequestCache();
+        try {
+            ______TS("cached lookups reflect created students");
+
+            StudentAttributes s = createNewStudent("cached@email.com");
+            int numberOfStudents = studentsDb.getStudentsForCourse(s.course).size();
+            assertNotNull(studentsDb.getStudentForEmail(s.course, s.email));
+
+            createNewStudent("cached-new@email.com");
+            assertEquals(numberOfStudents + 1, studentsDb.getStudentsForCourse(s.course).size());
+
+            ______TS("cached lookups reflect updated students");
+
+            studentsDb.updateStudentWithoutSearchability(s.course, s.email, "new name", s.team, s.section,
+                                                         "cached-updated@email.com", s.googleId, s.comments);
+            assertNull(studentsDb.getStudentForEmail(s.course, s.email));
+            assertEquals("new name",
+                         studentsDb.getStudentForEmail(s.course, "cached-updated@email.com").name);
+
+            ______TS("cached lookups reflect deleted students");
+
+            studentsDb.deleteStudentWithoutDocument(s.course, "cached-updated@email.com");
+            studentsDb.deleteStudentWithoutDocument(s.course, "cached-new@email.com");
+            assertNull(studentsDb.getStudentForEmail(s.course, "cached-updated@email.com"));
+            assertEquals(numberOfStudents - 1, studentsDb.getStudentsForCourse(s.course).size());
+        } finally {
+            Datastore.finishRequestCache();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testGetSearchDocument() throws Exception {
+        StudentAttributes s = createNewStudent("search-document@email.com");
+        String registrationKey = studentsDb.getStudentForEmail(s.course, s.email).key;
+
+        ______TS("the document is built from the current state of the student");
+
+        assertEquals(registrationKey, studentsDb.getSearchDocument(registrationKey).getDocumentId());
+
+        ______TS("there is no document for a deleted student");
+
+        studentsDb.deleteStudentWithoutDocument(s.course, s.email);
+
+        assertNull(studentsDb.getSearchDocument(registrationKey));
+    }
+
     private StudentAttributes createNewStudent(String email) throws InvalidParametersException {
         StudentAttributes s = new StudentAttributes();
         s.name = "valid student 2";
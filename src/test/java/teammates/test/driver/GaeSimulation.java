@@ -11,6 +11,8 @@ import javax.servlet.http.HttpServletRequest;
 
 import teammates.common.util.Const;
 import teammates.logic.api.Logic;
+import teammates.storage.cache.InMemoryCacheService;
+import teammates.storage.cache.SharedCache;
 import teammates.storage.datastore.Datastore;
 import teammates.ui.controller.Action;
 import teammates.ui.controller.ActionFactory;
@@ -64,6 +66,7 @@ public class GaeSimulation {
         helper.setUp();
         
         Datastore.initialize();
+        resetSharedCache();
         
         sc = new ServletRunner().newClient();
     }
@@ -86,10 +89,19 @@ public class GaeSimulation {
         helper.setUp();
         
         Datastore.initialize();
+        resetSharedCache();
         
         sc = new ServletRunner().newClient();
     }
     
+    /**
+     * Replaces the shared cache with an empty one, which stores values without a consistency delay,
+     * as the simulated datastore is strongly consistent. Tests thus read through the cache as
+     * requests would once the delay has passed.
+     */
+    public void resetSharedCache() {
+        SharedCache.setService(new InMemoryCacheService(), 0);
+    }
     
     /**Logs in the user to the GAE simulation environment without admin rights.
      */